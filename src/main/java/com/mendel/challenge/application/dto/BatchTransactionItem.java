@@ -0,0 +1,19 @@
+package com.mendel.challenge.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+
+public record BatchTransactionItem(
+        @NotNull(message = "Id is required")
+        Long id,
+
+        @NotNull(message = "Type is required")
+        String type,
+
+        @NotNull(message = "Amount is required")
+        @Positive(message = "Amount must be positive")
+        BigDecimal amount,
+
+        Long parentId
+) {}
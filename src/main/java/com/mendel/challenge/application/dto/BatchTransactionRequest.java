@@ -0,0 +1,14 @@
+package com.mendel.challenge.application.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+// Los ítems se validan uno por uno en el controller: un ítem inválido no rechaza el lote
+public record BatchTransactionRequest(
+        @NotEmpty(message = "Transactions are required")
+        @Size(max = BatchTransactionRequest.MAX_ITEMS, message = "A batch accepts at most 10000 transactions")
+        List<BatchTransactionItem> transactions
+) {
+    public static final int MAX_ITEMS = 10_000;
+}
@@ -0,0 +1,20 @@
+package com.mendel.challenge.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public record BatchTransactionResponse(
+        int received,
+        int created,
+        int pending,
+        int rejected,
+        List<ItemResult> results
+) {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ItemResult(Long id, String status, String message) {}
+
+    public static BatchTransactionResponse of(List<ItemResult> results, int created, int pending) {
+        return new BatchTransactionResponse(results.size(), created, pending, results.size() - created - pending, results);
+    }
+}
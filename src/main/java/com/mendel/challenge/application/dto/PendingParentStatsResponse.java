@@ -0,0 +1,10 @@
+package com.mendel.challenge.application.dto;
+
+public record PendingParentStatsResponse(
+        int pending,
+        int maxSize,
+        long parked,
+        long attached,
+        long expired,
+        long rejected
+) {}
@@ -0,0 +1,61 @@
+package com.mendel.challenge.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record StreamIngestProgress(
+        long received,
+        long created,
+        long pending,
+        long rejected,
+        List<BatchTransactionResponse.ItemResult> rejections,
+        boolean done,
+        String error
+) {
+    public static StreamIngestProgress of(Counter counter, List<BatchTransactionResponse.ItemResult> rejections) {
+        return new StreamIngestProgress(counter.received, counter.created, counter.pending, counter.rejected(),
+                rejections, false, null);
+    }
+
+    public StreamIngestProgress completed() {
+        return new StreamIngestProgress(received, created, pending, rejected, rejections, true, null);
+    }
+
+    public StreamIngestProgress failed(String error) {
+        return new StreamIngestProgress(received, created, pending, rejected, rejections, true, error);
+    }
+
+    // Totales acumulados de la ingesta; solo lo usa el hilo del request
+    public static final class Counter {
+        private long received;
+        private long created;
+        private long pending;
+
+        public void record(boolean wasCreated, boolean isPending) {
+            received++;
+            if (wasCreated) {
+                created++;
+            } else if (isPending) {
+                pending++;
+            }
+        }
+
+        public long received() {
+            return received;
+        }
+
+        public long created() {
+            return created;
+        }
+
+        public long pending() {
+            return pending;
+        }
+
+        public long rejected() {
+            return received - created - pending;
+        }
+    }
+}
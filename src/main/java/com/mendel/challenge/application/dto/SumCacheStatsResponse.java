@@ -0,0 +1,10 @@
+package com.mendel.challenge.application.dto;
+
+public record SumCacheStatsResponse(
+        long hits,
+        long misses,
+        long evictions,
+        long invalidations,
+        int size,
+        int maxSize
+) {}
@@ -0,0 +1,98 @@
+package com.mendel.challenge.application.rest;
+
+import com.mendel.challenge.application.dto.SumCacheStatsResponse;
+import com.mendel.challenge.application.dto.SumResponse;
+import com.mendel.challenge.application.dto.TransactionRequest;
+import com.mendel.challenge.application.dto.TransactionResponse;
+import com.mendel.challenge.application.dto.TypeTransactionsResponse;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.service.ReactiveTransactionService;
+import com.mendel.challenge.domain.service.SubtreeSumCache;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mismas rutas y contratos que {@link TransactionController}, sobre WebFlux.
+ */
+@RestController
+@RequestMapping("/api/v1/transactionservice")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveTransactionController {
+
+    private final ReactiveTransactionService transactionService;
+
+    public ReactiveTransactionController(ReactiveTransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    @PutMapping("/transaction/{transaction_id}")
+    public Mono<ResponseEntity<TransactionResponse>> createTransaction(
+            @PathVariable("transaction_id") Long transactionId,
+            @Valid @RequestBody TransactionRequest request) {
+
+        log.info("Creating transaction with id: {}, type: {}, amount: {}, parentId: {}",
+                transactionId, request.type(), request.amount(), request.parentId());
+
+        return transactionService.create(transactionId, request.type(), request.amount(), request.parentId())
+                .map(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(toResponse(transaction)));
+    }
+
+    @GetMapping("/sum/{transaction_id}")
+    public Mono<ResponseEntity<SumResponse>> getTransactionSum(
+            @PathVariable("transaction_id") Long transactionId) {
+
+        log.info("Calculating sum for transaction id: {}", transactionId);
+
+        return transactionService.calculateSum(transactionId)
+                .map(sum -> ResponseEntity.ok(new SumResponse(sum)));
+    }
+
+    @GetMapping("/sum-cache/stats")
+    public Mono<ResponseEntity<SumCacheStatsResponse>> getSumCacheStats() {
+        return Mono.fromSupplier(() -> {
+            SubtreeSumCache.Stats stats = transactionService.getSumCacheStats();
+            return ResponseEntity.ok(new SumCacheStatsResponse(
+                    stats.hits(),
+                    stats.misses(),
+                    stats.evictions(),
+                    stats.invalidations(),
+                    stats.size(),
+                    stats.maxSize()
+            ));
+        });
+    }
+
+    @GetMapping("/types/{type}")
+    public Mono<ResponseEntity<TypeTransactionsResponse>> getTransactionsByType(
+            @PathVariable String type) {
+
+        log.info("Fetching transactions by type: {}", type);
+
+        return transactionService.getByType(type)
+                .map(Transaction::getId)
+                .collectList()
+                .map(transactionIds -> ResponseEntity.ok(
+                        TypeTransactionsResponse.of(type, transactionIds, "MANAGED_STORAGE")));
+    }
+
+    private TransactionResponse toResponse(Transaction transaction) {
+        return new TransactionResponse(
+                transaction.getId(),
+                transaction.getType(),
+                transaction.getAmount(),
+                transaction.getParentId(),
+                transaction.getCreatedAt()
+        );
+    }
+}
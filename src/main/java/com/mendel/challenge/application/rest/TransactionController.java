@@ -1,34 +1,73 @@
 package com.mendel.challenge.application.rest;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mendel.challenge.application.dto.BatchTransactionItem;
+import com.mendel.challenge.application.dto.BatchTransactionRequest;
+import com.mendel.challenge.application.dto.BatchTransactionResponse;
+import com.mendel.challenge.application.dto.PendingParentStatsResponse;
+import com.mendel.challenge.application.dto.StreamIngestProgress;
+import com.mendel.challenge.application.dto.SumCacheStatsResponse;
 import com.mendel.challenge.application.dto.SumResponse;
 import com.mendel.challenge.application.dto.TransactionRequest;
 import com.mendel.challenge.application.dto.TransactionResponse;
 import com.mendel.challenge.application.dto.TypeTransactionsResponse;
+import com.mendel.challenge.domain.model.BatchItemResult;
+import com.mendel.challenge.domain.model.BatchItemStatus;
+import com.mendel.challenge.domain.model.CreateResult;
 import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.service.PendingParentBuffer;
+import com.mendel.challenge.domain.service.SubtreeSumCache;
 import com.mendel.challenge.domain.service.TransactionService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/transactionservice")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 public class TransactionController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     private final TransactionService transactionService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int streamChunkSize;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 @Value("${ingest.stream.chunk-size:1000}") int streamChunkSize) {
         this.transactionService = transactionService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.streamChunkSize = Math.max(1, streamChunkSize);
     }
 
     @PutMapping("/transaction/{transaction_id}")
@@ -40,15 +79,21 @@ public class TransactionController {
                 transactionId, request.type(), request.amount(), request.parentId());
 
         try {
-            Transaction transaction = transactionService.create(
+            CreateResult result = transactionService.create(
                     transactionId,
                     request.type(),
                     request.amount(),
                     request.parentId()
             );
 
+            // En la ingesta fuera de orden queda aceptada pero sin guardar hasta que llegue el padre
+            if (result.isPending()) {
+                log.info("Transaction {} accepted, waiting for parent: {}", transactionId, request.parentId());
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(toResponse(result.transaction()));
+            }
+
             log.info("Transaction created successfully with id: {}", transactionId);
-            return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(transaction));
+            return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(result.transaction()));
 
         } catch (Exception e) {
             log.error("Error creating transaction with id: {}. Error: {}", transactionId, e.getMessage(), e);
@@ -56,6 +101,79 @@ public class TransactionController {
         }
     }
 
+    @PostMapping("/transactions/batch")
+    public ResponseEntity<BatchTransactionResponse> createTransactions(
+            @Valid @RequestBody BatchTransactionRequest request) {
+
+        List<BatchTransactionItem> items = request.transactions();
+        log.info("Creating batch of {} transactions", items.size());
+
+        try {
+            List<BatchItemResult> results = processItems(items);
+
+            BatchTransactionResponse response = toResponse(results);
+            log.info("Batch processed - received: {}, created: {}, pending: {}, rejected: {}",
+                    response.received(), response.created(), response.pending(), response.rejected());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("Error creating batch of {} transactions. Error: {}", items.size(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Alta de transacciones en NDJSON (una por línea) sin cargar el cuerpo completo:
+     * se parsea de a una y se confirma cada {@code ingest.stream.chunk-size}. El siguiente
+     * bloque se lee recién cuando el anterior está escrito, así que un cliente más rápido
+     * que el repositorio queda frenado por el control de flujo de TCP.
+     * La respuesta es también NDJSON: una línea de progreso acumulado por bloque, con los
+     * rechazos de ese bloque, y una línea final con {@code done=true}.
+     */
+    @PostMapping(value = "/transactions/stream", consumes = NDJSON_VALUE, produces = NDJSON_VALUE)
+    public void streamTransactions(InputStream body, HttpServletResponse response) throws IOException {
+        log.info("Starting streaming ingest - chunk size: {}", streamChunkSize);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer out = response.getWriter();
+
+        StreamIngestProgress.Counter counter = new StreamIngestProgress.Counter();
+        List<BatchTransactionItem> chunk = new ArrayList<>(streamChunkSize);
+
+        try (MappingIterator<BatchTransactionItem> items =
+                     objectMapper.readerFor(BatchTransactionItem.class).readValues(body)) {
+            while (items.hasNextValue()) {
+                chunk.add(items.nextValue());
+                if (chunk.size() == streamChunkSize) {
+                    writeProgress(out, commitChunk(chunk, counter));
+                    chunk.clear();
+                }
+            }
+            writeProgress(out, commitChunk(chunk, counter).completed());
+
+        } catch (JsonProcessingException e) {
+            // Lo ya parseado se confirma; la línea mal formada corta la ingesta
+            long line = e.getLocation() != null ? e.getLocation().getLineNr() : -1;
+            log.warn("Streaming ingest stopped at malformed line {}. Error: {}", line, e.getOriginalMessage());
+            writeProgress(out, commitChunk(chunk, counter)
+                    .failed("Malformed JSON at line " + line + ": " + e.getOriginalMessage()));
+
+        } catch (RuntimeException e) {
+            // El estado ya es 200: el fallo del repositorio se informa en la última línea.
+            // Los totales cubren los bloques confirmados; el bloque que falló puede haber
+            // quedado escrito en parte
+            log.error("Streaming ingest stopped after {} transactions. Error: {}",
+                    counter.received(), e.getMessage(), e);
+            writeProgress(out, StreamIngestProgress.of(counter, List.of())
+                    .failed("Ingest stopped: transactions could not be stored"));
+        }
+
+        log.info("Streaming ingest finished - received: {}, created: {}, pending: {}, rejected: {}",
+                counter.received(), counter.created(), counter.pending(), counter.rejected());
+    }
+
     @GetMapping("/sum/{transaction_id}")
     public ResponseEntity<SumResponse> getTransactionSum(
             @PathVariable("transaction_id") Long transactionId) {
@@ -73,6 +191,40 @@ public class TransactionController {
         }
     }
 
+    @GetMapping("/sum-cache/stats")
+    public ResponseEntity<SumCacheStatsResponse> getSumCacheStats() {
+        SubtreeSumCache.Stats stats = transactionService.getSumCacheStats();
+
+        log.debug("Sum cache stats - hits: {}, misses: {}, evictions: {}, size: {}",
+                stats.hits(), stats.misses(), stats.evictions(), stats.size());
+
+        return ResponseEntity.ok(new SumCacheStatsResponse(
+                stats.hits(),
+                stats.misses(),
+                stats.evictions(),
+                stats.invalidations(),
+                stats.size(),
+                stats.maxSize()
+        ));
+    }
+
+    @GetMapping("/pending-parents/stats")
+    public ResponseEntity<PendingParentStatsResponse> getPendingParentStats() {
+        PendingParentBuffer.Stats stats = transactionService.getPendingParentStats();
+
+        log.debug("Pending-parent buffer stats - pending: {}, parked: {}, attached: {}, expired: {}, rejected: {}",
+                stats.pending(), stats.parked(), stats.attached(), stats.expired(), stats.rejected());
+
+        return ResponseEntity.ok(new PendingParentStatsResponse(
+                stats.pending(),
+                stats.maxSize(),
+                stats.parked(),
+                stats.attached(),
+                stats.expired(),
+                stats.rejected()
+        ));
+    }
+
     @GetMapping("/types/{type}")
     public ResponseEntity<TypeTransactionsResponse> getTransactionsByType(
             @PathVariable String type) {
@@ -101,6 +253,85 @@ public class TransactionController {
         }
     }
 
+    // Validación ítem por ítem: los inválidos no llegan al service y conservan su posición
+    private List<BatchItemResult> processItems(List<BatchTransactionItem> items) {
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<Transaction> accepted = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            BatchTransactionItem item = items.get(i);
+            String violations = validationErrors(item);
+            if (violations != null) {
+                results[i] = BatchItemResult.rejected(item != null ? item.id() : null,
+                        BatchItemStatus.INVALID, violations);
+            } else {
+                positions.add(i);
+                accepted.add(toDomain(item));
+            }
+        }
+
+        List<BatchItemResult> written = accepted.isEmpty() ? List.of() : transactionService.createAll(accepted);
+        for (int k = 0; k < positions.size(); k++) {
+            results[positions.get(k)] = written.get(k);
+        }
+        return Arrays.asList(results);
+    }
+
+    private StreamIngestProgress commitChunk(List<BatchTransactionItem> chunk, StreamIngestProgress.Counter counter) {
+        List<BatchTransactionResponse.ItemResult> rejections = new ArrayList<>();
+        for (BatchItemResult result : processItems(chunk)) {
+            counter.record(result.isCreated(), result.isPending());
+            if (!result.isCreated() && !result.isPending()) {
+                rejections.add(toItemResult(result));
+            }
+        }
+        return StreamIngestProgress.of(counter, rejections);
+    }
+
+    private void writeProgress(Writer out, StreamIngestProgress progress) throws IOException {
+        out.write(objectMapper.writeValueAsString(progress));
+        out.write('\n');
+        // El cliente ve el resumen parcial apenas se confirma cada bloque
+        out.flush();
+    }
+
+    private String validationErrors(BatchTransactionItem item) {
+        if (item == null) {
+            return "Transaction is required";
+        }
+        var violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private Transaction toDomain(BatchTransactionItem item) {
+        return Transaction.builder()
+                .id(item.id())
+                .type(item.type())
+                .amount(item.amount())
+                .parentId(item.parentId())
+                .build();
+    }
+
+    private BatchTransactionResponse toResponse(List<BatchItemResult> results) {
+        List<BatchTransactionResponse.ItemResult> items = results.stream()
+                .map(this::toItemResult)
+                .toList();
+        int created = (int) results.stream().filter(BatchItemResult::isCreated).count();
+        int pending = (int) results.stream().filter(BatchItemResult::isPending).count();
+        return BatchTransactionResponse.of(items, created, pending);
+    }
+
+    private BatchTransactionResponse.ItemResult toItemResult(BatchItemResult result) {
+        return new BatchTransactionResponse.ItemResult(result.id(), result.status().name(), result.message());
+    }
+
     private TransactionResponse toResponse(Transaction transaction) {
         return new TransactionResponse(
                 transaction.getId(),
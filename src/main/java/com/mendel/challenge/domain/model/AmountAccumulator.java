@@ -0,0 +1,123 @@
+package com.mendel.challenge.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Acumulador mutable de montos. Suma en {@code long} escalado mientras puede y
+ * pasa a {@link BigDecimal} ante overflow o montos no representables.
+ * El resultado conserva la escala que hubiera dado {@code BigDecimal.add}.
+ * No es thread-safe.
+ */
+public final class AmountAccumulator {
+
+    private final int scale;
+    private long units;
+    private BigDecimal exact;
+    private int maxScale = Integer.MIN_VALUE;
+    private boolean empty = true;
+
+    public AmountAccumulator() {
+        this.scale = ScaledAmount.scale();
+    }
+
+    public static AmountAccumulator of(Transaction transaction) {
+        AmountAccumulator accumulator = new AmountAccumulator();
+        accumulator.add(transaction);
+        return accumulator;
+    }
+
+    public AmountAccumulator copy() {
+        AmountAccumulator copy = new AmountAccumulator();
+        copy.merge(this);
+        return copy;
+    }
+
+    public void add(Transaction transaction) {
+        apply(transaction.getAmountUnits(), transaction.getAmount(), false);
+    }
+
+    public void subtract(Transaction transaction) {
+        apply(transaction.getAmountUnits(), transaction.getAmount(), true);
+    }
+
+    public void merge(AmountAccumulator other) {
+        combine(other, false);
+    }
+
+    public void subtract(AmountAccumulator other) {
+        combine(other, true);
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    public boolean isScaled() {
+        return exact == null;
+    }
+
+    public BigDecimal toBigDecimal() {
+        if (empty) {
+            return BigDecimal.ZERO;
+        }
+        if (exact != null) {
+            return exact;
+        }
+        return BigDecimal.valueOf(units, scale).setScale(maxScale, RoundingMode.UNNECESSARY);
+    }
+
+    private void apply(long amountUnits, BigDecimal amount, boolean negate) {
+        track(amount.scale());
+
+        if (exact == null && ScaledAmount.isRepresentable(amountUnits)) {
+            long result = negate ? units - amountUnits : units + amountUnits;
+            boolean overflow = negate
+                    ? ((units ^ amountUnits) & (units ^ result)) < 0
+                    : ((units ^ result) & (amountUnits ^ result)) < 0;
+            if (!overflow) {
+                units = result;
+                return;
+            }
+        }
+
+        BigDecimal current = toExact();
+        exact = negate ? current.subtract(amount) : current.add(amount);
+    }
+
+    private void combine(AmountAccumulator other, boolean negate) {
+        if (other.empty) {
+            return;
+        }
+        track(other.maxScale);
+
+        if (exact == null && other.exact == null && scale == other.scale) {
+            try {
+                units = negate ? Math.subtractExact(units, other.units) : Math.addExact(units, other.units);
+                return;
+            } catch (ArithmeticException overflow) {
+                // sigue por BigDecimal
+            }
+        }
+
+        BigDecimal current = toExact();
+        BigDecimal value = other.toBigDecimal();
+        exact = negate ? current.subtract(value) : current.add(value);
+    }
+
+    private void track(int amountScale) {
+        if (empty) {
+            empty = false;
+            maxScale = amountScale;
+        } else if (amountScale > maxScale) {
+            maxScale = amountScale;
+        }
+    }
+
+    private BigDecimal toExact() {
+        if (exact != null) {
+            return exact;
+        }
+        return BigDecimal.valueOf(units, scale).setScale(Math.max(maxScale, 0), RoundingMode.UNNECESSARY);
+    }
+}
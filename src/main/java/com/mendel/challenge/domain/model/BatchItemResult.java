@@ -0,0 +1,24 @@
+package com.mendel.challenge.domain.model;
+
+public record BatchItemResult(Long id, BatchItemStatus status, String message) {
+
+    public static BatchItemResult of(Long id, InsertOutcome outcome) {
+        return switch (outcome) {
+            case INSERTED -> new BatchItemResult(id, BatchItemStatus.CREATED, null);
+            case ALREADY_EXISTS -> new BatchItemResult(id, BatchItemStatus.ALREADY_EXISTS, "Transaction already exists");
+            case PARENT_NOT_FOUND -> new BatchItemResult(id, BatchItemStatus.PARENT_NOT_FOUND, "Parent transaction not found");
+        };
+    }
+
+    public static BatchItemResult rejected(Long id, BatchItemStatus status, String message) {
+        return new BatchItemResult(id, status, message);
+    }
+
+    public boolean isCreated() {
+        return status == BatchItemStatus.CREATED;
+    }
+
+    public boolean isPending() {
+        return status == BatchItemStatus.PENDING_PARENT;
+    }
+}
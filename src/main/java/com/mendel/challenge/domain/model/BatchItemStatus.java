@@ -0,0 +1,17 @@
+package com.mendel.challenge.domain.model;
+
+/**
+ * Resultado de cada transacción de un alta en lote.
+ */
+public enum BatchItemStatus {
+    CREATED,
+    ALREADY_EXISTS,
+    PARENT_NOT_FOUND,
+    // Aceptada en el modo de ingesta fuera de orden; se guarda cuando llegue el padre
+    PENDING_PARENT,
+    // El mismo id aparece antes en el lote
+    DUPLICATE_IN_BATCH,
+    // El padre depende, directa o indirectamente, de la propia transacción
+    CYCLIC_PARENT,
+    INVALID
+}
@@ -0,0 +1,10 @@
+package com.mendel.challenge.domain.model;
+
+/**
+ * Resultado de un alta individual aceptada.
+ */
+public enum CreateOutcome {
+    CREATED,
+    // Aceptada en el modo de ingesta fuera de orden; se guarda cuando llegue el padre
+    PENDING_PARENT
+}
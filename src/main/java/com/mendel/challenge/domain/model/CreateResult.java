@@ -0,0 +1,16 @@
+package com.mendel.challenge.domain.model;
+
+public record CreateResult(Transaction transaction, CreateOutcome outcome) {
+
+    public static CreateResult created(Transaction transaction) {
+        return new CreateResult(transaction, CreateOutcome.CREATED);
+    }
+
+    public static CreateResult pendingParent(Transaction transaction) {
+        return new CreateResult(transaction, CreateOutcome.PENDING_PARENT);
+    }
+
+    public boolean isPending() {
+        return outcome == CreateOutcome.PENDING_PARENT;
+    }
+}
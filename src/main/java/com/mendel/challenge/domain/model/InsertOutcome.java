@@ -0,0 +1,11 @@
+package com.mendel.challenge.domain.model;
+
+/**
+ * Resultado de una inserción condicional: la transacción solo se guarda si su id
+ * está libre y, cuando tiene padre, el padre ya existe.
+ */
+public enum InsertOutcome {
+    INSERTED,
+    ALREADY_EXISTS,
+    PARENT_NOT_FOUND
+}
@@ -0,0 +1,63 @@
+package com.mendel.challenge.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Representación de montos como enteros escalados (monto * 10^scale) para sumar
+ * con aritmética de {@code long} en el camino caliente. Los montos que no entran
+ * en la escala o en un {@code long} se marcan con {@link #NOT_REPRESENTABLE} y se
+ * siguen operando como {@link BigDecimal}.
+ */
+public final class ScaledAmount {
+
+    public static final int DEFAULT_SCALE = 4;
+    public static final int MAX_SCALE = 18;
+    public static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+
+    private static volatile int scale = DEFAULT_SCALE;
+    // Se marca en la primera lectura: desde ahí hay montos escalados con la escala vigente
+    private static volatile boolean inUse;
+
+    private ScaledAmount() {
+    }
+
+    public static int scale() {
+        if (!inUse) {
+            inUse = true;
+        }
+        return scale;
+    }
+
+    /**
+     * Debe configurarse al arrancar, antes de crear transacciones: los montos ya
+     * escalados no se recalculan, así que cambiarla después de usarla se rechaza.
+     */
+    public static synchronized void configureScale(int newScale) {
+        if (newScale < 0 || newScale > MAX_SCALE) {
+            throw new IllegalArgumentException("Amount scale must be between 0 and " + MAX_SCALE);
+        }
+        if (inUse && newScale != scale) {
+            throw new IllegalStateException("Amount scale is already in use with " + scale
+                    + " decimals and cannot be changed to " + newScale);
+        }
+        scale = newScale;
+    }
+
+    public static long toUnits(BigDecimal amount) {
+        return toUnits(amount, scale());
+    }
+
+    public static long toUnits(BigDecimal amount, int targetScale) {
+        try {
+            long units = amount.movePointRight(targetScale).longValueExact();
+            return units == NOT_REPRESENTABLE ? NOT_REPRESENTABLE : units;
+        } catch (ArithmeticException e) {
+            // Más decimales que la escala o fuera del rango de long
+            return NOT_REPRESENTABLE;
+        }
+    }
+
+    public static boolean isRepresentable(long units) {
+        return units != NOT_REPRESENTABLE;
+    }
+}
@@ -8,6 +8,8 @@ public class Transaction {
     private final Long id;
     private final String type;
     private final BigDecimal amount;
+    // Monto escalado a ScaledAmount.scale() para sumar sin BigDecimal
+    private final long amountUnits;
     private final Long parentId;
     private final Instant createdAt;
 
@@ -19,6 +21,7 @@ public class Transaction {
         this.createdAt = builder.createdAt != null ? builder.createdAt : Instant.now();
 
         validateAmount();
+        this.amountUnits = ScaledAmount.toUnits(amount);
     }
 
     private void validateAmount() {
@@ -39,6 +42,14 @@ public class Transaction {
         return amount;
     }
 
+    public long getAmountUnits() {
+        return amountUnits;
+    }
+
+    public boolean hasScaledAmount() {
+        return ScaledAmount.isRepresentable(amountUnits);
+    }
+
     public Long getParentId() {
         return parentId;
     }
@@ -1,9 +1,9 @@
 package com.mendel.challenge.domain.port.in;
 
-import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.model.CreateResult;
 
 import java.math.BigDecimal;
 
 public interface CreateTransactionUseCase {
-    Transaction create(Long id, String type, BigDecimal amount, Long parentId);
+    CreateResult create(Long id, String type, BigDecimal amount, Long parentId);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.mendel.challenge.domain.port.in;
+
+import com.mendel.challenge.domain.model.BatchItemResult;
+import com.mendel.challenge.domain.model.Transaction;
+
+import java.util.List;
+
+public interface CreateTransactionsBatchUseCase {
+    List<BatchItemResult> createAll(List<Transaction> transactions);
+}
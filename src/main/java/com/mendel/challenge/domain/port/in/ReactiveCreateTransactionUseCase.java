@@ -0,0 +1,10 @@
+package com.mendel.challenge.domain.port.in;
+
+import com.mendel.challenge.domain.model.Transaction;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+public interface ReactiveCreateTransactionUseCase {
+    Mono<Transaction> create(Long id, String type, BigDecimal amount, Long parentId);
+}
@@ -0,0 +1,9 @@
+package com.mendel.challenge.domain.port.in;
+
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+public interface ReactiveGetTransactionSumUseCase {
+    Mono<BigDecimal> calculateSum(Long transactionId);
+}
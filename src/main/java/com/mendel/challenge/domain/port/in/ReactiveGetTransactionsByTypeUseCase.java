@@ -0,0 +1,8 @@
+package com.mendel.challenge.domain.port.in;
+
+import com.mendel.challenge.domain.model.Transaction;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveGetTransactionsByTypeUseCase {
+    Flux<Transaction> getByType(String type);
+}
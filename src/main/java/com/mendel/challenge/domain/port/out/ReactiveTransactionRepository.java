@@ -0,0 +1,35 @@
+package com.mendel.challenge.domain.port.out;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking counterpart of {@link TransactionRepository}. Adapters must not block
+ * the subscribing thread.
+ */
+public interface ReactiveTransactionRepository {
+    Mono<InsertOutcome> insertIfAbsent(Transaction transaction);
+    Mono<Transaction> findById(Long id);
+    Flux<Transaction> findByType(String type);
+    Flux<Transaction> findChildrenOf(Long parentId);
+
+    /**
+     * Precomputed subtree total, or empty when the caller has to traverse the tree.
+     */
+    default Mono<BigDecimal> findSubtreeSum(Long id) {
+        return Mono.empty();
+    }
+
+    /**
+     * Same contract as {@link TransactionRepository#setSubtreeChangeListener}.
+     */
+    default boolean setSubtreeChangeListener(Consumer<Collection<Long>> listener) {
+        return false;
+    }
+}
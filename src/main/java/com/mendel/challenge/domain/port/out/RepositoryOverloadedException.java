@@ -0,0 +1,12 @@
+package com.mendel.challenge.domain.port.out;
+
+/**
+ * Thrown by a repository that cannot accept more writes right now. The write was not
+ * stored, so the caller can retry it as is.
+ */
+public class RepositoryOverloadedException extends RuntimeException {
+
+    public RepositoryOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -1,8 +1,16 @@
 package com.mendel.challenge.domain.port.out;
 
+import com.mendel.challenge.domain.model.InsertOutcome;
 import com.mendel.challenge.domain.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TransactionRepository {
     Transaction save(Transaction transaction);
@@ -10,4 +18,64 @@ public interface TransactionRepository {
     List<Transaction> findByType(String type);
     List<Transaction> findChildrenOf(Long parentId);
     boolean existsById(Long id);
+
+    /**
+     * Saves the transaction only if its id is free and its parent, when present, exists.
+     * Adapters must override it to make the check and the write atomic; this default
+     * is a plain check-then-save kept for simple implementations.
+     */
+    default InsertOutcome insertIfAbsent(Transaction transaction) {
+        if (existsById(transaction.getId())) {
+            return InsertOutcome.ALREADY_EXISTS;
+        }
+        if (transaction.hasParent() && !existsById(transaction.getParentId())) {
+            return InsertOutcome.PARENT_NOT_FOUND;
+        }
+        save(transaction);
+        return InsertOutcome.INSERTED;
+    }
+
+    /**
+     * Conditional insert of every transaction, in list order, so a parent placed before
+     * its children in the same batch is already visible to them. Outcomes are returned
+     * in the same positions as the input. Adapters should override it to write the batch
+     * with fewer round trips or lock acquisitions.
+     */
+    default List<InsertOutcome> saveAll(List<Transaction> transactions) {
+        List<InsertOutcome> outcomes = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            outcomes.add(insertIfAbsent(transaction));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Total of the transaction amount plus all of its descendants, when the adapter
+     * keeps it precomputed. An empty result means the caller has to traverse the tree.
+     */
+    default Optional<BigDecimal> findSubtreeSum(Long id) {
+        return Optional.empty();
+    }
+
+    /**
+     * Direct children of every given parent, keyed by parent id in iteration order.
+     * Adapters with network round trips should override it to fetch them in bulk.
+     */
+    default Map<Long, List<Transaction>> findChildrenOfAll(Collection<Long> parentIds) {
+        Map<Long, List<Transaction>> result = new LinkedHashMap<>();
+        for (Long parentId : parentIds) {
+            result.put(parentId, findChildrenOf(parentId));
+        }
+        return result;
+    }
+
+    /**
+     * Sets the listener that receives, after each write, the ids of the stored ancestors
+     * whose subtree total that write changed. Adapters that maintain subtree totals
+     * already walk that chain and report it; returns false when the adapter does not,
+     * in which case callers have to find the ancestors themselves.
+     */
+    default boolean setSubtreeChangeListener(Consumer<Collection<Long>> listener) {
+        return false;
+    }
 }
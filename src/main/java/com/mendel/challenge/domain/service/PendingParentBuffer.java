@@ -0,0 +1,159 @@
+package com.mendel.challenge.domain.service;
+
+import com.mendel.challenge.domain.model.Transaction;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Transacciones huérfanas esperando a que llegue su padre, indexadas por parentId.
+ * <p>
+ * Acotado en cantidad ({@code maxSize}) y en tiempo ({@code ttl}): un huérfano cuyo
+ * padre no llega a tiempo se descarta. El vencimiento se aplica en cada acceso, sin
+ * hilo propio; como el ttl es fijo, el orden de llegada es también el de vencimiento,
+ * así que {@code byId} en orden de inserción hace de cola de vencimiento. Un huérfano
+ * liberado sale de todas las estructuras en el momento.
+ */
+@Slf4j
+public class PendingParentBuffer {
+
+    public enum ParkOutcome {
+        PARKED,
+        // Ya hay un huérfano esperando con el mismo id
+        ALREADY_PENDING,
+        // Sin lugar: el huérfano se rechaza como en el modo estricto
+        FULL
+    }
+
+    public record Stats(long parked, long attached, long expired, long rejected, int pending, int maxSize) {
+    }
+
+    private record Entry(Transaction transaction, long deadline) {
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final Map<Long, List<Entry>> byParent = new HashMap<>();
+    // En orden de llegada, que es el de vencimiento
+    private final Map<Long, Entry> byId = new LinkedHashMap<>();
+
+    private long parked;
+    private long attached;
+    private long expired;
+    private long rejected;
+
+    public PendingParentBuffer(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    PendingParentBuffer(int maxSize, Duration ttl, LongSupplier nanoClock) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Pending buffer size cannot be negative");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public static PendingParentBuffer disabled() {
+        return new PendingParentBuffer(0, Duration.ZERO);
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    public synchronized ParkOutcome park(Transaction transaction) {
+        // Desactivado equivale a capacidad 0: todo huérfano se rechaza
+        if (!isEnabled()) {
+            return ParkOutcome.FULL;
+        }
+        expireOverdue();
+
+        if (byId.containsKey(transaction.getId())) {
+            return ParkOutcome.ALREADY_PENDING;
+        }
+        if (byId.size() >= maxSize) {
+            rejected++;
+            return ParkOutcome.FULL;
+        }
+
+        Entry entry = new Entry(transaction, nanoClock.getAsLong() + ttlNanos);
+        byId.put(transaction.getId(), entry);
+        byParent.computeIfAbsent(transaction.getParentId(), k -> new ArrayList<>()).add(entry);
+        parked++;
+        return ParkOutcome.PARKED;
+    }
+
+    /**
+     * Saca y devuelve los huérfanos que esperaban a {@code parentId}. Cada huérfano se
+     * entrega a un solo llamador, aunque varios hilos vean llegar al mismo padre.
+     */
+    public synchronized List<Transaction> release(Long parentId) {
+        if (!isEnabled()) {
+            return List.of();
+        }
+        expireOverdue();
+
+        List<Entry> entries = byParent.remove(parentId);
+        if (entries == null) {
+            return List.of();
+        }
+
+        List<Transaction> released = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            byId.remove(entry.transaction().getId());
+            released.add(entry.transaction());
+        }
+        attached += released.size();
+        return released;
+    }
+
+    public synchronized Stats stats() {
+        expireOverdue();
+        return new Stats(parked, attached, expired, rejected, byId.size(), maxSize);
+    }
+
+    // Huérfanos retenidos en cualquiera de los índices; para tests
+    synchronized int retainedEntries() {
+        int retained = byId.size();
+        for (List<Entry> siblings : byParent.values()) {
+            retained += siblings.size();
+        }
+        return retained;
+    }
+
+    private void expireOverdue() {
+        long now = nanoClock.getAsLong();
+        int dropped = 0;
+
+        Iterator<Entry> oldestFirst = byId.values().iterator();
+        while (oldestFirst.hasNext()) {
+            Entry entry = oldestFirst.next();
+            if (entry.deadline() - now > 0) {
+                break;
+            }
+            oldestFirst.remove();
+
+            Transaction transaction = entry.transaction();
+            List<Entry> siblings = byParent.get(transaction.getParentId());
+            siblings.remove(entry);
+            if (siblings.isEmpty()) {
+                byParent.remove(transaction.getParentId());
+            }
+            log.warn("Dropping pending transaction {} - parent {} did not arrive in time",
+                    transaction.getId(), transaction.getParentId());
+            dropped++;
+        }
+        expired += dropped;
+    }
+}
@@ -0,0 +1,151 @@
+package com.mendel.challenge.domain.service;
+
+import com.mendel.challenge.domain.model.AmountAccumulator;
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.in.ReactiveCreateTransactionUseCase;
+import com.mendel.challenge.domain.port.in.ReactiveGetTransactionSumUseCase;
+import com.mendel.challenge.domain.port.in.ReactiveGetTransactionsByTypeUseCase;
+import com.mendel.challenge.domain.port.out.ReactiveTransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versión no bloqueante de {@link TransactionService}: mismas reglas y mensajes de
+ * error, sobre un {@link ReactiveTransactionRepository}.
+ */
+@Slf4j
+public class ReactiveTransactionService implements
+        ReactiveCreateTransactionUseCase,
+        ReactiveGetTransactionsByTypeUseCase,
+        ReactiveGetTransactionSumUseCase {
+
+    private final ReactiveTransactionRepository repository;
+    private final SubtreeSumCache sumCache;
+    private final boolean subtreeChangesReported;
+
+    public ReactiveTransactionService(ReactiveTransactionRepository repository) {
+        this(repository, SubtreeSumCache.disabled());
+    }
+
+    public ReactiveTransactionService(ReactiveTransactionRepository repository, SubtreeSumCache sumCache) {
+        this.repository = repository;
+        this.sumCache = sumCache;
+        this.subtreeChangesReported = sumCache.isEnabled() && repository.setSubtreeChangeListener(sumCache::invalidate);
+    }
+
+    @Override
+    public Mono<Transaction> create(Long id, String type, BigDecimal amount, Long parentId) {
+        // fromCallable: los errores de validación del builder llegan como señal de error
+        return Mono.fromCallable(() -> Transaction.builder()
+                        .id(id)
+                        .type(type)
+                        .amount(amount)
+                        .parentId(parentId)
+                        .build())
+                .doOnSubscribe(s -> log.info("Starting reactive transaction creation - id: {}, type: {}, amount: {}, parentId: {}",
+                        id, type, amount, parentId))
+                .flatMap(transaction -> repository.insertIfAbsent(transaction)
+                        .flatMap(outcome -> handleOutcome(transaction, outcome)))
+                .doOnError(e -> log.error("Error creating transaction with id: {}. Error: {}", id, e.getMessage()));
+    }
+
+    @Override
+    public Mono<BigDecimal> calculateSum(Long transactionId) {
+        return Mono.defer(() -> {
+            log.info("Starting reactive sum calculation for transaction id: {}", transactionId);
+
+            BigDecimal cached = sumCache.get(transactionId).orElse(null);
+            if (cached != null) {
+                log.info("Sum calculation served from cache for transaction id: {}. Total: {}",
+                        transactionId, cached);
+                return Mono.just(cached);
+            }
+            long cacheVersion = sumCache.version();
+
+            return repository.findById(transactionId)
+                    .switchIfEmpty(Mono.error(() -> {
+                        log.warn("Sum calculation failed - Transaction with id {} not found", transactionId);
+                        return new IllegalArgumentException("Transaction not found");
+                    }))
+                    .flatMap(transaction -> repository.findSubtreeSum(transactionId)
+                            .switchIfEmpty(Mono.defer(() -> traverse(transaction))))
+                    .doOnNext(sum -> {
+                        sumCache.put(transactionId, sum, cacheVersion);
+                        log.info("Sum calculation completed for transaction id: {}. Total: {}", transactionId, sum);
+                    });
+        });
+    }
+
+    @Override
+    public Flux<Transaction> getByType(String type) {
+        log.info("Fetching transactions by type: {}", type);
+        return repository.findByType(type);
+    }
+
+    public SubtreeSumCache.Stats getSumCacheStats() {
+        return sumCache.stats();
+    }
+
+    private Mono<Transaction> handleOutcome(Transaction transaction, InsertOutcome outcome) {
+        switch (outcome) {
+            case ALREADY_EXISTS -> {
+                log.warn("Transaction creation failed - Transaction with id {} already exists", transaction.getId());
+                return Mono.error(new IllegalArgumentException("Transaction already exists"));
+            }
+            case PARENT_NOT_FOUND -> {
+                log.warn("Transaction creation failed - Parent transaction with id {} not found",
+                        transaction.getParentId());
+                return Mono.error(new IllegalArgumentException("Parent transaction not found"));
+            }
+            default -> {
+                return invalidateCachedAncestors(transaction.getParentId())
+                        .doOnSuccess(v -> log.info("Transaction created successfully - id: {}, type: {}",
+                                transaction.getId(), transaction.getType()))
+                        .thenReturn(transaction);
+            }
+        }
+    }
+
+    // Recorrido por niveles: expand pide los hijos de cada nodo sin bloquear
+    private Mono<BigDecimal> traverse(Transaction root) {
+        log.debug("No precomputed subtree sum for transaction id: {}, traversing hierarchy", root.getId());
+
+        Set<Long> visited = ConcurrentHashMap.newKeySet();
+        visited.add(root.getId());
+
+        return Flux.just(root)
+                .expand(node -> repository.findChildrenOf(node.getId())
+                        .filter(child -> visited.add(child.getId())))
+                .reduceWith(AmountAccumulator::new, (total, node) -> {
+                    total.add(node);
+                    return total;
+                })
+                .map(AmountAccumulator::toBigDecimal);
+    }
+
+    // Solo cambian los totales de la cadena de ancestros del nuevo nodo; ya invalidados si el repositorio los reporta
+    private Mono<Void> invalidateCachedAncestors(Long parentId) {
+        if (!sumCache.isEnabled() || subtreeChangesReported || parentId == null) {
+            return Mono.empty();
+        }
+
+        Set<Long> ancestors = ConcurrentHashMap.newKeySet();
+        ancestors.add(parentId);
+
+        return repository.findById(parentId)
+                .expand(node -> node.hasParent() && ancestors.add(node.getParentId())
+                        ? repository.findById(node.getParentId())
+                        : Mono.empty())
+                .then(Mono.fromRunnable(() -> {
+                    sumCache.invalidate(ancestors);
+                    log.debug("Invalidated {} cached subtree sums on the ancestor path of parent id: {}",
+                            ancestors.size(), parentId);
+                }));
+    }
+}
@@ -0,0 +1,94 @@
+package com.mendel.challenge.domain.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache LRU acotado de sumas de subárbol ya calculadas.
+ * <p>
+ * Cada escritura invalida solo las entradas de la cadena de ancestros afectada y
+ * avanza una versión global; un cálculo que empezó antes de esa escritura no
+ * puede publicar su resultado, así que nunca se cachea un total viejo.
+ */
+public class SubtreeSumCache {
+
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size, int maxSize) {
+    }
+
+    private final int maxSize;
+    private final Map<Long, BigDecimal> entries;
+
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public SubtreeSumCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BigDecimal> eldest) {
+                boolean evict = size() > SubtreeSumCache.this.maxSize;
+                if (evict) {
+                    evictions++;
+                }
+                return evict;
+            }
+        };
+    }
+
+    public static SubtreeSumCache disabled() {
+        return new SubtreeSumCache(0);
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    public synchronized Optional<BigDecimal> get(Long id) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        BigDecimal sum = entries.get(id);
+        if (sum != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return Optional.ofNullable(sum);
+    }
+
+    /**
+     * Versión a capturar antes de calcular un total que luego se pasará a {@link #put}.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized void put(Long id, BigDecimal sum, long observedVersion) {
+        if (!isEnabled() || observedVersion != version) {
+            return;
+        }
+        entries.put(id, sum);
+    }
+
+    public synchronized void invalidate(Collection<Long> ids) {
+        version++;
+        for (Long id : ids) {
+            if (entries.remove(id) != null) {
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), maxSize);
+    }
+}
@@ -1,73 +1,227 @@
 package com.mendel.challenge.domain.service;
 
+import com.mendel.challenge.domain.model.BatchItemResult;
+import com.mendel.challenge.domain.model.BatchItemStatus;
+import com.mendel.challenge.domain.model.CreateResult;
+import com.mendel.challenge.domain.model.InsertOutcome;
 import com.mendel.challenge.domain.model.Transaction;
 import com.mendel.challenge.domain.port.in.CreateTransactionUseCase;
+import com.mendel.challenge.domain.port.in.CreateTransactionsBatchUseCase;
 import com.mendel.challenge.domain.port.in.GetTransactionSumUseCase;
 import com.mendel.challenge.domain.port.in.GetTransactionsByTypeUseCase;
 import com.mendel.challenge.domain.port.out.TransactionRepository;
+import com.mendel.challenge.domain.service.sum.IterativeSumEngine;
+import com.mendel.challenge.domain.service.sum.SubtreeSumEngine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Slf4j
 public class TransactionService implements
         CreateTransactionUseCase,
+        CreateTransactionsBatchUseCase,
         GetTransactionsByTypeUseCase,
         GetTransactionSumUseCase {
 
     private final TransactionRepository repository;
+    private final SubtreeSumEngine sumEngine;
+    private final SubtreeSumCache sumCache;
+    private final PendingParentBuffer pendingParents;
+    // true si el repositorio invalida el cache con los ancestros que ya recorre al escribir
+    private final boolean subtreeChangesReported;
 
     public TransactionService(TransactionRepository repository) {
+        this(repository, new IterativeSumEngine(), SubtreeSumCache.disabled());
+    }
+
+    public TransactionService(TransactionRepository repository, SubtreeSumEngine sumEngine,
+                              SubtreeSumCache sumCache) {
+        this(repository, sumEngine, sumCache, PendingParentBuffer.disabled());
+    }
+
+    @Autowired
+    public TransactionService(TransactionRepository repository, SubtreeSumEngine sumEngine,
+                              SubtreeSumCache sumCache, PendingParentBuffer pendingParents) {
         this.repository = repository;
+        this.sumEngine = sumEngine;
+        this.sumCache = sumCache;
+        this.pendingParents = pendingParents;
+        this.subtreeChangesReported = sumCache.isEnabled() && repository.setSubtreeChangeListener(sumCache::invalidate);
     }
 
     @Override
-    public Transaction create(Long id, String type, BigDecimal amount, Long parentId) {
+    public CreateResult create(Long id, String type, BigDecimal amount, Long parentId) {
         log.info("Starting transaction creation - id: {}, type: {}, amount: {}, parentId: {}",
                 id, type, amount, parentId);
 
-        if (repository.existsById(id)) {
-            log.warn("Transaction creation failed - Transaction with id {} already exists", id);
-            throw new IllegalArgumentException("Transaction already exists");
-        }
+        Transaction transaction = Transaction.builder()
+                .id(id)
+                .type(type)
+                .amount(amount)
+                .parentId(parentId)
+                .build();
 
-        // Validación de existencia de padre
-        if (parentId != null) {
-            log.debug("Validating parent transaction with id: {}", parentId);
+        InsertOutcome outcome;
+        try {
+            // Validación de id libre y de existencia de padre atómica con la escritura
+            outcome = repository.insertIfAbsent(transaction);
 
-            if (!repository.existsById(parentId)) {
+        } catch (Exception e) {
+            log.error("Error saving transaction with id: {}. Error: {}", id, e.getMessage(), e);
+            throw e;
+        }
+
+        switch (outcome) {
+            case ALREADY_EXISTS -> {
+                log.warn("Transaction creation failed - Transaction with id {} already exists", id);
+                throw new IllegalArgumentException("Transaction already exists");
+            }
+            case PARENT_NOT_FOUND -> {
+                PendingParentBuffer.ParkOutcome parked = parkOrphan(transaction);
+                if (parked == PendingParentBuffer.ParkOutcome.PARKED) {
+                    return CreateResult.pendingParent(transaction);
+                }
+                if (parked == PendingParentBuffer.ParkOutcome.ALREADY_PENDING) {
+                    log.warn("Transaction creation failed - Transaction with id {} is already pending", id);
+                    throw new IllegalArgumentException("Transaction already exists");
+                }
                 log.warn("Transaction creation failed - Parent transaction with id {} not found", parentId);
                 throw new IllegalArgumentException("Parent transaction not found");
             }
+            default -> {
+                invalidateCachedAncestors(parentId != null ? List.of(parentId) : List.of());
+                attachPending(List.of(id));
+                log.info("Transaction created successfully - id: {}, type: {}", id, type);
+                return CreateResult.created(transaction);
+            }
+        }
+    }
+
+    @Override
+    public List<BatchItemResult> createAll(List<Transaction> transactions) {
+        log.info("Starting batch creation of {} transactions", transactions.size());
 
-            log.debug("Parent transaction validated successfully");
+        BatchItemResult[] results = new BatchItemResult[transactions.size()];
+        Map<Long, Integer> firstIndex = new HashMap<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            Long id = transactions.get(i).getId();
+            if (firstIndex.putIfAbsent(id, i) != null) {
+                results[i] = BatchItemResult.rejected(id, BatchItemStatus.DUPLICATE_IN_BATCH,
+                        "Transaction id repeated in batch");
+            }
         }
 
-        Transaction transaction = Transaction.builder()
-                .id(id)
-                .type(type)
-                .amount(amount)
-                .parentId(parentId)
-                .build();
+        List<Integer> writeOrder = parentsFirst(transactions, firstIndex, results);
+        List<Transaction> toWrite = writeOrder.stream().map(transactions::get).toList();
 
+        List<InsertOutcome> outcomes;
         try {
-            Transaction savedTransaction = repository.save(transaction);
-            log.info("Transaction created successfully - id: {}, type: {}", id, type);
-            return savedTransaction;
+            outcomes = toWrite.isEmpty() ? List.of() : repository.saveAll(toWrite);
 
         } catch (Exception e) {
-            log.error("Error saving transaction with id: {}. Error: {}", id, e.getMessage(), e);
+            log.error("Error saving batch of {} transactions. Error: {}", toWrite.size(), e.getMessage(), e);
             throw e;
         }
+
+        Set<Long> touchedParents = new LinkedHashSet<>();
+        List<Long> insertedIds = new ArrayList<>();
+        int pending = 0;
+        for (int k = 0; k < writeOrder.size(); k++) {
+            Transaction transaction = toWrite.get(k);
+            BatchItemResult result = BatchItemResult.of(transaction.getId(), outcomes.get(k));
+
+            if (outcomes.get(k) == InsertOutcome.INSERTED) {
+                insertedIds.add(transaction.getId());
+                if (transaction.hasParent()) {
+                    touchedParents.add(transaction.getParentId());
+                }
+            } else if (outcomes.get(k) == InsertOutcome.PARENT_NOT_FOUND) {
+                switch (parkOrphan(transaction)) {
+                    case PARKED -> {
+                        result = BatchItemResult.rejected(transaction.getId(), BatchItemStatus.PENDING_PARENT,
+                                "Waiting for parent transaction");
+                        pending++;
+                    }
+                    case ALREADY_PENDING -> result = BatchItemResult.of(transaction.getId(), InsertOutcome.ALREADY_EXISTS);
+                    default -> { }
+                }
+            }
+            results[writeOrder.get(k)] = result;
+        }
+        invalidateCachedAncestors(touchedParents);
+        attachPending(insertedIds);
+
+        log.info("Batch creation completed - received: {}, created: {}, pending: {}, rejected: {}",
+                transactions.size(), insertedIds.size(), pending,
+                transactions.size() - insertedIds.size() - pending);
+        return Arrays.asList(results);
+    }
+
+    // Orden topológico dentro del lote: un padre presente en el lote se escribe antes que sus hijos.
+    // Lo que queda sin ordenar forma un ciclo y se rechaza sin llegar al repositorio.
+    private List<Integer> parentsFirst(List<Transaction> transactions, Map<Long, Integer> firstIndex,
+                                       BatchItemResult[] results) {
+        Map<Long, List<Integer>> childrenInBatch = new HashMap<>();
+        Deque<Integer> ready = new ArrayDeque<>();
+
+        for (int i = 0; i < transactions.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Long parentId = transactions.get(i).getParentId();
+            if (parentId != null && firstIndex.containsKey(parentId)) {
+                childrenInBatch.computeIfAbsent(parentId, k -> new ArrayList<>()).add(i);
+            } else {
+                ready.add(i);
+            }
+        }
+
+        List<Integer> order = new ArrayList<>(transactions.size());
+        boolean[] ordered = new boolean[transactions.size()];
+        while (!ready.isEmpty()) {
+            int index = ready.poll();
+            order.add(index);
+            ordered[index] = true;
+            ready.addAll(childrenInBatch.getOrDefault(transactions.get(index).getId(), List.of()));
+        }
+
+        for (int i = 0; i < transactions.size(); i++) {
+            if (results[i] == null && !ordered[i]) {
+                Long id = transactions.get(i).getId();
+                log.warn("Batch item {} rejected - cyclic parent reference within the batch", id);
+                results[i] = BatchItemResult.rejected(id, BatchItemStatus.CYCLIC_PARENT,
+                        "Cyclic parent reference within the batch");
+            }
+        }
+        return order;
     }
 
     @Override
     public BigDecimal calculateSum(Long transactionId) {
         log.info("Starting sum calculation for transaction id: {}", transactionId);
 
+        Optional<BigDecimal> cached = sumCache.get(transactionId);
+        if (cached.isPresent()) {
+            log.info("Sum calculation served from cache for transaction id: {}. Total: {}",
+                    transactionId, cached.get());
+            return cached.get();
+        }
+        long cacheVersion = sumCache.version();
+
         Transaction transaction = repository.findById(transactionId)
                 .orElseThrow(() -> {
                     log.warn("Sum calculation failed - Transaction with id {} not found", transactionId);
@@ -75,7 +229,13 @@ public class TransactionService implements
                 });
 
         try {
-            BigDecimal sum = calculateSumRecursive(transaction);
+            BigDecimal sum = repository.findSubtreeSum(transactionId)
+                    .orElseGet(() -> {
+                        log.debug("No precomputed subtree sum for transaction id: {}, traversing hierarchy",
+                                transactionId);
+                        return sumEngine.sum(transaction, repository);
+                    });
+            sumCache.put(transactionId, sum, cacheVersion);
             log.info("Sum calculation completed for transaction id: {}. Total: {}", transactionId, sum);
             return sum;
 
@@ -85,24 +245,87 @@ public class TransactionService implements
         }
     }
 
-    private BigDecimal calculateSumRecursive(Transaction transaction) {
-        log.debug("Calculating sum for transaction id: {}, amount: {}",
-                transaction.getId(), transaction.getAmount());
+    public SubtreeSumCache.Stats getSumCacheStats() {
+        return sumCache.stats();
+    }
+
+    public PendingParentBuffer.Stats getPendingParentStats() {
+        return pendingParents.stats();
+    }
+
+    private PendingParentBuffer.ParkOutcome parkOrphan(Transaction transaction) {
+        PendingParentBuffer.ParkOutcome outcome = pendingParents.park(transaction);
+
+        if (outcome == PendingParentBuffer.ParkOutcome.PARKED) {
+            log.info("Transaction {} parked until parent {} arrives", transaction.getId(), transaction.getParentId());
+
+            // El padre pudo llegar entre el insert rechazado y el park; su attachPending
+            // ya no vería a este huérfano, así que se vuelve a mirar después de estacionarlo
+            if (repository.existsById(transaction.getParentId())) {
+                attachPending(List.of(transaction.getParentId()));
+            }
+        } else if (outcome == PendingParentBuffer.ParkOutcome.FULL && pendingParents.isEnabled()) {
+            log.warn("Pending-parent buffer is full, rejecting orphan transaction {}", transaction.getId());
+        }
+        return outcome;
+    }
+
+    // Inserta los huérfanos que esperaban a los ids recién guardados, y a sus propios huérfanos
+    private void attachPending(Collection<Long> arrivedIds) {
+        if (!pendingParents.isEnabled() || arrivedIds.isEmpty()) {
+            return;
+        }
 
-        BigDecimal sum = transaction.getAmount();
-        List<Transaction> children = repository.findChildrenOf(transaction.getId());
+        Deque<Long> arrived = new ArrayDeque<>(arrivedIds);
+        Set<Long> touchedParents = new LinkedHashSet<>();
+        int attached = 0;
 
-        if (!children.isEmpty()) {
-            log.debug("Transaction id {} has {} children", transaction.getId(), children.size());
+        while (!arrived.isEmpty()) {
+            Long parentId = arrived.poll();
+            List<Transaction> orphans = pendingParents.release(parentId);
+            if (orphans.isEmpty()) {
+                continue;
+            }
+
+            List<InsertOutcome> outcomes = repository.saveAll(orphans);
+            for (int i = 0; i < orphans.size(); i++) {
+                Transaction orphan = orphans.get(i);
+                if (outcomes.get(i) == InsertOutcome.INSERTED) {
+                    arrived.add(orphan.getId());
+                    touchedParents.add(parentId);
+                    attached++;
+                } else {
+                    log.warn("Dropping pending transaction {} on attach - outcome: {}", orphan.getId(), outcomes.get(i));
+                }
+            }
+        }
+
+        if (attached > 0) {
+            invalidateCachedAncestors(touchedParents);
+            log.info("Attached {} pending transactions after their parents arrived", attached);
+        }
+    }
+
+    // Solo cambian los totales de la cadena de ancestros de los nodos nuevos. Si el repositorio
+    // los reporta ya están invalidados; si no, se recorre la cadena (solo storage local: el cache
+    // no se habilita con storage compartido)
+    private void invalidateCachedAncestors(Collection<Long> parentIds) {
+        if (!sumCache.isEnabled() || subtreeChangesReported || parentIds.isEmpty()) {
+            return;
         }
 
-        for (Transaction child : children) {
-            BigDecimal childSum = calculateSumRecursive(child);
-            sum = sum.add(childSum);
+        // Caminos que se juntan en un ancestro común se recorren una sola vez
+        Set<Long> ancestors = new LinkedHashSet<>();
+        for (Long parentId : parentIds) {
+            Long current = parentId;
+            while (current != null && ancestors.add(current)) {
+                current = repository.findById(current).map(Transaction::getParentId).orElse(null);
+            }
         }
 
-        log.debug("Total sum for transaction id {}: {}", transaction.getId(), sum);
-        return sum;
+        sumCache.invalidate(ancestors);
+        log.debug("Invalidated {} cached subtree sums on the ancestor paths of parent ids: {}",
+                ancestors.size(), parentIds);
     }
 
     @Override
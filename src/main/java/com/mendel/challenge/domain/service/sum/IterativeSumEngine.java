@@ -0,0 +1,63 @@
+package com.mendel.challenge.domain.service.sum;
+
+import com.mendel.challenge.domain.model.AmountAccumulator;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recorrido en profundidad sin recursión: los ids pendientes viven en una pila
+ * de {@code long} reutilizada entre llamadas del mismo hilo, así que el uso de
+ * stack es constante sin importar la profundidad de la cadena.
+ */
+@Slf4j
+public class IterativeSumEngine implements SubtreeSumEngine {
+
+    private static final int INITIAL_CAPACITY = 64;
+    // Evita que un árbol excepcional deje retenido un buffer enorme por hilo
+    private static final int MAX_RETAINED_CAPACITY = 1 << 16;
+
+    private final ThreadLocal<long[]> scratch = ThreadLocal.withInitial(() -> new long[INITIAL_CAPACITY]);
+
+    @Override
+    public BigDecimal sum(Transaction root, TransactionRepository repository) {
+        AmountAccumulator accumulator = AmountAccumulator.of(root);
+
+        long[] stack = scratch.get();
+        int size = 0;
+        stack[size++] = root.getId();
+        Set<Long> visited = new HashSet<>();
+        visited.add(root.getId());
+
+        while (size > 0) {
+            long id = stack[--size];
+            List<Transaction> children = repository.findChildrenOf(id);
+            int count = children.size();
+
+            if (size + count > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, size + count));
+            }
+
+            for (int i = 0; i < count; i++) {
+                Transaction child = children.get(i);
+                // Un id ya visitado indica un ciclo o un índice duplicado: no se suma ni se apila otra vez
+                if (visited.add(child.getId())) {
+                    accumulator.add(child);
+                    stack[size++] = child.getId();
+                }
+            }
+        }
+
+        scratch.set(stack.length <= MAX_RETAINED_CAPACITY ? stack : new long[INITIAL_CAPACITY]);
+
+        BigDecimal sum = accumulator.toBigDecimal();
+        log.debug("Total sum for transaction id {}: {} ({} nodes)", root.getId(), sum, visited.size());
+        return sum;
+    }
+}
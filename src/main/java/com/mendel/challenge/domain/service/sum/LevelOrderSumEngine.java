@@ -0,0 +1,57 @@
+package com.mendel.challenge.domain.service.sum;
+
+import com.mendel.challenge.domain.model.AmountAccumulator;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recorre el árbol nivel por nivel pidiendo al repositorio los hijos de toda la
+ * frontera en una sola operación, de modo que los round trips son O(profundidad).
+ */
+@Slf4j
+public class LevelOrderSumEngine implements SubtreeSumEngine {
+
+    @Override
+    public BigDecimal sum(Transaction root, TransactionRepository repository) {
+        AmountAccumulator accumulator = AmountAccumulator.of(root);
+        Set<Long> visited = new HashSet<>();
+        visited.add(root.getId());
+
+        List<Long> frontier = List.of(root.getId());
+        int depth = 0;
+
+        while (!frontier.isEmpty()) {
+            Map<Long, List<Transaction>> childrenByParent = repository.findChildrenOfAll(frontier);
+            List<Long> next = new ArrayList<>();
+
+            for (List<Transaction> children : childrenByParent.values()) {
+                for (Transaction child : children) {
+                    // Un id ya visitado indica un ciclo o un índice duplicado: no se suma dos veces
+                    if (visited.add(child.getId())) {
+                        accumulator.add(child);
+                        next.add(child.getId());
+                    }
+                }
+            }
+
+            log.debug("Level {} of transaction id {} expanded - frontier: {}, children: {}",
+                    depth, root.getId(), frontier.size(), next.size());
+
+            frontier = next;
+            depth++;
+        }
+
+        BigDecimal sum = accumulator.toBigDecimal();
+        log.debug("Total sum for transaction id {}: {} ({} nodes, depth {})",
+                root.getId(), sum, visited.size(), depth);
+        return sum;
+    }
+}
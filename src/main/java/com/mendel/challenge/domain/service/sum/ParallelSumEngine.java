@@ -0,0 +1,102 @@
+package com.mendel.challenge.domain.service.sum;
+
+import com.mendel.challenge.domain.model.AmountAccumulator;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Suma el subárbol en un ForkJoinPool propio. Cada tarea recorre su porción de
+ * forma iterativa y, cuando encuentra una lista de hijos mayor que el umbral,
+ * la reparte en sub-tareas de a lo sumo {@code threshold} nodos.
+ */
+@Slf4j
+public class ParallelSumEngine implements SubtreeSumEngine, AutoCloseable {
+
+    public static final int DEFAULT_THRESHOLD = 256;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelSumEngine() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_THRESHOLD);
+    }
+
+    public ParallelSumEngine(int parallelism, int threshold) {
+        if (parallelism < 1 || threshold < 1) {
+            throw new IllegalArgumentException("Parallelism and threshold must be positive");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.threshold = threshold;
+        log.info("Parallel sum engine initialized - parallelism: {}, threshold: {}", parallelism, threshold);
+    }
+
+    @Override
+    public BigDecimal sum(Transaction root, TransactionRepository repository) {
+        AmountAccumulator accumulator = pool.invoke(new SubtreeTask(List.of(root), repository));
+
+        BigDecimal sum = accumulator.toBigDecimal();
+        log.debug("Total sum for transaction id {}: {}", root.getId(), sum);
+        return sum;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private class SubtreeTask extends RecursiveTask<AmountAccumulator> {
+
+        private final List<Transaction> nodes;
+        private final TransactionRepository repository;
+
+        SubtreeTask(List<Transaction> nodes, TransactionRepository repository) {
+            this.nodes = nodes;
+            this.repository = repository;
+        }
+
+        @Override
+        protected AmountAccumulator compute() {
+            AmountAccumulator accumulator = new AmountAccumulator();
+            List<SubtreeTask> forked = new ArrayList<>();
+            Deque<List<Transaction>> pending = new ArrayDeque<>();
+            pending.push(nodes);
+
+            while (!pending.isEmpty()) {
+                List<Transaction> batch = pending.pop();
+
+                if (batch.size() > threshold) {
+                    // Se queda con el primer tramo y reparte el resto
+                    for (int from = threshold; from < batch.size(); from += threshold) {
+                        SubtreeTask task = new SubtreeTask(
+                                batch.subList(from, Math.min(from + threshold, batch.size())), repository);
+                        task.fork();
+                        forked.add(task);
+                    }
+                    batch = batch.subList(0, threshold);
+                }
+
+                for (Transaction node : batch) {
+                    accumulator.add(node);
+                    List<Transaction> children = repository.findChildrenOf(node.getId());
+                    if (!children.isEmpty()) {
+                        pending.push(children);
+                    }
+                }
+            }
+
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                accumulator.merge(forked.get(i).join());
+            }
+            return accumulator;
+        }
+    }
+}
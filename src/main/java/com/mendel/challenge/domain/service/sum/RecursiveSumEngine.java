@@ -0,0 +1,40 @@
+package com.mendel.challenge.domain.service.sum;
+
+import com.mendel.challenge.domain.model.AmountAccumulator;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Slf4j
+public class RecursiveSumEngine implements SubtreeSumEngine {
+
+    @Override
+    public BigDecimal sum(Transaction root, TransactionRepository repository) {
+        AmountAccumulator accumulator = new AmountAccumulator();
+        calculateSumRecursive(root, repository, accumulator);
+
+        BigDecimal sum = accumulator.toBigDecimal();
+        log.debug("Total sum for transaction id {}: {}", root.getId(), sum);
+        return sum;
+    }
+
+    private void calculateSumRecursive(Transaction transaction, TransactionRepository repository,
+                                       AmountAccumulator accumulator) {
+        log.debug("Calculating sum for transaction id: {}, amount: {}",
+                transaction.getId(), transaction.getAmount());
+
+        accumulator.add(transaction);
+        List<Transaction> children = repository.findChildrenOf(transaction.getId());
+
+        if (!children.isEmpty()) {
+            log.debug("Transaction id {} has {} children", transaction.getId(), children.size());
+        }
+
+        for (Transaction child : children) {
+            calculateSumRecursive(child, repository, accumulator);
+        }
+    }
+}
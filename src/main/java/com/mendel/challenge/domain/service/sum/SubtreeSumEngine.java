@@ -0,0 +1,14 @@
+package com.mendel.challenge.domain.service.sum;
+
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+
+import java.math.BigDecimal;
+
+/**
+ * Estrategia para recorrer la jerarquía y sumar el monto de una transacción
+ * más el de todos sus descendientes.
+ */
+public interface SubtreeSumEngine {
+    BigDecimal sum(Transaction root, TransactionRepository repository);
+}
@@ -0,0 +1,83 @@
+package com.mendel.challenge.infrastructure.adapter;
+
+import com.mendel.challenge.domain.model.Transaction;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.function.IntFunction;
+
+/**
+ * Formato binario de una transacción, compartido por los adapters que persisten a disco:
+ * {@code id | flags | parentId? | epochSecond | nanos | código de tipo | escala | unscaled}.
+ * El monto se guarda exacto: unscaled en un long si entra, si no como bytes de BigInteger.
+ * Los buffers deben estar en {@link ByteOrder#LITTLE_ENDIAN}.
+ */
+public final class TransactionRecordCodec {
+
+    private static final int HAS_PARENT = 1;
+    private static final int LONG_UNSCALED = 2;
+
+    private TransactionRecordCodec() {
+    }
+
+    public static int encodedSize(Transaction transaction) {
+        BigInteger unscaled = transaction.getAmount().unscaledValue();
+        int amountBytes = unscaled.bitLength() < Long.SIZE ? 8 : 4 + unscaled.toByteArray().length;
+        return 8 + 1 + (transaction.hasParent() ? 8 : 0) + 8 + 4 + 4 + 4 + amountBytes;
+    }
+
+    public static void encode(ByteBuffer buffer, Transaction transaction, int typeCode) {
+        BigDecimal amount = transaction.getAmount();
+        BigInteger unscaled = amount.unscaledValue();
+        boolean longUnscaled = unscaled.bitLength() < Long.SIZE;
+        int flags = (transaction.hasParent() ? HAS_PARENT : 0) | (longUnscaled ? LONG_UNSCALED : 0);
+
+        buffer.putLong(transaction.getId()).put((byte) flags);
+        if (transaction.hasParent()) {
+            buffer.putLong(transaction.getParentId());
+        }
+        buffer.putLong(transaction.getCreatedAt().getEpochSecond())
+                .putInt(transaction.getCreatedAt().getNano())
+                .putInt(typeCode)
+                .putInt(amount.scale());
+        if (longUnscaled) {
+            buffer.putLong(unscaled.longValue());
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    public static Transaction decode(ByteBuffer buffer, String[] types) {
+        return decode(buffer, code -> types[code]);
+    }
+
+    public static Transaction decode(ByteBuffer buffer, IntFunction<String> types) {
+        long id = buffer.getLong();
+        int flags = buffer.get();
+        Long parentId = (flags & HAS_PARENT) != 0 ? buffer.getLong() : null;
+        Instant createdAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        String type = types.apply(buffer.getInt());
+        int scale = buffer.getInt();
+
+        BigDecimal amount;
+        if ((flags & LONG_UNSCALED) != 0) {
+            amount = BigDecimal.valueOf(buffer.getLong(), scale);
+        } else {
+            byte[] unscaled = new byte[buffer.getInt()];
+            buffer.get(unscaled);
+            amount = new BigDecimal(new BigInteger(unscaled), scale);
+        }
+
+        return Transaction.builder()
+                .id(id)
+                .type(type)
+                .amount(amount)
+                .parentId(parentId)
+                .createdAt(createdAt)
+                .build();
+    }
+}
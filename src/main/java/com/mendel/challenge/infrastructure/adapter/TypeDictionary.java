@@ -0,0 +1,101 @@
+package com.mendel.challenge.infrastructure.adapter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario de tipos de transacción a códigos {@code int} chicos, compartido por los
+ * adapters de storage. Hay pocas decenas de tipos para millones de filas: los índices y
+ * payloads guardan el código y cada tipo existe una sola vez como String.
+ *
+ * <p>Los códigos nunca cambian ni se liberan, así que las lecturas no toman locks. Esta
+ * implementación asigna códigos en memoria; las subclases pueden resolverlos contra un
+ * storage compartido sobreescribiendo {@link #assignCode}, {@link #fetchCode} y
+ * {@link #fetchName}.
+ */
+@Slf4j
+public class TypeDictionary {
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    // Código → tipo; se reemplaza entero al crecer, así las lecturas ven un array consistente
+    private volatile String[] names = new String[0];
+    private int nextCode;
+
+    /**
+     * Código del tipo, asignándole uno nuevo si todavía no lo tiene.
+     */
+    public int encode(String type) {
+        Integer code = codes.get(type);
+        return code != null ? code : assignCode(type);
+    }
+
+    /**
+     * Código del tipo sin asignar: vacío si el tipo nunca se guardó.
+     */
+    public OptionalInt lookup(String type) {
+        Integer code = codes.get(type);
+        if (code == null) {
+            code = fetchCode(type);
+        }
+        return code != null ? OptionalInt.of(code) : OptionalInt.empty();
+    }
+
+    public String decode(int code) {
+        String[] current = names;
+        String type = code >= 0 && code < current.length ? current[code] : null;
+        if (type == null) {
+            type = fetchName(code);
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown transaction type code: " + code);
+        }
+        return type;
+    }
+
+    /**
+     * La instancia de String que el diccionario guarda para el tipo: las filas que la
+     * usan comparten un único objeto en lugar de una copia por transacción.
+     */
+    public String canonical(String type) {
+        return decode(encode(type));
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    protected synchronized int assignCode(String type) {
+        Integer existing = codes.get(type);
+        if (existing != null) {
+            return existing;
+        }
+
+        int code = nextCode;
+        register(type, code);
+        log.debug("Assigned type code {} to type: {}", code, type);
+        return code;
+    }
+
+    // Sin storage compartido no hay de dónde resolver un faltante
+    protected Integer fetchCode(String type) {
+        return null;
+    }
+
+    protected String fetchName(int code) {
+        return null;
+    }
+
+    protected final synchronized void register(String type, int code) {
+        String[] current = names;
+        if (code >= current.length) {
+            current = Arrays.copyOf(current, Math.max(code + 1, current.length * 2));
+        }
+        current[code] = type;
+        names = current;
+        codes.putIfAbsent(type, code);
+        nextCode = Math.max(nextCode, code + 1);
+    }
+}
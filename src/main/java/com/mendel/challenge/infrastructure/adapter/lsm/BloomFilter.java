@@ -0,0 +1,79 @@
+package com.mendel.challenge.infrastructure.adapter.lsm;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Filtro de Bloom de un segmento sobre el prefijo {@code (space, major)} de las claves:
+ * sirve tanto para un get puntual como para descartar el segmento en un scan de
+ * índice. Con {@value #BITS_PER_KEY} bits por prefijo y {@value #HASHES} hashes da
+ * alrededor de 1% de falsos positivos.
+ */
+final class BloomFilter {
+
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASHES = 7;
+
+    private final long[] words;
+    private final long bits;
+
+    private BloomFilter(long[] words) {
+        this.words = words;
+        this.bits = (long) words.length * Long.SIZE;
+    }
+
+    static BloomFilter forKeys(long expectedKeys) {
+        long bits = Math.max(Long.SIZE, expectedKeys * BITS_PER_KEY);
+        return new BloomFilter(new long[(int) Math.min(Integer.MAX_VALUE - 8, (bits + Long.SIZE - 1) / Long.SIZE)]);
+    }
+
+    static BloomFilter read(ByteBuffer buffer) {
+        long[] words = new long[buffer.getInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = buffer.getLong();
+        }
+        return new BloomFilter(words);
+    }
+
+    void add(byte space, long major) {
+        long hash = hash(space, major);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(hash + i * step, bits);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(byte space, long major) {
+        long hash = hash(space, major);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(hash + i * step, bits);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int serializedSize() {
+        return 4 + words.length * 8;
+    }
+
+    void write(ByteBuffer buffer) {
+        buffer.putInt(words.length);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+    }
+
+    private static long hash(byte space, long major) {
+        return mix(major * 0x9E3779B97F4A7C15L + space);
+    }
+
+    // Finalizer de SplitMix64
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,35 @@
+package com.mendel.challenge.infrastructure.adapter.lsm;
+
+/**
+ * Clave del store: un keyspace y dos longs. Las transacciones usan {@code (TRANSACTION, id, 0)};
+ * los índices secundarios usan el valor indexado como {@code major} y el id como
+ * {@code minor}, así todas las entradas de un tipo o de un padre quedan contiguas y se
+ * leen con un scan por prefijo {@code (space, major)}.
+ */
+record LsmKey(byte space, long major, long minor) implements Comparable<LsmKey> {
+
+    static final int BYTES = 1 + 8 + 8;
+
+    static LsmKey first(byte space, long major) {
+        return new LsmKey(space, major, Long.MIN_VALUE);
+    }
+
+    static LsmKey last(byte space, long major) {
+        return new LsmKey(space, major, Long.MAX_VALUE);
+    }
+
+    @Override
+    public int compareTo(LsmKey other) {
+        return compare(space, major, minor, other.space, other.major, other.minor);
+    }
+
+    static int compare(byte space, long major, long minor, byte otherSpace, long otherMajor, long otherMinor) {
+        if (space != otherSpace) {
+            return Byte.compare(space, otherSpace);
+        }
+        if (major != otherMajor) {
+            return Long.compare(major, otherMajor);
+        }
+        return Long.compare(minor, otherMinor);
+    }
+}
@@ -0,0 +1,588 @@
+package com.mendel.challenge.infrastructure.adapter.lsm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Store log-structured merge embebido. Las escrituras van a un write-ahead log y a un
+ * memtable ordenado; al pasar {@code memtableBytes} el memtable se congela y un hilo de
+ * fondo lo vuelca a un {@link SegmentFile} inmutable. Las lecturas consultan el memtable,
+ * el que se está volcando y los segmentos del más nuevo al más viejo: la primera versión
+ * encontrada gana, y un {@link #TOMBSTONE} marca un borrado.
+ *
+ * <p>La compactación es por tamaños: cuando los segmentos más nuevos forman una corrida de
+ * al menos {@code compactionTrigger} segmentos de tamaño parecido, otro hilo los fusiona
+ * en uno y descarta las versiones viejas; los tombstones solo se descartan si la corrida
+ * llega hasta el segmento más viejo. Así cada dato se reescribe una cantidad logarítmica
+ * de veces en lugar de una por compactación. El archivo {@value #MANIFEST} lista los
+ * segmentos vivos y se reemplaza con un rename atómico; lo que no figura ahí es un
+ * volcado o una compactación que no terminó y se borra al abrir.
+ *
+ * <p>Si un volcado falla, el memtable congelado sigue en su log y el próximo write que
+ * necesite rotar lo reintenta antes de aplicar su lote: mientras el reintento falle, los
+ * writes se rechazan sin escribir nada y el memtable activo no sigue creciendo.
+ */
+@Slf4j
+final class LsmStore implements Closeable {
+
+    // Se compara por identidad: un valor vacío legítimo es otra instancia
+    static final byte[] TOMBSTONE = new byte[0];
+
+    private static final String MANIFEST = "MANIFEST";
+    // Costo aproximado en el skip list de una entrada, además de su valor
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    record Mutation(LsmKey key, byte[] value) {
+
+        static Mutation put(LsmKey key, byte[] value) {
+            return new Mutation(key, value);
+        }
+
+        static Mutation delete(LsmKey key) {
+            return new Mutation(key, TOMBSTONE);
+        }
+    }
+
+    // Memtable activo y el que se está volcando; se reemplazan juntos para que un lector
+    // nunca vea un estado intermedio de la rotación
+    private record Memtables(ConcurrentSkipListMap<LsmKey, byte[]> active,
+                             ConcurrentSkipListMap<LsmKey, byte[]> flushing) {}
+
+    private final Path directory;
+    private final long memtableBytes;
+    private final int compactionTrigger;
+    private final boolean syncEveryWrite;
+
+    private final Object writeLock = new Object();
+    private final AtomicLong nextGeneration = new AtomicLong(1);
+    private volatile Memtables memtables = new Memtables(new ConcurrentSkipListMap<>(), null);
+    private long activeBytes;
+    private long activeGeneration;
+    private WriteAheadLog wal;
+    private Future<?> pendingFlush;
+    // El volcado de pendingFlush, para reintentarlo en línea si falla
+    private Runnable pendingFlushTask;
+    private boolean closed;
+
+    // Del más nuevo al más viejo; se reemplaza entera. El write lock solo se toma para
+    // cambiar la lista y cerrar los segmentos que salen, los lectores toman el read lock
+    private volatile List<SegmentFile> segments = List.of();
+    private final ReentrantReadWriteLock segmentsLock = new ReentrantReadWriteLock();
+
+    private final ExecutorService flusher;
+    private final ExecutorService compactor;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    LsmStore(Path directory, long memtableBytes, int compactionTrigger, boolean syncEveryWrite) {
+        this.directory = directory;
+        this.memtableBytes = memtableBytes;
+        this.compactionTrigger = Math.max(2, compactionTrigger);
+        this.syncEveryWrite = syncEveryWrite;
+        this.flusher = Executors.newSingleThreadExecutor(daemon("lsm-flusher"));
+        this.compactor = Executors.newSingleThreadExecutor(daemon("lsm-compactor"));
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create LSM directory " + directory, e);
+        }
+        recover();
+    }
+
+    /**
+     * Aplica el lote de forma atómica: queda entero en el log antes de ser visible.
+     */
+    void write(List<Mutation> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (closed) {
+                throw new IllegalStateException("LSM store is closed: " + directory);
+            }
+            // Se rota antes de aplicar: si el volcado anterior no se puede completar, el lote
+            // se rechaza sin haber llegado al log
+            if (activeBytes >= memtableBytes) {
+                rotate();
+            }
+            wal.append(batch);
+            ConcurrentSkipListMap<LsmKey, byte[]> active = memtables.active();
+            for (Mutation mutation : batch) {
+                active.put(mutation.key(), mutation.value());
+                activeBytes += ENTRY_OVERHEAD_BYTES + mutation.value().length;
+            }
+        }
+    }
+
+    /**
+     * Valor vigente de la clave, o {@code null} si no existe o fue borrada.
+     */
+    byte[] get(LsmKey key) {
+        Memtables tables = memtables;
+        byte[] value = tables.active().get(key);
+        if (value == null && tables.flushing() != null) {
+            value = tables.flushing().get(key);
+        }
+        if (value == null) {
+            segmentsLock.readLock().lock();
+            try {
+                for (SegmentFile segment : segments) {
+                    value = segment.get(key);
+                    if (value != null) {
+                        break;
+                    }
+                }
+            } finally {
+                segmentsLock.readLock().unlock();
+            }
+        }
+        return value == TOMBSTONE ? null : value;
+    }
+
+    /**
+     * Entradas vigentes con prefijo {@code (space, major)}, por {@code minor}. Se aplican
+     * del nivel más viejo al más nuevo, así la última versión pisa a las anteriores.
+     */
+    NavigableMap<Long, byte[]> scan(byte space, long major) {
+        Memtables tables = memtables;
+        TreeMap<Long, byte[]> merged = new TreeMap<>();
+
+        segmentsLock.readLock().lock();
+        try {
+            List<SegmentFile> current = segments;
+            for (int i = current.size() - 1; i >= 0; i--) {
+                current.get(i).scan(space, major, merged::put);
+            }
+        } finally {
+            segmentsLock.readLock().unlock();
+        }
+
+        LsmKey from = LsmKey.first(space, major);
+        LsmKey to = LsmKey.last(space, major);
+        if (tables.flushing() != null) {
+            tables.flushing().subMap(from, true, to, true).forEach((key, value) -> merged.put(key.minor(), value));
+        }
+        tables.active().subMap(from, true, to, true).forEach((key, value) -> merged.put(key.minor(), value));
+
+        merged.values().removeIf(value -> value == TOMBSTONE);
+        return merged;
+    }
+
+    /**
+     * Congela el memtable activo y espera a que llegue a un segmento.
+     */
+    void flush() {
+        synchronized (writeLock) {
+            if (!memtables.active().isEmpty()) {
+                rotate();
+            }
+            awaitPendingFlush();
+        }
+    }
+
+    /**
+     * Fusiona ahora todos los segmentos en uno, esperando a que termine. Corre en el hilo
+     * del compactador, detrás de la compactación de fondo que esté en curso.
+     */
+    void compact() {
+        Future<?> compaction = compactor.submit(() -> runCompaction(segments));
+        try {
+            compaction.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("LSM compaction failed in " + directory, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an LSM compaction", e);
+        }
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                awaitPendingFlush();
+            } catch (IllegalStateException e) {
+                log.warn("Closing LSM store with a failed memtable flush, it stays in its log. Error: {}",
+                        e.getMessage());
+            }
+            // El memtable activo queda en su log y se recupera al abrir
+            wal.close();
+        }
+
+        for (ExecutorService executor : List.of(flusher, compactor)) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        segmentsLock.writeLock().lock();
+        try {
+            segments.forEach(SegmentFile::close);
+            segments = List.of();
+        } finally {
+            segmentsLock.writeLock().unlock();
+        }
+        log.info("LSM store closed: {}", directory);
+    }
+
+    // Con el write lock tomado
+    private void rotate() {
+        awaitPendingFlush();
+
+        Memtables tables = memtables;
+        ConcurrentSkipListMap<LsmKey, byte[]> frozen = tables.active();
+        WriteAheadLog frozenWal = wal;
+        long generation = activeGeneration;
+
+        activeGeneration = nextGeneration.getAndIncrement();
+        wal = new WriteAheadLog(walPath(activeGeneration), syncEveryWrite);
+        memtables = new Memtables(new ConcurrentSkipListMap<>(), frozen);
+        activeBytes = 0;
+        frozenWal.close();
+
+        pendingFlushTask = () -> flushFrozen(frozen, generation, frozenWal.path());
+        pendingFlush = flusher.submit(pendingFlushTask);
+    }
+
+    // Con el write lock tomado. Un volcado fallido se reintenta acá; si vuelve a fallar
+    // queda pendiente, con el memtable en su log, para el próximo llamador
+    private void awaitPendingFlush() {
+        if (pendingFlush == null) {
+            return;
+        }
+        try {
+            pendingFlush.get();
+        } catch (ExecutionException e) {
+            log.warn("LSM memtable flush failed in {}, retrying inline. Error: {}",
+                    directory, e.getCause().getMessage());
+            try {
+                pendingFlushTask.run();
+            } catch (RuntimeException retryFailure) {
+                pendingFlush = CompletableFuture.failedFuture(retryFailure);
+                throw new IllegalStateException("LSM memtable flush failed in " + directory, retryFailure);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an LSM memtable flush", e);
+        }
+        pendingFlush = null;
+        pendingFlushTask = null;
+    }
+
+    private void flushFrozen(ConcurrentSkipListMap<LsmKey, byte[]> frozen, long generation, Path walPath) {
+        long start = System.nanoTime();
+        SegmentFile segment = SegmentFile.write(segmentPath(generation), frozen.entrySet().iterator(), frozen.size());
+        try {
+            publish(segment);
+        } catch (RuntimeException e) {
+            // El reintento vuelve a escribir el segmento desde el memtable
+            segment.close();
+            throw e;
+        }
+        // Sin lock: el writer no rota hasta que este volcado termina
+        memtables = new Memtables(memtables.active(), null);
+        deleteQuietly(walPath);
+
+        log.debug("Flushed LSM memtable to {} - {} entries in {} ms",
+                segment.path().getFileName(), segment.entries(), (System.nanoTime() - start) / 1_000_000);
+
+        scheduleCompaction();
+    }
+
+    private void scheduleCompaction() {
+        if (segments.size() < compactionTrigger || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            compactor.execute(() -> {
+                List<SegmentFile> run = pickRun(segments);
+                try {
+                    runCompaction(run);
+                } finally {
+                    compacting.set(false);
+                }
+                if (!run.isEmpty()) {
+                    scheduleCompaction();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // El store se está cerrando
+            compacting.set(false);
+        }
+    }
+
+    // Segmentos más nuevos mientras el siguiente no supere el doble de lo acumulado
+    private List<SegmentFile> pickRun(List<SegmentFile> current) {
+        int run = 0;
+        long runBytes = 0;
+        while (run < current.size() && (run == 0 || current.get(run).bytes() <= 2 * runBytes)) {
+            runBytes += current.get(run).bytes();
+            run++;
+        }
+        return run >= compactionTrigger ? current.subList(0, run) : List.of();
+    }
+
+    private void publish(SegmentFile segment) {
+        segmentsLock.writeLock().lock();
+        try {
+            List<SegmentFile> updated = new ArrayList<>(segments.size() + 1);
+            updated.add(segment);
+            updated.addAll(segments);
+            writeManifest(updated);
+            segments = List.copyOf(updated);
+        } finally {
+            segmentsLock.writeLock().unlock();
+        }
+    }
+
+    // Solo en el hilo del compactador. Los segmentos de inputs tienen que ser contiguos en la
+    // lista, del más nuevo al más viejo
+    private void runCompaction(List<SegmentFile> inputs) {
+        try {
+            if (inputs.size() < 2) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            boolean includesOldest = inputs.get(inputs.size() - 1) == segments.get(segments.size() - 1);
+            long entries = inputs.stream().mapToLong(SegmentFile::entries).sum();
+            SegmentFile output = SegmentFile.write(segmentPath(nextGeneration.getAndIncrement()),
+                    new MergeIterator(inputs, includesOldest), entries);
+
+            segmentsLock.writeLock().lock();
+            try {
+                // Los volcados que terminaron durante la compactación quedan adelante
+                List<SegmentFile> current = segments;
+                int first = current.indexOf(inputs.get(0));
+                List<SegmentFile> updated = new ArrayList<>(current.subList(0, first));
+                updated.add(output);
+                updated.addAll(current.subList(first + inputs.size(), current.size()));
+                writeManifest(updated);
+                segments = List.copyOf(updated);
+                inputs.forEach(SegmentFile::close);
+            } finally {
+                segmentsLock.writeLock().unlock();
+            }
+            inputs.forEach(segment -> deleteQuietly(segment.path()));
+
+            log.info("Compacted {} LSM segments ({} entries) into {} with {} entries in {} ms",
+                    inputs.size(), entries, output.path().getFileName(), output.entries(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("LSM compaction failed in {}, segments are kept as they are. Error: {}",
+                    directory, e.getMessage(), e);
+        }
+    }
+
+    private void recover() {
+        long start = System.nanoTime();
+        List<SegmentFile> live = new ArrayList<>();
+        Set<Path> listed = new HashSet<>();
+        for (String name : readManifest()) {
+            SegmentFile segment = SegmentFile.open(directory.resolve(name));
+            live.add(segment);
+            listed.add(segment.path());
+            nextGeneration.accumulateAndGet(segment.generation() + 1, Math::max);
+        }
+
+        List<Path> logs = new ArrayList<>();
+        for (Path path : files()) {
+            String name = path.getFileName().toString();
+            if (name.startsWith(SegmentFile.PREFIX) && !listed.contains(path)) {
+                // Volcado o compactación que no llegó al manifest
+                deleteQuietly(path);
+            } else if (name.startsWith(WriteAheadLog.PREFIX) && name.endsWith(WriteAheadLog.SUFFIX)) {
+                logs.add(path);
+                nextGeneration.accumulateAndGet(WriteAheadLog.generationOf(path) + 1, Math::max);
+            }
+        }
+        segments = List.copyOf(live);
+
+        // Los logs que quedaron son memtables que no llegaron a un segmento
+        logs.sort(Comparator.comparingLong(WriteAheadLog::generationOf));
+        ConcurrentSkipListMap<LsmKey, byte[]> recovered = new ConcurrentSkipListMap<>();
+        long batches = 0;
+        for (Path path : logs) {
+            batches += WriteAheadLog.replay(path,
+                    batch -> batch.forEach(mutation -> recovered.put(mutation.key(), mutation.value())));
+        }
+        if (!recovered.isEmpty()) {
+            publish(SegmentFile.write(segmentPath(nextGeneration.getAndIncrement()),
+                    recovered.entrySet().iterator(), recovered.size()));
+        }
+        logs.forEach(LsmStore::deleteQuietly);
+
+        activeGeneration = nextGeneration.getAndIncrement();
+        wal = new WriteAheadLog(walPath(activeGeneration), syncEveryWrite);
+
+        log.info("LSM store opened at {} in {} ms - {} segments, {} batches recovered from write-ahead logs",
+                directory, (System.nanoTime() - start) / 1_000_000, segments.size(), batches);
+        scheduleCompaction();
+    }
+
+    private List<String> readManifest() {
+        Path manifest = directory.resolve(MANIFEST);
+        if (!Files.exists(manifest)) {
+            return List.of();
+        }
+        try {
+            return Files.readAllLines(manifest, StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.isBlank())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read LSM manifest " + manifest, e);
+        }
+    }
+
+    private void writeManifest(List<SegmentFile> live) {
+        Path manifest = directory.resolve(MANIFEST);
+        Path temp = directory.resolve(MANIFEST + ".tmp");
+        try {
+            Files.write(temp, live.stream().map(segment -> segment.path().getFileName().toString()).toList(),
+                    StandardCharsets.UTF_8);
+            Files.move(temp, manifest, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write LSM manifest " + manifest, e);
+        }
+    }
+
+    private List<Path> files() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list LSM directory " + directory, e);
+        }
+    }
+
+    private Path segmentPath(long generation) {
+        return directory.resolve(SegmentFile.PREFIX + generation + SegmentFile.SUFFIX);
+    }
+
+    private Path walPath(long generation) {
+        return directory.resolve(WriteAheadLog.PREFIX + generation + WriteAheadLog.SUFFIX);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Cannot delete LSM file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Fusión de k segmentos en orden de clave. Ante claves repetidas gana el segmento más
+     * nuevo. Si la fusión llega al segmento más viejo los tombstones ya no ocultan nada y
+     * se descartan; si no, se conservan para seguir ocultando versiones más viejas.
+     */
+    private static final class MergeIterator implements Iterator<Map.Entry<LsmKey, byte[]>> {
+
+        private record Source(SegmentFile.Cursor cursor, int age) {}
+
+        private final PriorityQueue<Source> queue = new PriorityQueue<>(
+                Comparator.<Source, LsmKey>comparing(source -> source.cursor().key()).thenComparingInt(Source::age));
+        private final boolean dropTombstones;
+        private Map.Entry<LsmKey, byte[]> next;
+
+        MergeIterator(List<SegmentFile> newestFirst, boolean dropTombstones) {
+            this.dropTombstones = dropTombstones;
+            for (int age = 0; age < newestFirst.size(); age++) {
+                SegmentFile.Cursor cursor = newestFirst.get(age).cursor();
+                if (cursor.next()) {
+                    queue.add(new Source(cursor, age));
+                }
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<LsmKey, byte[]> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<LsmKey, byte[]> current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && !queue.isEmpty()) {
+                Source newest = queue.poll();
+                LsmKey key = newest.cursor().key();
+                byte[] value = newest.cursor().value();
+                requeue(newest);
+
+                // Versiones más viejas de la misma clave
+                while (!queue.isEmpty() && queue.peek().cursor().key().equals(key)) {
+                    requeue(queue.poll());
+                }
+                if (value != TOMBSTONE || !dropTombstones) {
+                    next = new AbstractMap.SimpleImmutableEntry<>(key, value);
+                }
+            }
+        }
+
+        private void requeue(Source source) {
+            if (source.cursor().next()) {
+                queue.add(source);
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.mendel.challenge.infrastructure.adapter.lsm;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.TransactionRecordCodec;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * Repositorio persistido en disco local con un store log-structured merge embebido
+ * ({@link LsmStore}): en el heap quedan solo los memtables, los índices dispersos de los
+ * segmentos y sus filtros de Bloom, así los datos pueden superar la RAM de un nodo sin
+ * un servicio externo. Las transacciones se guardan en el formato binario de
+ * {@link TransactionRecordCodec} bajo {@code (TRANSACTIONS, id)}; los índices por tipo
+ * y por padre son entradas de sus propios keyspaces, {@code (BY_TYPE, código, id)} y
+ * {@code (BY_PARENT, parentId, id)}, así buscar un tipo o los hijos de un padre es un
+ * scan por prefijo más lecturas puntuales, y ambos vuelven ordenados por id.
+ *
+ * <p>Cada escritura lee la versión anterior para retirar sus entradas de índice
+ * vencidas, así que las escrituras se serializan y cada una se aplica al store como un
+ * único lote atómico; las lecturas no toman lock. Los totales de subárbol no se
+ * mantienen: {@link #findSubtreeSum} queda con el default del puerto y el llamador
+ * recorre el árbol.
+ */
+@Slf4j
+public class LsmTransactionRepository implements TransactionRepository, AutoCloseable {
+
+    static final byte TRANSACTIONS = 1;
+    static final byte BY_TYPE = 2;
+    static final byte BY_PARENT = 3;
+    static final byte TYPE_NAMES = 4;
+
+    // Valor de las entradas de índice: la clave ya dice todo
+    private static final byte[] INDEX_ENTRY = new byte[0];
+
+    private final LsmStore store;
+    private final TypeDictionary typeDictionary;
+    private final Object writeLock = new Object();
+
+    public LsmTransactionRepository(Path directory, long memtableBytes, int compactionTrigger, boolean syncEveryWrite) {
+        log.info("Initializing LSM Transaction Repository - directory: {}, memtable: {} bytes, compaction trigger: {} segments",
+                directory, memtableBytes, compactionTrigger);
+        this.store = new LsmStore(directory, memtableBytes, compactionTrigger, syncEveryWrite);
+        this.typeDictionary = new LsmTypeDictionary(store);
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        log.debug("Saving transaction - id: {}, type: {}, amount: {}, parentId: {}",
+                transaction.getId(), transaction.getType(), transaction.getAmount(), transaction.getParentId());
+
+        synchronized (writeLock) {
+            List<LsmStore.Mutation> batch = new ArrayList<>(5);
+            addMutations(batch, transaction, read(transaction.getId()));
+            store.write(batch);
+        }
+
+        log.info("Transaction saved successfully - id: {}", transaction.getId());
+        return transaction;
+    }
+
+    @Override
+    public InsertOutcome insertIfAbsent(Transaction transaction) {
+        log.debug("Inserting transaction if absent - id: {}, parentId: {}",
+                transaction.getId(), transaction.getParentId());
+
+        synchronized (writeLock) {
+            InsertOutcome outcome = checkInsert(transaction, Set.of());
+            if (outcome != InsertOutcome.INSERTED) {
+                log.debug("Conditional insert rejected - transaction {}: {}", transaction.getId(), outcome);
+                return outcome;
+            }
+            List<LsmStore.Mutation> batch = new ArrayList<>(3);
+            addMutations(batch, transaction, null);
+            store.write(batch);
+        }
+
+        log.info("Transaction saved successfully - id: {}", transaction.getId());
+        return InsertOutcome.INSERTED;
+    }
+
+    /**
+     * Chequea todo el lote contra el store más los ids insertados antes en el mismo lote,
+     * y escribe las transacciones aceptadas como un único lote del store: un solo append
+     * al log para todas.
+     */
+    @Override
+    public List<InsertOutcome> saveAll(List<Transaction> transactions) {
+        log.debug("Saving batch of {} transactions", transactions.size());
+
+        List<InsertOutcome> outcomes = new ArrayList<>(transactions.size());
+        int inserted = 0;
+        synchronized (writeLock) {
+            Map<Long, Transaction> accepted = new HashMap<>();
+            List<LsmStore.Mutation> batch = new ArrayList<>(transactions.size() * 3);
+            for (Transaction transaction : transactions) {
+                InsertOutcome outcome = checkInsert(transaction, accepted.keySet());
+                if (outcome == InsertOutcome.INSERTED) {
+                    accepted.put(transaction.getId(), transaction);
+                    addMutations(batch, transaction, null);
+                    inserted++;
+                }
+                outcomes.add(outcome);
+            }
+            store.write(batch);
+        }
+
+        log.info("Batch saved - {} transactions received, {} inserted", transactions.size(), inserted);
+        return outcomes;
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        log.debug("Searching transaction by id: {}", id);
+        Optional<Transaction> result = Optional.ofNullable(read(id));
+        log.debug("Transaction {} with id: {}", result.isPresent() ? "found" : "not found", id);
+        return result;
+    }
+
+    @Override
+    public List<Transaction> findByType(String type) {
+        log.debug("Searching transactions by type: {}", type);
+        OptionalInt code = typeDictionary.lookup(type);
+        if (code.isEmpty()) {
+            log.info("Retrieved 0 transactions of type: {}", type);
+            return new ArrayList<>();
+        }
+
+        List<Transaction> result = resolve(store.scan(BY_TYPE, code.getAsInt()).keySet());
+        log.info("Retrieved {} transactions of type: {}", result.size(), type);
+        return result;
+    }
+
+    @Override
+    public List<Transaction> findChildrenOf(Long parentId) {
+        log.debug("Searching children transactions of parent id: {}", parentId);
+        List<Transaction> result = resolve(store.scan(BY_PARENT, parentId).keySet());
+        log.debug("Retrieved {} children transactions for parent id: {}", result.size(), parentId);
+        return result;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        boolean exists = store.get(transactionKey(id)) != null;
+        log.debug("Checking existence of transaction id: {} - exists: {}", id, exists);
+        return exists;
+    }
+
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    public String getImplementationType() {
+        log.debug("Getting implementation type: LSM");
+        return "LSM";
+    }
+
+    public int getSegmentCount() {
+        return store.segmentCount();
+    }
+
+    // Para tests: fuerzan el volcado del memtable y la compactación sin esperar umbrales
+    void flush() {
+        store.flush();
+    }
+
+    void compact() {
+        store.compact();
+    }
+
+    private InsertOutcome checkInsert(Transaction transaction, Set<Long> pending) {
+        if (pending.contains(transaction.getId()) || existsById(transaction.getId())) {
+            return InsertOutcome.ALREADY_EXISTS;
+        }
+        if (transaction.hasParent()
+                && !pending.contains(transaction.getParentId())
+                && !existsById(transaction.getParentId())) {
+            return InsertOutcome.PARENT_NOT_FOUND;
+        }
+        return InsertOutcome.INSERTED;
+    }
+
+    // La versión nueva más el retiro de las entradas de índice que la anterior deja vigentes
+    private void addMutations(List<LsmStore.Mutation> batch, Transaction transaction, Transaction previous) {
+        long id = transaction.getId();
+        int code = typeDictionary.encode(transaction.getType());
+
+        if (previous != null) {
+            int previousCode = typeDictionary.encode(previous.getType());
+            if (previousCode != code) {
+                batch.add(LsmStore.Mutation.delete(new LsmKey(BY_TYPE, previousCode, id)));
+            }
+            if (previous.hasParent() && !Objects.equals(previous.getParentId(), transaction.getParentId())) {
+                batch.add(LsmStore.Mutation.delete(new LsmKey(BY_PARENT, previous.getParentId(), id)));
+            }
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(TransactionRecordCodec.encodedSize(transaction))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        TransactionRecordCodec.encode(payload, transaction, code);
+        batch.add(LsmStore.Mutation.put(transactionKey(id), payload.array()));
+        batch.add(LsmStore.Mutation.put(new LsmKey(BY_TYPE, code, id), INDEX_ENTRY));
+        if (transaction.hasParent()) {
+            batch.add(LsmStore.Mutation.put(new LsmKey(BY_PARENT, transaction.getParentId(), id), INDEX_ENTRY));
+        }
+    }
+
+    private Transaction read(long id) {
+        byte[] payload = store.get(transactionKey(id));
+        if (payload == null) {
+            return null;
+        }
+        return TransactionRecordCodec.decode(
+                ByteBuffer.wrap(payload).order(ByteOrder.LITTLE_ENDIAN), typeDictionary::decode);
+    }
+
+    private List<Transaction> resolve(Set<Long> ids) {
+        List<Transaction> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Transaction transaction = read(id);
+            if (transaction != null) {
+                result.add(transaction);
+            }
+        }
+        return result;
+    }
+
+    private static LsmKey transactionKey(long id) {
+        return new LsmKey(TRANSACTIONS, id, 0);
+    }
+}
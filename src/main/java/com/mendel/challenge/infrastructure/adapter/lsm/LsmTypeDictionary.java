@@ -0,0 +1,44 @@
+package com.mendel.challenge.infrastructure.adapter.lsm;
+
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static com.mendel.challenge.infrastructure.adapter.lsm.LsmTransactionRepository.TYPE_NAMES;
+
+/**
+ * Diccionario de tipos persistido en el mismo store que las transacciones: cada código
+ * es una entrada {@code (TYPE_NAMES, 0, código)} con el nombre del tipo. Los payloads
+ * guardan el código, así que el diccionario tiene que sobrevivir a un reinicio con los
+ * mismos valores; al abrir se cargan todos, y un código nuevo se escribe antes de usarse.
+ */
+@Slf4j
+final class LsmTypeDictionary extends TypeDictionary {
+
+    private final LsmStore store;
+
+    LsmTypeDictionary(LsmStore store) {
+        this.store = store;
+        store.scan(TYPE_NAMES, 0).forEach((code, name) ->
+                register(new String(name, StandardCharsets.UTF_8), code.intValue()));
+        log.debug("Loaded {} transaction type codes from the LSM store", size());
+    }
+
+    @Override
+    protected synchronized int assignCode(String type) {
+        OptionalInt existing = lookup(type);
+        if (existing.isPresent()) {
+            return existing.getAsInt();
+        }
+
+        int code = size();
+        store.write(List.of(LsmStore.Mutation.put(
+                new LsmKey(TYPE_NAMES, 0, code), type.getBytes(StandardCharsets.UTF_8))));
+        register(type, code);
+        log.debug("Assigned persistent type code {} to type: {}", code, type);
+        return code;
+    }
+}
@@ -0,0 +1,438 @@
+package com.mendel.challenge.infrastructure.adapter.lsm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static com.mendel.challenge.infrastructure.adapter.lsm.LsmStore.TOMBSTONE;
+
+/**
+ * Segmento inmutable del store: entradas ordenadas por clave, un índice disperso con la
+ * primera clave de cada bloque de {@value #BLOCK_ENTRIES} entradas y un filtro de Bloom
+ * sobre los prefijos. Al abrirlo solo el índice y el filtro quedan en el heap; un get o
+ * un scan leen del archivo los bloques que necesitan, con lecturas posicionales que
+ * pueden correr desde varios hilos a la vez.
+ *
+ * <pre>
+ * [entrada]... [índice disperso] [filtro de Bloom] [offset del índice][offset del filtro][entradas][magic]
+ * entrada = [space][major][minor][largo del valor, -1 si es tombstone][valor]
+ * </pre>
+ */
+final class SegmentFile implements Closeable {
+
+    static final String PREFIX = "seg-";
+    static final String SUFFIX = ".sst";
+
+    private static final int BLOCK_ENTRIES = 32;
+    private static final int ENTRY_HEADER_BYTES = LsmKey.BYTES + 4;
+    private static final int INDEX_ENTRY_BYTES = LsmKey.BYTES + 8;
+    private static final int TRAILER_BYTES = 8 + 8 + 8 + 4;
+    private static final int MAGIC = 0x4C534D31;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path path;
+    private final long generation;
+    private final FileChannel channel;
+    private final long entries;
+    private final long bytes;
+    private final long dataEnd;
+    private final BloomFilter bloom;
+
+    // Primera clave y offset de cada bloque
+    private final byte[] blockSpaces;
+    private final long[] blockMajors;
+    private final long[] blockMinors;
+    private final long[] blockOffsets;
+
+    private SegmentFile(Path path) throws IOException {
+        this.path = path;
+        this.generation = generationOf(path);
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        long size = channel.size();
+        this.bytes = size;
+        ByteBuffer trailer = read(size - TRAILER_BYTES, TRAILER_BYTES);
+        long indexOffset = trailer.getLong();
+        long bloomOffset = trailer.getLong();
+        this.entries = trailer.getLong();
+        if (trailer.getInt() != MAGIC) {
+            channel.close();
+            throw new IllegalStateException("Not an LSM segment: " + path);
+        }
+        this.dataEnd = indexOffset;
+
+        ByteBuffer index = read(indexOffset, (int) (bloomOffset - indexOffset));
+        int blocks = index.getInt();
+        blockSpaces = new byte[blocks];
+        blockMajors = new long[blocks];
+        blockMinors = new long[blocks];
+        blockOffsets = new long[blocks];
+        for (int i = 0; i < blocks; i++) {
+            blockSpaces[i] = index.get();
+            blockMajors[i] = index.getLong();
+            blockMinors[i] = index.getLong();
+            blockOffsets[i] = index.getLong();
+        }
+        this.bloom = BloomFilter.read(read(bloomOffset, (int) (size - TRAILER_BYTES - bloomOffset)));
+    }
+
+    static SegmentFile open(Path path) {
+        try {
+            return new SegmentFile(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open LSM segment " + path, e);
+        }
+    }
+
+    /**
+     * Escribe las entradas, que tienen que venir ordenadas por clave y sin repetir, en un
+     * archivo temporal que se renombra al terminar, y abre el segmento resultante.
+     * {@code expectedEntries} dimensiona el filtro de Bloom.
+     */
+    static SegmentFile write(Path path, Iterator<Map.Entry<LsmKey, byte[]>> sorted, long expectedEntries) {
+        Path temp = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+        try (FileChannel out = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer writer = new Writer(out, BloomFilter.forKeys(expectedEntries));
+            while (sorted.hasNext()) {
+                Map.Entry<LsmKey, byte[]> entry = sorted.next();
+                writer.add(entry.getKey(), entry.getValue());
+            }
+            writer.finish();
+            out.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write LSM segment " + path, e);
+        }
+
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot publish LSM segment " + path, e);
+        }
+        return open(path);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    long entries() {
+        return entries;
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Valor de la clave en este segmento: {@code null} si no está, {@link LsmStore#TOMBSTONE}
+     * si el segmento la registra como borrada.
+     */
+    byte[] get(LsmKey key) {
+        if (!bloom.mightContain(key.space(), key.major())) {
+            return null;
+        }
+        int block = floorBlock(key.space(), key.major(), key.minor());
+        if (block < 0) {
+            return null;
+        }
+
+        ByteBuffer buffer = readBlock(block);
+        while (buffer.hasRemaining()) {
+            byte space = buffer.get();
+            long major = buffer.getLong();
+            long minor = buffer.getLong();
+            int length = buffer.getInt();
+            int comparison = LsmKey.compare(space, major, minor, key.space(), key.major(), key.minor());
+            if (comparison == 0) {
+                return readValue(buffer, length);
+            }
+            if (comparison > 0) {
+                return null;
+            }
+            skipValue(buffer, length);
+        }
+        return null;
+    }
+
+    /**
+     * Entrega en orden las entradas con prefijo {@code (space, major)}, tombstones incluidos.
+     */
+    void scan(byte space, long major, BiConsumer<Long, byte[]> consumer) {
+        if (!bloom.mightContain(space, major)) {
+            return;
+        }
+
+        for (int block = Math.max(0, floorBlock(space, major, Long.MIN_VALUE)); block < blockOffsets.length; block++) {
+            ByteBuffer buffer = readBlock(block);
+            while (buffer.hasRemaining()) {
+                byte entrySpace = buffer.get();
+                long entryMajor = buffer.getLong();
+                long minor = buffer.getLong();
+                int length = buffer.getInt();
+                int comparison = LsmKey.compare(entrySpace, entryMajor, 0, space, major, 0);
+                if (comparison > 0) {
+                    return;
+                }
+                if (comparison == 0) {
+                    consumer.accept(minor, readValue(buffer, length));
+                } else {
+                    skipValue(buffer, length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recorrido secuencial de todas las entradas, para compactar.
+     */
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close LSM segment " + path, e);
+        }
+    }
+
+    static long generationOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    // Último bloque cuya primera clave es menor o igual a la buscada; -1 si no hay
+    private int floorBlock(byte space, long major, long minor) {
+        int low = 0;
+        int high = blockOffsets.length - 1;
+        int floor = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (LsmKey.compare(blockSpaces[mid], blockMajors[mid], blockMinors[mid], space, major, minor) <= 0) {
+                floor = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return floor;
+    }
+
+    private ByteBuffer readBlock(int block) {
+        long start = blockOffsets[block];
+        long end = block + 1 < blockOffsets.length ? blockOffsets[block + 1] : dataEnd;
+        try {
+            return read(start, (int) (end - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read LSM segment " + path, e);
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalStateException("Truncated LSM segment " + path);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static byte[] readValue(ByteBuffer buffer, int length) {
+        if (length < 0) {
+            return TOMBSTONE;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return value;
+    }
+
+    private static void skipValue(ByteBuffer buffer, int length) {
+        if (length > 0) {
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    final class Cursor {
+
+        private ByteBuffer buffer = ByteBuffer.allocate(256 * 1024).limit(0);
+        private long position;
+        private LsmKey key;
+        private byte[] value;
+
+        /**
+         * Avanza a la próxima entrada; {@code false} al llegar al final de los datos.
+         */
+        boolean next() {
+            if (!ensure(ENTRY_HEADER_BYTES)) {
+                return false;
+            }
+            key = new LsmKey(buffer.get(), buffer.getLong(), buffer.getLong());
+            int length = buffer.getInt();
+            if (length > 0 && !ensure(length)) {
+                throw new IllegalStateException("Truncated LSM segment " + path);
+            }
+            value = readValue(buffer, length);
+            return true;
+        }
+
+        LsmKey key() {
+            return key;
+        }
+
+        byte[] value() {
+            return value;
+        }
+
+        SegmentFile segment() {
+            return SegmentFile.this;
+        }
+
+        private boolean ensure(int bytes) {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocate(bytes).put(buffer).flip();
+            }
+            buffer.compact();
+            try {
+                while (buffer.position() < bytes && position < dataEnd) {
+                    buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + dataEnd - position));
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        break;
+                    }
+                    position += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read LSM segment " + path, e);
+            }
+            buffer.flip();
+            return buffer.remaining() >= bytes;
+        }
+    }
+
+    // Escribe por buffer y arma el índice disperso y el filtro a medida que llegan las entradas
+    private static final class Writer {
+
+        private final FileChannel channel;
+        private final BloomFilter bloom;
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        private long position;
+        private long count;
+
+        private byte[] blockSpaces = new byte[64];
+        private long[] blockMajors = new long[64];
+        private long[] blockMinors = new long[64];
+        private long[] blockOffsets = new long[64];
+        private int blocks;
+
+        private byte lastSpace;
+        private long lastMajor;
+        private boolean hasLast;
+
+        Writer(FileChannel channel, BloomFilter bloom) {
+            this.channel = channel;
+            this.bloom = bloom;
+        }
+
+        void add(LsmKey key, byte[] value) {
+            if (count % BLOCK_ENTRIES == 0) {
+                addBlock(key, position + buffer.position());
+            }
+            if (!hasLast || key.space() != lastSpace || key.major() != lastMajor) {
+                bloom.add(key.space(), key.major());
+                lastSpace = key.space();
+                lastMajor = key.major();
+                hasLast = true;
+            }
+
+            boolean tombstone = value == TOMBSTONE;
+            ensureRemaining(ENTRY_HEADER_BYTES + (tombstone ? 0 : value.length));
+            buffer.put(key.space()).putLong(key.major()).putLong(key.minor());
+            if (tombstone) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(value.length).put(value);
+            }
+            count++;
+        }
+
+        void finish() {
+            long indexOffset = position + buffer.position();
+            ensureRemaining(4);
+            buffer.putInt(blocks);
+            for (int i = 0; i < blocks; i++) {
+                ensureRemaining(INDEX_ENTRY_BYTES);
+                buffer.put(blockSpaces[i]).putLong(blockMajors[i]).putLong(blockMinors[i]).putLong(blockOffsets[i]);
+            }
+
+            long bloomOffset = position + buffer.position();
+            if (buffer.remaining() < bloom.serializedSize()) {
+                writeBuffer();
+                if (buffer.capacity() < bloom.serializedSize()) {
+                    buffer = ByteBuffer.allocate(bloom.serializedSize());
+                }
+            }
+            bloom.write(buffer);
+
+            ensureRemaining(TRAILER_BYTES);
+            buffer.putLong(indexOffset).putLong(bloomOffset).putLong(count).putInt(MAGIC);
+            writeBuffer();
+        }
+
+        private void addBlock(LsmKey key, long offset) {
+            if (blocks == blockOffsets.length) {
+                int length = blocks * 2;
+                blockSpaces = Arrays.copyOf(blockSpaces, length);
+                blockMajors = Arrays.copyOf(blockMajors, length);
+                blockMinors = Arrays.copyOf(blockMinors, length);
+                blockOffsets = Arrays.copyOf(blockOffsets, length);
+            }
+            blockSpaces[blocks] = key.space();
+            blockMajors[blocks] = key.major();
+            blockMinors[blocks] = key.minor();
+            blockOffsets[blocks] = offset;
+            blocks++;
+        }
+
+        private void ensureRemaining(int bytes) {
+            if (buffer.remaining() < bytes) {
+                writeBuffer();
+                if (buffer.capacity() < bytes) {
+                    buffer = ByteBuffer.allocate(bytes);
+                }
+            }
+        }
+
+        private void writeBuffer() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write LSM segment", e);
+            }
+            buffer.clear();
+        }
+    }
+}
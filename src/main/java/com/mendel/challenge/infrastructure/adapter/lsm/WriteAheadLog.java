@@ -0,0 +1,153 @@
+package com.mendel.challenge.infrastructure.adapter.lsm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import static com.mendel.challenge.infrastructure.adapter.lsm.LsmStore.TOMBSTONE;
+
+/**
+ * Log de escritura de una generación del memtable: cada lote de mutaciones es un registro
+ * {@code [largo][CRC32C][cantidad][mutación]...}, así un lote se recupera entero o no se
+ * recupera. Se borra cuando su memtable llega a un segmento. No es thread-safe: el store
+ * serializa los appends.
+ */
+@Slf4j
+final class WriteAheadLog implements Closeable {
+
+    static final String PREFIX = "wal-";
+    static final String SUFFIX = ".log";
+
+    private static final int HEADER_BYTES = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean syncEveryWrite;
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+    WriteAheadLog(Path path, boolean syncEveryWrite) {
+        this.path = path;
+        this.syncEveryWrite = syncEveryWrite;
+        try {
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open LSM write-ahead log " + path, e);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    void append(List<LsmStore.Mutation> batch) {
+        int size = HEADER_BYTES + 4;
+        for (LsmStore.Mutation mutation : batch) {
+            size += LsmKey.BYTES + 4 + (mutation.value() == TOMBSTONE ? 0 : mutation.value().length);
+        }
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+        }
+
+        buffer.clear().position(HEADER_BYTES);
+        buffer.putInt(batch.size());
+        for (LsmStore.Mutation mutation : batch) {
+            LsmKey key = mutation.key();
+            buffer.put(key.space()).putLong(key.major()).putLong(key.minor());
+            if (mutation.value() == TOMBSTONE) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(mutation.value().length).put(mutation.value());
+            }
+        }
+
+        crc.reset();
+        crc.update(buffer.duplicate().flip().position(HEADER_BYTES));
+        buffer.putInt(0, size - HEADER_BYTES).putInt(4, (int) crc.getValue()).flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (syncEveryWrite) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to LSM write-ahead log " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close LSM write-ahead log " + path, e);
+        }
+    }
+
+    /**
+     * Entrega cada lote completo del log en orden. Se detiene en el primer registro
+     * incompleto o con CRC inválido: es lo que quedó a medio escribir en una caída.
+     */
+    static long replay(Path path, Consumer<List<LsmStore.Mutation>> consumer) {
+        ByteBuffer records;
+        try {
+            records = ByteBuffer.wrap(Files.readAllBytes(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read LSM write-ahead log " + path, e);
+        }
+
+        CRC32C crc = new CRC32C();
+        long batches = 0;
+        while (records.remaining() >= HEADER_BYTES) {
+            int length = records.getInt();
+            int checksum = records.getInt();
+            if (length <= 0 || length > records.remaining()) {
+                break;
+            }
+            ByteBuffer body = records.slice(records.position(), length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                log.warn("LSM write-ahead log {} has a corrupt record at offset {}, skipping the rest",
+                        path, records.position() - HEADER_BYTES);
+                break;
+            }
+            records.position(records.position() + length);
+
+            int count = body.getInt();
+            List<LsmStore.Mutation> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                LsmKey key = new LsmKey(body.get(), body.getLong(), body.getLong());
+                int valueLength = body.getInt();
+                byte[] value = TOMBSTONE;
+                if (valueLength >= 0) {
+                    value = new byte[valueLength];
+                    body.get(value);
+                }
+                batch.add(new LsmStore.Mutation(key, value));
+            }
+            consumer.accept(batch);
+            batches++;
+        }
+        return batches;
+    }
+
+    static long generationOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
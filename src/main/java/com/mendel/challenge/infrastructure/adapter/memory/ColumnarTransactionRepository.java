@@ -0,0 +1,29 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Repositorio en memoria que guarda las transacciones columna por columna en lugar de un
+ * objeto por fila: ids, montos escalados, ids de padre, millis de creación, códigos del
+ * {@link TypeDictionary} y totales de subárbol viven en arrays primitivos paralelos
+ * ({@link TransactionColumns}), así la propagación de totales y los recorridos por hijos
+ * o por tipo son loops sobre arrays de {@code int}/{@code long}.
+ */
+@Slf4j
+public class ColumnarTransactionRepository extends RowStoreTransactionRepository {
+
+    public ColumnarTransactionRepository() {
+        this(new TypeDictionary());
+    }
+
+    public ColumnarTransactionRepository(TypeDictionary typeDictionary) {
+        super(new TransactionColumns(), typeDictionary);
+    }
+
+    @Override
+    public String getImplementationType() {
+        log.debug("Getting implementation type: COLUMNAR");
+        return "COLUMNAR";
+    }
+}
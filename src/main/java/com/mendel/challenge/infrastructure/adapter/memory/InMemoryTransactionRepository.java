@@ -1,25 +1,124 @@
 package com.mendel.challenge.infrastructure.adapter.memory;
 
+import com.mendel.challenge.domain.model.AmountAccumulator;
+import com.mendel.challenge.domain.model.InsertOutcome;
 import com.mendel.challenge.domain.model.Transaction;
 import com.mendel.challenge.domain.port.out.TransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Collections;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
-
+import java.util.OptionalInt;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Repositorio en memoria thread-safe. Los ids se guardan como {@code long} primitivos
+ * en mapas y sets de direccionamiento abierto, particionados en stripes con su propio
+ * lock: una entrada de índice ocupa un slot de un {@code long[]} en lugar de un Long y
+ * un nodo de hash. Los tipos se indexan por su código del {@link TypeDictionary} y las
+ * transacciones guardadas comparten el String del diccionario. Cada escritura bloquea
+ * solo los acumuladores de los ids que toca, así los saves de transacciones no
+ * relacionadas avanzan en paralelo.
+ *
+ * <p>Opcionalmente cada escritura se agrega a un {@link MappedTransactionJournal} y un
+ * hilo de fondo escribe cada tanto un {@link TransactionSnapshots} y descarta los
+ * segmentos de journal que cubre. Al arrancar se carga en paralelo el último snapshot y
+ * solo se reaplica la cola del journal escrita después, así la estrategia sobrevive a
+ * reinicios sin Redis.
+ */
 @Slf4j
-public class InMemoryTransactionRepository implements TransactionRepository {
+public class InMemoryTransactionRepository implements TransactionRepository, AutoCloseable {
+
+    private final TypeDictionary typeDictionary;
+    private final StripedLongObjectMap<Transaction> transactions = new StripedLongObjectMap<>();
+    // Pocos tipos con muchos ids cada uno: conjuntos particionados, por código de tipo
+    private final StripedLongObjectMap<StripedLongSet> typeIndex = new StripedLongObjectMap<>();
+    // Pocos hijos por padre: un LongHashSet chico, protegido por su propio monitor
+    private final StripedLongObjectMap<LongHashSet> childrenIndex = new StripedLongObjectMap<>();
+    // Monto propio + todos los descendientes, mantenido en cada save.
+    // El acumulador de cada id es además su lock: protege el reemplazo del nodo
+    // y la lectura de su padre mientras se propagan deltas por él.
+    private final StripedLongObjectMap<AmountAccumulator> subtreeSums = new StripedLongObjectMap<>();
+    // null sin journal
+    private final MappedTransactionJournal journal;
+    private final TransactionSnapshots snapshots;
+    private final ScheduledExecutorService snapshotter;
+    private final Object snapshotLock = new Object();
+    // Recibe los ancestros cuyo total cambió; null si nadie los pidió
+    private volatile Consumer<Collection<Long>> subtreeChangeListener;
+
+    public InMemoryTransactionRepository() {
+        this(new TypeDictionary());
+    }
+
+    public InMemoryTransactionRepository(TypeDictionary typeDictionary) {
+        this.typeDictionary = typeDictionary;
+        this.journal = null;
+        this.snapshots = null;
+        this.snapshotter = null;
+    }
 
-    private final Map<Long, Transaction> transactions = new HashMap<>();
-    private final Map<String, Set<Long>> typeIndex = new HashMap<>();
-    private final Map<Long, Set<Long>> childrenIndex = new HashMap<>();
+    public InMemoryTransactionRepository(TypeDictionary typeDictionary,
+                                         Path journalDirectory,
+                                         int segmentSizeBytes,
+                                         boolean syncEveryWrite) {
+        this(typeDictionary, journalDirectory, segmentSizeBytes, syncEveryWrite, 0,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    public InMemoryTransactionRepository(TypeDictionary typeDictionary,
+                                         Path journalDirectory,
+                                         int segmentSizeBytes,
+                                         boolean syncEveryWrite,
+                                         long snapshotIntervalMs,
+                                         int loadThreads) {
+        this.typeDictionary = typeDictionary;
+
+        MappedTransactionJournal recovering = new MappedTransactionJournal(journalDirectory, segmentSizeBytes, syncEveryWrite);
+        this.snapshots = new TransactionSnapshots(journalDirectory);
+        long started = System.nanoTime();
+
+        long fromSequence = 0;
+        long loaded = 0;
+        Optional<TransactionSnapshots.Snapshot> latest = snapshots.latest();
+        if (latest.isPresent()) {
+            loaded = snapshots.load(latest.get(), loadThreads, this::restore);
+            rebuildSubtreeSums();
+            fromSequence = latest.get().journalSequence();
+        }
+
+        // El campo journal sigue en null durante el replay: lo recuperado no se vuelve a escribir
+        long replayed = recovering.replay(fromSequence, transaction -> write(withCanonicalType(transaction), false));
+        recovering.open();
+        this.journal = recovering;
+
+        if (snapshotIntervalMs > 0) {
+            this.snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "memory-snapshotter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.snapshotter.scheduleWithFixedDelay(this::snapshotQuietly,
+                    snapshotIntervalMs, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.snapshotter = null;
+        }
+
+        log.info("In-memory repository recovered {} snapshot and {} journal records in {} ms - {} transactions, journal: {}",
+                loaded, replayed, (System.nanoTime() - started) / 1_000_000, transactions.size(), journalDirectory);
+    }
 
     @Override
     public Transaction save(Transaction transaction) {
@@ -29,34 +128,132 @@ public class InMemoryTransactionRepository implements TransactionRepository {
                 transaction.getAmount(),
                 transaction.getParentId());
 
-        transactions.put(transaction.getId(), transaction);
+        write(withCanonicalType(transaction), false);
 
-        typeIndex.computeIfAbsent(transaction.getType(), k -> {
-            log.debug("Creating new type index entry for type: {}", k);
-            return new HashSet<>();
-        }).add(transaction.getId());
+        log.info("Transaction saved successfully - id: {}, total transactions: {}",
+                transaction.getId(), transactions.size());
 
-        if (transaction.hasParent()) {
-            log.debug("Indexing transaction {} as child of parent: {}",
-                    transaction.getId(), transaction.getParentId());
+        return transaction;
+    }
 
-            childrenIndex.computeIfAbsent(transaction.getParentId(), k -> {
-                log.debug("Creating new children index entry for parent: {}", k);
-                return new HashSet<>();
-            }).add(transaction.getId());
+    @Override
+    public InsertOutcome insertIfAbsent(Transaction transaction) {
+        log.debug("Inserting transaction if absent - id: {}, parentId: {}",
+                transaction.getId(), transaction.getParentId());
+
+        // Chequeos previos sin lock: no hay borrados, así que un padre visible sigue existiendo
+        if (transactions.containsKey(transaction.getId())) {
+            return InsertOutcome.ALREADY_EXISTS;
+        }
+        if (transaction.hasParent() && !transactions.containsKey(transaction.getParentId())) {
+            return InsertOutcome.PARENT_NOT_FOUND;
         }
 
-        log.info("Transaction saved successfully - id: {}, total transactions: {}",
-                transaction.getId(), transactions.size());
+        InsertOutcome outcome = write(withCanonicalType(transaction), true);
+        if (outcome == InsertOutcome.INSERTED) {
+            log.info("Transaction saved successfully - id: {}, total transactions: {}",
+                    transaction.getId(), transactions.size());
+        }
+        return outcome;
+    }
 
-        return transaction;
+    private InsertOutcome write(Transaction transaction, boolean onlyIfAbsent) {
+        AmountAccumulator total = accumulatorOf(transaction.getId());
+        Transaction previous;
+        AmountAccumulator oldTotal;
+        AmountAccumulator newTotal;
+
+        synchronized (total) {
+            // Bajo el lock del id la decisión y la escritura son una sola operación
+            previous = onlyIfAbsent
+                    ? transactions.putIfAbsent(transaction.getId(), transaction)
+                    : transactions.put(transaction.getId(), transaction);
+
+            if (onlyIfAbsent && previous != null) {
+                log.debug("Conditional insert rejected - transaction {} already exists", transaction.getId());
+                return InsertOutcome.ALREADY_EXISTS;
+            }
+
+            // Bajo el mismo lock: dos saves del mismo id quedan en el journal en el orden aplicado
+            if (journal != null) {
+                journal.append(transaction);
+            }
+
+            if (previous != null) {
+                unindexPrevious(previous, transaction);
+            }
+
+            index(transaction);
+
+            // Puede haber hijos guardados antes que el padre: su aporte ya está acumulado
+            oldTotal = total.copy();
+            if (previous != null) {
+                total.subtract(previous);
+            }
+            total.add(transaction);
+            newTotal = total.copy();
+        }
+
+        updateAncestors(previous, transaction, oldTotal, newTotal);
+
+        return InsertOutcome.INSERTED;
+    }
+
+    @Override
+    public List<InsertOutcome> saveAll(List<Transaction> batch) {
+        log.debug("Saving batch of {} transactions", batch.size());
+
+        List<InsertOutcome> outcomes = new ArrayList<>(batch.size());
+        // Aporte de cada nodo nuevo, agrupado por padre: se propaga una vez por ancestro
+        // y nivel en lugar de recorrer la cadena completa por cada transacción del lote
+        Map<Long, AmountAccumulator> pendingByParent = new HashMap<>();
+
+        for (Transaction transaction : batch) {
+            InsertOutcome outcome;
+            if (transactions.containsKey(transaction.getId())) {
+                outcome = InsertOutcome.ALREADY_EXISTS;
+            } else if (transaction.hasParent() && !transactions.containsKey(transaction.getParentId())) {
+                outcome = InsertOutcome.PARENT_NOT_FOUND;
+            } else {
+                AmountAccumulator newTotal = insertForBatch(withCanonicalType(transaction));
+                outcome = newTotal != null ? InsertOutcome.INSERTED : InsertOutcome.ALREADY_EXISTS;
+                if (newTotal != null && transaction.hasParent()) {
+                    pendingByParent.computeIfAbsent(transaction.getParentId(), k -> new AmountAccumulator())
+                            .merge(newTotal);
+                }
+            }
+            outcomes.add(outcome);
+        }
+
+        propagateBatch(pendingByParent);
+
+        log.info("Batch saved - {} transactions received, total transactions: {}",
+                batch.size(), transactions.size());
+
+        return outcomes;
+    }
+
+    // Igual que write(tx, true) pero sin propagar: devuelve el total a propagar o null si el id ya existía
+    private AmountAccumulator insertForBatch(Transaction transaction) {
+        AmountAccumulator total = accumulatorOf(transaction.getId());
+        synchronized (total) {
+            if (transactions.putIfAbsent(transaction.getId(), transaction) != null) {
+                return null;
+            }
+            if (journal != null) {
+                journal.append(transaction);
+            }
+            index(transaction);
+            total.add(transaction);
+            return total.copy();
+        }
     }
 
     @Override
     public Optional<Transaction> findById(Long id) {
         log.debug("Searching transaction by id: {}", id);
 
-        Optional<Transaction> result = Optional.ofNullable(transactions.get(id));
+        Optional<Transaction> result = Optional.ofNullable(id != null ? transactions.get(id) : null);
 
         if (result.isPresent()) {
             log.debug("Transaction found with id: {}", id);
@@ -71,14 +268,13 @@ public class InMemoryTransactionRepository implements TransactionRepository {
     public List<Transaction> findByType(String type) {
         log.debug("Searching transactions by type: {}", type);
 
-        Set<Long> ids = typeIndex.getOrDefault(type, Collections.emptySet());
+        OptionalInt code = type != null ? typeDictionary.lookup(type) : OptionalInt.empty();
+        StripedLongSet index = code.isPresent() ? typeIndex.get(code.getAsInt()) : null;
+        long[] ids = index != null ? index.toArray() : new long[0];
 
-        log.debug("Found {} transaction ids for type: {}", ids.size(), type);
+        log.debug("Found {} transaction ids for type: {}", ids.length, type);
 
-        List<Transaction> result = ids.stream()
-                .map(transactions::get)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<Transaction> result = resolve(ids);
 
         log.info("Retrieved {} transactions of type: {}", result.size(), type);
 
@@ -89,29 +285,325 @@ public class InMemoryTransactionRepository implements TransactionRepository {
     public List<Transaction> findChildrenOf(Long parentId) {
         log.debug("Searching children transactions of parent id: {}", parentId);
 
-        Set<Long> childIds = childrenIndex.getOrDefault(parentId, Collections.emptySet());
+        LongHashSet children = parentId != null ? childrenIndex.get(parentId) : null;
+        long[] childIds = new long[0];
+        if (children != null) {
+            synchronized (children) {
+                childIds = children.toArray();
+            }
+        }
 
-        log.debug("Found {} child ids for parent: {}", childIds.size(), parentId);
+        log.debug("Found {} child ids for parent: {}", childIds.length, parentId);
 
-        List<Transaction> result = childIds.stream()
-                .map(transactions::get)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<Transaction> result = resolve(childIds);
 
         log.debug("Retrieved {} children transactions for parent id: {}", result.size(), parentId);
 
         return result;
     }
 
+    @Override
+    public Optional<BigDecimal> findSubtreeSum(Long id) {
+        AmountAccumulator total = id != null && transactions.containsKey(id) ? subtreeSums.get(id) : null;
+        BigDecimal sum = null;
+        if (total != null) {
+            synchronized (total) {
+                sum = total.toBigDecimal();
+            }
+        }
+
+        log.debug("Subtree sum lookup for transaction id: {} - total: {}", id, sum);
+
+        return Optional.ofNullable(sum);
+    }
+
+    @Override
+    public boolean setSubtreeChangeListener(Consumer<Collection<Long>> listener) {
+        this.subtreeChangeListener = listener;
+        return true;
+    }
+
     @Override
     public boolean existsById(Long id) {
-        boolean exists = transactions.containsKey(id);
+        boolean exists = id != null && transactions.containsKey(id);
 
         log.debug("Checking existence of transaction id: {} - exists: {}", id, exists);
 
         return exists;
     }
 
+    // El tipo se guarda como la instancia del diccionario: una sola copia por tipo en el heap
+    private Transaction withCanonicalType(Transaction transaction) {
+        String type = typeDictionary.canonical(transaction.getType());
+        if (type == transaction.getType()) {
+            return transaction;
+        }
+        return Transaction.builder()
+                .id(transaction.getId())
+                .type(type)
+                .amount(transaction.getAmount())
+                .parentId(transaction.getParentId())
+                .createdAt(transaction.getCreatedAt())
+                .build();
+    }
+
+    private void index(Transaction transaction) {
+        typeIndex.computeIfAbsent(typeDictionary.encode(transaction.getType()), code -> {
+            log.debug("Creating new type index entry for type: {}", transaction.getType());
+            return new StripedLongSet();
+        }).add(transaction.getId());
+
+        if (transaction.hasParent()) {
+            log.debug("Indexing transaction {} as child of parent: {}",
+                    transaction.getId(), transaction.getParentId());
+
+            LongHashSet children = childrenIndex.computeIfAbsent(transaction.getParentId(), k -> {
+                log.debug("Creating new children index entry for parent: {}", k);
+                return new LongHashSet();
+            });
+            synchronized (children) {
+                children.add(transaction.getId());
+            }
+        }
+    }
+
+    private void unindexPrevious(Transaction previous, Transaction current) {
+        if (!previous.getType().equals(current.getType())) {
+            StripedLongSet ids = typeIndex.get(typeDictionary.encode(previous.getType()));
+            if (ids != null) {
+                ids.remove(previous.getId());
+            }
+        }
+
+        if (previous.hasParent() && !previous.getParentId().equals(current.getParentId())) {
+            LongHashSet siblings = childrenIndex.get(previous.getParentId());
+            if (siblings != null) {
+                synchronized (siblings) {
+                    siblings.remove(previous.getId());
+                }
+            }
+        }
+    }
+
+    private List<Transaction> resolve(long[] ids) {
+        List<Transaction> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Transaction transaction = transactions.get(id);
+            if (transaction != null) {
+                result.add(transaction);
+            }
+        }
+        return result;
+    }
+
+    private AmountAccumulator accumulatorOf(Long id) {
+        return subtreeSums.computeIfAbsent(id, k -> new AmountAccumulator());
+    }
+
+    private void updateAncestors(Transaction previous, Transaction current,
+                                 AmountAccumulator oldTotal, AmountAccumulator newTotal) {
+        List<Long> changed = subtreeChangeListener != null ? new ArrayList<>() : null;
+
+        if (previous == null) {
+            propagateToAncestors(current.getParentId(), newTotal, false, changed);
+        } else if (Objects.equals(previous.getParentId(), current.getParentId())) {
+            // Reemplazo de una transacción existente: se conservan los descendientes ya sumados
+            AmountAccumulator delta = newTotal.copy();
+            delta.subtract(oldTotal);
+            propagateToAncestors(current.getParentId(), delta, false, changed);
+        } else {
+            propagateToAncestors(previous.getParentId(), oldTotal, true, changed);
+            propagateToAncestors(current.getParentId(), newTotal, false, changed);
+        }
+
+        notifySubtreeChange(changed);
+    }
+
+    private void propagateToAncestors(Long parentId, AmountAccumulator delta, boolean negate, List<Long> changed) {
+        Long current = parentId;
+        int remaining = transactions.size();
+
+        // El límite de pasos protege contra ciclos introducidos por reemplazos
+        while (current != null && remaining-- > 0) {
+            AmountAccumulator ancestorTotal = accumulatorOf(current);
+            Long ancestorId = current;
+
+            // Sumar y leer el padre bajo el mismo lock: si el ancestro todavía no fue
+            // guardado, su propio save verá este aporte y lo propagará hacia arriba
+            synchronized (ancestorTotal) {
+                if (negate) {
+                    ancestorTotal.subtract(delta);
+                } else {
+                    ancestorTotal.merge(delta);
+                }
+
+                Transaction ancestor = transactions.get(current);
+                current = ancestor != null ? ancestor.getParentId() : null;
+            }
+
+            if (changed != null) {
+                changed.add(ancestorId);
+            }
+        }
+    }
+
+    // propagateToAncestors por niveles: los deltas que llegan al mismo ancestro se combinan
+    private void propagateBatch(Map<Long, AmountAccumulator> deltasByParent) {
+        Map<Long, AmountAccumulator> level = deltasByParent;
+        int remaining = transactions.size();
+        List<Long> changed = subtreeChangeListener != null ? new ArrayList<>() : null;
+
+        while (!level.isEmpty() && remaining-- > 0) {
+            Map<Long, AmountAccumulator> next = new HashMap<>();
+
+            for (Map.Entry<Long, AmountAccumulator> entry : level.entrySet()) {
+                AmountAccumulator ancestorTotal = accumulatorOf(entry.getKey());
+                Long parentId;
+
+                synchronized (ancestorTotal) {
+                    ancestorTotal.merge(entry.getValue());
+
+                    Transaction ancestor = transactions.get(entry.getKey());
+                    parentId = ancestor != null ? ancestor.getParentId() : null;
+                }
+
+                if (changed != null) {
+                    changed.add(entry.getKey());
+                }
+                if (parentId != null) {
+                    next.computeIfAbsent(parentId, k -> new AmountAccumulator()).merge(entry.getValue());
+                }
+            }
+            level = next;
+        }
+
+        notifySubtreeChange(changed);
+    }
+
+    // Después de propagar: quien cachee totales no puede publicar uno previo a esta escritura
+    private void notifySubtreeChange(List<Long> changed) {
+        Consumer<Collection<Long>> listener = subtreeChangeListener;
+        if (listener != null && changed != null && !changed.isEmpty()) {
+            listener.accept(changed);
+        }
+    }
+
+    /**
+     * Escribe un snapshot sin frenar las escrituras y borra los segmentos de journal que
+     * cubre. Lo que se escribe durante el snapshot queda en el segmento abierto al empezar,
+     * que se reaplica al recuperar. Devuelve la cantidad de transacciones escritas.
+     */
+    public long snapshot() {
+        if (journal == null) {
+            throw new IllegalStateException("Snapshots require the memory journal");
+        }
+
+        synchronized (snapshotLock) {
+            long started = System.nanoTime();
+            long fromSequence = journal.rotate();
+            long written = snapshots.write(fromSequence, transactions);
+            journal.deleteSegmentsBefore(fromSequence);
+            snapshots.deleteBefore(fromSequence);
+
+            log.info("Memory snapshot of {} transactions written in {} ms - journal replay starts at segment {}",
+                    written, (System.nanoTime() - started) / 1_000_000, fromSequence);
+            return written;
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            log.error("Memory snapshot failed, the journal keeps every segment until the next one. Error: {}",
+                    e.getMessage(), e);
+        }
+    }
+
+    // Carga de snapshot: solo mapas e índices, los totales se calculan al final
+    private void restore(Transaction transaction) {
+        Transaction canonical = withCanonicalType(transaction);
+        transactions.put(canonical.getId(), canonical);
+        index(canonical);
+    }
+
+    /**
+     * Totales de subárbol de todo lo cargado en una pasada: cada raíz (sin padre o con
+     * padre no guardado) se recorre en preorden y se acumula en orden inverso, así cada
+     * hijo suma antes que su padre. El aporte de una raíz huérfana queda en el total de
+     * su padre, igual que en write.
+     */
+    private void rebuildSubtreeSums() {
+        transactions.forEachStripe(stripe -> {
+            for (Transaction transaction : stripe) {
+                if (!transaction.hasParent() || !transactions.containsKey(transaction.getParentId())) {
+                    sumSubtree(transaction);
+                }
+            }
+        });
+
+        // Solo quedan sin total los nodos de ciclos armados por reemplazos: se propagan como en write
+        transactions.forEachStripe(stripe -> {
+            for (Transaction transaction : stripe) {
+                if (subtreeSums.get(transaction.getId()) == null) {
+                    AmountAccumulator total = accumulatorOf(transaction.getId());
+                    total.add(transaction);
+                    propagateToAncestors(transaction.getParentId(), total.copy(), false, null);
+                }
+            }
+        });
+    }
+
+    private void sumSubtree(Transaction root) {
+        long[] order = new long[16];
+        int size = 0;
+        long[] stack = {root.getId()};
+        int top = 1;
+
+        while (top > 0) {
+            long id = stack[--top];
+            if (size == order.length) {
+                order = Arrays.copyOf(order, size * 2);
+            }
+            order[size++] = id;
+
+            LongHashSet children = childrenIndex.get(id);
+            if (children != null) {
+                for (long child : children.toArray()) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = child;
+                }
+            }
+        }
+
+        for (int i = size - 1; i >= 0; i--) {
+            Transaction transaction = transactions.get(order[i]);
+            AmountAccumulator total = accumulatorOf(order[i]);
+            total.add(transaction);
+            if (transaction.hasParent()) {
+                accumulatorOf(transaction.getParentId()).merge(total);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (snapshotter != null) {
+            snapshotter.shutdown();
+            try {
+                snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (journal != null) {
+            journal.close();
+            log.info("In-memory repository journal closed - {} transactions", transactions.size());
+        }
+    }
+
     public String getImplementationType() {
         log.debug("Getting implementation type: IN_MEMORY");
         return "IN_MEMORY";
@@ -0,0 +1,160 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de {@code long} con direccionamiento abierto y sondeo lineal: 8 bytes por
+ * slot, sin boxing ni nodos. El 0 marca slot libre, así que la clave 0 se guarda aparte.
+ * No es thread-safe: quien lo comparte lo protege con su propio lock.
+ */
+final class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private boolean containsZero;
+
+    LongHashSet() {
+        this(2);
+    }
+
+    LongHashSet(int expected) {
+        allocate(PrimitiveHashing.tableSize(expected, LOAD_FACTOR));
+    }
+
+    boolean add(long key) {
+        if (key == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int pos = PrimitiveHashing.slot(key, mask);
+        long current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                return false;
+            }
+            pos = (pos + 1) & mask;
+        }
+
+        keys[pos] = key;
+        if (++size >= maxFill) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    boolean contains(long key) {
+        if (key == 0) {
+            return containsZero;
+        }
+
+        int pos = PrimitiveHashing.slot(key, mask);
+        long current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                return true;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return false;
+    }
+
+    boolean remove(long key) {
+        if (key == 0) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+
+        int pos = PrimitiveHashing.slot(key, mask);
+        long current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                size--;
+                shiftKeys(pos);
+                return true;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long[] toArray() {
+        long[] result = new long[size];
+        int index = 0;
+        if (containsZero) {
+            result[index++] = 0;
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                result[index++] = key;
+            }
+        }
+        return result;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        maxFill = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    private void rehash(int capacity) {
+        long[] old = keys;
+        allocate(capacity);
+        for (long key : old) {
+            if (key != 0) {
+                int pos = PrimitiveHashing.slot(key, mask);
+                while (keys[pos] != 0) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = key;
+            }
+        }
+    }
+
+    // Borrado sin tombstones: corre hacia atrás las claves que sondearon más allá del hueco
+    private void shiftKeys(int pos) {
+        for (;;) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            long current;
+            for (;;) {
+                if ((current = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    return;
+                }
+                int home = PrimitiveHashing.slot(current, mask);
+                if (last <= pos ? last >= home || home > pos : last >= home && home > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = current;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,111 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+/**
+ * Mapa {@code long → int} con direccionamiento abierto, para índices de id a fila.
+ * Los valores deben ser no negativos: {@link #NO_VALUE} indica clave ausente. Sin
+ * borrado, porque las filas no se liberan. No es thread-safe, pero {@link #get} tolera
+ * un writer concurrente: puede devolver cualquier valor, sin lanzar ni sondear más que la
+ * tabla, para lecturas optimistas que después validan su stamp.
+ */
+final class LongIntHashMap {
+
+    static final int NO_VALUE = -1;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private int zeroValue = NO_VALUE;
+
+    LongIntHashMap() {
+        this(16);
+    }
+
+    LongIntHashMap(int expected) {
+        allocate(PrimitiveHashing.tableSize(expected, LOAD_FACTOR));
+    }
+
+    int get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+
+        // Arrays leídos una vez: un rehash concurrente no mezcla tablas dentro del sondeo
+        long[] currentKeys = keys;
+        int[] currentValues = values;
+        int tableMask = currentKeys.length - 1;
+        int pos = PrimitiveHashing.slot(key, tableMask);
+        for (int probes = 0; probes < currentKeys.length; probes++) {
+            long current = currentKeys[pos];
+            if (current == key) {
+                return pos < currentValues.length ? currentValues[pos] : NO_VALUE;
+            }
+            if (current == 0) {
+                return NO_VALUE;
+            }
+            pos = (pos + 1) & tableMask;
+        }
+        return NO_VALUE;
+    }
+
+    void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        if (key == 0) {
+            if (zeroValue == NO_VALUE) {
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+
+        int pos = PrimitiveHashing.slot(key, mask);
+        long current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                values[pos] = value;
+                return;
+            }
+            pos = (pos + 1) & mask;
+        }
+
+        keys[pos] = key;
+        values[pos] = value;
+        if (++size >= maxFill) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        maxFill = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int pos = PrimitiveHashing.slot(key, mask);
+                while (keys[pos] != 0) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = key;
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+}
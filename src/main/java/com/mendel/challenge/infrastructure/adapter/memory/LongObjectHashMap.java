@@ -0,0 +1,205 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import java.util.List;
+
+/**
+ * Mapa {@code long → V} con direccionamiento abierto y sondeo lineal sobre dos arrays
+ * paralelos: sin {@code Long} ni nodo por entrada. El 0 marca slot libre, así que la
+ * clave 0 se guarda aparte. No es thread-safe, pero {@link #get} y {@link #containsKey}
+ * toleran un writer concurrente: pueden devolver cualquier resultado, sin lanzar ni
+ * sondear más que la tabla, para lecturas optimistas que después validan su stamp.
+ */
+final class LongObjectHashMap<V> {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private boolean containsZero;
+    private V zeroValue;
+
+    LongObjectHashMap() {
+        this(16);
+    }
+
+    LongObjectHashMap(int expected) {
+        allocate(PrimitiveHashing.tableSize(expected, LOAD_FACTOR));
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        if (key == 0) {
+            return containsZero ? zeroValue : null;
+        }
+
+        // Arrays leídos una vez: un rehash concurrente no mezcla tablas dentro del sondeo
+        long[] currentKeys = keys;
+        Object[] currentValues = values;
+        int pos = probe(currentKeys, key);
+        return pos >= 0 && pos < currentValues.length ? (V) currentValues[pos] : null;
+    }
+
+    boolean containsKey(long key) {
+        if (key == 0) {
+            return containsZero;
+        }
+        return probe(keys, key) >= 0;
+    }
+
+    /**
+     * Devuelve el valor anterior, o null si la clave no estaba.
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (key == 0) {
+            V previous = zeroValue;
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+
+        int pos = PrimitiveHashing.slot(key, mask);
+        long current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                V previous = (V) values[pos];
+                values[pos] = value;
+                return previous;
+            }
+            pos = (pos + 1) & mask;
+        }
+
+        keys[pos] = key;
+        values[pos] = value;
+        if (++size >= maxFill) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Devuelve el valor quitado, o null si la clave no estaba.
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        if (key == 0) {
+            if (!containsZero) {
+                return null;
+            }
+            V previous = zeroValue;
+            containsZero = false;
+            zeroValue = null;
+            size--;
+            return previous;
+        }
+
+        int pos = find(key);
+        if (pos < 0) {
+            return null;
+        }
+        V previous = (V) values[pos];
+        size--;
+        shiftKeys(pos);
+        return previous;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Agrega los valores al final de la lista, en orden de slot
+    @SuppressWarnings("unchecked")
+    void collectValues(List<? super V> into) {
+        if (containsZero) {
+            into.add(zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                into.add((V) values[i]);
+            }
+        }
+    }
+
+    // Como find, pero con la máscara del propio array y a lo sumo una vuelta a la tabla
+    private static int probe(long[] table, long key) {
+        int tableMask = table.length - 1;
+        int pos = PrimitiveHashing.slot(key, tableMask);
+        for (int probes = 0; probes < table.length; probes++) {
+            long current = table[pos];
+            if (current == key) {
+                return pos;
+            }
+            if (current == 0) {
+                return -1;
+            }
+            pos = (pos + 1) & tableMask;
+        }
+        return -1;
+    }
+
+    private int find(long key) {
+        int pos = PrimitiveHashing.slot(key, mask);
+        long current;
+        while ((current = keys[pos]) != 0) {
+            if (current == key) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        maxFill = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int pos = PrimitiveHashing.slot(key, mask);
+                while (keys[pos] != 0) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = key;
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+
+    // Mismo borrado sin tombstones que LongHashSet, moviendo también el valor
+    private void shiftKeys(int pos) {
+        for (;;) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            long current;
+            for (;;) {
+                if ((current = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+                int home = PrimitiveHashing.slot(current, mask);
+                if (last <= pos ? last >= home || home > pos : last >= home && home > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = current;
+            values[last] = values[pos];
+        }
+    }
+}
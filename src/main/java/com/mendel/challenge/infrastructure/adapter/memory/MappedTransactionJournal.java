@@ -0,0 +1,274 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.infrastructure.adapter.TransactionRecordCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal append-only de transacciones en segmentos binarios de tamaño fijo, mapeados
+ * en memoria. Cada registro es {@code [largo][CRC32C][cuerpo]}; un largo cero marca el
+ * final de lo escrito en el segmento. El tipo se escribe como código, y cada segmento
+ * declara los códigos que usa con un registro de tipo, así se puede leer solo. Un
+ * snapshot marca el segmento desde el que hay que reaplicar: los anteriores se borran.
+ *
+ * <p>Un registro queda en el page cache del SO al volver {@link #append}: sobrevive a una
+ * caída del proceso; {@code syncEveryWrite} lo lleva además al disco. La recuperación
+ * se detiene en el primer registro incompleto o con CRC inválido de cada segmento.
+ */
+@Slf4j
+final class MappedTransactionJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".bin";
+
+    private static final int HEADER_BYTES = 8;
+    private static final byte TYPE_RECORD = 1;
+    private static final byte TRANSACTION_RECORD = 2;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean syncEveryWrite;
+
+    // Códigos del journal por tipo; el segmento activo los declara la primera vez que los usa
+    private final Map<String, Integer> typeCodes = new HashMap<>();
+    private final BitSet declaredTypes = new BitSet();
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer scratch = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+
+    private MappedByteBuffer segment;
+    private Path current;
+    private long sequence;
+
+    MappedTransactionJournal(Path directory, int segmentSize, boolean syncEveryWrite) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncEveryWrite = syncEveryWrite;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create memory journal directory " + directory, e);
+        }
+    }
+
+    /**
+     * Recorre en orden de escritura los segmentos desde {@code fromSequence} y entrega cada
+     * transacción. Debe llamarse antes de {@link #open()}. Devuelve la cantidad leída.
+     */
+    long replay(long fromSequence, Consumer<Transaction> consumer) {
+        long count = 0;
+        // Una sola instancia de String por nombre de tipo en todo el replay
+        Map<String, String> names = new HashMap<>();
+
+        sequence = Math.max(sequence, fromSequence);
+        for (Path path : segments()) {
+            sequence = Math.max(sequence, sequenceOf(path));
+            if (sequenceOf(path) >= fromSequence) {
+                count += replaySegment(path, names, consumer);
+            }
+        }
+
+        log.info("Replayed {} transactions from memory journal {} starting at segment {}",
+                count, directory, fromSequence);
+        return count;
+    }
+
+    void open() {
+        current = directory.resolve(SEGMENT_PREFIX + (++sequence) + SEGMENT_SUFFIX);
+        segment = map(current, FileChannel.MapMode.READ_WRITE, segmentSize);
+        declaredTypes.clear();
+    }
+
+    synchronized void append(Transaction transaction) {
+        Integer code = typeCodes.get(transaction.getType());
+        if (code == null) {
+            code = typeCodes.size();
+            typeCodes.put(transaction.getType(), code);
+        }
+
+        int transactionBytes = HEADER_BYTES + encode(transaction, code);
+        ByteBuffer typeRecord = declaredTypes.get(code) ? null : typeRecord(transaction.getType(), code);
+        int needed = transactionBytes + (typeRecord != null ? HEADER_BYTES + typeRecord.remaining() : 0);
+        if (segment.position() + needed > segment.capacity()) {
+            // El segmento nuevo no tiene tipos declarados: el registro de tipo va siempre
+            if (typeRecord == null) {
+                typeRecord = typeRecord(transaction.getType(), code);
+            }
+            rotate(transactionBytes + HEADER_BYTES + typeRecord.remaining());
+        }
+
+        int start = segment.position();
+        if (typeRecord != null) {
+            writeRecord(typeRecord);
+            declaredTypes.set(code);
+        }
+        writeRecord(scratch.flip());
+
+        if (syncEveryWrite) {
+            segment.force(start, segment.position() - start);
+        }
+    }
+
+    /**
+     * Cierra el segmento activo y abre uno nuevo. Devuelve la secuencia del nuevo: todo lo
+     * que se escriba desde ahora queda en ese segmento o en los siguientes.
+     */
+    synchronized long rotate() {
+        rotate(segmentSize);
+        return sequence;
+    }
+
+    // Segmentos ya cubiertos por un snapshot
+    void deleteSegmentsBefore(long fromSequence) {
+        for (Path path : segments()) {
+            if (sequenceOf(path) < fromSequence) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Cannot delete memory journal segment {}: {}", path, e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+    }
+
+    private int encode(Transaction transaction, int code) {
+        int size = 1 + TransactionRecordCodec.encodedSize(transaction);
+        if (scratch.capacity() < size) {
+            scratch = ByteBuffer.allocate(Math.max(size, scratch.capacity() * 2)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        scratch.clear();
+        scratch.put(TRANSACTION_RECORD);
+        TransactionRecordCodec.encode(scratch, transaction, code);
+        return size;
+    }
+
+    private static ByteBuffer typeRecord(String type, int code) {
+        byte[] name = type.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(1 + 4 + 4 + name.length).order(ByteOrder.LITTLE_ENDIAN)
+                .put(TYPE_RECORD).putInt(code).putInt(name.length).put(name)
+                .flip();
+    }
+
+    private void writeRecord(ByteBuffer body) {
+        crc.reset();
+        crc.update(body.duplicate());
+        segment.putInt(body.remaining()).putInt((int) crc.getValue()).put(body);
+    }
+
+    private void rotate(int minimumSize) {
+        log.debug("Rotating memory journal segment {}", current);
+        segment.force();
+        current = directory.resolve(SEGMENT_PREFIX + (++sequence) + SEGMENT_SUFFIX);
+        // El mapeo anterior se libera cuando el GC recolecta su buffer
+        segment = map(current, FileChannel.MapMode.READ_WRITE, Math.max(segmentSize, minimumSize));
+        declaredTypes.clear();
+    }
+
+    private long replaySegment(Path path, Map<String, String> names, Consumer<Transaction> consumer) {
+        long size;
+        try {
+            size = Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read memory journal segment " + path, e);
+        }
+        if (size < HEADER_BYTES) {
+            return 0;
+        }
+
+        MappedByteBuffer buffer = map(path, FileChannel.MapMode.READ_ONLY, size);
+        String[] types = new String[0];
+        long count = 0;
+
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break;
+            }
+
+            ByteBuffer body = buffer.slice(buffer.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Memory journal segment {} has a corrupt record at offset {}, skipping the rest",
+                        path, buffer.position() - HEADER_BYTES);
+                break;
+            }
+            buffer.position(buffer.position() + length);
+
+            byte kind = body.get();
+            if (kind == TYPE_RECORD) {
+                int code = body.getInt();
+                byte[] name = new byte[body.getInt()];
+                body.get(name);
+                if (code >= types.length) {
+                    types = Arrays.copyOf(types, Math.max(code + 1, types.length * 2));
+                }
+                types[code] = names.computeIfAbsent(new String(name, StandardCharsets.UTF_8), n -> n);
+            } else if (kind == TRANSACTION_RECORD) {
+                consumer.accept(TransactionRecordCodec.decode(body, types));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted(Comparator.comparingLong(MappedTransactionJournal::sequenceOf))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read memory journal " + directory, e);
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, FileChannel.MapMode mode, long size) {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[] {StandardOpenOption.READ}
+                : new StandardOpenOption[] {StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE};
+        // El mapeo sigue siendo válido después de cerrar el canal
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            MappedByteBuffer buffer = channel.map(mode, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map memory journal segment " + path, e);
+        }
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
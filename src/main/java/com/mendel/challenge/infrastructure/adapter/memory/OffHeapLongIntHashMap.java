@@ -0,0 +1,140 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Mapa {@code long → int} con direccionamiento abierto cuya tabla vive en un
+ * {@link ByteBuffer} directo, fuera del heap: entradas de {@value #ENTRY_BYTES} bytes
+ * (clave y valor). Mismo contrato que {@link LongIntHashMap}: valores no negativos,
+ * {@link #NO_VALUE} para clave ausente, sin borrado. No es thread-safe; {@link #get}
+ * tolera un writer concurrente igual que el de {@link LongIntHashMap}.
+ *
+ * <p>Al crecer, la tabla anterior se libera cuando el GC recolecta su buffer; el
+ * tamaño máximo de un buffer (2GB) acota la tabla a unos 130M de entradas.
+ */
+final class OffHeapLongIntHashMap {
+
+    static final int NO_VALUE = -1;
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int ENTRY_BYTES = 12;
+    private static final int VALUE_OFFSET = 8;
+    private static final int MAX_CAPACITY = Integer.highestOneBit(Integer.MAX_VALUE / ENTRY_BYTES);
+
+    private ByteBuffer table;
+    private int capacity;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private int zeroValue = NO_VALUE;
+
+    OffHeapLongIntHashMap() {
+        this(16);
+    }
+
+    OffHeapLongIntHashMap(int expected) {
+        allocate(PrimitiveHashing.tableSize(expected, LOAD_FACTOR));
+    }
+
+    int get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+
+        // Tabla leída una vez y máscara derivada de ella: un rehash concurrente no las mezcla
+        ByteBuffer currentTable = table;
+        int tableCapacity = currentTable.capacity() / ENTRY_BYTES;
+        int tableMask = tableCapacity - 1;
+        int pos = PrimitiveHashing.slot(key, tableMask);
+        for (int probes = 0; probes < tableCapacity; probes++) {
+            long current = currentTable.getLong(pos * ENTRY_BYTES);
+            if (current == key) {
+                return currentTable.getInt(pos * ENTRY_BYTES + VALUE_OFFSET);
+            }
+            if (current == 0) {
+                return NO_VALUE;
+            }
+            pos = (pos + 1) & tableMask;
+        }
+        return NO_VALUE;
+    }
+
+    void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        if (key == 0) {
+            if (zeroValue == NO_VALUE) {
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+
+        int pos = PrimitiveHashing.slot(key, mask);
+        long current;
+        while ((current = keyAt(pos)) != 0) {
+            if (current == key) {
+                table.putInt(pos * ENTRY_BYTES + VALUE_OFFSET, value);
+                return;
+            }
+            pos = (pos + 1) & mask;
+        }
+
+        store(table, pos, key, value);
+        if (++size >= maxFill) {
+            rehash(capacity * 2);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Bytes fuera del heap que ocupa la tabla
+    long offHeapBytes() {
+        return (long) capacity * ENTRY_BYTES;
+    }
+
+    private long keyAt(int pos) {
+        return table.getLong(pos * ENTRY_BYTES);
+    }
+
+    private int valueAt(int pos) {
+        return table.getInt(pos * ENTRY_BYTES + VALUE_OFFSET);
+    }
+
+    private static void store(ByteBuffer buffer, int pos, long key, int value) {
+        buffer.putLong(pos * ENTRY_BYTES, key);
+        buffer.putInt(pos * ENTRY_BYTES + VALUE_OFFSET, value);
+    }
+
+    private void allocate(int newCapacity) {
+        if (newCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Off-heap index cannot grow beyond " + MAX_CAPACITY + " slots");
+        }
+        // allocateDirect devuelve la memoria en cero: todas las claves arrancan vacías
+        table = ByteBuffer.allocateDirect(newCapacity * ENTRY_BYTES).order(ByteOrder.nativeOrder());
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        maxFill = Math.min(newCapacity - 1, (int) (newCapacity * LOAD_FACTOR));
+    }
+
+    private void rehash(int newCapacity) {
+        ByteBuffer oldTable = table;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+
+        for (int i = 0; i < oldCapacity; i++) {
+            long key = oldTable.getLong(i * ENTRY_BYTES);
+            if (key != 0) {
+                int pos = PrimitiveHashing.slot(key, mask);
+                while (keyAt(pos) != 0) {
+                    pos = (pos + 1) & mask;
+                }
+                store(table, pos, key, oldTable.getInt(i * ENTRY_BYTES + VALUE_OFFSET));
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Filas de transacciones como registros de {@value #RECORD_BYTES} bytes en
+ * {@link ByteBuffer}s directos, fuera del heap, con el índice id → fila en un
+ * {@link OffHeapLongIntHashMap}. Crecen por bloques de {@value #CHUNK_SIZE} registros
+ * (4MB): el heap solo guarda las referencias a los bloques, así que su tamaño no
+ * depende de la cantidad de transacciones.
+ *
+ * <p>Los bloques se liberan cuando el GC recolecta el store; la memoria directa total
+ * la acota {@code -XX:MaxDirectMemorySize}.
+ */
+final class OffHeapTransactionRecords extends TransactionRows {
+
+    static final int RECORD_BYTES = 64;
+
+    private static final int CHUNK_BITS = 16;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Layout del registro: campos de 8 bytes primero, alineados
+    private static final int ID = 0;
+    private static final int AMOUNT_UNITS = 8;
+    private static final int PARENT_ID = 16;
+    private static final int CREATED_AT = 24;
+    private static final int SUBTREE_UNITS = 32;
+    private static final int TYPE_CODE = 40;
+    private static final int PARENT_ROW = 44;
+    private static final int FIRST_CHILD = 48;
+    private static final int NEXT_SIBLING = 52;
+    private static final int NEXT_OF_TYPE = 56;
+    private static final int AMOUNT_SCALE = 60;
+    private static final int SUBTREE_SCALE = 61;
+
+    private final OffHeapLongIntHashMap rowsById;
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private int size;
+
+    OffHeapTransactionRecords() {
+        this(16);
+    }
+
+    OffHeapTransactionRecords(int expected) {
+        rowsById = new OffHeapLongIntHashMap(expected);
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    int append() {
+        int row = size;
+        if ((row >>> CHUNK_BITS) == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = ByteBuffer.allocateDirect(CHUNK_SIZE * RECORD_BYTES)
+                    .order(ByteOrder.nativeOrder());
+        }
+        size++;
+        setParentRow(row, NO_ROW);
+        setFirstChild(row, NO_ROW);
+        setNextSibling(row, NO_ROW);
+        setNextOfType(row, NO_ROW);
+        return row;
+    }
+
+    @Override
+    int rowOf(long id) {
+        return rowsById.get(id);
+    }
+
+    @Override
+    void indexRow(long id, int row) {
+        rowsById.put(id, row);
+    }
+
+    // Bytes fuera del heap reservados por registros e índice
+    long offHeapBytes() {
+        return (long) chunks.length * CHUNK_SIZE * RECORD_BYTES + rowsById.offHeapBytes();
+    }
+
+    @Override
+    long id(int row) {
+        return chunk(row).getLong(offset(row) + ID);
+    }
+
+    @Override
+    void setId(int row, long id) {
+        chunk(row).putLong(offset(row) + ID, id);
+    }
+
+    @Override
+    long amountUnits(int row) {
+        return chunk(row).getLong(offset(row) + AMOUNT_UNITS);
+    }
+
+    @Override
+    int amountScale(int row) {
+        return chunk(row).get(offset(row) + AMOUNT_SCALE);
+    }
+
+    @Override
+    void setAmount(int row, long units, int scale) {
+        ByteBuffer chunk = chunk(row);
+        chunk.putLong(offset(row) + AMOUNT_UNITS, units);
+        chunk.put(offset(row) + AMOUNT_SCALE, (byte) scale);
+    }
+
+    @Override
+    int typeCode(int row) {
+        return chunk(row).getInt(offset(row) + TYPE_CODE);
+    }
+
+    @Override
+    void setTypeCode(int row, int code) {
+        chunk(row).putInt(offset(row) + TYPE_CODE, code);
+    }
+
+    @Override
+    long parentId(int row) {
+        return chunk(row).getLong(offset(row) + PARENT_ID);
+    }
+
+    @Override
+    void setParentId(int row, long parentId) {
+        chunk(row).putLong(offset(row) + PARENT_ID, parentId);
+    }
+
+    @Override
+    long createdAtMillis(int row) {
+        return chunk(row).getLong(offset(row) + CREATED_AT);
+    }
+
+    @Override
+    void setCreatedAtMillis(int row, long millis) {
+        chunk(row).putLong(offset(row) + CREATED_AT, millis);
+    }
+
+    @Override
+    int parentRow(int row) {
+        return chunk(row).getInt(offset(row) + PARENT_ROW);
+    }
+
+    @Override
+    void setParentRow(int row, int parentRow) {
+        chunk(row).putInt(offset(row) + PARENT_ROW, parentRow);
+    }
+
+    @Override
+    int firstChild(int row) {
+        return chunk(row).getInt(offset(row) + FIRST_CHILD);
+    }
+
+    @Override
+    void setFirstChild(int row, int child) {
+        chunk(row).putInt(offset(row) + FIRST_CHILD, child);
+    }
+
+    @Override
+    int nextSibling(int row) {
+        return chunk(row).getInt(offset(row) + NEXT_SIBLING);
+    }
+
+    @Override
+    void setNextSibling(int row, int sibling) {
+        chunk(row).putInt(offset(row) + NEXT_SIBLING, sibling);
+    }
+
+    @Override
+    int nextOfType(int row) {
+        return chunk(row).getInt(offset(row) + NEXT_OF_TYPE);
+    }
+
+    @Override
+    void setNextOfType(int row, int next) {
+        chunk(row).putInt(offset(row) + NEXT_OF_TYPE, next);
+    }
+
+    @Override
+    long subtreeUnits(int row) {
+        return chunk(row).getLong(offset(row) + SUBTREE_UNITS);
+    }
+
+    @Override
+    int subtreeScale(int row) {
+        return chunk(row).get(offset(row) + SUBTREE_SCALE);
+    }
+
+    @Override
+    void setSubtree(int row, long units, int scale) {
+        ByteBuffer chunk = chunk(row);
+        chunk.putLong(offset(row) + SUBTREE_UNITS, units);
+        chunk.put(offset(row) + SUBTREE_SCALE, (byte) scale);
+    }
+
+    private ByteBuffer chunk(int row) {
+        return chunks[row >>> CHUNK_BITS];
+    }
+
+    private static int offset(int row) {
+        return (row & CHUNK_MASK) * RECORD_BYTES;
+    }
+}
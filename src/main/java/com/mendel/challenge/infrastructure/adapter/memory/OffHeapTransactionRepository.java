@@ -0,0 +1,44 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Repositorio en el proceso cuyas filas e índice por id viven fuera del heap: cada
+ * transacción es un registro de ancho fijo en chunks de {@link java.nio.ByteBuffer}
+ * directos ({@link OffHeapTransactionRecords}) y la tabla id → fila es un
+ * {@link OffHeapLongIntHashMap}. En el heap quedan solo las referencias a los chunks,
+ * las cabezas de las listas por tipo y los pocos montos que no entran en un long
+ * escalado, así el tamaño del heap y las pausas del GC no crecen con los datos. La
+ * memoria directa la acota {@code -XX:MaxDirectMemorySize}.
+ */
+@Slf4j
+public class OffHeapTransactionRepository extends RowStoreTransactionRepository {
+
+    private final OffHeapTransactionRecords records;
+
+    public OffHeapTransactionRepository() {
+        this(new TypeDictionary(), 16);
+    }
+
+    public OffHeapTransactionRepository(TypeDictionary typeDictionary, int expectedTransactions) {
+        this(new OffHeapTransactionRecords(expectedTransactions), typeDictionary);
+        log.info("Initializing Off-Heap Transaction Repository - expected transactions: {}", expectedTransactions);
+    }
+
+    private OffHeapTransactionRepository(OffHeapTransactionRecords records, TypeDictionary typeDictionary) {
+        super(records, typeDictionary);
+        this.records = records;
+    }
+
+    @Override
+    public String getImplementationType() {
+        log.debug("Getting implementation type: OFF_HEAP");
+        return "OFF_HEAP";
+    }
+
+    // Lectura sin lock: el valor es aproximado mientras haya escrituras en curso
+    public long getOffHeapBytes() {
+        return records.offHeapBytes();
+    }
+}
@@ -0,0 +1,37 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+/**
+ * Hash compartido por las colecciones de claves {@code long}. Los ids suelen ser
+ * consecutivos: la multiplicación por la constante de oro los reparte en toda la
+ * palabra, así los bits bajos eligen el slot y los altos el stripe sin correlación.
+ */
+final class PrimitiveHashing {
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private PrimitiveHashing() {
+    }
+
+    static long mix(long key) {
+        long h = key * GOLDEN_RATIO;
+        return h ^ (h >>> 32);
+    }
+
+    static int slot(long key, int mask) {
+        return (int) mix(key) & mask;
+    }
+
+    static int stripe(long key, int stripeBits) {
+        return (int) (mix(key) >>> (64 - stripeBits));
+    }
+
+    // Potencia de dos con lugar para expected elementos sin pasar el factor de carga
+    static int tableSize(int expected, float loadFactor) {
+        long needed = (long) Math.ceil(Math.max(1, expected) / (double) loadFactor);
+        int size = 2;
+        while (size < needed) {
+            size <<= 1;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,56 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.ReactiveTransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Vista reactiva del {@link InMemoryTransactionRepository}. Sus operaciones no hacen
+ * I/O y nunca esperan locks largos, así que se ejecutan en el hilo que se suscribe.
+ */
+@Slf4j
+public class ReactiveInMemoryTransactionRepository implements ReactiveTransactionRepository {
+
+    private final InMemoryTransactionRepository delegate;
+
+    public ReactiveInMemoryTransactionRepository(InMemoryTransactionRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<InsertOutcome> insertIfAbsent(Transaction transaction) {
+        return Mono.fromCallable(() -> delegate.insertIfAbsent(transaction));
+    }
+
+    @Override
+    public Mono<Transaction> findById(Long id) {
+        return Mono.fromCallable(() -> delegate.findById(id)).flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Flux<Transaction> findByType(String type) {
+        return Flux.defer(() -> Flux.fromIterable(delegate.findByType(type)));
+    }
+
+    @Override
+    public Flux<Transaction> findChildrenOf(Long parentId) {
+        return Flux.defer(() -> Flux.fromIterable(delegate.findChildrenOf(parentId)));
+    }
+
+    @Override
+    public Mono<BigDecimal> findSubtreeSum(Long id) {
+        return Mono.fromCallable(() -> delegate.findSubtreeSum(id)).flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public boolean setSubtreeChangeListener(Consumer<Collection<Long>> listener) {
+        return delegate.setSubtreeChangeListener(listener);
+    }
+}
@@ -0,0 +1,540 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.ScaledAmount;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static com.mendel.challenge.infrastructure.adapter.memory.TransactionRows.MISSING_ROW;
+import static com.mendel.challenge.infrastructure.adapter.memory.TransactionRows.NO_ROW;
+
+/**
+ * Repositorio sobre un {@link TransactionRows}: cada transacción es una fila numerada de
+ * campos primitivos (id, monto escalado, id del padre, millis de creación, código del
+ * {@link TypeDictionary} y total del subárbol) en lugar de un objeto. Los vínculos entre
+ * padre e hijos son números de fila, así la propagación de totales y los recorridos por
+ * hijos o por tipo no siguen punteros entre objetos Transaction. Una {@link Transaction}
+ * se arma recién cuando alguien la pide. Las subclases eligen dónde viven las filas.
+ *
+ * <p>Las filas nunca se liberan, así que un único {@link StampedLock} protege el store:
+ * las escrituras, unas pocas asignaciones de campos más el recorrido de ancestros, se
+ * serializan, y {@link #saveAll} escribe todo el lote en una sola adquisición. Las
+ * lecturas puntuales por id son optimistas: no escriben en el lock y solo se repiten
+ * bajo el lock de lectura si una escritura se superpone. Los recorridos por hijos o por
+ * tipo toman el lock de lectura, porque uno lo bastante largo para cruzarse con una
+ * escritura se repetiría igual. La fecha de creación se guarda con precisión de
+ * milisegundos.
+ */
+@Slf4j
+abstract class RowStoreTransactionRepository implements TransactionRepository {
+
+    private static final int MIN_SCALE = Byte.MIN_VALUE;
+    private static final int MAX_SCALE = Byte.MAX_VALUE;
+
+    private final StampedLock lock = new StampedLock();
+    private final TransactionRows rows;
+    private final TypeDictionary typeDictionary;
+
+    // Hijos guardados (con save) antes que su padre, por id del padre
+    private final LongObjectHashMap<IntList> orphansByParent = new LongObjectHashMap<>();
+    // Montos y totales que no entran en long escalado, por fila; son la excepción
+    private final LongObjectHashMap<BigDecimal> exactAmounts = new LongObjectHashMap<>();
+    private final LongObjectHashMap<BigDecimal> exactTotals = new LongObjectHashMap<>();
+    // Ids de los ancestros tocados por la escritura en curso, solo si hay listener; bajo el lock de escritura
+    private final List<Long> changedAncestors = new ArrayList<>();
+    private volatile Consumer<Collection<Long>> subtreeChangeListener;
+
+    // Monto a sumar o restar de un total: units es NOT_REPRESENTABLE si solo vale value
+    private record Amount(long units, int scale, BigDecimal value) {
+
+        static Amount of(Transaction transaction) {
+            return new Amount(transaction.getAmountUnits(), transaction.getAmount().scale(), transaction.getAmount());
+        }
+
+        boolean isScaled() {
+            return ScaledAmount.isRepresentable(units);
+        }
+    }
+
+    RowStoreTransactionRepository(TransactionRows rows, TypeDictionary typeDictionary) {
+        this.rows = rows;
+        this.typeDictionary = typeDictionary;
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        log.debug("Saving transaction - id: {}, type: {}, amount: {}, parentId: {}",
+                transaction.getId(),
+                transaction.getType(),
+                transaction.getAmount(),
+                transaction.getParentId());
+
+        List<Long> changed;
+        long stamp = lock.writeLock();
+        try {
+            write(transaction, false);
+            changed = drainChangedAncestors();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        notifySubtreeChange(changed);
+        return transaction;
+    }
+
+    @Override
+    public InsertOutcome insertIfAbsent(Transaction transaction) {
+        log.debug("Inserting transaction if absent - id: {}, parentId: {}",
+                transaction.getId(), transaction.getParentId());
+
+        InsertOutcome outcome;
+        List<Long> changed;
+        long stamp = lock.writeLock();
+        try {
+            outcome = write(transaction, true);
+            changed = drainChangedAncestors();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        notifySubtreeChange(changed);
+        return outcome;
+    }
+
+    @Override
+    public List<InsertOutcome> saveAll(List<Transaction> batch) {
+        log.debug("Saving batch of {} transactions", batch.size());
+
+        List<InsertOutcome> outcomes = new ArrayList<>(batch.size());
+        List<Long> changed;
+        long stamp = lock.writeLock();
+        try {
+            for (Transaction transaction : batch) {
+                outcomes.add(write(transaction, true));
+            }
+            changed = drainChangedAncestors();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        notifySubtreeChange(changed);
+
+        log.info("Batch saved - {} transactions received, total transactions: {}",
+                batch.size(), rows.size());
+
+        return outcomes;
+    }
+
+    private InsertOutcome write(Transaction transaction, boolean onlyIfAbsent) {
+        int row = rows.rowOf(transaction.getId());
+
+        if (row != NO_ROW) {
+            if (onlyIfAbsent) {
+                log.debug("Conditional insert rejected - transaction {} already exists", transaction.getId());
+                return InsertOutcome.ALREADY_EXISTS;
+            }
+            replace(row, transaction);
+        } else {
+            if (onlyIfAbsent && transaction.hasParent()
+                    && rows.rowOf(transaction.getParentId()) == NO_ROW) {
+                return InsertOutcome.PARENT_NOT_FOUND;
+            }
+            insert(transaction);
+        }
+
+        log.debug("Transaction saved successfully - id: {}, total transactions: {}",
+                transaction.getId(), rows.size());
+
+        return InsertOutcome.INSERTED;
+    }
+
+    private void insert(Transaction transaction) {
+        int row = rows.append();
+        rows.indexRow(transaction.getId(), row);
+
+        rows.setId(row, transaction.getId());
+        rows.setCreatedAtMillis(row, transaction.getCreatedAt().toEpochMilli());
+        setAmount(row, transaction);
+        setType(row, transaction.getType());
+        linkToParent(row, transaction.getParentId());
+
+        Amount own = Amount.of(transaction);
+        rows.setSubtree(row, own.units(), own.scale());
+        if (!own.isScaled() || own.scale() < MIN_SCALE || own.scale() > MAX_SCALE) {
+            exactTotals.put(row, own.value());
+        }
+
+        // Hijos que llegaron antes: sus totales ya incluyen a sus propios descendientes
+        IntList orphans = orphansByParent.remove(transaction.getId());
+        if (orphans != null) {
+            for (int i = 0; i < orphans.size(); i++) {
+                int orphan = orphans.get(i);
+                rows.linkChild(row, orphan);
+                addToTotal(row, totalOf(orphan), false);
+            }
+        }
+
+        propagateToAncestors(rows.parentRow(row), totalOf(row), false);
+    }
+
+    // Reemplazo de una transacción existente: la fila conserva sus hijos ya sumados
+    private void replace(int row, Transaction transaction) {
+        Amount oldOwn = amountOf(row);
+        Amount oldTotal = totalOf(row);
+        Long oldParentId = rows.hasParent(row) ? rows.parentId(row) : null;
+
+        rows.setCreatedAtMillis(row, transaction.getCreatedAt().toEpochMilli());
+        setAmount(row, transaction);
+
+        int oldCode = rows.typeCode(row);
+        if (oldCode != typeDictionary.encode(transaction.getType())) {
+            rows.removeFromType(row, oldCode);
+            setType(row, transaction.getType());
+        }
+
+        Amount newOwn = Amount.of(transaction);
+        addToTotal(row, oldOwn, true);
+        addToTotal(row, newOwn, false);
+
+        if (Objects.equals(oldParentId, transaction.getParentId())) {
+            int parentRow = rows.parentRow(row);
+            propagateToAncestors(parentRow, oldOwn, true);
+            propagateToAncestors(parentRow, newOwn, false);
+            return;
+        }
+
+        propagateToAncestors(rows.parentRow(row), oldTotal, true);
+        unlinkFromParent(row, oldParentId);
+        linkToParent(row, transaction.getParentId());
+        propagateToAncestors(rows.parentRow(row), totalOf(row), false);
+    }
+
+    private void setAmount(int row, Transaction transaction) {
+        BigDecimal amount = transaction.getAmount();
+        long units = transaction.getAmountUnits();
+
+        if (ScaledAmount.isRepresentable(units) && amount.scale() >= MIN_SCALE && amount.scale() <= MAX_SCALE) {
+            rows.setAmount(row, units, amount.scale());
+            exactAmounts.remove(row);
+        } else {
+            rows.setAmount(row, ScaledAmount.NOT_REPRESENTABLE, 0);
+            exactAmounts.put(row, amount);
+        }
+    }
+
+    private void setType(int row, String type) {
+        int code = typeDictionary.encode(type);
+        rows.setTypeCode(row, code);
+        rows.addToType(row, code);
+    }
+
+    private void linkToParent(int row, Long parentId) {
+        if (parentId == null) {
+            rows.setParentRow(row, NO_ROW);
+            return;
+        }
+
+        rows.setParentId(row, parentId);
+        int parentRow = rows.rowOf(parentId);
+        if (parentRow != NO_ROW) {
+            rows.linkChild(parentRow, row);
+        } else {
+            rows.setParentRow(row, MISSING_ROW);
+            IntList orphans = orphansByParent.get(parentId);
+            if (orphans == null) {
+                orphans = new IntList();
+                orphansByParent.put(parentId, orphans);
+            }
+            orphans.add(row);
+        }
+    }
+
+    private void unlinkFromParent(int row, Long parentId) {
+        int parentRow = rows.parentRow(row);
+        if (parentRow >= 0) {
+            rows.unlinkChild(parentRow, row);
+        } else if (parentRow == MISSING_ROW) {
+            IntList orphans = orphansByParent.get(parentId);
+            if (orphans != null) {
+                orphans.remove(row);
+            }
+        }
+        rows.setParentRow(row, NO_ROW);
+    }
+
+    private void propagateToAncestors(int parentRow, Amount delta, boolean negate) {
+        int current = parentRow;
+        int remaining = rows.size();
+
+        // El límite de pasos protege contra ciclos introducidos por reemplazos;
+        // un ancestro no guardado recibe el aporte al adoptar a sus huérfanos
+        boolean report = subtreeChangeListener != null;
+        while (current >= 0 && remaining-- > 0) {
+            addToTotal(current, delta, negate);
+            if (report) {
+                changedAncestors.add(rows.id(current));
+            }
+            current = rows.parentRow(current);
+        }
+    }
+
+    private List<Long> drainChangedAncestors() {
+        if (changedAncestors.isEmpty()) {
+            return List.of();
+        }
+        List<Long> changed = new ArrayList<>(changedAncestors);
+        changedAncestors.clear();
+        return changed;
+    }
+
+    // Fuera del lock y después de propagar: quien cachee totales no publica uno previo a la escritura
+    private void notifySubtreeChange(List<Long> changed) {
+        Consumer<Collection<Long>> listener = subtreeChangeListener;
+        if (listener != null && !changed.isEmpty()) {
+            listener.accept(changed);
+        }
+    }
+
+    // Misma aritmética que AmountAccumulator, sobre las columnas del total
+    private void addToTotal(int row, Amount delta, boolean negate) {
+        BigDecimal exact = exactTotals.get(row);
+        if (exact == null) {
+            int scale = Math.max(rows.subtreeScale(row), delta.scale());
+            if (delta.isScaled() && scale <= MAX_SCALE) {
+                long units = rows.subtreeUnits(row);
+                try {
+                    rows.setSubtree(row,
+                            negate ? Math.subtractExact(units, delta.units()) : Math.addExact(units, delta.units()),
+                            scale);
+                    return;
+                } catch (ArithmeticException overflow) {
+                    // sigue por BigDecimal
+                }
+            }
+            exact = scaledTotal(row).setScale(Math.max(rows.subtreeScale(row), 0), RoundingMode.UNNECESSARY);
+        }
+
+        exactTotals.put(row, negate ? exact.subtract(delta.value()) : exact.add(delta.value()));
+    }
+
+    private Amount totalOf(int row) {
+        BigDecimal exact = exactTotals.get(row);
+        if (exact != null) {
+            return new Amount(ScaledAmount.NOT_REPRESENTABLE, exact.scale(), exact);
+        }
+        return new Amount(rows.subtreeUnits(row), rows.subtreeScale(row), scaledTotal(row));
+    }
+
+    private BigDecimal scaledTotal(int row) {
+        return BigDecimal.valueOf(rows.subtreeUnits(row), ScaledAmount.scale())
+                .setScale(rows.subtreeScale(row), RoundingMode.UNNECESSARY);
+    }
+
+    private Amount amountOf(int row) {
+        long units = rows.amountUnits(row);
+        if (!ScaledAmount.isRepresentable(units)) {
+            BigDecimal amount = exactAmounts.get(row);
+            return new Amount(ScaledAmount.NOT_REPRESENTABLE, amount.scale(), amount);
+        }
+        int scale = rows.amountScale(row);
+        return new Amount(units, scale,
+                BigDecimal.valueOf(units, ScaledAmount.scale()).setScale(scale, RoundingMode.UNNECESSARY));
+    }
+
+    // Única conversión de fila a objeto: se hace recién al devolverla
+    private Transaction toTransaction(int row) {
+        return Transaction.builder()
+                .id(rows.id(row))
+                .type(typeDictionary.decode(rows.typeCode(row)))
+                .amount(amountOf(row).value())
+                .parentId(rows.hasParent(row) ? rows.parentId(row) : null)
+                .createdAt(Instant.ofEpochMilli(rows.createdAtMillis(row)))
+                .build();
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        log.debug("Searching transaction by id: {}", id);
+
+        Transaction transaction = null;
+        if (id != null) {
+            transaction = readById(() -> {
+                int row = rows.rowOf(id);
+                return row != NO_ROW ? toTransaction(row) : null;
+            });
+        }
+
+        log.debug("Transaction {} with id: {}", transaction != null ? "found" : "not found", id);
+
+        return Optional.ofNullable(transaction);
+    }
+
+    @Override
+    public List<Transaction> findByType(String type) {
+        log.debug("Searching transactions by type: {}", type);
+
+        List<Transaction> result = new ArrayList<>();
+        long stamp = lock.readLock();
+        try {
+            OptionalInt code = type != null ? typeDictionary.lookup(type) : OptionalInt.empty();
+            if (code.isPresent()) {
+                result = new ArrayList<>(rows.countOfType(code.getAsInt()));
+                for (int row = rows.firstOfType(code.getAsInt()); row != NO_ROW; row = rows.nextOfType(row)) {
+                    result.add(toTransaction(row));
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        log.info("Retrieved {} transactions of type: {}", result.size(), type);
+
+        return result;
+    }
+
+    @Override
+    public List<Transaction> findChildrenOf(Long parentId) {
+        log.debug("Searching children transactions of parent id: {}", parentId);
+
+        List<Transaction> result;
+        long stamp = lock.readLock();
+        try {
+            result = childrenOf(parentId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        log.debug("Retrieved {} children transactions for parent id: {}", result.size(), parentId);
+
+        return result;
+    }
+
+    @Override
+    public Map<Long, List<Transaction>> findChildrenOfAll(Collection<Long> parentIds) {
+        Map<Long, List<Transaction>> result = new LinkedHashMap<>();
+        long stamp = lock.readLock();
+        try {
+            for (Long parentId : parentIds) {
+                result.put(parentId, childrenOf(parentId));
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return result;
+    }
+
+    private List<Transaction> childrenOf(Long parentId) {
+        List<Transaction> children = new ArrayList<>();
+        if (parentId == null) {
+            return children;
+        }
+
+        int parentRow = rows.rowOf(parentId);
+        if (parentRow != NO_ROW) {
+            for (int child = rows.firstChild(parentRow); child != NO_ROW; child = rows.nextSibling(child)) {
+                children.add(toTransaction(child));
+            }
+        } else {
+            IntList orphans = orphansByParent.get(parentId);
+            for (int i = 0; orphans != null && i < orphans.size(); i++) {
+                children.add(toTransaction(orphans.get(i)));
+            }
+        }
+        return children;
+    }
+
+    @Override
+    public Optional<BigDecimal> findSubtreeSum(Long id) {
+        BigDecimal sum = null;
+        if (id != null) {
+            sum = readById(() -> {
+                int row = rows.rowOf(id);
+                return row != NO_ROW ? totalOf(row).value() : null;
+            });
+        }
+
+        log.debug("Subtree sum lookup for transaction id: {} - total: {}", id, sum);
+
+        return Optional.ofNullable(sum);
+    }
+
+    @Override
+    public boolean setSubtreeChangeListener(Consumer<Collection<Long>> listener) {
+        this.subtreeChangeListener = listener;
+        return true;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        boolean exists = false;
+        if (id != null) {
+            exists = readById(() -> rows.rowOf(id) != NO_ROW);
+        }
+
+        log.debug("Checking existence of transaction id: {} - exists: {}", id, exists);
+
+        return exists;
+    }
+
+    /**
+     * Lectura optimista: con un write en curso la lectura puede ver filas a medio escribir
+     * y fallar o devolver cualquier cosa, pero validate lo detecta y se repite bajo el
+     * lock de lectura. Los maps de filas sondean acotado, así que nunca queda girando.
+     */
+    private <T> T readById(Supplier<T> read) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T value = read.get();
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            } catch (RuntimeException inconsistent) {
+                if (lock.validate(stamp)) {
+                    throw inconsistent;
+                }
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return read.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public abstract String getImplementationType();
+
+    public int getTransactionCount() {
+        long stamp = lock.readLock();
+        try {
+            return rows.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int getTypeCount() {
+        long stamp = lock.readLock();
+        try {
+            return rows.typeCount();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * {@link LongObjectHashMap} particionado en stripes, cada uno con su {@link StampedLock}:
+ * escrituras en paralelo entre stripes. Las lecturas puntuales son optimistas y no
+ * escriben en el lock; solo si un writer del stripe las invalida se repiten bajo el
+ * lock de lectura.
+ */
+final class StripedLongObjectMap<V> {
+
+    private static final int STRIPE_BITS = 6;
+
+    private final Stripe<V>[] stripes;
+
+    private static final class Stripe<V> {
+        final StampedLock lock = new StampedLock();
+        final LongObjectHashMap<V> map = new LongObjectHashMap<>();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    StripedLongObjectMap() {
+        stripes = new Stripe[1 << STRIPE_BITS];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe<>();
+        }
+    }
+
+    V get(long key) {
+        Stripe<V> stripe = stripeOf(key);
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            V value = stripe.map.get(key);
+            if (stripe.lock.validate(stamp)) {
+                return value;
+            }
+        }
+
+        stamp = stripe.lock.readLock();
+        try {
+            return stripe.map.get(key);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    boolean containsKey(long key) {
+        Stripe<V> stripe = stripeOf(key);
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            boolean contains = stripe.map.containsKey(key);
+            if (stripe.lock.validate(stamp)) {
+                return contains;
+            }
+        }
+
+        stamp = stripe.lock.readLock();
+        try {
+            return stripe.map.containsKey(key);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    V put(long key, V value) {
+        Stripe<V> stripe = stripeOf(key);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.map.put(key, value);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Devuelve el valor existente sin reemplazarlo, o null si se guardó {@code value}.
+     */
+    V putIfAbsent(long key, V value) {
+        Stripe<V> stripe = stripeOf(key);
+        long stamp = stripe.lock.writeLock();
+        try {
+            V existing = stripe.map.get(key);
+            if (existing == null) {
+                stripe.map.put(key, value);
+            }
+            return existing;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    V computeIfAbsent(long key, LongFunction<V> factory) {
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        Stripe<V> stripe = stripeOf(key);
+        long stamp = stripe.lock.writeLock();
+        try {
+            V current = stripe.map.get(key);
+            if (current == null) {
+                current = factory.apply(key);
+                stripe.map.put(key, current);
+            }
+            return current;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                size += stripe.map.size();
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Entrega los valores stripe por stripe. Cada stripe se copia bajo su lock de lectura
+     * y el consumer corre sin lock: los writers de un stripe solo esperan su copia.
+     */
+    void forEachStripe(Consumer<List<V>> consumer) {
+        for (Stripe<V> stripe : stripes) {
+            List<V> values;
+            long stamp = stripe.lock.readLock();
+            try {
+                values = new ArrayList<>(stripe.map.size());
+                stripe.map.collectValues(values);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+            consumer.accept(values);
+        }
+    }
+
+    private Stripe<V> stripeOf(long key) {
+        return stripes[PrimitiveHashing.stripe(key, STRIPE_BITS)];
+    }
+}
@@ -0,0 +1,68 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * {@link LongHashSet} particionado en stripes con {@link StampedLock}. Para conjuntos
+ * grandes y con escrituras concurrentes, como el índice por tipo; los conjuntos chicos
+ * (hijos de un padre) usan un {@link LongHashSet} bajo su propio monitor.
+ */
+final class StripedLongSet {
+
+    private static final int STRIPE_BITS = 4;
+
+    private final StampedLock[] locks = new StampedLock[1 << STRIPE_BITS];
+    private final LongHashSet[] sets = new LongHashSet[1 << STRIPE_BITS];
+
+    StripedLongSet() {
+        for (int i = 0; i < sets.length; i++) {
+            locks[i] = new StampedLock();
+            sets[i] = new LongHashSet();
+        }
+    }
+
+    boolean add(long value) {
+        int stripe = PrimitiveHashing.stripe(value, STRIPE_BITS);
+        long stamp = locks[stripe].writeLock();
+        try {
+            return sets[stripe].add(value);
+        } finally {
+            locks[stripe].unlockWrite(stamp);
+        }
+    }
+
+    boolean remove(long value) {
+        int stripe = PrimitiveHashing.stripe(value, STRIPE_BITS);
+        long stamp = locks[stripe].writeLock();
+        try {
+            return sets[stripe].remove(value);
+        } finally {
+            locks[stripe].unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copia de los valores; cada stripe se copia de forma consistente, el conjunto no.
+     */
+    long[] toArray() {
+        long[][] parts = new long[sets.length][];
+        int total = 0;
+        for (int i = 0; i < sets.length; i++) {
+            long stamp = locks[i].readLock();
+            try {
+                parts[i] = sets[i].toArray();
+            } finally {
+                locks[i].unlockRead(stamp);
+            }
+            total += parts[i].length;
+        }
+
+        long[] result = new long[total];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+}
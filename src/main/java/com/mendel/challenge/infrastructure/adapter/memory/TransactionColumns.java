@@ -0,0 +1,184 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import java.util.Arrays;
+
+/**
+ * Columnas primitivas paralelas de las transacciones, indexadas por número de fila.
+ * Crecen por bloques de {@value #CHUNK_SIZE} filas: agregar un bloque no copia los
+ * anteriores, así que el heap nunca necesita dos copias de una columna grande.
+ */
+final class TransactionColumns extends TransactionRows {
+
+    private static final int CHUNK_BITS = 16;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final class Chunk {
+        final long[] ids = new long[CHUNK_SIZE];
+        final long[] amountUnits = new long[CHUNK_SIZE];
+        final byte[] amountScales = new byte[CHUNK_SIZE];
+        final int[] typeCodes = new int[CHUNK_SIZE];
+        final long[] parentIds = new long[CHUNK_SIZE];
+        final long[] createdAtMillis = new long[CHUNK_SIZE];
+        // Árbol como listas enlazadas en arrays: fila del padre, primer hijo y siguiente hermano
+        final int[] parentRows = new int[CHUNK_SIZE];
+        final int[] firstChildren = new int[CHUNK_SIZE];
+        final int[] nextSiblings = new int[CHUNK_SIZE];
+        final int[] nextOfTypes = new int[CHUNK_SIZE];
+        // Total del subárbol escalado; la escala es la mayor de los montos sumados
+        final long[] subtreeUnits = new long[CHUNK_SIZE];
+        final byte[] subtreeScales = new byte[CHUNK_SIZE];
+    }
+
+    private final LongIntHashMap rowsById = new LongIntHashMap();
+    private Chunk[] chunks = new Chunk[0];
+    private int size;
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    int append() {
+        int row = size;
+        if ((row >>> CHUNK_BITS) == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = new Chunk();
+        }
+        size++;
+        setParentRow(row, NO_ROW);
+        setFirstChild(row, NO_ROW);
+        setNextSibling(row, NO_ROW);
+        setNextOfType(row, NO_ROW);
+        return row;
+    }
+
+    @Override
+    int rowOf(long id) {
+        return rowsById.get(id);
+    }
+
+    @Override
+    void indexRow(long id, int row) {
+        rowsById.put(id, row);
+    }
+
+    @Override
+    long id(int row) {
+        return chunk(row).ids[row & CHUNK_MASK];
+    }
+
+    @Override
+    void setId(int row, long id) {
+        chunk(row).ids[row & CHUNK_MASK] = id;
+    }
+
+    @Override
+    long amountUnits(int row) {
+        return chunk(row).amountUnits[row & CHUNK_MASK];
+    }
+
+    @Override
+    int amountScale(int row) {
+        return chunk(row).amountScales[row & CHUNK_MASK];
+    }
+
+    @Override
+    void setAmount(int row, long units, int scale) {
+        Chunk chunk = chunk(row);
+        chunk.amountUnits[row & CHUNK_MASK] = units;
+        chunk.amountScales[row & CHUNK_MASK] = (byte) scale;
+    }
+
+    @Override
+    int typeCode(int row) {
+        return chunk(row).typeCodes[row & CHUNK_MASK];
+    }
+
+    @Override
+    void setTypeCode(int row, int code) {
+        chunk(row).typeCodes[row & CHUNK_MASK] = code;
+    }
+
+    @Override
+    long parentId(int row) {
+        return chunk(row).parentIds[row & CHUNK_MASK];
+    }
+
+    @Override
+    void setParentId(int row, long parentId) {
+        chunk(row).parentIds[row & CHUNK_MASK] = parentId;
+    }
+
+    @Override
+    long createdAtMillis(int row) {
+        return chunk(row).createdAtMillis[row & CHUNK_MASK];
+    }
+
+    @Override
+    void setCreatedAtMillis(int row, long millis) {
+        chunk(row).createdAtMillis[row & CHUNK_MASK] = millis;
+    }
+
+    @Override
+    int parentRow(int row) {
+        return chunk(row).parentRows[row & CHUNK_MASK];
+    }
+
+    @Override
+    void setParentRow(int row, int parentRow) {
+        chunk(row).parentRows[row & CHUNK_MASK] = parentRow;
+    }
+
+    @Override
+    int firstChild(int row) {
+        return chunk(row).firstChildren[row & CHUNK_MASK];
+    }
+
+    @Override
+    void setFirstChild(int row, int child) {
+        chunk(row).firstChildren[row & CHUNK_MASK] = child;
+    }
+
+    @Override
+    int nextSibling(int row) {
+        return chunk(row).nextSiblings[row & CHUNK_MASK];
+    }
+
+    @Override
+    void setNextSibling(int row, int sibling) {
+        chunk(row).nextSiblings[row & CHUNK_MASK] = sibling;
+    }
+
+    @Override
+    int nextOfType(int row) {
+        return chunk(row).nextOfTypes[row & CHUNK_MASK];
+    }
+
+    @Override
+    void setNextOfType(int row, int next) {
+        chunk(row).nextOfTypes[row & CHUNK_MASK] = next;
+    }
+
+    @Override
+    long subtreeUnits(int row) {
+        return chunk(row).subtreeUnits[row & CHUNK_MASK];
+    }
+
+    @Override
+    int subtreeScale(int row) {
+        return chunk(row).subtreeScales[row & CHUNK_MASK];
+    }
+
+    @Override
+    void setSubtree(int row, long units, int scale) {
+        Chunk chunk = chunk(row);
+        chunk.subtreeUnits[row & CHUNK_MASK] = units;
+        chunk.subtreeScales[row & CHUNK_MASK] = (byte) scale;
+    }
+
+    private Chunk chunk(int row) {
+        return chunks[row >>> CHUNK_BITS];
+    }
+}
@@ -0,0 +1,176 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import java.util.Arrays;
+
+/**
+ * Filas de transacciones con campos primitivos, indexadas por número de fila, más el
+ * índice id → fila, el árbol padre/hijos y las listas por tipo. Las subclases deciden
+ * dónde viven los campos; las listas enlazadas se arman acá sobre sus accessors.
+ * No es thread-safe: el repositorio lo protege con su propio lock.
+ */
+abstract class TransactionRows {
+
+    static final int NO_ROW = -1;
+    // Tiene padre pero todavía no fue guardado
+    static final int MISSING_ROW = -2;
+
+    // Lista de filas por código de tipo, enlazadas por nextOfType en orden de alta;
+    // MISSING_ROW marca los códigos que nunca tuvieron filas en este store
+    private int[] firstOfType = new int[0];
+    private int[] lastOfType = new int[0];
+    private int[] countOfType = new int[0];
+    private int typeCount;
+
+    abstract int size();
+
+    /**
+     * Reserva la próxima fila, sin padre, hijos ni tipo.
+     */
+    abstract int append();
+
+    /**
+     * Fila de la transacción con ese id, o {@link #NO_ROW}.
+     */
+    abstract int rowOf(long id);
+
+    abstract void indexRow(long id, int row);
+
+    abstract long id(int row);
+
+    abstract void setId(int row, long id);
+
+    abstract long amountUnits(int row);
+
+    abstract int amountScale(int row);
+
+    abstract void setAmount(int row, long units, int scale);
+
+    abstract int typeCode(int row);
+
+    abstract void setTypeCode(int row, int code);
+
+    abstract long parentId(int row);
+
+    abstract void setParentId(int row, long parentId);
+
+    abstract long createdAtMillis(int row);
+
+    abstract void setCreatedAtMillis(int row, long millis);
+
+    abstract int parentRow(int row);
+
+    abstract void setParentRow(int row, int parentRow);
+
+    abstract int firstChild(int row);
+
+    abstract void setFirstChild(int row, int child);
+
+    abstract int nextSibling(int row);
+
+    abstract void setNextSibling(int row, int sibling);
+
+    abstract int nextOfType(int row);
+
+    abstract void setNextOfType(int row, int next);
+
+    abstract long subtreeUnits(int row);
+
+    abstract int subtreeScale(int row);
+
+    abstract void setSubtree(int row, long units, int scale);
+
+    boolean hasParent(int row) {
+        return parentRow(row) != NO_ROW;
+    }
+
+    /**
+     * Agrega la fila al frente de la lista de hijos del padre.
+     */
+    void linkChild(int parentRow, int child) {
+        setParentRow(child, parentRow);
+        setNextSibling(child, firstChild(parentRow));
+        setFirstChild(parentRow, child);
+    }
+
+    void unlinkChild(int parentRow, int child) {
+        int previous = NO_ROW;
+        int current = firstChild(parentRow);
+        while (current != NO_ROW && current != child) {
+            previous = current;
+            current = nextSibling(current);
+        }
+        if (current == NO_ROW) {
+            return;
+        }
+
+        if (previous == NO_ROW) {
+            setFirstChild(parentRow, nextSibling(child));
+        } else {
+            setNextSibling(previous, nextSibling(child));
+        }
+        setNextSibling(child, NO_ROW);
+    }
+
+    int firstOfType(int code) {
+        return code < firstOfType.length && firstOfType[code] != MISSING_ROW ? firstOfType[code] : NO_ROW;
+    }
+
+    int countOfType(int code) {
+        return code < countOfType.length ? countOfType[code] : 0;
+    }
+
+    // Tipos con al menos una fila desde que se creó el store
+    int typeCount() {
+        return typeCount;
+    }
+
+    /**
+     * Agrega la fila al final de la lista de su tipo.
+     */
+    void addToType(int row, int code) {
+        if (code >= firstOfType.length) {
+            int length = Math.max(code + 1, firstOfType.length * 2);
+            int from = firstOfType.length;
+            firstOfType = Arrays.copyOf(firstOfType, length);
+            lastOfType = Arrays.copyOf(lastOfType, length);
+            countOfType = Arrays.copyOf(countOfType, length);
+            Arrays.fill(firstOfType, from, length, MISSING_ROW);
+        }
+        if (firstOfType[code] == MISSING_ROW) {
+            typeCount++;
+            firstOfType[code] = NO_ROW;
+        }
+
+        setNextOfType(row, NO_ROW);
+        if (firstOfType[code] == NO_ROW) {
+            firstOfType[code] = row;
+        } else {
+            setNextOfType(lastOfType[code], row);
+        }
+        lastOfType[code] = row;
+        countOfType[code]++;
+    }
+
+    void removeFromType(int row, int code) {
+        int previous = NO_ROW;
+        int current = firstOfType(code);
+        while (current != NO_ROW && current != row) {
+            previous = current;
+            current = nextOfType(current);
+        }
+        if (current == NO_ROW) {
+            return;
+        }
+
+        if (previous == NO_ROW) {
+            firstOfType[code] = nextOfType(row);
+        } else {
+            setNextOfType(previous, nextOfType(row));
+        }
+        if (lastOfType[code] == row) {
+            lastOfType[code] = previous;
+        }
+        countOfType[code]--;
+        setNextOfType(row, NO_ROW);
+    }
+}
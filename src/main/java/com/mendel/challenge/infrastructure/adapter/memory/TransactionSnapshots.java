@@ -0,0 +1,294 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.infrastructure.adapter.TransactionRecordCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Snapshots binarios de las transacciones del repositorio en memoria, en el directorio
+ * del journal. Cada snapshot guarda la secuencia del segmento de journal desde el que
+ * hay que reaplicar y las transacciones en bloques de hasta {@value #CHUNK_RECORDS}
+ * registros con su CRC32C; un índice al final del archivo permite cargar los bloques en
+ * paralelo. Los índices por tipo y por padre no se guardan: se rearman al cargar.
+ *
+ * <pre>
+ * [magic][versión][secuencia del journal] [bloque]... [tipos][índice de bloques] [offset del footer][magic]
+ * </pre>
+ *
+ * Se escribe en un archivo temporal que se renombra al terminar: un snapshot visible
+ * siempre está completo.
+ */
+@Slf4j
+final class TransactionSnapshots {
+
+    static final int CHUNK_RECORDS = 16_384;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int MAGIC = 0x54584E53;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int TRAILER_BYTES = 12;
+    private static final int INDEX_ENTRY_BYTES = 20;
+
+    record Snapshot(Path path, long journalSequence) {}
+
+    private record Chunk(long offset, int length, int records, int checksum) {}
+
+    private final Path directory;
+
+    TransactionSnapshots(Path directory) {
+        this.directory = directory;
+    }
+
+    Optional<Snapshot> latest() {
+        return snapshots().stream().max(Comparator.comparingLong(Snapshot::journalSequence));
+    }
+
+    /**
+     * Escribe las transacciones del mapa stripe por stripe, sin bloquear a los writers
+     * más que lo que tarda la copia de cada stripe. Devuelve la cantidad escrita.
+     */
+    long write(long journalSequence, StripedLongObjectMap<Transaction> transactions) {
+        Path target = directory.resolve(SNAPSHOT_PREFIX + journalSequence + SNAPSHOT_SUFFIX);
+        Path temp = directory.resolve(target.getFileName() + TEMP_SUFFIX);
+
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ChunkWriter writer = new ChunkWriter(channel);
+            writer.header(journalSequence);
+            transactions.forEachStripe(stripe -> stripe.forEach(writer::add));
+            writer.finish();
+            channel.force(true);
+
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return writer.written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write memory snapshot " + target, e);
+        }
+    }
+
+    /**
+     * Carga el snapshot entregando cada transacción a {@code sink} desde {@code threads}
+     * hilos en paralelo, un bloque por tarea: {@code sink} tiene que ser thread-safe.
+     */
+    long load(Snapshot snapshot, int threads, Consumer<Transaction> sink) {
+        Path path = snapshot.path();
+        ExecutorService loaders = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "memory-snapshot-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer trailer = read(channel, size - TRAILER_BYTES, TRAILER_BYTES);
+            long footerOffset = trailer.getLong();
+            if (trailer.getInt() != MAGIC || read(channel, 0, HEADER_BYTES).getInt() != MAGIC) {
+                throw new IllegalStateException("Not a memory snapshot: " + path);
+            }
+
+            ByteBuffer footer = read(channel, footerOffset, (int) (size - TRAILER_BYTES - footerOffset));
+            String[] types = new String[footer.getInt()];
+            for (int i = 0; i < types.length; i++) {
+                byte[] name = new byte[footer.getInt()];
+                footer.get(name);
+                types[i] = new String(name, StandardCharsets.UTF_8);
+            }
+
+            List<Future<?>> tasks = new ArrayList<>();
+            AtomicLong loaded = new AtomicLong();
+            int chunks = footer.getInt();
+            for (int i = 0; i < chunks; i++) {
+                Chunk chunk = new Chunk(footer.getLong(), footer.getInt(), footer.getInt(), footer.getInt());
+                tasks.add(loaders.submit(() -> loaded.addAndGet(loadChunk(channel, chunk, types, sink))));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+
+            log.info("Loaded {} transactions from memory snapshot {} in {} chunks with {} threads",
+                    loaded.get(), path, chunks, Math.max(1, threads));
+            return loaded.get();
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read memory snapshot " + path, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cannot load memory snapshot " + path, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading memory snapshot " + path, e);
+        } finally {
+            loaders.shutdownNow();
+        }
+    }
+
+    // Snapshots reemplazados por uno más nuevo
+    void deleteBefore(long journalSequence) {
+        for (Snapshot snapshot : snapshots()) {
+            if (snapshot.journalSequence() < journalSequence) {
+                try {
+                    Files.deleteIfExists(snapshot.path());
+                } catch (IOException e) {
+                    log.warn("Cannot delete memory snapshot {}: {}", snapshot.path(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static int loadChunk(FileChannel channel, Chunk chunk, String[] types, Consumer<Transaction> sink)
+            throws IOException {
+        ByteBuffer body = channel.map(FileChannel.MapMode.READ_ONLY, chunk.offset(), chunk.length())
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != chunk.checksum()) {
+            throw new IllegalStateException("Corrupt memory snapshot chunk at offset " + chunk.offset());
+        }
+
+        for (int i = 0; i < chunk.records(); i++) {
+            sink.accept(TransactionRecordCodec.decode(body, types));
+        }
+        return chunk.records();
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalStateException("Truncated memory snapshot");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private List<Snapshot> snapshots() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(SNAPSHOT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SNAPSHOT_SUFFIX))
+                    .map(path -> new Snapshot(path, sequenceOf(path)))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list memory snapshots in " + directory, e);
+        }
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    // Arma los bloques en un buffer de heap y los escribe enteros; no es thread-safe
+    private static final class ChunkWriter {
+
+        private final FileChannel channel;
+        private final CRC32C crc = new CRC32C();
+        private final Map<String, Integer> typeCodes = new HashMap<>();
+        private final List<Chunk> chunks = new ArrayList<>();
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+        private int records;
+        private long written;
+
+        ChunkWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void header(long journalSequence) {
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(journalSequence);
+            writeBuffer();
+        }
+
+        void add(Transaction transaction) {
+            int code = typeCodes.computeIfAbsent(transaction.getType(), type -> typeCodes.size());
+            ensureRemaining(TransactionRecordCodec.encodedSize(transaction));
+            TransactionRecordCodec.encode(buffer, transaction, code);
+            written++;
+            if (++records == CHUNK_RECORDS) {
+                flushChunk();
+            }
+        }
+
+        void finish() {
+            flushChunk();
+
+            long footerOffset = position;
+            String[] types = new String[typeCodes.size()];
+            typeCodes.forEach((type, code) -> types[code] = type);
+            ensureRemaining(4);
+            buffer.putInt(types.length);
+            for (String type : types) {
+                byte[] name = type.getBytes(StandardCharsets.UTF_8);
+                ensureRemaining(4 + name.length);
+                buffer.putInt(name.length).put(name);
+            }
+
+            ensureRemaining(4 + chunks.size() * INDEX_ENTRY_BYTES + TRAILER_BYTES);
+            buffer.putInt(chunks.size());
+            for (Chunk chunk : chunks) {
+                buffer.putLong(chunk.offset()).putInt(chunk.length()).putInt(chunk.records()).putInt(chunk.checksum());
+            }
+            buffer.putLong(footerOffset).putInt(MAGIC);
+            writeBuffer();
+        }
+
+        private void flushChunk() {
+            if (records == 0) {
+                return;
+            }
+            crc.reset();
+            crc.update(buffer.duplicate().flip());
+            chunks.add(new Chunk(position, buffer.position(), records, (int) crc.getValue()));
+            records = 0;
+            writeBuffer();
+        }
+
+        private void ensureRemaining(int bytes) {
+            if (buffer.remaining() < bytes) {
+                buffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes))
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .put(buffer.flip());
+            }
+        }
+
+        private void writeBuffer() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write memory snapshot chunk", e);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.infrastructure.adapter.redis.dto.TransactionRedisDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.IntFunction;
+
+/**
+ * Payload JSON vía {@link TransactionRedisDTO} y Jackson: el formato original, y el que
+ * entiende {@code subtree-sum.lua} para sumar dentro de Redis.
+ */
+@Slf4j
+public final class JsonTransactionValueCodec implements TransactionValueCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonTransactionValueCodec() {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+    }
+
+    @Override
+    public String encode(Transaction transaction, int typeCode) {
+        try {
+            String json = objectMapper.writeValueAsString(TransactionRedisDTO.fromDomain(transaction, typeCode));
+
+            if (log.isTraceEnabled()) {
+                log.trace("Serialized transaction {} to JSON: {}", transaction.getId(), json);
+            }
+
+            return json;
+
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing transaction {} to JSON. Error: {}",
+                    transaction.getId(), e.getMessage(), e);
+            throw new RuntimeException("Error serializing transaction", e);
+        }
+    }
+
+    @Override
+    public Transaction decode(String payload, IntFunction<String> typeNames) {
+        try {
+            if (log.isTraceEnabled()) {
+                log.trace("Deserializing transaction from JSON: {}", payload);
+            }
+
+            TransactionRedisDTO dto = objectMapper.readValue(payload, TransactionRedisDTO.class);
+            Transaction transaction = dto.toDomain(typeNames);
+
+            log.trace("Successfully deserialized transaction with id: {}", transaction.getId());
+            return transaction;
+
+        } catch (JsonProcessingException e) {
+            log.error("Error deserializing transaction from JSON. JSON: {}. Error: {}",
+                    payload, e.getMessage(), e);
+            throw new RuntimeException("Error deserializing transaction", e);
+        }
+    }
+
+    @Override
+    public boolean canDecode(String payload) {
+        return !payload.isEmpty() && payload.charAt(0) == '{';
+    }
+}
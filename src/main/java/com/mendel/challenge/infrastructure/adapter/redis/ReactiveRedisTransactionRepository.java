@@ -0,0 +1,129 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.ReactiveTransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+import static com.mendel.challenge.infrastructure.adapter.redis.RedisTransactionCodec.SAVE_SCRIPT;
+import static com.mendel.challenge.infrastructure.adapter.redis.RedisTransactionCodec.SUBTREE_COUNTER_FIELDS;
+import static com.mendel.challenge.infrastructure.adapter.redis.RedisTransactionCodec.SUBTREE_SUM_SCRIPT;
+import static com.mendel.challenge.infrastructure.adapter.redis.RedisTransactionCodec.TRANSACTION_KEY_PREFIX;
+
+/**
+ * Repositorio Redis sobre la API reactiva de Lettuce. Usa las mismas keys y scripts
+ * que {@link RedisTransactionRepository}, así que ambos stacks comparten los datos.
+ * El diccionario de tipos es bloqueante, pero solo va a Redis la primera vez que ve un
+ * tipo o un código: codificar y decodificar corren en el scheduler elástico para no
+ * bloquear el event loop.
+ */
+@Slf4j
+public class ReactiveRedisTransactionRepository implements ReactiveTransactionRepository {
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final RedisTransactionCodec codec;
+
+    public ReactiveRedisTransactionRepository(ReactiveRedisTemplate<String, String> redisTemplate,
+                                              TypeDictionary typeDictionary) {
+        this(redisTemplate, typeDictionary, new JsonTransactionValueCodec());
+    }
+
+    public ReactiveRedisTransactionRepository(ReactiveRedisTemplate<String, String> redisTemplate,
+                                              TypeDictionary typeDictionary,
+                                              TransactionValueCodec payloadCodec) {
+        log.info("Initializing Reactive Redis Transaction Repository - payload codec: {}",
+                payloadCodec.getClass().getSimpleName());
+        this.redisTemplate = redisTemplate;
+        this.codec = new RedisTransactionCodec(typeDictionary, payloadCodec);
+    }
+
+    @Override
+    public Mono<InsertOutcome> insertIfAbsent(Transaction transaction) {
+        return Mono.fromCallable(() -> codec.saveScriptKeys(transaction, true))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(keys -> redisTemplate.execute(
+                                SAVE_SCRIPT,
+                                keys,
+                                List.of(RedisTransactionCodec.saveScriptArgs(transaction, codec.serialize(transaction), true)))
+                        .next())
+                .map(RedisTransactionCodec::toInsertOutcome)
+                .doOnNext(outcome -> log.debug("Conditional insert of transaction {} in Redis - outcome: {}",
+                        transaction.getId(), outcome))
+                .doOnError(e -> log.error("Error inserting transaction {} to Redis. Error: {}",
+                        transaction.getId(), e.getMessage()));
+    }
+
+    @Override
+    public Mono<Transaction> findById(Long id) {
+        return redisTemplate.opsForValue()
+                .get(RedisTransactionCodec.transactionKey(id))
+                .publishOn(Schedulers.boundedElastic())
+                .map(codec::deserialize)
+                .doOnError(e -> log.error("Error finding transaction {} in Redis. Error: {}", id, e.getMessage()));
+    }
+
+    @Override
+    public Flux<Transaction> findByType(String type) {
+        return Mono.fromCallable(() -> codec.typeIndexKeys(type))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(keys -> keys.size() == 1
+                        ? redisTemplate.opsForSet().members(keys.get(0))
+                        : redisTemplate.opsForSet().union(keys))
+                .transform(this::resolveIds)
+                .doOnError(e -> log.error("Error finding transactions by type {} in Redis. Error: {}",
+                        type, e.getMessage()));
+    }
+
+    @Override
+    public Flux<Transaction> findChildrenOf(Long parentId) {
+        return resolveMembers(RedisTransactionCodec.childrenKey(parentId))
+                .doOnError(e -> log.error("Error finding children of parent {} in Redis. Error: {}",
+                        parentId, e.getMessage()));
+    }
+
+    @Override
+    public Mono<BigDecimal> findSubtreeSum(Long id) {
+        Mono<BigDecimal> maintained = redisTemplate.<Object, Object>opsForHash()
+                .multiGet(RedisTransactionCodec.subtreeSumKey(id), SUBTREE_COUNTER_FIELDS)
+                .flatMap(counter -> Mono.justOrEmpty(RedisTransactionCodec.fromSubtreeCounter(counter)));
+
+        Mono<BigDecimal> scripted = redisTemplate.execute(
+                        SUBTREE_SUM_SCRIPT,
+                        List.of(RedisTransactionCodec.transactionKey(id)),
+                        List.of(RedisTransactionCodec.subtreeSumScriptArgs(id)))
+                .next()
+                .flatMap(result -> Mono.justOrEmpty(RedisTransactionCodec.fromSubtreeSumScript(id, (List<?>) result)));
+
+        return maintained
+                .switchIfEmpty(scripted)
+                .doOnNext(sum -> log.debug("Subtree sum for transaction {} resolved in Redis: {}", id, sum))
+                .doOnError(e -> log.error("Error calculating subtree sum of transaction {} in Redis. Error: {}",
+                        id, e.getMessage()));
+    }
+
+    // SMEMBERS del índice y un único MGET con los payloads
+    private Flux<Transaction> resolveMembers(String indexKey) {
+        return resolveIds(redisTemplate.opsForSet().members(indexKey));
+    }
+
+    private Flux<Transaction> resolveIds(Flux<String> ids) {
+        return ids
+                .map(id -> TRANSACTION_KEY_PREFIX + id)
+                .collectList()
+                .filter(keys -> !keys.isEmpty())
+                .flatMap(keys -> redisTemplate.opsForValue().multiGet(keys))
+                .flatMapIterable(payloads -> payloads)
+                .filter(Objects::nonNull)
+                .publishOn(Schedulers.boundedElastic())
+                .map(codec::deserialize);
+    }
+}
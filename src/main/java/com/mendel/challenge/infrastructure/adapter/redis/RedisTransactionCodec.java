@@ -0,0 +1,218 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.ScaledAmount;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Layout de keys, argumentos de los scripts Lua y formato de payload compartidos
+ * por los repositorios Redis bloqueante y reactivo. El tipo se escribe como código del
+ * {@link TypeDictionary}, en el payload y en la key del índice; los payloads e índices
+ * anteriores, con el nombre del tipo, se siguen leyendo. El payload se escribe con el
+ * {@link TransactionValueCodec} configurado y se lee en cualquiera de los formatos.
+ */
+@Slf4j
+final class RedisTransactionCodec {
+
+    static final String TRANSACTION_KEY_PREFIX = "transaction:";
+    // Índice por nombre de tipo, previo al diccionario: solo se lee
+    static final String TYPE_INDEX_PREFIX = "type:";
+    static final String TYPE_CODE_INDEX_PREFIX = "type_code:";
+    static final String CHILDREN_INDEX_PREFIX = "children:";
+    static final String SUBTREE_SUM_PREFIX = "subtree_sum:";
+    static final String PARENT_KEY_PREFIX = "parent:";
+
+    static final List<Object> SUBTREE_COUNTER_FIELDS = List.of("units", "scale", "invalid");
+
+    // Escala persistida de los totales (independiente de amount.scale) para que HINCRBY sea exacto
+    static final int SUBTREE_SUM_SCALE = 4;
+    static final int MAX_ANCESTOR_DEPTH = 100_000;
+
+    // Escala con la que el script acumula los montos como enteros
+    static final int SCRIPT_SUM_SCALE = 8;
+    // Por encima de este tamaño el script delega para no bloquear Redis
+    static final int SCRIPT_MAX_NODES = 250_000;
+    static final BigDecimal SCRIPT_LIMB = BigDecimal.TEN.pow(12);
+
+    // Códigos de rechazo de la inserción condicional en save-transaction.lua
+    static final long SCRIPT_ALREADY_EXISTS = -1L;
+    static final long SCRIPT_PARENT_NOT_FOUND = -2L;
+
+    static final RedisScript<Long> SAVE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/save-transaction.lua"), Long.class);
+
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> SUBTREE_SUM_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/subtree-sum.lua"), List.class);
+
+    private final TypeDictionary typeDictionary;
+    private final TransactionValueCodec payloadCodec;
+    private final JsonTransactionValueCodec jsonCodec = new JsonTransactionValueCodec();
+    // Formatos que se leen, el de escritura primero
+    private final List<TransactionValueCodec> readers;
+
+    RedisTransactionCodec(TypeDictionary typeDictionary) {
+        this(typeDictionary, new JsonTransactionValueCodec());
+    }
+
+    RedisTransactionCodec(TypeDictionary typeDictionary, TransactionValueCodec payloadCodec) {
+        this.typeDictionary = typeDictionary;
+        this.payloadCodec = payloadCodec;
+        this.readers = List.of(payloadCodec, jsonCodec, new BinaryTransactionValueCodec());
+    }
+
+    static String transactionKey(Long id) {
+        return TRANSACTION_KEY_PREFIX + id;
+    }
+
+    static String typeKey(String type) {
+        return TYPE_INDEX_PREFIX + type;
+    }
+
+    static String typeCodeKey(int code) {
+        return TYPE_CODE_INDEX_PREFIX + code;
+    }
+
+    static String childrenKey(Long parentId) {
+        return CHILDREN_INDEX_PREFIX + parentId;
+    }
+
+    static String subtreeSumKey(Long id) {
+        return SUBTREE_SUM_PREFIX + id;
+    }
+
+    List<String> saveScriptKeys(Transaction transaction, boolean onlyIfAbsent) {
+        List<String> keys = new ArrayList<>(List.of(
+                transactionKey(transaction.getId()), typeCodeKey(typeDictionary.encode(transaction.getType()))));
+        if (transaction.hasParent()) {
+            keys.add(childrenKey(transaction.getParentId()));
+            if (onlyIfAbsent) {
+                keys.add(transactionKey(transaction.getParentId()));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Keys de índice a unir para buscar por tipo: la del código, si el tipo ya tiene uno,
+     * y la del nombre, donde quedaron los ids guardados antes del diccionario.
+     */
+    List<String> typeIndexKeys(String type) {
+        OptionalInt code = typeDictionary.lookup(type);
+        return code.isPresent()
+                ? List.of(typeCodeKey(code.getAsInt()), typeKey(type))
+                : List.of(typeKey(type));
+    }
+
+    static Object[] saveScriptArgs(Transaction transaction, String payload, boolean onlyIfAbsent) {
+        List<String> args = new ArrayList<>(List.of(
+                transaction.getId().toString(),
+                payload,
+                transaction.hasParent() ? transaction.getParentId().toString() : "",
+                toSubtreeSumUnits(transaction.getAmount()),
+                String.valueOf(Math.max(0, transaction.getAmount().scale())),
+                SUBTREE_SUM_PREFIX,
+                PARENT_KEY_PREFIX,
+                CHILDREN_INDEX_PREFIX,
+                String.valueOf(MAX_ANCESTOR_DEPTH)));
+        if (onlyIfAbsent) {
+            args.add("1");
+        }
+        return args.toArray();
+    }
+
+    static Object[] subtreeSumScriptArgs(Long id) {
+        return new Object[]{
+                TRANSACTION_KEY_PREFIX,
+                CHILDREN_INDEX_PREFIX,
+                String.valueOf(SCRIPT_SUM_SCALE),
+                String.valueOf(SCRIPT_MAX_NODES),
+                id.toString()
+        };
+    }
+
+    static InsertOutcome toInsertOutcome(Long scriptResult) {
+        if (scriptResult == null) {
+            throw new IllegalStateException("Save script returned no result");
+        }
+        if (scriptResult == SCRIPT_ALREADY_EXISTS) {
+            return InsertOutcome.ALREADY_EXISTS;
+        }
+        if (scriptResult == SCRIPT_PARENT_NOT_FOUND) {
+            return InsertOutcome.PARENT_NOT_FOUND;
+        }
+        return InsertOutcome.INSERTED;
+    }
+
+    // Total del hash subtree_sum:{id}, vacío si falta o fue invalidado
+    static Optional<BigDecimal> fromSubtreeCounter(List<Object> counter) {
+        if (counter == null || counter.size() < 3 || counter.get(0) == null || counter.get(2) != null) {
+            return Optional.empty();
+        }
+
+        int scale = counter.get(1) != null ? Integer.parseInt(counter.get(1).toString()) : 0;
+        BigDecimal sum = BigDecimal.valueOf(Long.parseLong(counter.get(0).toString()), SUBTREE_SUM_SCALE);
+        return Optional.of(sum.setScale(scale, RoundingMode.UNNECESSARY));
+    }
+
+    // Resultado de subtree-sum.lua, vacío si el script delegó el cálculo
+    static Optional<BigDecimal> fromSubtreeSumScript(Long id, List<?> result) {
+        if (result == null || result.isEmpty()) {
+            log.debug("Subtree sum script returned no result for transaction {}", id);
+            return Optional.empty();
+        }
+
+        String status = String.valueOf(result.get(0));
+        if (!"OK".equals(status)) {
+            log.debug("Subtree sum script did not resolve transaction {} - status: {}, detail: {}",
+                    id, status, result.size() > 1 ? result.get(1) : "-");
+            return Optional.empty();
+        }
+
+        return Optional.of(fromScriptLimbs(
+                String.valueOf(result.get(1)),
+                String.valueOf(result.get(2)),
+                Integer.parseInt(String.valueOf(result.get(3)))));
+    }
+
+    // Monto como entero a SUBTREE_SUM_SCALE, o "" si no puede representarse de forma exacta
+    private static String toSubtreeSumUnits(BigDecimal amount) {
+        long units = ScaledAmount.toUnits(amount, SUBTREE_SUM_SCALE);
+        return ScaledAmount.isRepresentable(units) ? Long.toString(units) : "";
+    }
+
+    private static BigDecimal fromScriptLimbs(String hi, String lo, int maxScale) {
+        BigDecimal units = new BigDecimal(hi).multiply(SCRIPT_LIMB).add(new BigDecimal(lo));
+        // Misma escala que produciría BigDecimal.add sobre los montos originales
+        return units.movePointLeft(SCRIPT_SUM_SCALE).setScale(maxScale, RoundingMode.UNNECESSARY);
+    }
+
+    String serialize(Transaction transaction) {
+        return payloadCodec.encode(transaction, typeDictionary.encode(transaction.getType()));
+    }
+
+    // Para journals de texto por líneas: un payload binario puede contener saltos de línea
+    String serializeJson(Transaction transaction) {
+        return jsonCodec.encode(transaction, typeDictionary.encode(transaction.getType()));
+    }
+
+    Transaction deserialize(String payload) {
+        for (TransactionValueCodec reader : readers) {
+            if (reader.canDecode(payload)) {
+                return reader.decode(payload, typeDictionary::decode);
+            }
+        }
+        throw new IllegalArgumentException("Unknown transaction payload format");
+    }
+}
@@ -1,37 +1,59 @@
 package com.mendel.challenge.infrastructure.adapter.redis;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mendel.challenge.domain.model.InsertOutcome;
 import com.mendel.challenge.domain.model.Transaction;
 import com.mendel.challenge.domain.port.out.TransactionRepository;
-import com.mendel.challenge.infrastructure.adapter.redis.dto.TransactionRedisDTO;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import static com.mendel.challenge.infrastructure.adapter.redis.RedisTransactionCodec.SAVE_SCRIPT;
+import static com.mendel.challenge.infrastructure.adapter.redis.RedisTransactionCodec.SUBTREE_COUNTER_FIELDS;
+import static com.mendel.challenge.infrastructure.adapter.redis.RedisTransactionCodec.SUBTREE_SUM_SCRIPT;
+import static com.mendel.challenge.infrastructure.adapter.redis.RedisTransactionCodec.TRANSACTION_KEY_PREFIX;
+
 @Slf4j
 @ConditionalOnProperty(name = "redis.enabled", havingValue = "true", matchIfMissing = true)
 public class RedisTransactionRepository implements TransactionRepository {
 
-    private static final String TRANSACTION_KEY_PREFIX = "transaction:";
-    private static final String TYPE_INDEX_PREFIX = "type:";
-    private static final String CHILDREN_INDEX_PREFIX = "children:";
+    // Scripts de save por pipeline en saveAll: acota la memoria de respuestas en el cliente
+    private static final int SAVE_PIPELINE_SIZE = 1000;
 
     private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final RedisTransactionCodec codec;
 
     public RedisTransactionRepository(RedisTemplate<String, String> redisTemplate) {
-        log.info("Initializing Redis Transaction Repository");
+        this(redisTemplate, new RedisTypeDictionary(redisTemplate));
+    }
+
+    public RedisTransactionRepository(RedisTemplate<String, String> redisTemplate, TypeDictionary typeDictionary) {
+        this(redisTemplate, typeDictionary, new JsonTransactionValueCodec());
+    }
+
+    public RedisTransactionRepository(RedisTemplate<String, String> redisTemplate,
+                                      TypeDictionary typeDictionary,
+                                      TransactionValueCodec payloadCodec) {
+        log.info("Initializing Redis Transaction Repository - payload codec: {}",
+                payloadCodec.getClass().getSimpleName());
         this.redisTemplate = redisTemplate;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        this.codec = new RedisTransactionCodec(typeDictionary, payloadCodec);
         log.info("Redis Transaction Repository initialized successfully");
     }
 
@@ -44,24 +66,10 @@ public class RedisTransactionRepository implements TransactionRepository {
                 transaction.getParentId());
 
         try {
-            String key = getTransactionKey(transaction.getId());
-            String json = serializeTransaction(transaction);
-
-            redisTemplate.opsForValue().set(key, json);
-            log.debug("Transaction data saved to Redis with key: {}", key);
-
-            // Indexar por tipo
-            String typeKey = getTypeKey(transaction.getType());
-            redisTemplate.opsForSet().add(typeKey, transaction.getId().toString());
-            log.debug("Transaction {} indexed by type: {}", transaction.getId(), transaction.getType());
-
-            // Indexar por padre si existe
-            if (transaction.hasParent()) {
-                String childrenKey = getChildrenKey(transaction.getParentId());
-                redisTemplate.opsForSet().add(childrenKey, transaction.getId().toString());
-                log.debug("Transaction {} indexed as child of parent: {}",
-                        transaction.getId(), transaction.getParentId());
-            }
+            Long counted = executeSaveScript(transaction, false);
+
+            log.debug("Transaction {} stored with key: {} - subtree counters updated: {}",
+                    transaction.getId(), getTransactionKey(transaction.getId()), Long.valueOf(1L).equals(counted));
 
             log.info("Transaction saved successfully to Redis - id: {}, type: {}",
                     transaction.getId(), transaction.getType());
@@ -74,20 +82,70 @@ public class RedisTransactionRepository implements TransactionRepository {
         }
     }
 
+    @Override
+    public InsertOutcome insertIfAbsent(Transaction transaction) {
+        log.debug("Inserting transaction if absent in Redis - id: {}, parentId: {}",
+                transaction.getId(), transaction.getParentId());
+
+        try {
+            // Chequeo de id, chequeo de padre y escritura en un único round trip atómico
+            Long result = executeSaveScript(transaction, true);
+            InsertOutcome outcome = RedisTransactionCodec.toInsertOutcome(result);
+
+            log.debug("Conditional insert of transaction {} in Redis - outcome: {}", transaction.getId(), outcome);
+            return outcome;
+
+        } catch (Exception e) {
+            log.error("Error inserting transaction {} to Redis. Error: {}",
+                    transaction.getId(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<InsertOutcome> saveAll(List<Transaction> transactions) {
+        log.debug("Starting batch save of {} transactions to Redis", transactions.size());
+
+        try {
+            loadSaveScript();
+
+            // Redis ejecuta los scripts del pipeline en orden: un padre anterior en el lote
+            // ya existe cuando corre el insert condicional de su hijo
+            List<InsertOutcome> outcomes = new ArrayList<>(transactions.size());
+            for (int from = 0; from < transactions.size(); from += SAVE_PIPELINE_SIZE) {
+                List<Transaction> chunk = transactions.subList(from,
+                        Math.min(from + SAVE_PIPELINE_SIZE, transactions.size()));
+
+                for (Object result : pipelinedSave(chunk, true)) {
+                    outcomes.add(RedisTransactionCodec.toInsertOutcome((Long) result));
+                }
+            }
+
+            log.info("Batch of {} transactions saved to Redis in {} pipelines", transactions.size(),
+                    (transactions.size() + SAVE_PIPELINE_SIZE - 1) / SAVE_PIPELINE_SIZE);
+            return outcomes;
+
+        } catch (Exception e) {
+            log.error("Error saving batch of {} transactions to Redis. Error: {}",
+                    transactions.size(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
     @Override
     public Optional<Transaction> findById(Long id) {
         log.debug("Searching transaction by id in Redis: {}", id);
 
         try {
             String key = getTransactionKey(id);
-            String json = redisTemplate.opsForValue().get(key);
+            String payload = redisTemplate.opsForValue().get(key);
 
-            if (json == null) {
+            if (payload == null) {
                 log.debug("Transaction not found in Redis - id: {}", id);
                 return Optional.empty();
             }
 
-            Transaction transaction = deserializeTransaction(json);
+            Transaction transaction = codec.deserialize(payload);
             log.debug("Transaction found in Redis - id: {}, type: {}", id, transaction.getType());
             return Optional.of(transaction);
 
@@ -102,8 +160,7 @@ public class RedisTransactionRepository implements TransactionRepository {
         log.debug("Searching transactions by type in Redis: {}", type);
 
         try {
-            String typeKey = getTypeKey(type);
-            Set<String> ids = redisTemplate.opsForSet().members(typeKey);
+            Set<String> ids = typeMemberIds(type);
 
             if (ids == null || ids.isEmpty()) {
                 log.debug("No transaction ids found for type in Redis: {}", type);
@@ -162,6 +219,86 @@ public class RedisTransactionRepository implements TransactionRepository {
         }
     }
 
+    @Override
+    public Map<Long, List<Transaction>> findChildrenOfAll(Collection<Long> parentIds) {
+        log.debug("Searching children of {} parents in Redis", parentIds.size());
+
+        try {
+            List<Long> parents = new ArrayList<>(parentIds);
+            Map<Long, List<Transaction>> result = new LinkedHashMap<>();
+            if (parents.isEmpty()) {
+                return result;
+            }
+
+            List<Object> memberSets = pipelinedChildIds(parents);
+
+            List<Long> owners = new ArrayList<>();
+            List<String> childKeys = new ArrayList<>();
+            for (int i = 0; i < parents.size(); i++) {
+                result.put(parents.get(i), new ArrayList<>());
+
+                Object members = i < memberSets.size() ? memberSets.get(i) : null;
+                if (members instanceof Collection<?> childIds) {
+                    for (Object childId : childIds) {
+                        owners.add(parents.get(i));
+                        childKeys.add(TRANSACTION_KEY_PREFIX + childId);
+                    }
+                }
+            }
+
+            if (childKeys.isEmpty()) {
+                log.debug("No children found for {} parents in Redis", parents.size());
+                return result;
+            }
+
+            // 1 round trip: todos los payloads de hijos con un MGET
+            List<String> payloads = redisTemplate.opsForValue().multiGet(childKeys);
+            int found = 0;
+            for (int i = 0; payloads != null && i < payloads.size(); i++) {
+                String payload = payloads.get(i);
+                if (payload != null) {
+                    result.get(owners.get(i)).add(codec.deserialize(payload));
+                    found++;
+                }
+            }
+
+            log.debug("Retrieved {} children transactions for {} parents from Redis", found, parents.size());
+            return result;
+
+        } catch (Exception e) {
+            log.error("Error finding children of {} parents in Redis. Error: {}",
+                    parentIds.size(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<BigDecimal> findSubtreeSum(Long id) {
+        log.debug("Calculating subtree sum of transaction {} in Redis", id);
+
+        try {
+            Optional<BigDecimal> maintained = findMaintainedSubtreeSum(id);
+            if (maintained.isPresent()) {
+                log.debug("Subtree sum for transaction {} read from maintained counter: {}", id, maintained.get());
+                return maintained;
+            }
+
+            List<?> result = redisTemplate.execute(
+                    SUBTREE_SUM_SCRIPT,
+                    List.of(getTransactionKey(id)),
+                    RedisTransactionCodec.subtreeSumScriptArgs(id));
+
+            Optional<BigDecimal> sum = RedisTransactionCodec.fromSubtreeSumScript(id, result);
+            sum.ifPresent(total -> log.debug("Subtree sum for transaction {} resolved in Redis: {}", id, total));
+            return sum;
+
+        } catch (Exception e) {
+            log.error("Error calculating subtree sum of transaction {} in Redis. Error: {}",
+                    id, e.getMessage(), e);
+            throw e;
+        }
+    }
+
     @Override
     public boolean existsById(Long id) {
         log.debug("Checking existence of transaction {} in Redis", id);
@@ -186,52 +323,108 @@ public class RedisTransactionRepository implements TransactionRepository {
         return "REDIS";
     }
 
-    private String getTransactionKey(Long id) {
-        return TRANSACTION_KEY_PREFIX + id;
-    }
+    // Padres según los punteros parent:{id} del script de save; un id sin puntero no aparece
+    Map<Long, Long> findParentIds(Collection<Long> ids) {
+        List<Long> ordered = new ArrayList<>(ids);
+        List<String> keys = new ArrayList<>(ordered.size());
+        for (Long id : ordered) {
+            keys.add(RedisTransactionCodec.PARENT_KEY_PREFIX + id);
+        }
 
-    private String getTypeKey(String type) {
-        return TYPE_INDEX_PREFIX + type;
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        Map<Long, Long> parents = new HashMap<>();
+        for (int i = 0; values != null && i < ordered.size(); i++) {
+            String parentId = values.get(i);
+            if (parentId != null) {
+                parents.put(ordered.get(i), Long.valueOf(parentId));
+            }
+        }
+        return parents;
     }
 
-    private String getChildrenKey(Long parentId) {
-        return CHILDREN_INDEX_PREFIX + parentId;
+    // Ids del tipo en el índice por código y en el índice por nombre previo al diccionario
+    Set<String> typeMemberIds(String type) {
+        List<String> keys = codec.typeIndexKeys(type);
+        return keys.size() == 1
+                ? redisTemplate.opsForSet().members(keys.get(0))
+                : redisTemplate.opsForSet().union(keys);
     }
 
-    private String serializeTransaction(Transaction transaction) {
-        try {
-            TransactionRedisDTO dto = TransactionRedisDTO.fromDomain(transaction);
-            String json = objectMapper.writeValueAsString(dto);
+    RedisTransactionCodec codec() {
+        return codec;
+    }
 
-            if (log.isTraceEnabled()) {
-                log.trace("Serialized transaction {} to JSON: {}", transaction.getId(), json);
+    // 1 round trip: todos los SMEMBERS de la frontera en un pipeline, en el orden de parents
+    List<Object> pipelinedChildIds(List<Long> parents) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (Long parentId : parents) {
+                    ops.opsForSet().members(getChildrenKey(parentId));
+                }
+                return null;
             }
+        });
+    }
 
-            return json;
+    // EVALSHA dentro de un pipeline no puede caer a EVAL: el script se carga antes
+    void loadSaveScript() {
+        byte[] script = SAVE_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptingCommands().scriptLoad(script));
+    }
 
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing transaction {} to JSON. Error: {}",
-                    transaction.getId(), e.getMessage(), e);
-            throw new RuntimeException("Error serializing transaction", e);
+    // 1 round trip: un script de save por transacción, resultados en el orden de la lista
+    List<Object> pipelinedSave(List<Transaction> transactions, boolean onlyIfAbsent) {
+        // Keys y payloads antes del pipeline: codificar un tipo nuevo consulta el diccionario
+        // en Redis, y dentro del pipeline esa respuesta llegaría recién al cerrarlo
+        List<List<String>> keys = new ArrayList<>(transactions.size());
+        List<Object[]> args = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            keys.add(codec.saveScriptKeys(transaction, onlyIfAbsent));
+            args.add(RedisTransactionCodec.saveScriptArgs(transaction, codec.serialize(transaction), onlyIfAbsent));
         }
-    }
 
-    private Transaction deserializeTransaction(String json) {
-        try {
-            if (log.isTraceEnabled()) {
-                log.trace("Deserializing transaction from JSON: {}", json);
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (int i = 0; i < keys.size(); i++) {
+                    ops.execute(SAVE_SCRIPT, keys.get(i), args.get(i));
+                }
+                return null;
             }
+        });
+    }
 
-            TransactionRedisDTO dto = objectMapper.readValue(json, TransactionRedisDTO.class);
-            Transaction transaction = dto.toDomain();
+    private String getTransactionKey(Long id) {
+        return RedisTransactionCodec.transactionKey(id);
+    }
 
-            log.trace("Successfully deserialized transaction with id: {}", transaction.getId());
-            return transaction;
+    private String getChildrenKey(Long parentId) {
+        return RedisTransactionCodec.childrenKey(parentId);
+    }
+
+    private Long executeSaveScript(Transaction transaction, boolean onlyIfAbsent) {
+        String payload = codec.serialize(transaction);
+
+        // Payload, índices y totales de subárbol de los ancestros en un único script atómico
+        return redisTemplate.execute(
+                SAVE_SCRIPT,
+                codec.saveScriptKeys(transaction, onlyIfAbsent),
+                RedisTransactionCodec.saveScriptArgs(transaction, payload, onlyIfAbsent));
+    }
+
+    private Optional<BigDecimal> findMaintainedSubtreeSum(Long id) {
+        List<Object> counter = redisTemplate.opsForHash()
+                .multiGet(RedisTransactionCodec.subtreeSumKey(id), SUBTREE_COUNTER_FIELDS);
 
-        } catch (JsonProcessingException e) {
-            log.error("Error deserializing transaction from JSON. JSON: {}. Error: {}",
-                    json, e.getMessage(), e);
-            throw new RuntimeException("Error deserializing transaction", e);
+        Optional<BigDecimal> sum = RedisTransactionCodec.fromSubtreeCounter(counter);
+        if (sum.isEmpty()) {
+            log.debug("No valid subtree counter for transaction {}, falling back to script traversal", id);
         }
+        return sum;
     }
 }
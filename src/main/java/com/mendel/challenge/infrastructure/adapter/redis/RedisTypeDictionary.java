@@ -0,0 +1,66 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * {@link TypeDictionary} respaldado por dos hashes de Redis, así todas las instancias
+ * usan los mismos códigos. Cada instancia cachea lo que ya resolvió: como los códigos no
+ * cambian, Redis solo se consulta la primera vez que aparece un tipo o un código.
+ */
+@Slf4j
+public class RedisTypeDictionary extends TypeDictionary {
+
+    static final String CODES_KEY = "type_dictionary:codes";
+    static final String NAMES_KEY = "type_dictionary:names";
+
+    private static final RedisScript<Long> ASSIGN_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/assign-type-code.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public RedisTypeDictionary(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    protected int assignCode(String type) {
+        // Asignación atómica en Redis: dos instancias con el mismo tipo nuevo reciben el mismo código
+        Long code = redisTemplate.execute(ASSIGN_SCRIPT, List.of(CODES_KEY, NAMES_KEY), type);
+        if (code == null) {
+            throw new IllegalStateException("Type code assignment returned no result for type: " + type);
+        }
+
+        register(type, code.intValue());
+        log.debug("Resolved type code {} for type {} in Redis", code, type);
+        return code.intValue();
+    }
+
+    @Override
+    protected Integer fetchCode(String type) {
+        Object code = redisTemplate.opsForHash().get(CODES_KEY, type);
+        if (code == null) {
+            return null;
+        }
+
+        int value = Integer.parseInt(code.toString());
+        register(type, value);
+        return value;
+    }
+
+    @Override
+    protected String fetchName(int code) {
+        Object type = redisTemplate.opsForHash().get(NAMES_KEY, String.valueOf(code));
+        if (type == null) {
+            return null;
+        }
+
+        register(type.toString(), code);
+        return type.toString();
+    }
+}
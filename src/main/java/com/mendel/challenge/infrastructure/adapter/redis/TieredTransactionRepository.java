@@ -0,0 +1,306 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mendel.challenge.infrastructure.adapter.redis.RedisTransactionCodec.TRANSACTION_KEY_PREFIX;
+
+/**
+ * L1 en memoria acotado (LRU) sobre Redis como L2. Las escrituras van primero a Redis
+ * y después al L1; las lecturas de payload se sirven del L1 y solo piden a Redis los
+ * faltantes. Los índices (tipo, hijos) se leen siempre de Redis porque otras instancias
+ * pueden haberlos modificado.
+ */
+@Slf4j
+public class TieredTransactionRepository implements TransactionRepository, AutoCloseable {
+
+    private final RedisTransactionRepository l2;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisTransactionCodec codec;
+    private final TransactionL1Cache l1;
+    private final int warmUpThreads;
+    private final int scanCount;
+    private final ExecutorService warmUpExecutor;
+    // Pool de carga del warm-up en curso, para cortarlo al cerrar
+    private volatile ExecutorService activeLoaders;
+
+    public TieredTransactionRepository(RedisTransactionRepository l2,
+                                       RedisTemplate<String, String> redisTemplate,
+                                       int l1MaxSize,
+                                       int l1Stripes,
+                                       int warmUpThreads,
+                                       int scanCount) {
+        this.l2 = l2;
+        this.redisTemplate = redisTemplate;
+        this.codec = l2.codec();
+        this.l1 = new TransactionL1Cache(l1MaxSize, l1Stripes);
+        this.warmUpThreads = Math.max(1, warmUpThreads);
+        this.scanCount = Math.max(1, scanCount);
+        // Solo corre el coordinador del SCAN; los MGET van a un pool propio por warm-up
+        this.warmUpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tiered-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        log.info("Tiered repository initialized - L1 max size: {}, warm-up threads: {}", l1MaxSize, this.warmUpThreads);
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        // Write-through: el L1 nunca tiene algo que Redis no confirmó
+        l2.save(transaction);
+        l1.put(transaction);
+        return transaction;
+    }
+
+    @Override
+    public InsertOutcome insertIfAbsent(Transaction transaction) {
+        if (l1.contains(transaction.getId())) {
+            return InsertOutcome.ALREADY_EXISTS;
+        }
+
+        InsertOutcome outcome = l2.insertIfAbsent(transaction);
+        if (outcome == InsertOutcome.INSERTED) {
+            l1.put(transaction);
+        }
+        return outcome;
+    }
+
+    @Override
+    public List<InsertOutcome> saveAll(List<Transaction> transactions) {
+        List<InsertOutcome> outcomes = l2.saveAll(transactions);
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (outcomes.get(i) == InsertOutcome.INSERTED) {
+                l1.put(transactions.get(i));
+            }
+        }
+        return outcomes;
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        Transaction cached = l1.get(id);
+        if (cached != null) {
+            log.debug("Transaction {} served from L1", id);
+            return Optional.of(cached);
+        }
+
+        Optional<Transaction> stored = l2.findById(id);
+        stored.ifPresent(l1::put);
+        return stored;
+    }
+
+    @Override
+    public List<Transaction> findByType(String type) {
+        Set<String> ids = l2.typeMemberIds(type);
+        return resolve(ids != null ? ids : Set.of());
+    }
+
+    @Override
+    public List<Transaction> findChildrenOf(Long parentId) {
+        Set<String> ids = redisTemplate.opsForSet().members(RedisTransactionCodec.childrenKey(parentId));
+        return resolve(ids != null ? ids : Set.of());
+    }
+
+    @Override
+    public Map<Long, List<Transaction>> findChildrenOfAll(Collection<Long> parentIds) {
+        List<Long> parents = new ArrayList<>(parentIds);
+        Map<Long, List<Transaction>> result = new LinkedHashMap<>();
+        if (parents.isEmpty()) {
+            return result;
+        }
+
+        List<Object> memberSets = l2.pipelinedChildIds(parents);
+
+        // Un solo MGET para todos los hijos de la frontera que no estén en L1
+        List<Object> allIds = new ArrayList<>();
+        int[] boundaries = new int[parents.size() + 1];
+        for (int i = 0; i < parents.size(); i++) {
+            Object members = i < memberSets.size() ? memberSets.get(i) : null;
+            if (members instanceof Collection<?> childIds) {
+                allIds.addAll(childIds);
+            }
+            boundaries[i + 1] = allIds.size();
+        }
+
+        List<Transaction> resolved = resolveInOrder(allIds);
+        for (int i = 0; i < parents.size(); i++) {
+            List<Transaction> children = new ArrayList<>();
+            for (int j = boundaries[i]; j < boundaries[i + 1]; j++) {
+                if (resolved.get(j) != null) {
+                    children.add(resolved.get(j));
+                }
+            }
+            result.put(parents.get(i), children);
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<BigDecimal> findSubtreeSum(Long id) {
+        return l2.findSubtreeSum(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return l1.contains(id) || l2.existsById(id);
+    }
+
+    /**
+     * Carga el L1 desde Redis: un hilo recorre las keys con SCAN y reparte lotes de
+     * {@code scanCount} keys entre los hilos de carga, que hacen MGET y deserializan.
+     * La cola de lotes es corta: si los hilos de carga no dan abasto el propio hilo del
+     * SCAN carga el lote, así el recorrido nunca se adelanta a la carga acumulando keys.
+     * Se detiene cuando el L1 se llena. Devuelve cuántas transacciones cargó.
+     */
+    public CompletableFuture<Integer> warmUp() {
+        return CompletableFuture.supplyAsync(this::scanAndLoad, warmUpExecutor);
+    }
+
+    public TransactionL1Cache.Stats getL1Stats() {
+        return l1.stats();
+    }
+
+    @Override
+    public void close() {
+        warmUpExecutor.shutdownNow();
+        ExecutorService loaders = activeLoaders;
+        if (loaders != null) {
+            loaders.shutdownNow();
+        }
+        try {
+            if (!warmUpExecutor.awaitTermination(10, TimeUnit.SECONDS)
+                    || (loaders != null && !loaders.awaitTermination(10, TimeUnit.SECONDS))) {
+                log.warn("L1 warm-up did not stop within 10 seconds of close");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int scanAndLoad() {
+        long start = System.nanoTime();
+        AtomicInteger loaded = new AtomicInteger();
+        ExecutorService loaders = new ThreadPoolExecutor(warmUpThreads, warmUpThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(warmUpThreads),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "tiered-warm-up-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        activeLoaders = loaders;
+
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(TRANSACTION_KEY_PREFIX + "*")
+                .count(scanCount)
+                .build();
+
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(scanCount);
+            while (cursor.hasNext() && !l1.isFull() && !Thread.currentThread().isInterrupted()) {
+                batch.add(cursor.next());
+                if (batch.size() == scanCount) {
+                    List<String> keys = batch;
+                    loaders.execute(() -> loaded.addAndGet(load(keys)));
+                    batch = new ArrayList<>(scanCount);
+                }
+            }
+            if (!batch.isEmpty()) {
+                List<String> keys = batch;
+                loaders.execute(() -> loaded.addAndGet(load(keys)));
+            }
+        } catch (Exception e) {
+            log.warn("L1 warm-up scan failed, continuing with a partially warm cache. Error: {}", e.getMessage());
+        } finally {
+            loaders.shutdown();
+        }
+
+        try {
+            loaders.awaitTermination(5, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            loaders.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            activeLoaders = null;
+        }
+
+        log.info("L1 warm-up loaded {} transactions in {} ms", loaded.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return loaded.get();
+    }
+
+    private int load(List<String> keys) {
+        List<String> payloads = redisTemplate.opsForValue().multiGet(keys);
+        int count = 0;
+        for (int i = 0; payloads != null && i < payloads.size(); i++) {
+            String payload = payloads.get(i);
+            if (payload != null && !l1.isFull()) {
+                l1.putIfAbsent(codec.deserialize(payload));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<Transaction> resolve(Collection<String> ids) {
+        List<Transaction> resolved = resolveInOrder(new ArrayList<>(ids));
+        resolved.removeIf(transaction -> transaction == null);
+        return resolved;
+    }
+
+    // Misma posición que ids; null donde la transacción ya no existe
+    private List<Transaction> resolveInOrder(List<?> ids) {
+        List<Transaction> resolved = new ArrayList<>(ids.size());
+        List<Integer> missingPositions = new ArrayList<>();
+        List<String> missingKeys = new ArrayList<>();
+
+        for (Object rawId : ids) {
+            Long id = Long.parseLong(rawId.toString());
+            Transaction cached = l1.get(id);
+            if (cached == null) {
+                missingPositions.add(resolved.size());
+                missingKeys.add(RedisTransactionCodec.transactionKey(id));
+            }
+            resolved.add(cached);
+        }
+
+        if (!missingKeys.isEmpty()) {
+            List<String> payloads = redisTemplate.opsForValue().multiGet(missingKeys);
+            for (int i = 0; payloads != null && i < payloads.size(); i++) {
+                String payload = payloads.get(i);
+                if (payload != null) {
+                    Transaction transaction = codec.deserialize(payload);
+                    l1.put(transaction);
+                    resolved.set(missingPositions.get(i), transaction);
+                }
+            }
+        }
+
+        log.debug("Resolved {} transactions - {} from L1, {} from Redis",
+                ids.size(), ids.size() - missingKeys.size(), missingKeys.size());
+        return resolved;
+    }
+}
@@ -0,0 +1,120 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.domain.model.Transaction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU acotado de transacciones, particionado en stripes con lock propio para que
+ * lecturas y escrituras de ids distintos no compitan por un único monitor.
+ */
+final class TransactionL1Cache {
+
+    record Stats(long hits, long misses, long evictions, int size, int maxSize) {}
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    TransactionL1Cache(int maxSize, int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount));
+        this.stripes = new Stripe[count];
+        this.mask = count - 1;
+        this.maxSize = Math.max(0, maxSize);
+
+        int perStripe = (this.maxSize + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe, evictions);
+        }
+    }
+
+    Transaction get(Long id) {
+        Stripe stripe = stripeOf(id);
+        Transaction transaction;
+        synchronized (stripe) {
+            transaction = stripe.get(id);
+        }
+        (transaction != null ? hits : misses).increment();
+        return transaction;
+    }
+
+    // No cuenta como acceso: los chequeos de existencia no deben alterar el orden LRU
+    boolean contains(Long id) {
+        Stripe stripe = stripeOf(id);
+        synchronized (stripe) {
+            return stripe.containsKey(id);
+        }
+    }
+
+    void put(Transaction transaction) {
+        if (maxSize == 0) {
+            return;
+        }
+        Stripe stripe = stripeOf(transaction.getId());
+        synchronized (stripe) {
+            stripe.put(transaction.getId(), transaction);
+        }
+    }
+
+    /**
+     * Para el warm-up: no pisa una versión más nueva escrita mientras se cargaba.
+     */
+    void putIfAbsent(Transaction transaction) {
+        if (maxSize == 0) {
+            return;
+        }
+        Stripe stripe = stripeOf(transaction.getId());
+        synchronized (stripe) {
+            stripe.putIfAbsent(transaction.getId(), transaction);
+        }
+    }
+
+    boolean isFull() {
+        return size() >= maxSize;
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size(), maxSize);
+    }
+
+    private Stripe stripeOf(Long id) {
+        int hash = id.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private static final class Stripe extends LinkedHashMap<Long, Transaction> {
+
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Stripe(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Transaction> eldest) {
+            boolean evict = size() > capacity;
+            if (evict) {
+                evictions.increment();
+            }
+            return evict;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializer de valores de los templates Redis: UTF-8 para todo, salvo los payloads de
+ * {@link BinaryTransactionValueCodec}, que viajan en Latin-1 para que cada char vuelva a
+ * ser un único byte en Redis y en la red. Ningún otro valor empieza con
+ * {@link BinaryTransactionValueCodec#MARKER}, y ese byte también distingue al leer.
+ */
+public final class TransactionPayloadSerializer implements RedisSerializer<String> {
+
+    @Override
+    public byte[] serialize(String value) {
+        if (value == null) {
+            return null;
+        }
+        return isBinaryPayload(value)
+                ? value.getBytes(StandardCharsets.ISO_8859_1)
+                : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String deserialize(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        return bytes.length > 0 && bytes[0] == BinaryTransactionValueCodec.MARKER
+                ? new String(bytes, StandardCharsets.ISO_8859_1)
+                : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return String.class;
+    }
+
+    private static boolean isBinaryPayload(String value) {
+        return !value.isEmpty() && value.charAt(0) == BinaryTransactionValueCodec.MARKER;
+    }
+}
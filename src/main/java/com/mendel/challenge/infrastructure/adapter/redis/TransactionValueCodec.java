@@ -0,0 +1,33 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.domain.model.Transaction;
+
+import java.util.function.IntFunction;
+
+/**
+ * Formato del payload guardado en {@code transaction:{id}}. El repositorio escribe con un
+ * único codec, elegido con {@code redis.payload-format}, pero lee cualquier formato que
+ * reconozca: durante una migración conviven payloads viejos y nuevos.
+ */
+public interface TransactionValueCodec {
+
+    String encode(Transaction transaction, int typeCode);
+
+    /**
+     * Transacción del payload; {@code typeNames} resuelve el código de tipo.
+     */
+    Transaction decode(String payload, IntFunction<String> typeNames);
+
+    /**
+     * Si el payload está escrito en este formato. Solo mira el encabezado.
+     */
+    boolean canDecode(String payload);
+
+    static TransactionValueCodec forFormat(String format) {
+        return switch (format) {
+            case "json" -> new JsonTransactionValueCodec();
+            case "binary" -> new BinaryTransactionValueCodec();
+            default -> throw new IllegalArgumentException("Unknown Redis payload format: " + format);
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Journal append-only en segmentos JSON lines. Cada flush rota el segmento activo;
+ * el segmento rotado se borra recién cuando todas sus transacciones están en Redis.
+ * No es thread-safe: el repositorio lo usa bajo su lock de escritura.
+ */
+@Slf4j
+final class WriteBehindJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".jsonl";
+
+    record Segment(Path path, List<String> lines) {}
+
+    private final Path directory;
+    private final boolean syncEveryWrite;
+    private FileChannel channel;
+    private Path current;
+    private long sequence;
+
+    WriteBehindJournal(Path directory, boolean syncEveryWrite) {
+        this.directory = directory;
+        this.syncEveryWrite = syncEveryWrite;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create write-behind journal directory " + directory, e);
+        }
+    }
+
+    /**
+     * Segmentos que quedaron de una ejecución anterior, en orden de escritura.
+     * Debe llamarse antes de {@link #open()}.
+     */
+    List<Segment> recover() {
+        List<Segment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> paths = files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted(Comparator.comparingLong(WriteBehindJournal::sequenceOf))
+                    .toList();
+
+            for (Path path : paths) {
+                sequence = Math.max(sequence, sequenceOf(path));
+                List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8).stream()
+                        .filter(line -> !line.isBlank())
+                        .toList();
+                segments.add(new Segment(path, lines));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read write-behind journal " + directory, e);
+        }
+
+        log.info("Recovered {} write-behind journal segments from {}", segments.size(), directory);
+        return segments;
+    }
+
+    void open() {
+        try {
+            current = directory.resolve(SEGMENT_PREFIX + (++sequence) + SEGMENT_SUFFIX);
+            channel = FileChannel.open(current,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open write-behind journal segment " + current, e);
+        }
+    }
+
+    // Al volver, la línea está en el page cache del SO: sobrevive a una caída del proceso
+    void append(String line) {
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (syncEveryWrite) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to write-behind journal " + current, e);
+        }
+    }
+
+    /**
+     * Cierra el segmento activo (con fsync) y abre uno nuevo. Devuelve el cerrado.
+     */
+    Path rotate() {
+        Path rotated = current;
+        closeChannel();
+        open();
+        return rotated;
+    }
+
+    void delete(Path segment) {
+        try {
+            Files.deleteIfExists(segment);
+        } catch (IOException e) {
+            log.warn("Cannot delete flushed write-behind journal segment {}: {}", segment, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        closeChannel();
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close write-behind journal segment " + current, e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,405 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.RepositoryOverloadedException;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind delante de Redis: {@code save} confirma apenas la transacción está en
+ * el overlay en memoria y en el journal local. Un flusher en background la escribe
+ * en Redis en lotes pipelined del script de save (SET + SADD + totales de subárbol).
+ * Las lecturas combinan Redis con el overlay, así que ven las escrituras no volcadas.
+ * Con {@code maxPending} escrituras sin volcar el save intenta volcar en línea y, si
+ * Redis no las acepta, rechaza la escritura nueva antes de confirmarla.
+ */
+@Slf4j
+public class WriteBehindTransactionRepository implements TransactionRepository, AutoCloseable {
+
+    private record FlushBatch(Path segment, List<Transaction> transactions) {}
+
+    // Niveles de ancestros que findSubtreeSum sube desde lo pendiente antes de recorrer
+    private static final int MAX_PENDING_ANCESTOR_LEVELS = 256;
+
+    private final RedisTransactionRepository redis;
+    private final RedisTransactionCodec codec;
+    private final WriteBehindJournal journal;
+    private final int batchSize;
+    private final int maxPending;
+    private final ScheduledExecutorService flusher;
+
+    // Escrituras confirmadas que todavía no están en Redis, con sus índices
+    private final Map<Long, Transaction> pending = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> pendingByType = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> pendingChildren = new ConcurrentHashMap<>();
+
+    // appendLock ordena journal y cola: el orden de volcado es el orden de escritura
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private List<Transaction> queue = new ArrayList<>();
+
+    // Solo la toca el hilo que tiene flushLock
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Deque<FlushBatch> unflushed = new ArrayDeque<>();
+    // Cambia cada vez que un volcado saca entradas del overlay
+    private final AtomicLong flushEpoch = new AtomicLong();
+
+    public WriteBehindTransactionRepository(RedisTransactionRepository redis,
+                                            Path journalDirectory,
+                                            boolean syncEveryWrite,
+                                            int batchSize,
+                                            long flushIntervalMs,
+                                            int maxPending) {
+        this.redis = redis;
+        this.codec = redis.codec();
+        this.journal = new WriteBehindJournal(journalDirectory, syncEveryWrite);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPending = Math.max(1, maxPending);
+
+        recoverJournal();
+        journal.open();
+
+        if (flushIntervalMs > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "write-behind-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+
+        log.info("Write-behind repository initialized - journal: {}, batch size: {}, flush interval: {} ms, max pending: {}",
+                journalDirectory, this.batchSize, flushIntervalMs, this.maxPending);
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        log.debug("Write-behind save - id: {}, type: {}, parentId: {}",
+                transaction.getId(), transaction.getType(), transaction.getParentId());
+
+        awaitCapacity();
+        append(transaction);
+        return transaction;
+    }
+
+    @Override
+    public InsertOutcome insertIfAbsent(Transaction transaction) {
+        Long id = transaction.getId();
+        awaitCapacity();
+        long epoch = flushEpoch.get();
+
+        // Primero el overlay y después Redis: una entrada solo sale del overlay cuando ya está en Redis
+        if (pending.containsKey(id) || redis.existsById(id)) {
+            return InsertOutcome.ALREADY_EXISTS;
+        }
+        if (transaction.hasParent() && !existsById(transaction.getParentId())) {
+            return InsertOutcome.PARENT_NOT_FOUND;
+        }
+
+        appendLock.lock();
+        try {
+            if (pending.containsKey(id)) {
+                return InsertOutcome.ALREADY_EXISTS;
+            }
+            // Un volcado entre el chequeo y el lock pudo mover el id del overlay a Redis
+            if (flushEpoch.get() != epoch && redis.existsById(id)) {
+                return InsertOutcome.ALREADY_EXISTS;
+            }
+            appendLocked(transaction);
+        } finally {
+            appendLock.unlock();
+        }
+
+        return InsertOutcome.INSERTED;
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        Transaction unflushedTransaction = pending.get(id);
+        if (unflushedTransaction != null) {
+            log.debug("Transaction {} served from write-behind overlay", id);
+            return Optional.of(unflushedTransaction);
+        }
+        return redis.findById(id);
+    }
+
+    @Override
+    public List<Transaction> findByType(String type) {
+        return merge(redis.findByType(type), pendingByType.get(type));
+    }
+
+    @Override
+    public List<Transaction> findChildrenOf(Long parentId) {
+        return merge(redis.findChildrenOf(parentId), pendingChildren.get(parentId));
+    }
+
+    @Override
+    public Map<Long, List<Transaction>> findChildrenOfAll(Collection<Long> parentIds) {
+        Map<Long, List<Transaction>> stored = redis.findChildrenOfAll(parentIds);
+        Map<Long, List<Transaction>> result = new LinkedHashMap<>();
+        for (Long parentId : parentIds) {
+            result.put(parentId, merge(stored.getOrDefault(parentId, List.of()), pendingChildren.get(parentId)));
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<BigDecimal> findSubtreeSum(Long id) {
+        // Los totales de Redis no incluyen lo que falta volcar: solo se recorre si algo cae en el subárbol
+        if (!pending.isEmpty() && hasPendingUnder(id)) {
+            log.debug("Pending writes under transaction {}, Redis subtree total skipped", id);
+            return Optional.empty();
+        }
+        return redis.findSubtreeSum(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return pending.containsKey(id) || redis.existsById(id);
+    }
+
+    /**
+     * Vuelca a Redis todo lo confirmado hasta ahora. Si Redis falla, los lotes quedan
+     * en el overlay y en el journal y se reintentan en el próximo volcado.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            appendLock.lock();
+            try {
+                if (!queue.isEmpty()) {
+                    unflushed.addLast(new FlushBatch(journal.rotate(), queue));
+                    queue = new ArrayList<>();
+                }
+            } finally {
+                appendLock.unlock();
+            }
+
+            if (unflushed.isEmpty()) {
+                return;
+            }
+
+            redis.loadSaveScript();
+            while (!unflushed.isEmpty()) {
+                FlushBatch batch = unflushed.peekFirst();
+                writeToRedis(batch.transactions());
+                unflushed.removeFirst();
+                journal.delete(batch.segment());
+                release(batch.transactions());
+
+                log.debug("Flushed {} write-behind transactions to Redis", batch.transactions().size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        flushQuietly();
+        journal.close();
+        log.info("Write-behind repository closed - {} transactions left in journal", pending.size());
+    }
+
+    private void append(Transaction transaction) {
+        appendLock.lock();
+        try {
+            appendLocked(transaction);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void appendLocked(Transaction transaction) {
+        // Otros writers pudieron llenar el overlay después de awaitCapacity
+        if (pending.size() >= maxPending && !pending.containsKey(transaction.getId())) {
+            throw overloaded();
+        }
+        journal.append(codec.serializeJson(transaction));
+        queue.add(transaction);
+        index(transaction);
+    }
+
+    // Con el overlay lleno el que escribe vuelca antes de aceptar: frena la ingesta en vez de crecer sin límite
+    private void awaitCapacity() {
+        if (pending.size() < maxPending) {
+            return;
+        }
+
+        log.debug("Write-behind overlay reached {} pending transactions, flushing inline", pending.size());
+        flushQuietly();
+        if (pending.size() >= maxPending) {
+            throw overloaded();
+        }
+    }
+
+    private RepositoryOverloadedException overloaded() {
+        return new RepositoryOverloadedException("Write-behind overloaded: " + pending.size()
+                + " transactions waiting for Redis (max " + maxPending + "), retry later");
+    }
+
+    /**
+     * Si alguna escritura pendiente cae en el subárbol de {@code id}. Sube un nivel por
+     * vuelta desde todo lo pendiente, por el padre del overlay y por el puntero de Redis
+     * (el padre viejo de un reemplazo también tiene a la transacción en su total), con un
+     * MGET por nivel. Pasado {@link #MAX_PENDING_ANCESTOR_LEVELS} responde que sí.
+     */
+    private boolean hasPendingUnder(Long id) {
+        Set<Long> visited = new HashSet<>();
+        Set<Long> level = new HashSet<>(pending.keySet());
+
+        for (int depth = 0; !level.isEmpty(); depth++) {
+            if (level.contains(id) || depth == MAX_PENDING_ANCESTOR_LEVELS) {
+                return true;
+            }
+            visited.addAll(level);
+
+            Set<Long> parents = new HashSet<>(redis.findParentIds(level).values());
+            for (Long node : level) {
+                Transaction unflushedTransaction = pending.get(node);
+                if (unflushedTransaction != null && unflushedTransaction.hasParent()) {
+                    parents.add(unflushedTransaction.getParentId());
+                }
+            }
+            parents.removeAll(visited);
+            level = parents;
+        }
+        return false;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Write-behind flush failed, {} transactions kept for retry. Error: {}",
+                    pending.size(), e.getMessage());
+        }
+    }
+
+    private void writeToRedis(List<Transaction> transactions) {
+        for (int from = 0; from < transactions.size(); from += batchSize) {
+            redis.pipelinedSave(transactions.subList(from, Math.min(from + batchSize, transactions.size())), false);
+        }
+    }
+
+    private void index(Transaction transaction) {
+        Transaction previous = pending.put(transaction.getId(), transaction);
+        if (previous != null) {
+            unindex(previous);
+        }
+
+        pendingByType.computeIfAbsent(transaction.getType(), k -> ConcurrentHashMap.newKeySet())
+                .add(transaction.getId());
+        if (transaction.hasParent()) {
+            pendingChildren.computeIfAbsent(transaction.getParentId(), k -> ConcurrentHashMap.newKeySet())
+                    .add(transaction.getId());
+        }
+    }
+
+    private void unindex(Transaction transaction) {
+        Set<Long> sameType = pendingByType.get(transaction.getType());
+        if (sameType != null) {
+            sameType.remove(transaction.getId());
+        }
+        if (transaction.hasParent()) {
+            Set<Long> siblings = pendingChildren.get(transaction.getParentId());
+            if (siblings != null) {
+                siblings.remove(transaction.getId());
+            }
+        }
+    }
+
+    // Solo sale del overlay la versión volcada; una más nueva sigue pendiente
+    private void release(List<Transaction> flushed) {
+        appendLock.lock();
+        try {
+            for (Transaction transaction : flushed) {
+                boolean[] removed = new boolean[1];
+                pending.computeIfPresent(transaction.getId(), (id, current) -> {
+                    removed[0] = current == transaction;
+                    return removed[0] ? null : current;
+                });
+                if (removed[0]) {
+                    unindex(transaction);
+                }
+            }
+            flushEpoch.incrementAndGet();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private List<Transaction> merge(List<Transaction> stored, Set<Long> pendingIds) {
+        if (pending.isEmpty()) {
+            return stored;
+        }
+
+        List<Transaction> merged = new ArrayList<>(stored.size());
+        for (Transaction transaction : stored) {
+            // La versión del overlay reemplaza a la de Redis (puede haber cambiado de tipo o padre)
+            if (!pending.containsKey(transaction.getId())) {
+                merged.add(transaction);
+            }
+        }
+        for (Long id : pendingIds != null ? pendingIds : Collections.<Long>emptySet()) {
+            Transaction unflushedTransaction = pending.get(id);
+            if (unflushedTransaction != null) {
+                merged.add(unflushedTransaction);
+            }
+        }
+        return merged;
+    }
+
+    private void recoverJournal() {
+        int recovered = 0;
+        for (WriteBehindJournal.Segment segment : journal.recover()) {
+            List<Transaction> transactions = new ArrayList<>(segment.lines().size());
+            for (String line : segment.lines()) {
+                Transaction transaction = codec.deserialize(line);
+                index(transaction);
+                transactions.add(transaction);
+            }
+            unflushed.addLast(new FlushBatch(segment.path(), transactions));
+            recovered += transactions.size();
+        }
+
+        if (recovered > 0) {
+            log.info("Recovered {} unflushed transactions from the write-behind journal", recovered);
+        }
+    }
+}
@@ -1,19 +1,27 @@
 package com.mendel.challenge.infrastructure.adapter.redis.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mendel.challenge.domain.model.Transaction;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.function.IntFunction;
 
 public class TransactionRedisDTO {
 
     @JsonProperty("id")
     private Long id;
 
+    // Payloads previos al diccionario de tipos: se leen, ya no se escriben
     @JsonProperty("type")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String type;
 
+    @JsonProperty("typeCode")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer typeCode;
+
     @JsonProperty("amount")
     private BigDecimal amount;
 
@@ -35,7 +43,15 @@ public class TransactionRedisDTO {
         this.createdAt = createdAt;
     }
 
-    // Factory method desde Transaction
+    public TransactionRedisDTO(Long id, Integer typeCode, BigDecimal amount, Long parentId, Instant createdAt) {
+        this.id = id;
+        this.typeCode = typeCode;
+        this.amount = amount;
+        this.parentId = parentId;
+        this.createdAt = createdAt;
+    }
+
+    // Payload con el nombre del tipo, como se escribía antes del diccionario
     public static TransactionRedisDTO fromDomain(Transaction transaction) {
         return new TransactionRedisDTO(
                 transaction.getId(),
@@ -46,11 +62,22 @@ public class TransactionRedisDTO {
         );
     }
 
-    // Método para convertir a Transaction
-    public Transaction toDomain() {
+    // Factory method desde Transaction, con el tipo ya codificado
+    public static TransactionRedisDTO fromDomain(Transaction transaction, int typeCode) {
+        return new TransactionRedisDTO(
+                transaction.getId(),
+                typeCode,
+                transaction.getAmount(),
+                transaction.getParentId(),
+                transaction.getCreatedAt()
+        );
+    }
+
+    // Método para convertir a Transaction; typeNames resuelve el código en payloads nuevos
+    public Transaction toDomain(IntFunction<String> typeNames) {
         return Transaction.builder()
                 .id(id)
-                .type(type)
+                .type(type != null || typeCode == null ? type : typeNames.apply(typeCode))
                 .amount(amount)
                 .parentId(parentId)
                 .createdAt(createdAt)
@@ -74,6 +101,14 @@ public class TransactionRedisDTO {
         this.type = type;
     }
 
+    public Integer getTypeCode() {
+        return typeCode;
+    }
+
+    public void setTypeCode(Integer typeCode) {
+        this.typeCode = typeCode;
+    }
+
     public BigDecimal getAmount() {
         return amount;
     }
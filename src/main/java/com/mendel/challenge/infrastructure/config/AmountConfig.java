@@ -0,0 +1,18 @@
+package com.mendel.challenge.infrastructure.config;
+
+import com.mendel.challenge.domain.model.ScaledAmount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AmountConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AmountConfig.class);
+
+    public AmountConfig(@Value("${amount.scale:" + ScaledAmount.DEFAULT_SCALE + "}") int scale) {
+        ScaledAmount.configureScale(scale);
+        log.info("Fixed-point amount scale configured to {} decimals", scale);
+    }
+}
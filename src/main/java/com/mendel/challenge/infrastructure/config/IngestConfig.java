@@ -0,0 +1,27 @@
+package com.mendel.challenge.infrastructure.config;
+
+import com.mendel.challenge.domain.service.PendingParentBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@Slf4j
+public class IngestConfig {
+
+    @Bean
+    public PendingParentBuffer pendingParentBuffer(
+            @Value("${ingest.out-of-order.enabled:false}") boolean enabled,
+            @Value("${ingest.out-of-order.max-pending:100000}") int maxPending,
+            @Value("${ingest.out-of-order.ttl:PT10M}") Duration ttl) {
+        if (!enabled) {
+            return PendingParentBuffer.disabled();
+        }
+
+        log.info("Out-of-order ingest enabled - max pending: {}, ttl: {}", maxPending, ttl);
+        return new PendingParentBuffer(maxPending, ttl);
+    }
+}
@@ -0,0 +1,90 @@
+package com.mendel.challenge.infrastructure.config;
+
+import com.mendel.challenge.domain.port.out.ReactiveTransactionRepository;
+import com.mendel.challenge.domain.service.ReactiveTransactionService;
+import com.mendel.challenge.domain.service.SubtreeSumCache;
+import com.mendel.challenge.infrastructure.adapter.memory.InMemoryTransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.memory.ReactiveInMemoryTransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.redis.ReactiveRedisTransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.redis.RedisTypeDictionary;
+import com.mendel.challenge.infrastructure.adapter.redis.TransactionPayloadSerializer;
+import com.mendel.challenge.infrastructure.adapter.redis.TransactionValueCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.List;
+
+/**
+ * Beans del stack WebFlux. Solo se activa con spring.main.web-application-type=reactive;
+ * el stack servlet sigue siendo el default. Tomcat queda en el classpath para ese stack,
+ * así que el servidor Netty se declara explícitamente. Solo hay repositorios reactivos
+ * para memory y redis: con otro storage.strategy el arranque falla con ese motivo.
+ */
+@Configuration
+// Los repositorios construyen transacciones (journals, snapshots) con la escala de montos ya fijada
+@DependsOn("amountConfig")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveStackConfig {
+
+    static final List<String> SUPPORTED_STRATEGIES = List.of("memory", "redis");
+
+    public ReactiveStackConfig(@Value("${storage.strategy:memory}") String storageStrategy) {
+        if (!SUPPORTED_STRATEGIES.contains(storageStrategy)) {
+            throw new IllegalStateException("storage.strategy=" + storageStrategy
+                    + " has no reactive repository; the reactive stack supports " + SUPPORTED_STRATEGIES);
+        }
+    }
+
+    // Sin este bean Spring Boot elige Tomcat, que tiene prioridad sobre Netty si ambos están
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.strategy", havingValue = "memory", matchIfMissing = true)
+    public ReactiveTransactionRepository reactiveInMemoryTransactionRepository(
+            InMemoryTransactionRepository transactionRepository) {
+        return new ReactiveInMemoryTransactionRepository(transactionRepository);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.strategy", havingValue = "redis")
+    public ReactiveRedisTemplate<String, String> reactiveTransactionRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        // Mismo serializer de valores que el template bloqueante: ambos leen los mismos payloads
+        RedisSerializationContext<String, String> context = RedisSerializationContext
+                .<String, String>newSerializationContext(StringRedisSerializer.UTF_8)
+                .value(new TransactionPayloadSerializer())
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.strategy", havingValue = "redis")
+    public ReactiveTransactionRepository reactiveRedisTransactionRepository(
+            ReactiveRedisTemplate<String, String> reactiveTransactionRedisTemplate,
+            RedisTemplate<String, String> redisTemplate,
+            @Value("${redis.payload-format:json}") String payloadFormat) {
+        return new ReactiveRedisTransactionRepository(
+                reactiveTransactionRedisTemplate,
+                new RedisTypeDictionary(redisTemplate),
+                TransactionValueCodec.forFormat(payloadFormat));
+    }
+
+    @Bean
+    public ReactiveTransactionService reactiveTransactionService(ReactiveTransactionRepository repository,
+                                                                 SubtreeSumCache subtreeSumCache) {
+        return new ReactiveTransactionService(repository, subtreeSumCache);
+    }
+}
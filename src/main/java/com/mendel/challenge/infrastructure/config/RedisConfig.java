@@ -1,5 +1,6 @@
 package com.mendel.challenge.infrastructure.config;
 
+import com.mendel.challenge.infrastructure.adapter.redis.TransactionPayloadSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,7 +26,7 @@ public class RedisConfig {
 
     @Bean
     @ConditionalOnProperty(name = "redis.enabled", havingValue = "true", matchIfMissing = true)
-    public RedisConnectionFactory redisConnectionFactory() {
+    public LettuceConnectionFactory redisConnectionFactory() {
         log.info("Configuring Redis connection to {}:{}", redisHost, redisPort);
 
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
@@ -41,7 +42,8 @@ public class RedisConfig {
         RedisTemplate<String, String> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new StringRedisSerializer());
+        // Valores y args de scripts: los payloads binarios viajan un byte por char
+        template.setValueSerializer(new TransactionPayloadSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
         template.setHashValueSerializer(new StringRedisSerializer());
         template.afterPropertiesSet();
@@ -1,25 +1,131 @@
 package com.mendel.challenge.infrastructure.config;
 
 import com.mendel.challenge.domain.port.out.TransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import com.mendel.challenge.infrastructure.adapter.lsm.LsmTransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.memory.ColumnarTransactionRepository;
 import com.mendel.challenge.infrastructure.adapter.memory.InMemoryTransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.memory.OffHeapTransactionRepository;
 import com.mendel.challenge.infrastructure.adapter.redis.RedisTransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.redis.RedisTypeDictionary;
+import com.mendel.challenge.infrastructure.adapter.redis.TieredTransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.redis.TransactionValueCodec;
+import com.mendel.challenge.infrastructure.adapter.redis.WriteBehindTransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.data.redis.core.RedisTemplate;
 
+import java.nio.file.Path;
+
 @Configuration
+// Los repositorios construyen transacciones (journals, snapshots) con la escala de montos ya fijada
+@DependsOn("amountConfig")
 public class RepositoryConfig {
 
     @Bean
     @ConditionalOnProperty(name = "storage.strategy", havingValue = "memory", matchIfMissing = true)
-    public TransactionRepository transactionRepository() { // Nombre del método será el nombre del Bean
-        return new InMemoryTransactionRepository();
+    public InMemoryTransactionRepository transactionRepository( // Nombre del método será el nombre del Bean
+            @Value("${memory.journal.enabled:false}") boolean journalEnabled,
+            @Value("${memory.journal.dir:data/memory-journal}") String journalDir,
+            @Value("${memory.journal.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${memory.journal.sync-every-write:false}") boolean syncEveryWrite,
+            @Value("${memory.snapshot.interval-ms:300000}") long snapshotIntervalMs,
+            @Value("${memory.snapshot.load-threads:0}") int loadThreads) {
+        if (!journalEnabled) {
+            return new InMemoryTransactionRepository();
+        }
+        return new InMemoryTransactionRepository(
+                new TypeDictionary(),
+                Path.of(journalDir),
+                segmentSizeMb * 1024 * 1024,
+                syncEveryWrite,
+                snapshotIntervalMs,
+                loadThreads > 0 ? loadThreads : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.strategy", havingValue = "columnar")
+    public ColumnarTransactionRepository columnarTransactionRepository() {
+        return new ColumnarTransactionRepository();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.strategy", havingValue = "off-heap")
+    public OffHeapTransactionRepository offHeapTransactionRepository(
+            @Value("${off-heap.expected-transactions:1000000}") int expectedTransactions) {
+        return new OffHeapTransactionRepository(new TypeDictionary(), expectedTransactions);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.strategy", havingValue = "lsm")
+    public LsmTransactionRepository lsmTransactionRepository(
+            @Value("${lsm.dir:data/lsm}") String dir,
+            @Value("${lsm.memtable-size-mb:32}") int memtableSizeMb,
+            @Value("${lsm.compaction-trigger:4}") int compactionTrigger,
+            @Value("${lsm.sync-every-write:false}") boolean syncEveryWrite) {
+        return new LsmTransactionRepository(
+                Path.of(dir),
+                memtableSizeMb * 1024L * 1024L,
+                compactionTrigger,
+                syncEveryWrite);
     }
 
     @Bean
     @ConditionalOnProperty(name = "storage.strategy", havingValue = "redis")
-    public TransactionRepository redisTransactionRepository(RedisTemplate<String, String> redisTemplate) {
-        return new RedisTransactionRepository(redisTemplate);
+    public TransactionRepository redisTransactionRepository(
+            RedisTemplate<String, String> redisTemplate,
+            @Value("${redis.payload-format:json}") String payloadFormat) {
+        return redisRepository(redisTemplate, payloadFormat);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.strategy", havingValue = "write-behind")
+    public WriteBehindTransactionRepository writeBehindTransactionRepository(
+            RedisTemplate<String, String> redisTemplate,
+            @Value("${redis.payload-format:json}") String payloadFormat,
+            @Value("${write-behind.journal-dir:data/write-behind}") String journalDir,
+            @Value("${write-behind.sync-every-write:false}") boolean syncEveryWrite,
+            @Value("${write-behind.batch-size:1000}") int batchSize,
+            @Value("${write-behind.flush-interval-ms:50}") long flushIntervalMs,
+            @Value("${write-behind.max-pending:100000}") int maxPending) {
+        return new WriteBehindTransactionRepository(
+                redisRepository(redisTemplate, payloadFormat),
+                Path.of(journalDir),
+                syncEveryWrite,
+                batchSize,
+                flushIntervalMs,
+                maxPending);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.strategy", havingValue = "tiered")
+    public TieredTransactionRepository tieredTransactionRepository(
+            RedisTemplate<String, String> redisTemplate,
+            @Value("${redis.payload-format:json}") String payloadFormat,
+            @Value("${tiered.l1.max-size:100000}") int l1MaxSize,
+            @Value("${tiered.l1.stripes:16}") int l1Stripes,
+            @Value("${tiered.warm-up.threads:4}") int warmUpThreads,
+            @Value("${tiered.warm-up.scan-count:1000}") int scanCount) {
+        TieredTransactionRepository repository = new TieredTransactionRepository(
+                redisRepository(redisTemplate, payloadFormat),
+                redisTemplate,
+                l1MaxSize,
+                l1Stripes,
+                warmUpThreads,
+                scanCount);
+        // El warm-up corre en background: la app atiende requests mientras el L1 se llena
+        repository.warmUp();
+        return repository;
+    }
+
+    private static RedisTransactionRepository redisRepository(RedisTemplate<String, String> redisTemplate,
+                                                              String payloadFormat) {
+        return new RedisTransactionRepository(
+                redisTemplate,
+                new RedisTypeDictionary(redisTemplate),
+                TransactionValueCodec.forFormat(payloadFormat));
     }
 }
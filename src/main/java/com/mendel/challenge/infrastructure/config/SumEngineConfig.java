@@ -0,0 +1,61 @@
+package com.mendel.challenge.infrastructure.config;
+
+import com.mendel.challenge.domain.service.SubtreeSumCache;
+import com.mendel.challenge.domain.service.sum.IterativeSumEngine;
+import com.mendel.challenge.domain.service.sum.LevelOrderSumEngine;
+import com.mendel.challenge.domain.service.sum.ParallelSumEngine;
+import com.mendel.challenge.domain.service.sum.RecursiveSumEngine;
+import com.mendel.challenge.domain.service.sum.SubtreeSumEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+@Configuration
+@Slf4j
+public class SumEngineConfig {
+
+    // Storage que escriben varias instancias: un cache local no vería sus escrituras
+    private static final Set<String> SHARED_STORAGE_STRATEGIES = Set.of("redis", "write-behind", "tiered");
+
+    @Bean
+    @ConditionalOnProperty(name = "sum.engine", havingValue = "iterative", matchIfMissing = true)
+    public SubtreeSumEngine iterativeSumEngine() {
+        return new IterativeSumEngine();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "sum.engine", havingValue = "recursive")
+    public SubtreeSumEngine recursiveSumEngine() {
+        return new RecursiveSumEngine();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "sum.engine", havingValue = "level-order")
+    public SubtreeSumEngine levelOrderSumEngine() {
+        return new LevelOrderSumEngine();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "sum.engine", havingValue = "parallel")
+    public SubtreeSumEngine parallelSumEngine(
+            @Value("${sum.parallel.parallelism:0}") int parallelism,
+            @Value("${sum.parallel.threshold:" + ParallelSumEngine.DEFAULT_THRESHOLD + "}") int threshold) {
+        int effectiveParallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ParallelSumEngine(effectiveParallelism, threshold);
+    }
+
+    @Bean
+    public SubtreeSumCache subtreeSumCache(@Value("${sum.cache.max-size:10000}") int maxSize,
+                                           @Value("${storage.strategy:memory}") String storageStrategy) {
+        if (maxSize > 0 && SHARED_STORAGE_STRATEGIES.contains(storageStrategy)) {
+            log.info("Subtree sum cache disabled - storage strategy '{}' is shared with other instances",
+                    storageStrategy);
+            return SubtreeSumCache.disabled();
+        }
+        return new SubtreeSumCache(maxSize);
+    }
+}
@@ -0,0 +1,39 @@
+package com.mendel.challenge.infrastructure.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * El modo de ejecución lo aplica Spring Boot con spring.threads.virtual.enabled:
+ * en una JVM 21+ Tomcat atiende cada request en un hilo virtual, y las llamadas
+ * bloqueantes de RedisTemplate liberan el carrier mientras esperan. En JVMs
+ * anteriores la propiedad no tiene efecto, así que se avisa al arrancar.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    private static final int VIRTUAL_THREADS_MIN_JAVA_VERSION = 21;
+
+    public ThreadingConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsRequested,
+                           @Value("${server.tomcat.threads.max:200}") int maxPlatformThreads) {
+        int javaVersion = Runtime.version().feature();
+
+        if (virtualThreadsRequested && javaVersion < VIRTUAL_THREADS_MIN_JAVA_VERSION) {
+            log.warn("Virtual threads requested but running on Java {} (requires {}+); "
+                            + "requests will run on the platform thread pool of {} threads",
+                    javaVersion, VIRTUAL_THREADS_MIN_JAVA_VERSION, maxPlatformThreads);
+        } else if (virtualThreadsRequested) {
+            log.info("Request execution mode: virtual threads (Java {})", javaVersion);
+        } else {
+            log.info("Request execution mode: platform thread pool of {} threads", maxPlatformThreads);
+        }
+    }
+
+    public static boolean virtualThreadsSupported() {
+        return Runtime.version().feature() >= VIRTUAL_THREADS_MIN_JAVA_VERSION;
+    }
+}
@@ -0,0 +1,17 @@
+-- Devuelve el código de un tipo de transacción, asignándole el siguiente libre si no tiene.
+--
+-- KEYS[1] = hash tipo → código ("type_dictionary:codes")
+-- KEYS[2] = hash código → tipo ("type_dictionary:names")
+-- ARGV[1] = tipo
+--
+-- Los códigos no se borran, así que la cantidad de entradas es el próximo código libre.
+
+local code = redis.call('HGET', KEYS[1], ARGV[1])
+if code then
+    return tonumber(code)
+end
+
+code = redis.call('HLEN', KEYS[1])
+redis.call('HSET', KEYS[1], ARGV[1], code)
+redis.call('HSET', KEYS[2], code, ARGV[1])
+return code
@@ -0,0 +1,99 @@
+-- Guarda una transacción y actualiza atómicamente los totales de subárbol
+-- de toda su cadena de ancestros.
+--
+-- KEYS[1] = transaction:{id}
+-- KEYS[2] = type_code:{code}
+-- KEYS[3] = children:{parentId} (solo si tiene padre)
+-- KEYS[4] = transaction:{parentId} (solo en inserción condicional con padre)
+-- ARGV[1] = id
+-- ARGV[2] = payload serializado
+-- ARGV[3] = parentId ("" si no tiene)
+-- ARGV[4] = monto escalado como entero ("" si no es representable)
+-- ARGV[5] = escala original del monto
+-- ARGV[6] = prefijo de los totales ("subtree_sum:")
+-- ARGV[7] = prefijo del puntero al padre ("parent:")
+-- ARGV[8] = prefijo de los índices de hijos ("children:")
+-- ARGV[9] = profundidad máxima a recorrer
+-- ARGV[10] = "1" para insertar solo si el id está libre y el padre existe
+--
+-- Devuelve 1 si actualizó los totales incrementalmente, 0 si los invalidó,
+-- -1 si la inserción condicional encontró el id y -2 si no encontró el padre.
+--
+-- Cada total es un hash { units, scale }; "invalid" marca los subárboles cuyo
+-- total ya no puede mantenerse exacto y que deben calcularse recorriendo.
+
+local id = ARGV[1]
+local parentId = ARGV[3]
+local units = ARGV[4]
+local amountScale = tonumber(ARGV[5])
+local sumPrefix = ARGV[6]
+local parentPrefix = ARGV[7]
+local childrenPrefix = ARGV[8]
+local maxDepth = tonumber(ARGV[9])
+
+local onlyIfAbsent = ARGV[10] == '1'
+
+local existed = redis.call('EXISTS', KEYS[1]) == 1
+if onlyIfAbsent then
+    if existed then
+        return -1
+    end
+    if parentId ~= '' and redis.call('EXISTS', KEYS[4]) == 0 then
+        return -2
+    end
+end
+local previousParent = redis.call('GET', parentPrefix .. id)
+
+redis.call('SET', KEYS[1], ARGV[2])
+redis.call('SADD', KEYS[2], id)
+if parentId ~= '' then
+    redis.call('SADD', KEYS[3], id)
+    redis.call('SET', parentPrefix .. id, parentId)
+end
+
+local function invalidate(key)
+    redis.call('HSET', key, 'invalid', '1')
+end
+
+local function increment(key)
+    -- Sin contador (datos previos a esta versión) el total es desconocido: no se crea uno parcial
+    if redis.call('HEXISTS', key, 'units') == 0 or redis.call('HEXISTS', key, 'invalid') == 1 then
+        return
+    end
+    local ok = redis.pcall('HINCRBY', key, 'units', units)
+    if type(ok) == 'table' and ok.err then
+        invalidate(key)
+        return
+    end
+    local scale = tonumber(redis.call('HGET', key, 'scale') or '0')
+    if amountScale > scale then
+        redis.call('HSET', key, 'scale', tostring(amountScale))
+    end
+end
+
+local function walk(startParent, fn)
+    local current = startParent
+    local depth = 0
+    while current and current ~= '' and depth < maxDepth do
+        fn(sumPrefix .. current)
+        current = redis.call('GET', parentPrefix .. current)
+        depth = depth + 1
+    end
+end
+
+local ownKey = sumPrefix .. id
+
+if existed or units == '' or redis.call('SCARD', childrenPrefix .. id) > 0 then
+    -- Reemplazo, monto no representable o hijos previos al padre: se abandona el total incremental
+    invalidate(ownKey)
+    if previousParent and previousParent ~= parentId then
+        walk(previousParent, invalidate)
+    end
+    walk(parentId, invalidate)
+    return 0
+end
+
+redis.call('DEL', ownKey)
+redis.call('HSET', ownKey, 'units', units, 'scale', tostring(amountScale))
+walk(parentId, increment)
+return 1
@@ -0,0 +1,113 @@
+-- Suma del subárbol de una transacción ejecutada íntegramente dentro de Redis.
+--
+-- KEYS[1] = transaction:{rootId}
+-- ARGV[1] = prefijo de las claves de transacción ("transaction:")
+-- ARGV[2] = prefijo de los índices de hijos ("children:")
+-- ARGV[3] = escala (dígitos decimales) usada para acumular en enteros
+-- ARGV[4] = máximo de nodos a visitar antes de delegar en el cliente
+-- ARGV[5] = rootId
+--
+-- Los números de Lua son doubles, así que el total se acumula en dos "limbs"
+-- enteros (hi * 10^12 + lo) para mantener la suma exacta.
+--
+-- Respuesta: { "OK", hi, lo, maxScale } | { "MISSING" } | { "FALLBACK", motivo }
+
+local txPrefix = ARGV[1]
+local childrenPrefix = ARGV[2]
+local scale = tonumber(ARGV[3])
+local maxNodes = tonumber(ARGV[4])
+
+local LIMB = 1000000000000
+local LIMB_DIGITS = 12
+local MAX_EXACT = 9007199254740992
+
+local hi, lo, maxScale = 0, 0, 0
+
+local function addAmount(payload)
+    -- Payload binario (BinaryTransactionValueCodec): la suma la hace el cliente
+    if string.byte(payload, 1) == 1 then
+        return 'binary'
+    end
+
+    local amount = string.match(payload, '"amount"%s*:%s*"?([^,}"]+)')
+    if not amount then
+        return 'amount'
+    end
+
+    local int, frac = string.match(amount, '^(%d+)%.?(%d*)$')
+    if not int then
+        return 'format'
+    end
+
+    if #frac > maxScale then
+        maxScale = #frac
+    end
+
+    if #frac > scale then
+        if string.find(string.sub(frac, scale + 1), '[1-9]') then
+            return 'scale'
+        end
+        frac = string.sub(frac, 1, scale)
+    end
+
+    local digits = int .. frac .. string.rep('0', scale - #frac)
+    local loPart, hiPart = digits, '0'
+    if #digits > LIMB_DIGITS then
+        loPart = string.sub(digits, -LIMB_DIGITS)
+        hiPart = string.sub(digits, 1, #digits - LIMB_DIGITS)
+        if #hiPart > 15 then
+            return 'overflow'
+        end
+    end
+
+    lo = lo + tonumber(loPart)
+    hi = hi + tonumber(hiPart)
+    if lo >= LIMB then
+        hi = hi + math.floor(lo / LIMB)
+        lo = lo % LIMB
+    end
+    if hi >= MAX_EXACT then
+        return 'overflow'
+    end
+    return nil
+end
+
+local rootPayload = redis.call('GET', KEYS[1])
+if not rootPayload then
+    return { 'MISSING' }
+end
+
+local failure = addAmount(rootPayload)
+if failure then
+    return { 'FALLBACK', failure }
+end
+
+local visited = { [ARGV[5]] = true }
+local stack = { ARGV[5] }
+local visitedCount = 1
+
+while #stack > 0 do
+    local id = table.remove(stack)
+    local children = redis.call('SMEMBERS', childrenPrefix .. id)
+
+    for _, childId in ipairs(children) do
+        if not visited[childId] then
+            visited[childId] = true
+            visitedCount = visitedCount + 1
+            if visitedCount > maxNodes then
+                return { 'FALLBACK', 'limit' }
+            end
+
+            local payload = redis.call('GET', txPrefix .. childId)
+            if payload then
+                failure = addAmount(payload)
+                if failure then
+                    return { 'FALLBACK', failure }
+                end
+                table.insert(stack, childId)
+            end
+        end
+    end
+end
+
+return { 'OK', string.format('%.0f', hi), string.format('%.0f', lo), tostring(maxScale) }
@@ -0,0 +1,42 @@
+package com.mendel.challenge;
+
+import com.mendel.challenge.domain.port.out.ReactiveTransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Reactive Stack Integration Test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.main.web-application-type=reactive", "storage.strategy=memory"})
+class ReactiveStackIntegrationTest {
+
+    @Autowired
+    private ReactiveWebServerApplicationContext context;
+
+    @Autowired
+    private ReactiveTransactionRepository repository;
+
+    @Test
+    void shouldServeOnNetty() {
+        assertThat(context.getWebServer()).isInstanceOf(NettyWebServer.class);
+        assertThat(repository).isNotNull();
+    }
+
+    @Test
+    void shouldRefuseStrategiesWithoutReactiveRepository() {
+        SpringApplication application = new SpringApplication(ApplicationMendelChallenge.class);
+
+        assertThatThrownBy(() -> application.run(
+                "--spring.main.web-application-type=reactive", "--storage.strategy=columnar", "--server.port=0"))
+                .rootCause()
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("storage.strategy=columnar has no reactive repository");
+    }
+}
@@ -1,5 +1,6 @@
 package com.mendel.challenge;
 
+import com.mendel.challenge.application.dto.BatchTransactionResponse;
 import com.mendel.challenge.application.dto.SumResponse;
 import com.mendel.challenge.application.dto.TypeTransactionsResponse;
 import org.junit.jupiter.api.DisplayName;
@@ -75,6 +76,69 @@ class TransactionControllerIntegrationTest extends BaseIntegrationTest {
         assertThat(response.getBody().sum()).isEqualByComparingTo(new BigDecimal("175.0"));
     }
 
+    @Test
+    @DisplayName("POST /transactions/batch debería crear el árbol y reportar el resultado de cada ítem")
+    void shouldCreateBatchWithPerItemResults() {
+        // Hijo antes que el padre, un ítem inválido y un padre inexistente
+        String body = """
+                {"transactions": [
+                  {"id": 601, "type": "child", "amount": 50, "parentId": 600},
+                  {"id": 600, "type": "parent", "amount": 100},
+                  {"id": 602, "type": "child", "amount": -1, "parentId": 600},
+                  {"id": 603, "type": "child", "amount": 10, "parentId": 999999}
+                ]}
+                """;
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<BatchTransactionResponse> response = restTemplate.postForEntity(
+                "/api/v1/transactionservice/transactions/batch",
+                new HttpEntity<>(body, headers),
+                BatchTransactionResponse.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().created()).isEqualTo(2);
+        assertThat(response.getBody().results())
+                .extracting(BatchTransactionResponse.ItemResult::status)
+                .containsExactly("CREATED", "CREATED", "INVALID", "PARENT_NOT_FOUND");
+
+        ResponseEntity<SumResponse> sum = restTemplate.getForEntity(
+                "/api/v1/transactionservice/sum/600", SumResponse.class);
+        assertThat(sum.getBody().sum()).isEqualByComparingTo(new BigDecimal("150"));
+    }
+
+    @Test
+    @DisplayName("POST /transactions/stream debería confirmar por bloques y terminar con el resumen")
+    void shouldIngestNdjsonStream() {
+        StringBuilder body = new StringBuilder("{\"id\": 700, \"type\": \"root\", \"amount\": 1}\n");
+        for (long id = 701; id <= 2700; id++) {
+            body.append(String.format("{\"id\": %d, \"type\": \"leaf\", \"amount\": 1, \"parentId\": 700}%n", id));
+        }
+        body.append("{\"id\": 2701, \"type\": \"leaf\", \"amount\": 0, \"parentId\": 700}\n");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/x-ndjson"));
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/api/v1/transactionservice/transactions/stream",
+                new HttpEntity<>(body.toString(), headers),
+                String.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String[] lines = response.getBody().split("\n");
+        // Bloques de 1000: 2002 líneas -> 3 líneas de progreso
+        assertThat(lines).hasSize(3);
+        assertThat(lines[2]).contains("\"received\":2002", "\"created\":2001", "\"done\":true", "\"INVALID\"");
+
+        ResponseEntity<SumResponse> sum = restTemplate.getForEntity(
+                "/api/v1/transactionservice/sum/700", SumResponse.class);
+        assertThat(sum.getBody().sum()).isEqualByComparingTo(new BigDecimal("2001"));
+    }
+
     // Helper para simplificar las llamadas PUT en el test
     private void createTransactionRequest(long id, String type, double amount, Long parentId) {
         String body = parentId == null ?
@@ -0,0 +1,91 @@
+package com.mendel.challenge.application.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mendel.challenge.domain.model.BatchItemResult;
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.service.TransactionService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionController Unit Tests")
+class TransactionControllerTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    private TransactionController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new TransactionController(transactionService,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                2);
+    }
+
+    private String[] stream(String body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.streamTransactions(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        return response.getContentAsString().split("\n");
+    }
+
+    @Nested
+    @DisplayName("Streaming Ingest")
+    class StreamingIngest {
+
+        @Test
+        @DisplayName("Should end with a failed progress line when the repository fails")
+        void shouldWriteFailedLineOnRepositoryError() throws Exception {
+            when(transactionService.createAll(anyList()))
+                    .thenReturn(List.of(BatchItemResult.of(1L, InsertOutcome.INSERTED),
+                            BatchItemResult.of(2L, InsertOutcome.INSERTED)))
+                    .thenThrow(new QueryTimeoutException("Redis command timed out"));
+
+            String[] lines = stream("""
+                    {"id": 1, "type": "a", "amount": 1}
+                    {"id": 2, "type": "a", "amount": 1}
+                    {"id": 3, "type": "a", "amount": 1}
+                    {"id": 4, "type": "a", "amount": 1}
+                    """);
+
+            assertThat(lines).hasSize(2);
+            assertThat(lines[0]).contains("\"received\":2", "\"created\":2", "\"done\":false");
+            assertThat(lines[1]).contains("\"received\":2", "\"created\":2", "\"done\":true",
+                    "\"error\":\"Ingest stopped: transactions could not be stored\"");
+        }
+
+        @Test
+        @DisplayName("Should commit the parsed lines and stop at a malformed line")
+        void shouldStopAtMalformedLine() throws Exception {
+            when(transactionService.createAll(anyList()))
+                    .thenReturn(List.of(BatchItemResult.of(1L, InsertOutcome.INSERTED)));
+
+            String[] lines = stream("""
+                    {"id": 1, "type": "a", "amount": 1}
+                    {"id": 2,
+                    """);
+
+            assertThat(lines).hasSize(1);
+            assertThat(lines[0]).contains("\"received\":1", "\"done\":true", "Malformed JSON");
+        }
+    }
+}
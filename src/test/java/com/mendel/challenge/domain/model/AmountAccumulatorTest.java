@@ -0,0 +1,88 @@
+package com.mendel.challenge.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AmountAccumulator Unit Tests")
+class AmountAccumulatorTest {
+
+    @Test
+    @DisplayName("Should keep the scale BigDecimal.add would produce")
+    void shouldKeepBigDecimalAddScale() {
+        AmountAccumulator accumulator = new AmountAccumulator();
+        accumulator.add(transaction(1L, "1000.0"));
+        accumulator.add(transaction(2L, "500.0"));
+
+        assertThat(accumulator.toBigDecimal()).isEqualTo(new BigDecimal("1500.0"));
+        assertThat(accumulator.isScaled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject changing the scale once amounts were scaled with it")
+    void shouldRejectScaleChangeAfterUse() {
+        assertThat(transaction(1L, "1.5").hasScaledAmount()).isTrue();
+        int scale = ScaledAmount.scale();
+
+        ScaledAmount.configureScale(scale);
+
+        assertThatThrownBy(() -> ScaledAmount.configureScale(scale + 1))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(ScaledAmount.scale()).isEqualTo(scale);
+    }
+
+    @Test
+    @DisplayName("Should fall back to BigDecimal for amounts with more decimals than the scale")
+    void shouldFallBackForAmountsBeyondScale() {
+        Transaction precise = transaction(2L, "0.123456789");
+        assertThat(precise.hasScaledAmount()).isFalse();
+
+        AmountAccumulator accumulator = new AmountAccumulator();
+        accumulator.add(transaction(1L, "10.5"));
+        accumulator.add(precise);
+
+        assertThat(accumulator.isScaled()).isFalse();
+        assertThat(accumulator.toBigDecimal()).isEqualTo(new BigDecimal("10.623456789"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to BigDecimal when the long accumulator overflows")
+    void shouldFallBackOnOverflow() {
+        BigDecimal large = new BigDecimal("900000000000000");
+
+        AmountAccumulator accumulator = new AmountAccumulator();
+        for (long id = 1; id <= 20; id++) {
+            accumulator.add(transaction(id, large.toPlainString()));
+        }
+
+        assertThat(accumulator.isScaled()).isFalse();
+        assertThat(accumulator.toBigDecimal()).isEqualByComparingTo(large.multiply(BigDecimal.valueOf(20)));
+    }
+
+    @Test
+    @DisplayName("Should subtract and merge other accumulators")
+    void shouldSubtractAndMerge() {
+        AmountAccumulator total = AmountAccumulator.of(transaction(1L, "100"));
+        AmountAccumulator other = AmountAccumulator.of(transaction(2L, "40.25"));
+
+        total.merge(other);
+        assertThat(total.toBigDecimal()).isEqualTo(new BigDecimal("140.25"));
+
+        total.subtract(transaction(1L, "100"));
+        assertThat(total.toBigDecimal()).isEqualTo(new BigDecimal("40.25"));
+    }
+
+    @Test
+    @DisplayName("Should return zero when empty")
+    void shouldReturnZeroWhenEmpty() {
+        assertThat(new AmountAccumulator().toBigDecimal()).isEqualTo(BigDecimal.ZERO);
+    }
+
+    private static Transaction transaction(Long id, String amount) {
+        return Transaction.builder().id(id).type("cars").amount(new BigDecimal(amount)).build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.mendel.challenge.domain.service;
+
+import com.mendel.challenge.domain.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PendingParentBuffer Unit Tests")
+class PendingParentBufferTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private PendingParentBuffer buffer(int maxSize) {
+        return new PendingParentBuffer(maxSize, Duration.ofSeconds(10), now::get);
+    }
+
+    private Transaction orphan(long id, long parentId) {
+        return Transaction.builder().id(id).type("cars").amount(BigDecimal.ONE).parentId(parentId).build();
+    }
+
+    @Test
+    @DisplayName("Should release every orphan of a parent exactly once")
+    void shouldReleaseOrphansOnce() {
+        PendingParentBuffer buffer = buffer(10);
+        buffer.park(orphan(2L, 1L));
+        buffer.park(orphan(3L, 1L));
+        buffer.park(orphan(4L, 9L));
+
+        assertThat(buffer.release(1L)).extracting(Transaction::getId).containsExactly(2L, 3L);
+        assertThat(buffer.release(1L)).isEmpty();
+        assertThat(buffer.stats().pending()).isEqualTo(1);
+        assertThat(buffer.stats().attached()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject orphans when full and repeated ids while pending")
+    void shouldRejectWhenFullOrRepeated() {
+        PendingParentBuffer buffer = buffer(1);
+
+        assertThat(buffer.park(orphan(2L, 1L))).isEqualTo(PendingParentBuffer.ParkOutcome.PARKED);
+        assertThat(buffer.park(orphan(2L, 1L))).isEqualTo(PendingParentBuffer.ParkOutcome.ALREADY_PENDING);
+        assertThat(buffer.park(orphan(3L, 1L))).isEqualTo(PendingParentBuffer.ParkOutcome.FULL);
+        assertThat(buffer.stats().rejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop orphans whose parent does not arrive before the ttl")
+    void shouldExpireOverdueOrphans() {
+        PendingParentBuffer buffer = buffer(10);
+        buffer.park(orphan(2L, 1L));
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        buffer.park(orphan(3L, 1L));
+
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+
+        assertThat(buffer.release(1L)).extracting(Transaction::getId).containsExactly(3L);
+        assertThat(buffer.stats().expired()).isEqualTo(1);
+        assertThat(buffer.stats().pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should free room for new orphans once old ones expire")
+    void shouldFreeRoomOnExpiry() {
+        PendingParentBuffer buffer = buffer(1);
+        buffer.park(orphan(2L, 1L));
+
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        assertThat(buffer.park(orphan(3L, 1L))).isEqualTo(PendingParentBuffer.ParkOutcome.PARKED);
+    }
+
+    @Test
+    @DisplayName("Should not retain released orphans until their ttl")
+    void shouldNotRetainReleasedOrphans() {
+        PendingParentBuffer buffer = buffer(10);
+
+        // Diez veces la capacidad dentro de un mismo ttl
+        for (long parentId = 1; parentId <= 100; parentId++) {
+            assertThat(buffer.park(orphan(1000 + parentId, parentId))).isEqualTo(PendingParentBuffer.ParkOutcome.PARKED);
+            assertThat(buffer.release(parentId)).hasSize(1);
+        }
+
+        assertThat(buffer.retainedEntries()).isZero();
+        assertThat(buffer.stats().attached()).isEqualTo(100);
+        assertThat(buffer.stats().rejected()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject every orphan when disabled")
+    void shouldRejectWhenDisabled() {
+        PendingParentBuffer buffer = PendingParentBuffer.disabled();
+
+        assertThat(buffer.park(orphan(2L, 1L))).isEqualTo(PendingParentBuffer.ParkOutcome.FULL);
+        assertThat(buffer.release(1L)).isEmpty();
+        assertThat(buffer.stats().rejected()).isZero();
+    }
+}
@@ -0,0 +1,110 @@
+package com.mendel.challenge.domain.service;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.ReactiveTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTransactionServiceTest {
+
+    @Mock
+    private ReactiveTransactionRepository repository;
+
+    private ReactiveTransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new ReactiveTransactionService(repository);
+    }
+
+    @Test
+    @DisplayName("Should create transaction with a single conditional insert")
+    void create_Success() {
+        when(repository.insertIfAbsent(any(Transaction.class))).thenReturn(Mono.just(InsertOutcome.INSERTED));
+
+        StepVerifier.create(transactionService.create(10L, "cars", new BigDecimal("5000"), null))
+                .expectNextMatches(transaction -> transaction.getId().equals(10L))
+                .verifyComplete();
+
+        verify(repository).insertIfAbsent(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Should signal error when the id already exists")
+    void create_DuplicateId_SignalsError() {
+        when(repository.insertIfAbsent(any(Transaction.class))).thenReturn(Mono.just(InsertOutcome.ALREADY_EXISTS));
+
+        StepVerifier.create(transactionService.create(1L, "cars", BigDecimal.TEN, null))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException
+                        && "Transaction already exists".equals(e.getMessage()))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should signal error when the parent does not exist")
+    void create_ParentNotFound_SignalsError() {
+        when(repository.insertIfAbsent(any(Transaction.class))).thenReturn(Mono.just(InsertOutcome.PARENT_NOT_FOUND));
+
+        StepVerifier.create(transactionService.create(2L, "cars", BigDecimal.TEN, 1L))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException
+                        && "Parent transaction not found".equals(e.getMessage()))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should traverse the hierarchy when no precomputed sum exists")
+    void calculateSum_TraversesHierarchy() {
+        Transaction root = Transaction.builder().id(1L).type("cars").amount(new BigDecimal("1000")).build();
+        Transaction child = Transaction.builder().id(2L).type("cars").amount(new BigDecimal("500")).parentId(1L).build();
+        Transaction grandChild = Transaction.builder().id(3L).type("cars").amount(new BigDecimal("200")).parentId(2L).build();
+
+        when(repository.findById(1L)).thenReturn(Mono.just(root));
+        when(repository.findSubtreeSum(1L)).thenReturn(Mono.empty());
+        when(repository.findChildrenOf(1L)).thenReturn(Flux.just(child));
+        when(repository.findChildrenOf(2L)).thenReturn(Flux.just(grandChild));
+        when(repository.findChildrenOf(3L)).thenReturn(Flux.empty());
+
+        StepVerifier.create(transactionService.calculateSum(1L))
+                .expectNextMatches(sum -> sum.compareTo(new BigDecimal("1700")) == 0)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should use the precomputed subtree sum without traversing")
+    void calculateSum_UsesPrecomputedSubtreeSum() {
+        Transaction root = Transaction.builder().id(1L).type("cars").amount(new BigDecimal("1000")).build();
+
+        when(repository.findById(1L)).thenReturn(Mono.just(root));
+        when(repository.findSubtreeSum(1L)).thenReturn(Mono.just(new BigDecimal("2000")));
+
+        StepVerifier.create(transactionService.calculateSum(1L))
+                .expectNext(new BigDecimal("2000"))
+                .verifyComplete();
+
+        verify(repository, never()).findChildrenOf(any());
+    }
+
+    @Test
+    @DisplayName("Should signal error when calculating sum for non-existent transaction")
+    void calculateSum_NotFound_SignalsError() {
+        when(repository.findById(999L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(transactionService.calculateSum(999L))
+                .expectErrorMessage("Transaction not found")
+                .verify();
+    }
+}
@@ -0,0 +1,81 @@
+package com.mendel.challenge.domain.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SubtreeSumCache Unit Tests")
+class SubtreeSumCacheTest {
+
+    @Test
+    @DisplayName("Should count hits and misses")
+    void shouldCountHitsAndMisses() {
+        SubtreeSumCache cache = new SubtreeSumCache(10);
+
+        assertThat(cache.get(1L)).isEmpty();
+        cache.put(1L, BigDecimal.TEN, cache.version());
+        assertThat(cache.get(1L)).hasValue(BigDecimal.TEN);
+
+        SubtreeSumCache.Stats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entry when full")
+    void shouldEvictLeastRecentlyUsedEntry() {
+        SubtreeSumCache cache = new SubtreeSumCache(2);
+        cache.put(1L, BigDecimal.ONE, cache.version());
+        cache.put(2L, BigDecimal.TEN, cache.version());
+        cache.get(1L);
+
+        cache.put(3L, BigDecimal.ZERO, cache.version());
+
+        assertThat(cache.get(2L)).isEmpty();
+        assertThat(cache.get(1L)).isPresent();
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should invalidate only the given ancestor path")
+    void shouldInvalidateOnlyGivenPath() {
+        SubtreeSumCache cache = new SubtreeSumCache(10);
+        cache.put(1L, BigDecimal.ONE, cache.version());
+        cache.put(2L, BigDecimal.TEN, cache.version());
+        cache.put(3L, BigDecimal.ZERO, cache.version());
+
+        cache.invalidate(List.of(1L, 2L));
+
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(cache.get(2L)).isEmpty();
+        assertThat(cache.get(3L)).isPresent();
+        assertThat(cache.stats().invalidations()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject results computed before a concurrent write")
+    void shouldRejectResultsComputedBeforeWrite() {
+        SubtreeSumCache cache = new SubtreeSumCache(10);
+        long observed = cache.version();
+
+        cache.invalidate(List.of(1L));
+        cache.put(1L, BigDecimal.ONE, observed);
+
+        assertThat(cache.get(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not store anything when disabled")
+    void shouldNotStoreAnythingWhenDisabled() {
+        SubtreeSumCache cache = SubtreeSumCache.disabled();
+        cache.put(1L, BigDecimal.ONE, cache.version());
+
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(cache.stats().misses()).isZero();
+    }
+}
@@ -1,18 +1,27 @@
 package com.mendel.challenge.domain.service;
 
+import com.mendel.challenge.domain.model.BatchItemResult;
+import com.mendel.challenge.domain.model.BatchItemStatus;
+import com.mendel.challenge.domain.model.CreateOutcome;
+import com.mendel.challenge.domain.model.InsertOutcome;
 import com.mendel.challenge.domain.model.Transaction;
 import com.mendel.challenge.domain.port.out.TransactionRepository;
+import com.mendel.challenge.domain.service.sum.IterativeSumEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -42,26 +51,111 @@ class TransactionServiceTest {
                 .amount(new BigDecimal("5000"))
                 .build();
 
-        when(repository.existsById(id)).thenReturn(false);
-        when(repository.save(any(Transaction.class))).thenReturn(transaction);
+        when(repository.insertIfAbsent(transaction)).thenReturn(InsertOutcome.INSERTED);
 
         // Act
-        Transaction result = transactionService.create(id, "cars", new BigDecimal("5000"), null);
+        Transaction result = transactionService.create(id, "cars", new BigDecimal("5000"), null).transaction();
 
         // Assert
         assertNotNull(result);
         assertEquals(id, result.getId());
-        verify(repository).save(any(Transaction.class));
+        verify(repository).insertIfAbsent(transaction);
+        verify(repository, never()).existsById(any());
+        verify(repository, never()).save(any(Transaction.class));
     }
 
     @Test
     @DisplayName("Should throw exception when creating a transaction with existing ID")
     void create_DuplicateId_ThrowsException() {
-        when(repository.existsById(1L)).thenReturn(true);
+        when(repository.insertIfAbsent(any(Transaction.class))).thenReturn(InsertOutcome.ALREADY_EXISTS);
 
-        assertThrows(IllegalArgumentException.class, () ->
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
                 transactionService.create(1L, "cars", BigDecimal.TEN, null)
         );
+        assertEquals("Transaction already exists", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when parent transaction does not exist")
+    void create_ParentNotFound_ThrowsException() {
+        when(repository.insertIfAbsent(any(Transaction.class))).thenReturn(InsertOutcome.PARENT_NOT_FOUND);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                transactionService.create(2L, "cars", BigDecimal.TEN, 1L)
+        );
+        assertEquals("Parent transaction not found", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should write parents before their children within a batch")
+    void createAll_WritesParentsFirst() {
+        Transaction child = Transaction.builder().id(2L).type("cars").amount(BigDecimal.ONE).parentId(1L).build();
+        Transaction root = Transaction.builder().id(1L).type("cars").amount(BigDecimal.TEN).build();
+
+        when(repository.saveAll(List.of(root, child)))
+                .thenReturn(List.of(InsertOutcome.INSERTED, InsertOutcome.INSERTED));
+
+        List<BatchItemResult> results = transactionService.createAll(List.of(child, root));
+
+        assertEquals(List.of(2L, 1L), results.stream().map(BatchItemResult::id).toList());
+        assertTrue(results.stream().allMatch(BatchItemResult::isCreated));
+        verify(repository, never()).insertIfAbsent(any());
+    }
+
+    @Test
+    @DisplayName("Should reject duplicated ids and cyclic parents without sending them to the repository")
+    void createAll_RejectsDuplicatesAndCycles() {
+        Transaction first = Transaction.builder().id(1L).type("cars").amount(BigDecimal.TEN).build();
+        Transaction repeated = Transaction.builder().id(1L).type("boats").amount(BigDecimal.ONE).build();
+        Transaction cycleA = Transaction.builder().id(2L).type("cars").amount(BigDecimal.ONE).parentId(3L).build();
+        Transaction cycleB = Transaction.builder().id(3L).type("cars").amount(BigDecimal.ONE).parentId(2L).build();
+
+        when(repository.saveAll(List.of(first))).thenReturn(List.of(InsertOutcome.INSERTED));
+
+        List<BatchItemResult> results = transactionService.createAll(List.of(first, repeated, cycleA, cycleB));
+
+        assertEquals(List.of(BatchItemStatus.CREATED, BatchItemStatus.DUPLICATE_IN_BATCH,
+                        BatchItemStatus.CYCLIC_PARENT, BatchItemStatus.CYCLIC_PARENT),
+                results.stream().map(BatchItemResult::status).toList());
+    }
+
+    @Test
+    @DisplayName("Should park an orphan and attach it when its parent arrives")
+    void create_OutOfOrder_ParksAndAttaches() {
+        TransactionService outOfOrderService = new TransactionService(repository, new IterativeSumEngine(),
+                SubtreeSumCache.disabled(), new PendingParentBuffer(10, Duration.ofMinutes(1)));
+
+        Transaction child = Transaction.builder().id(2L).type("cars").amount(BigDecimal.ONE).parentId(1L).build();
+        Transaction root = Transaction.builder().id(1L).type("cars").amount(BigDecimal.TEN).build();
+
+        when(repository.insertIfAbsent(child)).thenReturn(InsertOutcome.PARENT_NOT_FOUND);
+        when(repository.existsById(1L)).thenReturn(false);
+
+        assertEquals(CreateOutcome.PENDING_PARENT, outOfOrderService.create(2L, "cars", BigDecimal.ONE, 1L).outcome());
+
+        when(repository.insertIfAbsent(root)).thenReturn(InsertOutcome.INSERTED);
+        when(repository.saveAll(List.of(child))).thenReturn(List.of(InsertOutcome.INSERTED));
+
+        assertEquals(CreateOutcome.CREATED, outOfOrderService.create(1L, "cars", BigDecimal.TEN, null).outcome());
+
+        assertEquals(0, outOfOrderService.getPendingParentStats().pending());
+        verify(repository).saveAll(List.of(child));
+        assertEquals(1, outOfOrderService.getPendingParentStats().attached());
+    }
+
+    @Test
+    @DisplayName("Should report orphans of a batch as pending in out-of-order mode")
+    void createAll_OutOfOrder_ReportsPending() {
+        TransactionService outOfOrderService = new TransactionService(repository, new IterativeSumEngine(),
+                SubtreeSumCache.disabled(), new PendingParentBuffer(10, Duration.ofMinutes(1)));
+
+        Transaction orphan = Transaction.builder().id(5L).type("cars").amount(BigDecimal.ONE).parentId(4L).build();
+        when(repository.saveAll(List.of(orphan))).thenReturn(List.of(InsertOutcome.PARENT_NOT_FOUND));
+        when(repository.existsById(4L)).thenReturn(false);
+
+        List<BatchItemResult> results = outOfOrderService.createAll(List.of(orphan));
+
+        assertEquals(BatchItemStatus.PENDING_PARENT, results.get(0).status());
     }
 
     @Test
@@ -99,6 +193,76 @@ class TransactionServiceTest {
         assertTrue(new BigDecimal("200").compareTo(totalSum) == 0);
     }
 
+    @Test
+    @DisplayName("Should use precomputed subtree sum without traversing children")
+    void calculateSum_UsesPrecomputedSubtreeSum() {
+        Transaction t1 = Transaction.builder().id(1L).type("cars").amount(new BigDecimal("100")).build();
+
+        when(repository.findById(1L)).thenReturn(Optional.of(t1));
+        when(repository.findSubtreeSum(1L)).thenReturn(Optional.of(new BigDecimal("350")));
+
+        BigDecimal totalSum = transactionService.calculateSum(1L);
+
+        assertEquals(0, new BigDecimal("350").compareTo(totalSum));
+        verify(repository, never()).findChildrenOf(any());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated sums from cache and invalidate the ancestor path on create")
+    void calculateSum_CachedUntilDescendantIsCreated() {
+        TransactionService cachedService = new TransactionService(
+                repository, new IterativeSumEngine(), new SubtreeSumCache(100));
+
+        Transaction root = Transaction.builder().id(1L).type("cars").amount(new BigDecimal("100")).build();
+        Transaction child = Transaction.builder().id(2L).type("cars").amount(new BigDecimal("50")).parentId(1L).build();
+
+        when(repository.findById(1L)).thenReturn(Optional.of(root));
+        when(repository.findById(2L)).thenReturn(Optional.of(child));
+        when(repository.findSubtreeSum(1L)).thenReturn(Optional.of(new BigDecimal("150")));
+
+        assertEquals(0, new BigDecimal("150").compareTo(cachedService.calculateSum(1L)));
+        assertEquals(0, new BigDecimal("150").compareTo(cachedService.calculateSum(1L)));
+        verify(repository, times(1)).findSubtreeSum(1L);
+
+        // Nuevo nieto bajo 2 -> se invalidan 2 y 1
+        when(repository.insertIfAbsent(any(Transaction.class))).thenReturn(InsertOutcome.INSERTED);
+        cachedService.create(3L, "cars", new BigDecimal("25"), 2L);
+
+        when(repository.findSubtreeSum(1L)).thenReturn(Optional.of(new BigDecimal("175")));
+        assertEquals(0, new BigDecimal("175").compareTo(cachedService.calculateSum(1L)));
+
+        SubtreeSumCache.Stats stats = cachedService.getSumCacheStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.invalidations());
+    }
+
+    @Test
+    @DisplayName("Should invalidate cached sums with the ancestors the repository reports")
+    @SuppressWarnings("unchecked")
+    void calculateSum_InvalidatedByReportedAncestors() {
+        ArgumentCaptor<Consumer<Collection<Long>>> listener = ArgumentCaptor.forClass(Consumer.class);
+        when(repository.setSubtreeChangeListener(listener.capture())).thenReturn(true);
+        TransactionService cachedService = new TransactionService(
+                repository, new IterativeSumEngine(), new SubtreeSumCache(100));
+
+        Transaction root = Transaction.builder().id(1L).type("cars").amount(new BigDecimal("100")).build();
+        when(repository.findById(1L)).thenReturn(Optional.of(root));
+        when(repository.findSubtreeSum(1L)).thenReturn(Optional.of(new BigDecimal("100")));
+        assertEquals(0, new BigDecimal("100").compareTo(cachedService.calculateSum(1L)));
+
+        // El repositorio reporta la cadena al escribir: el servicio no la vuelve a leer
+        when(repository.insertIfAbsent(any(Transaction.class))).thenAnswer(invocation -> {
+            listener.getValue().accept(List.of(1L));
+            return InsertOutcome.INSERTED;
+        });
+        cachedService.create(2L, "cars", new BigDecimal("50"), 1L);
+        verify(repository, times(1)).findById(1L);
+
+        when(repository.findSubtreeSum(1L)).thenReturn(Optional.of(new BigDecimal("150")));
+        assertEquals(0, new BigDecimal("150").compareTo(cachedService.calculateSum(1L)));
+        assertEquals(1, cachedService.getSumCacheStats().invalidations());
+    }
+
     @Test
     @DisplayName("Should throw exception when calculating sum for non-existent transaction")
     void calculateSum_NotFound_ThrowsException() {
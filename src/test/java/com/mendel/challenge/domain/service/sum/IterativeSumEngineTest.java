@@ -0,0 +1,73 @@
+package com.mendel.challenge.domain.service.sum;
+
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IterativeSumEngineTest {
+
+    @Mock
+    private TransactionRepository repository;
+
+    private final IterativeSumEngine engine = new IterativeSumEngine();
+
+    @Test
+    @DisplayName("Should sum a deep parent chain without recursion")
+    void shouldSumDeepChainWithoutRecursion() {
+        int depth = 100_000;
+
+        // Cada id tiene como único hijo al id siguiente
+        when(repository.findChildrenOf(anyLong())).thenAnswer(invocation -> {
+            long id = invocation.getArgument(0);
+            return id < depth ? List.of(transaction(id + 1, "1", id)) : List.of();
+        });
+
+        BigDecimal sum = engine.sum(transaction(1L, "100", null), repository);
+
+        assertThat(sum).isEqualByComparingTo(new BigDecimal(100 + depth - 1));
+    }
+
+    @Test
+    @DisplayName("Should reuse scratch buffers across calls")
+    void shouldReuseScratchBuffersAcrossCalls() {
+        when(repository.findChildrenOf(anyLong())).thenAnswer(invocation -> {
+            long id = invocation.getArgument(0);
+            return id == 1L ? List.of(transaction(2L, "50", 1L), transaction(3L, "30", 1L)) : List.of();
+        });
+
+        Transaction root = transaction(1L, "100", null);
+
+        assertThat(engine.sum(root, repository)).isEqualByComparingTo(new BigDecimal("180"));
+        assertThat(engine.sum(root, repository)).isEqualByComparingTo(new BigDecimal("180"));
+    }
+
+    @Test
+    @DisplayName("Should stop on a cyclic parent chain and count each node once")
+    void shouldStopOnCyclicParentChain() {
+        // 1 -> 2 -> 3 -> 1: el índice de hijos vuelve a la raíz
+        when(repository.findChildrenOf(anyLong())).thenAnswer(invocation -> {
+            long id = invocation.getArgument(0);
+            return List.of(transaction(id % 3 + 1, String.valueOf(id % 3 + 1), id));
+        });
+
+        BigDecimal sum = engine.sum(transaction(1L, "1", 3L), repository);
+
+        assertThat(sum).isEqualByComparingTo(new BigDecimal("6"));
+    }
+
+    private static Transaction transaction(long id, String amount, Long parentId) {
+        return Transaction.builder().id(id).type("chain").amount(new BigDecimal(amount)).parentId(parentId).build();
+    }
+}
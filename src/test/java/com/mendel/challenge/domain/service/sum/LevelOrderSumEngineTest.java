@@ -0,0 +1,78 @@
+package com.mendel.challenge.domain.service.sum;
+
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LevelOrderSumEngineTest {
+
+    @Mock
+    private TransactionRepository repository;
+
+    private final LevelOrderSumEngine engine = new LevelOrderSumEngine();
+
+    @Test
+    @DisplayName("Should fetch children once per level and sum every node")
+    void shouldFetchChildrenOncePerLevel() {
+        /*
+         T1 (100)
+          ├── T2 (50)
+          └── T3 (30)
+               └── T4 (20)
+        */
+        Transaction t1 = transaction(1L, "100", null);
+        Transaction t2 = transaction(2L, "50", 1L);
+        Transaction t3 = transaction(3L, "30", 1L);
+        Transaction t4 = transaction(4L, "20", 3L);
+
+        when(repository.findChildrenOfAll(List.of(1L))).thenReturn(Map.of(1L, List.of(t2, t3)));
+        when(repository.findChildrenOfAll(List.of(2L, 3L))).thenReturn(orderedMap(2L, List.of(), 3L, List.of(t4)));
+        when(repository.findChildrenOfAll(List.of(4L))).thenReturn(Map.of(4L, List.of()));
+
+        BigDecimal sum = engine.sum(t1, repository);
+
+        assertThat(sum).isEqualByComparingTo(new BigDecimal("200"));
+        verify(repository, times(3)).findChildrenOfAll(any());
+        verify(repository, never()).findChildrenOf(any());
+    }
+
+    @Test
+    @DisplayName("Should not count a node twice when it appears again in the hierarchy")
+    void shouldNotCountRepeatedNodes() {
+        Transaction t1 = transaction(1L, "10", null);
+        Transaction t2 = transaction(2L, "5", 1L);
+
+        when(repository.findChildrenOfAll(List.of(1L))).thenReturn(Map.of(1L, List.of(t2)));
+        when(repository.findChildrenOfAll(List.of(2L))).thenReturn(Map.of(2L, List.of(t1)));
+
+        assertThat(engine.sum(t1, repository)).isEqualByComparingTo(new BigDecimal("15"));
+    }
+
+    private static Transaction transaction(Long id, String amount, Long parentId) {
+        return Transaction.builder().id(id).type("cars").amount(new BigDecimal(amount)).parentId(parentId).build();
+    }
+
+    private static Map<Long, List<Transaction>> orderedMap(Long k1, List<Transaction> v1, Long k2, List<Transaction> v2) {
+        Map<Long, List<Transaction>> map = new LinkedHashMap<>();
+        map.put(k1, v1);
+        map.put(k2, v2);
+        return map;
+    }
+}
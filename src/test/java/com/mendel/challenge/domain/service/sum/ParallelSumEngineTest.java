@@ -0,0 +1,69 @@
+package com.mendel.challenge.domain.service.sum;
+
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelSumEngineTest {
+
+    @Mock
+    private TransactionRepository repository;
+
+    private final ParallelSumEngine engine = new ParallelSumEngine(4, 8);
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    @DisplayName("Should split wide child lists and sum every node")
+    void shouldSplitWideChildListsAndSumEveryNode() {
+        Transaction root = transaction(1L, "100", null);
+        List<Transaction> children = new ArrayList<>();
+        for (long id = 2; id <= 1001; id++) {
+            children.add(transaction(id, "1.5", 1L));
+        }
+        Transaction grandchild = transaction(5000L, "10", 500L);
+
+        Map<Long, List<Transaction>> hierarchy = Map.of(1L, children, 500L, List.of(grandchild));
+        when(repository.findChildrenOf(anyLong()))
+                .thenAnswer(invocation -> hierarchy.getOrDefault(invocation.getArgument(0), List.of()));
+
+        BigDecimal sum = engine.sum(root, repository);
+
+        // 100 + 1000 * 1.5 + 10
+        assertThat(sum).isEqualTo(new BigDecimal("1610.0"));
+    }
+
+    @Test
+    @DisplayName("Should stay sequential for small hierarchies")
+    void shouldHandleSmallHierarchies() {
+        Transaction root = transaction(1L, "100", null);
+        Transaction child = transaction(2L, "50", 1L);
+
+        when(repository.findChildrenOf(anyLong()))
+                .thenAnswer(invocation -> 1L == (Long) invocation.getArgument(0) ? List.of(child) : List.of());
+
+        assertThat(engine.sum(root, repository)).isEqualByComparingTo(new BigDecimal("150"));
+    }
+
+    private static Transaction transaction(Long id, String amount, Long parentId) {
+        return Transaction.builder().id(id).type("cars").amount(new BigDecimal(amount)).parentId(parentId).build();
+    }
+}
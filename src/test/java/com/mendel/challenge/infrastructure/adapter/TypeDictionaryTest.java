@@ -0,0 +1,52 @@
+package com.mendel.challenge.infrastructure.adapter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TypeDictionary Unit Tests")
+class TypeDictionaryTest {
+
+    private final TypeDictionary dictionary = new TypeDictionary();
+
+    @Test
+    @DisplayName("Should assign consecutive codes once per type")
+    void shouldAssignStableCodes() {
+        assertThat(dictionary.encode("cars")).isZero();
+        assertThat(dictionary.encode("shopping")).isEqualTo(1);
+        assertThat(dictionary.encode("cars")).isZero();
+
+        assertThat(dictionary.decode(1)).isEqualTo("shopping");
+        assertThat(dictionary.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should look up a type without assigning it a code")
+    void shouldLookUpWithoutAssigning() {
+        assertThat(dictionary.lookup("cars")).isEmpty();
+        assertThat(dictionary.size()).isZero();
+
+        dictionary.encode("cars");
+
+        assertThat(dictionary.lookup("cars")).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should return the same String instance for equal types")
+    void shouldCanonicalizeTypes() {
+        String first = dictionary.canonical(new String("cars"));
+        String second = dictionary.canonical(new String("cars"));
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown codes")
+    void shouldRejectUnknownCodes() {
+        assertThatThrownBy(() -> dictionary.decode(3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("3");
+    }
+}
@@ -0,0 +1,228 @@
+package com.mendel.challenge.infrastructure.adapter.lsm;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LsmTransactionRepository Unit Tests")
+class LsmTransactionRepositoryTest {
+
+    // Memtable chico: unas pocas decenas de transacciones ya generan un segmento
+    private static final long MEMTABLE_BYTES = 4 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private LsmTransactionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    private LsmTransactionRepository open() {
+        return new LsmTransactionRepository(directory, MEMTABLE_BYTES, 3, false);
+    }
+
+    private LsmTransactionRepository restart() {
+        repository.close();
+        repository = open();
+        return repository;
+    }
+
+    private Transaction transaction(long id, String type, String amount, Long parentId) {
+        return Transaction.builder()
+                .id(id)
+                .type(type)
+                .amount(new BigDecimal(amount))
+                .parentId(parentId)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Read and Write Tests")
+    class ReadWriteTests {
+
+        @Test
+        @DisplayName("Should rebuild every field from the stored record")
+        void shouldRebuildTransactionFromRecord() {
+            Instant createdAt = Instant.parse("2024-01-15T10:30:00.123456789Z");
+            repository.save(transaction(1L, "cars", "10", null));
+            repository.save(Transaction.builder()
+                    .id(2L).type("shopping").amount(new BigDecimal("20.50")).parentId(1L).createdAt(createdAt)
+                    .build());
+
+            Transaction found = repository.findById(2L).orElseThrow();
+
+            assertThat(found.getType()).isEqualTo("shopping");
+            assertThat(found.getAmount()).isEqualTo(new BigDecimal("20.50"));
+            assertThat(found.getParentId()).isEqualTo(1L);
+            assertThat(found.getCreatedAt()).isEqualTo(createdAt);
+            assertThat(repository.findSubtreeSum(1L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return type and children index scans ordered by id")
+        void shouldScanIndexesInIdOrder() {
+            repository.save(transaction(5L, "cars", "1", null));
+            repository.save(transaction(-3L, "cars", "1", 5L));
+            repository.save(transaction(0L, "food", "1", 5L));
+            repository.save(transaction(2L, "cars", "1", 5L));
+
+            assertThat(repository.findByType("cars")).extracting(Transaction::getId).containsExactly(-3L, 2L, 5L);
+            assertThat(repository.findChildrenOf(5L)).extracting(Transaction::getId).containsExactly(-3L, 0L, 2L);
+            assertThat(repository.findByType("unknown")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should retire stale index entries when a transaction changes type or parent")
+        void shouldRetireStaleIndexEntries() {
+            repository.save(transaction(1L, "cars", "1", null));
+            repository.save(transaction(2L, "cars", "1", null));
+            repository.save(transaction(3L, "cars", "1", 1L));
+            repository.flush();
+
+            repository.save(transaction(3L, "food", "1", 2L));
+
+            assertThat(repository.findByType("cars")).extracting(Transaction::getId).containsExactly(1L, 2L);
+            assertThat(repository.findByType("food")).extracting(Transaction::getId).containsExactly(3L);
+            assertThat(repository.findChildrenOf(1L)).isEmpty();
+            assertThat(repository.findChildrenOf(2L)).extracting(Transaction::getId).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("Should report batch outcomes like the other strategies")
+        void shouldReportBatchOutcomes() {
+            repository.save(transaction(1L, "cars", "10", null));
+
+            List<InsertOutcome> outcomes = repository.saveAll(List.of(
+                    transaction(2L, "cars", "5", 1L),
+                    transaction(1L, "cars", "1", null),
+                    transaction(3L, "cars", "1", 99L),
+                    transaction(4L, "cars", "1", 2L),
+                    transaction(2L, "food", "1", null)));
+
+            assertThat(outcomes).containsExactly(
+                    InsertOutcome.INSERTED,
+                    InsertOutcome.ALREADY_EXISTS,
+                    InsertOutcome.PARENT_NOT_FOUND,
+                    InsertOutcome.INSERTED,
+                    InsertOutcome.ALREADY_EXISTS);
+            assertThat(repository.findChildrenOf(2L)).extracting(Transaction::getId).containsExactly(4L);
+            assertThat(repository.existsById(3L)).isFalse();
+            assertThat(repository.findByType("food")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Segment and Recovery Tests")
+    class SegmentRecoveryTests {
+
+        @Test
+        @DisplayName("Should recover unflushed writes from the write-ahead log after a restart")
+        void shouldRecoverFromWriteAheadLog() {
+            repository.save(transaction(1L, "cars", "10", null));
+            repository.save(transaction(2L, "shopping", "5", 1L));
+
+            LsmTransactionRepository reopened = restart();
+
+            assertThat(reopened.findById(2L)).map(Transaction::getAmount).contains(new BigDecimal("5"));
+            assertThat(reopened.findByType("shopping")).extracting(Transaction::getId).containsExactly(2L);
+            assertThat(reopened.findChildrenOf(1L)).extracting(Transaction::getId).containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("Should keep type codes stable across restarts")
+        void shouldPersistTypeDictionary() {
+            repository.save(transaction(1L, "cars", "1", null));
+            repository.save(transaction(2L, "food", "1", null));
+            repository.flush();
+
+            LsmTransactionRepository reopened = restart();
+            reopened.save(transaction(3L, "travel", "1", null));
+            reopened.save(transaction(4L, "food", "1", null));
+
+            assertThat(reopened.findById(1L)).map(Transaction::getType).contains("cars");
+            assertThat(reopened.findByType("food")).extracting(Transaction::getId).containsExactly(2L, 4L);
+            assertThat(reopened.findByType("travel")).extracting(Transaction::getId).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("Should merge segments on compaction keeping only the latest versions")
+        void shouldCompactSegments() {
+            for (long id = 0; id < 200; id++) {
+                repository.save(transaction(id, "cars", "1", id == 0 ? null : 0L));
+            }
+            repository.flush();
+            for (long id = 0; id < 200; id += 2) {
+                repository.save(transaction(id, "food", "2", null));
+            }
+            repository.flush();
+
+            repository.compact();
+
+            assertThat(repository.getSegmentCount()).isEqualTo(1);
+            assertThat(repository.findByType("cars")).hasSize(100);
+            assertThat(repository.findByType("food")).hasSize(100)
+                    .allSatisfy(found -> assertThat(found.getAmount()).isEqualTo(new BigDecimal("2")));
+            assertThat(repository.findChildrenOf(0L)).hasSize(100)
+                    .allSatisfy(found -> assertThat(found.getId() % 2).isEqualTo(1L));
+
+            LsmTransactionRepository reopened = restart();
+            assertThat(reopened.findByType("cars")).hasSize(100);
+            assertThat(reopened.findById(199L)).map(Transaction::getParentId).contains(0L);
+        }
+
+        @Test
+        @DisplayName("Should reject writes without applying them while a failed flush cannot be retried")
+        void shouldRejectWritesWhileFlushFails() throws IOException {
+            // Un directorio donde va el temporal de cada segmento hace fallar los volcados
+            List<Path> blockers = new ArrayList<>();
+            for (int generation = 1; generation <= 20; generation++) {
+                blockers.add(Files.createDirectory(directory.resolve("seg-" + generation + ".sst.tmp")));
+            }
+
+            long rejectedId = -1;
+            for (long id = 1; id <= 500 && rejectedId < 0; id++) {
+                try {
+                    repository.save(transaction(id, "cars", "1", null));
+                } catch (IllegalStateException e) {
+                    rejectedId = id;
+                }
+            }
+
+            assertThat(rejectedId).isPositive();
+            assertThat(repository.existsById(rejectedId)).isFalse();
+            assertThat(repository.existsById(rejectedId - 1)).isTrue();
+
+            for (Path blocker : blockers) {
+                Files.delete(blocker);
+            }
+            repository.save(transaction(rejectedId, "cars", "1", null));
+            repository.flush();
+
+            LsmTransactionRepository reopened = restart();
+            assertThat(reopened.findByType("cars")).hasSize((int) rejectedId);
+        }
+    }
+}
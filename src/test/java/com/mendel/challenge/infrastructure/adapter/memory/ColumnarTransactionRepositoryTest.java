@@ -0,0 +1,238 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ColumnarTransactionRepository Unit Tests")
+class ColumnarTransactionRepositoryTest {
+
+    private ColumnarTransactionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ColumnarTransactionRepository();
+    }
+
+    private Transaction transaction(long id, String type, String amount, Long parentId) {
+        return Transaction.builder()
+                .id(id)
+                .type(type)
+                .amount(new BigDecimal(amount))
+                .parentId(parentId)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Row Round Trip Tests")
+    class RoundTripTests {
+
+        @Test
+        @DisplayName("Should rebuild every field from the columns")
+        void shouldRebuildTransactionFromColumns() {
+            Instant createdAt = Instant.parse("2024-01-15T10:30:00.123Z");
+            repository.save(transaction(1L, "cars", "10", null));
+            repository.save(Transaction.builder()
+                    .id(2L).type("shopping").amount(new BigDecimal("20.50")).parentId(1L).createdAt(createdAt)
+                    .build());
+
+            Transaction found = repository.findById(2L).orElseThrow();
+
+            assertThat(found.getType()).isEqualTo("shopping");
+            assertThat(found.getAmount()).isEqualTo(new BigDecimal("20.50"));
+            assertThat(found.getParentId()).isEqualTo(1L);
+            assertThat(found.getCreatedAt()).isEqualTo(createdAt);
+            assertThat(repository.findById(1L).orElseThrow().getParentId()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should keep amounts that do not fit the scaled long")
+        void shouldKeepUnscaledAmounts() {
+            repository.save(transaction(1L, "cars", "123456789012345678901234567890.5", null));
+            repository.save(transaction(2L, "cars", "0.000001", 1L));
+
+            assertThat(repository.findById(1L).orElseThrow().getAmount())
+                    .isEqualTo(new BigDecimal("123456789012345678901234567890.5"));
+            assertThat(repository.findSubtreeSum(1L))
+                    .contains(new BigDecimal("123456789012345678901234567890.500001"));
+        }
+
+        @Test
+        @DisplayName("Should encode types in a dictionary shared by all rows")
+        void shouldEncodeTypesOnce() {
+            repository.save(transaction(1L, "cars", "1", null));
+            repository.save(transaction(2L, "cars", "1", null));
+            repository.save(transaction(3L, "shopping", "1", null));
+
+            assertThat(repository.getTypeCount()).isEqualTo(2);
+            assertThat(repository.findByType("cars")).extracting(Transaction::getId).containsExactly(1L, 2L);
+            assertThat(repository.findByType("unknown")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Subtree Sum Tests")
+    class SubtreeSumTests {
+
+        @Test
+        @DisplayName("Should keep subtree totals with the scale of BigDecimal.add")
+        void shouldKeepTotalsWithBigDecimalScale() {
+            repository.save(transaction(1L, "cars", "10", null));
+            repository.save(transaction(2L, "cars", "5.5", 1L));
+            repository.save(transaction(3L, "cars", "0.25", 2L));
+
+            assertThat(repository.findSubtreeSum(1L)).contains(new BigDecimal("15.75"));
+            assertThat(repository.findSubtreeSum(2L)).contains(new BigDecimal("5.75"));
+            assertThat(repository.findSubtreeSum(3L)).contains(new BigDecimal("0.25"));
+            assertThat(repository.findSubtreeSum(99L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should adopt children saved before their parent")
+        void shouldAdoptOrphans() {
+            repository.save(transaction(3L, "cars", "1", 2L));
+            repository.save(transaction(2L, "cars", "2", 1L));
+
+            assertThat(repository.findChildrenOf(1L)).extracting(Transaction::getId).containsExactly(2L);
+
+            repository.save(transaction(1L, "cars", "4", null));
+
+            assertThat(repository.findSubtreeSum(1L)).contains(new BigDecimal("7"));
+            assertThat(repository.findChildrenOf(2L)).extracting(Transaction::getId).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("Should move the subtree total when a transaction changes parent")
+        void shouldMoveTotalOnReparent() {
+            repository.save(transaction(1L, "cars", "10", null));
+            repository.save(transaction(2L, "cars", "20", null));
+            repository.save(transaction(3L, "cars", "5", 1L));
+            repository.save(transaction(4L, "cars", "1", 3L));
+
+            repository.save(transaction(3L, "shopping", "6", 2L));
+
+            assertThat(repository.findSubtreeSum(1L)).contains(new BigDecimal("10"));
+            assertThat(repository.findSubtreeSum(2L)).contains(new BigDecimal("27"));
+            assertThat(repository.findChildrenOf(1L)).isEmpty();
+            assertThat(repository.findByType("cars")).extracting(Transaction::getId).containsExactly(1L, 2L, 4L);
+        }
+
+        @Test
+        @DisplayName("Should report the ancestors whose totals each write changed")
+        void shouldReportChangedAncestors() {
+            List<Long> changed = new ArrayList<>();
+            assertThat(repository.setSubtreeChangeListener(changed::addAll)).isTrue();
+
+            repository.save(transaction(1L, "cars", "10", null));
+            repository.saveAll(List.of(transaction(2L, "cars", "5", 1L), transaction(3L, "cars", "1", 2L)));
+
+            assertThat(changed).containsExactly(1L, 2L, 1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Conditional Insert Tests")
+    class ConditionalInsertTests {
+
+        @Test
+        @DisplayName("Should report each batch item outcome in input order")
+        void shouldReportBatchOutcomes() {
+            repository.save(transaction(1L, "cars", "1", null));
+
+            List<InsertOutcome> outcomes = repository.saveAll(List.of(
+                    transaction(2L, "cars", "1", 1L),
+                    transaction(1L, "cars", "1", null),
+                    transaction(3L, "cars", "1", 99L),
+                    transaction(4L, "cars", "1", 2L)));
+
+            assertThat(outcomes).containsExactly(
+                    InsertOutcome.INSERTED,
+                    InsertOutcome.ALREADY_EXISTS,
+                    InsertOutcome.PARENT_NOT_FOUND,
+                    InsertOutcome.INSERTED);
+            assertThat(repository.findSubtreeSum(1L)).contains(new BigDecimal("3"));
+            assertThat(repository.existsById(3L)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should keep totals exact under concurrent inserts")
+        void shouldKeepTotalsUnderConcurrentInserts() throws Exception {
+            int size = 20_000;
+            List<Long> ids = new ArrayList<>();
+            for (long id = 1; id <= size; id++) {
+                ids.add(id);
+            }
+            Collections.shuffle(ids, new Random(42));
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (Long id : ids) {
+                    futures.add(executor.submit(() ->
+                            repository.save(transaction(id, id % 2 == 0 ? "even" : "odd", "1", id > 1 ? id / 2 : null))));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            assertThat(repository.getTransactionCount()).isEqualTo(size);
+            assertThat(repository.findSubtreeSum(1L)).contains(BigDecimal.valueOf(size));
+            assertThat(repository.findByType("even")).hasSize(size / 2);
+        }
+
+        @Test
+        @DisplayName("Should return whole rows to lookups racing with inserts")
+        void shouldReturnWholeRowsToLookupsRacingWithInserts() throws Exception {
+            int size = 20_000;
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                Future<?> writer = executor.submit(() -> {
+                    for (long id = 1; id <= size; id++) {
+                        repository.save(transaction(id, "type" + id, String.valueOf(id), id > 1 ? id - 1 : null));
+                    }
+                });
+                List<Future<?>> readers = new ArrayList<>();
+                for (int reader = 0; reader < 3; reader++) {
+                    readers.add(executor.submit(() -> {
+                        Random random = new Random();
+                        while (!writer.isDone()) {
+                            long id = 1 + random.nextInt(size);
+                            repository.findById(id).ifPresent(found -> {
+                                assertThat(found.getType()).isEqualTo("type" + id);
+                                assertThat(found.getAmount()).isEqualByComparingTo(BigDecimal.valueOf(id));
+                            });
+                            repository.findSubtreeSum(id).ifPresent(sum ->
+                                    assertThat(sum).isGreaterThanOrEqualTo(BigDecimal.valueOf(id)));
+                        }
+                    }));
+                }
+                writer.get();
+                for (Future<?> reader : readers) {
+                    reader.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            assertThat(repository.findSubtreeSum((long) size)).contains(BigDecimal.valueOf(size));
+        }
+    }
+}
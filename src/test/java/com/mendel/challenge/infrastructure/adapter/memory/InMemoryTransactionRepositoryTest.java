@@ -1,14 +1,30 @@
 package com.mendel.challenge.infrastructure.adapter.memory;
 
+import com.mendel.challenge.domain.model.InsertOutcome;
 import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -560,6 +576,135 @@ class InMemoryTransactionRepositoryTest {
         }
     }
 
+    @Nested
+    @DisplayName("Journal Recovery Tests")
+    class JournalRecoveryTests {
+
+        @TempDir
+        Path journalDirectory;
+
+        private InMemoryTransactionRepository journaled(int segmentSize) {
+            return new InMemoryTransactionRepository(new TypeDictionary(), journalDirectory, segmentSize, false);
+        }
+
+        private Transaction transaction(long id, String type, String amount, Long parentId) {
+            return Transaction.builder()
+                    .id(id)
+                    .type(type)
+                    .amount(new BigDecimal(amount))
+                    .parentId(parentId)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should rebuild transactions, indexes and subtree sums after a restart")
+        void shouldRebuildStateFromJournal() {
+            Instant createdAt = Instant.parse("2024-01-15T10:30:00.123456789Z");
+            InMemoryTransactionRepository first = journaled(1024);
+            first.save(transaction(1L, "cars", "10", null));
+            first.save(Transaction.builder()
+                    .id(2L).type("shopping").amount(new BigDecimal("123456789012345678901234567890.5"))
+                    .parentId(1L).createdAt(createdAt)
+                    .build());
+            first.insertIfAbsent(transaction(3L, "cars", "2.50", 2L));
+            first.saveAll(List.of(transaction(4L, "cars", "1", 1L), transaction(5L, "cars", "1", 99L)));
+            first.save(transaction(3L, "shopping", "3", 1L));
+            BigDecimal sumBeforeRestart = first.findSubtreeSum(1L).orElseThrow();
+            first.close();
+
+            InMemoryTransactionRepository restarted = journaled(1024);
+
+            assertThat(restarted.getTransactionCount()).isEqualTo(4);
+            assertThat(restarted.findById(2L).orElseThrow().getCreatedAt()).isEqualTo(createdAt);
+            assertThat(restarted.findByType("shopping")).extracting(Transaction::getId)
+                    .containsExactlyInAnyOrder(2L, 3L);
+            assertThat(restarted.findChildrenOf(1L)).extracting(Transaction::getId)
+                    .containsExactlyInAnyOrder(2L, 3L, 4L);
+            assertThat(restarted.findSubtreeSum(1L)).contains(sumBeforeRestart);
+            assertThat(sumBeforeRestart).isEqualByComparingTo("123456789012345678901234567904.5");
+            assertThat(restarted.existsById(5L)).isFalse();
+            restarted.close();
+        }
+
+        @Test
+        @DisplayName("Should replay records spread across rotated segments")
+        void shouldReplayRotatedSegments() {
+            InMemoryTransactionRepository first = journaled(256);
+            for (long id = 1; id <= 200; id++) {
+                first.save(transaction(id, "type-" + (id % 5), "1", id > 1 ? id / 2 : null));
+            }
+            first.close();
+
+            InMemoryTransactionRepository restarted = journaled(256);
+
+            assertThat(restarted.getTransactionCount()).isEqualTo(200);
+            assertThat(restarted.findSubtreeSum(1L)).contains(new BigDecimal("200"));
+            assertThat(restarted.findByType("type-0")).hasSize(40);
+            restarted.close();
+        }
+
+        @Test
+        @DisplayName("Should recover from the latest snapshot plus the journal tail")
+        void shouldRecoverFromSnapshotAndJournalTail() throws IOException {
+            InMemoryTransactionRepository first =
+                    new InMemoryTransactionRepository(new TypeDictionary(), journalDirectory, 256, false, 0, 4);
+            for (long id = 1; id <= 100; id++) {
+                first.save(transaction(id, "cars", "1", id > 1 ? id / 2 : null));
+            }
+            first.save(transaction(500L, "cars", "4", 999L));
+
+            assertThat(first.snapshot()).isEqualTo(101);
+
+            first.save(transaction(101L, "shopping", "5", 1L));
+            first.save(transaction(2L, "shopping", "3", 1L));
+            first.close();
+
+            try (Stream<Path> files = Files.list(journalDirectory)) {
+                assertThat(files.map(path -> path.getFileName().toString()))
+                        .filteredOn(name -> name.startsWith("snapshot-"))
+                        .hasSize(1);
+            }
+
+            InMemoryTransactionRepository restarted = journaled(256);
+
+            assertThat(restarted.getTransactionCount()).isEqualTo(102);
+            assertThat(restarted.findSubtreeSum(1L)).hasValueSatisfying(sum -> assertThat(sum).isEqualByComparingTo("107"));
+            assertThat(restarted.findSubtreeSum(2L)).hasValueSatisfying(sum -> assertThat(sum).isEqualByComparingTo("65"));
+            assertThat(restarted.findByType("shopping")).extracting(Transaction::getId)
+                    .containsExactlyInAnyOrder(2L, 101L);
+            assertThat(restarted.findChildrenOf(999L)).extracting(Transaction::getId).containsExactly(500L);
+
+            restarted.save(transaction(999L, "cars", "1", null));
+            assertThat(restarted.findSubtreeSum(999L)).hasValueSatisfying(sum -> assertThat(sum).isEqualByComparingTo("5"));
+            restarted.close();
+        }
+
+        @Test
+        @DisplayName("Should stop at a corrupt record and keep everything written before it")
+        void shouldStopAtCorruptRecord() throws IOException {
+            InMemoryTransactionRepository first = journaled(4096);
+            first.save(transaction(1L, "cars", "10", null));
+            first.save(transaction(2L, "cars", "5", 1L));
+            first.close();
+
+            Path segment = journalDirectory.resolve("journal-1.bin");
+            byte[] bytes = Files.readAllBytes(segment);
+            int last = bytes.length - 1;
+            while (bytes[last] == 0) {
+                last--;
+            }
+            bytes[last] ^= 0x7F;
+            Files.write(segment, bytes);
+
+            InMemoryTransactionRepository restarted = journaled(4096);
+
+            assertThat(restarted.existsById(1L)).isTrue();
+            assertThat(restarted.existsById(2L)).isFalse();
+            assertThat(restarted.findSubtreeSum(1L)).contains(new BigDecimal("10"));
+            restarted.close();
+        }
+    }
+
     @Nested
     @DisplayName("Exists By ID Tests")
     class ExistsByIdTests {
@@ -622,6 +767,255 @@ class InMemoryTransactionRepositoryTest {
         }
     }
 
+    @Nested
+    @DisplayName("Subtree Sum Tests")
+    class SubtreeSumTests {
+
+        @Test
+        @DisplayName("Should keep subtree totals updated along the ancestor chain")
+        void shouldKeepSubtreeTotalsUpdatedAlongAncestorChain() {
+            // Given
+            repository.save(Transaction.builder().id(1L).type("project").amount(new BigDecimal("1000")).build());
+            repository.save(Transaction.builder().id(2L).type("phase").amount(new BigDecimal("500")).parentId(1L).build());
+            repository.save(Transaction.builder().id(3L).type("task").amount(new BigDecimal("200")).parentId(2L).build());
+            repository.save(Transaction.builder().id(4L).type("task").amount(new BigDecimal("300")).parentId(1L).build());
+
+            // Then
+            assertThat(repository.findSubtreeSum(1L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(new BigDecimal("2000")));
+            assertThat(repository.findSubtreeSum(2L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(new BigDecimal("700")));
+            assertThat(repository.findSubtreeSum(3L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(new BigDecimal("200")));
+        }
+
+        @Test
+        @DisplayName("Should return empty when transaction does not exist")
+        void shouldReturnEmptyWhenTransactionDoesNotExist() {
+            assertThat(repository.findSubtreeSum(999L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should report the ancestors whose totals each write changed")
+        void shouldReportChangedAncestors() {
+            List<Long> changed = new ArrayList<>();
+            assertThat(repository.setSubtreeChangeListener(changed::addAll)).isTrue();
+
+            repository.save(Transaction.builder().id(1L).type("cars").amount(BigDecimal.TEN).build());
+            repository.insertIfAbsent(Transaction.builder().id(2L).type("cars").amount(BigDecimal.ONE).parentId(1L).build());
+            repository.saveAll(List.of(Transaction.builder().id(3L).type("cars").amount(BigDecimal.ONE).parentId(2L).build()));
+
+            assertThat(changed).containsExactly(1L, 2L, 1L);
+        }
+
+        @Test
+        @DisplayName("Should apply only the difference when a transaction is replaced")
+        void shouldApplyOnlyDifferenceWhenTransactionIsReplaced() {
+            // Given
+            repository.save(Transaction.builder().id(1L).type("cars").amount(new BigDecimal("100")).build());
+            repository.save(Transaction.builder().id(2L).type("cars").amount(new BigDecimal("50")).parentId(1L).build());
+            repository.save(Transaction.builder().id(3L).type("cars").amount(new BigDecimal("25")).parentId(2L).build());
+
+            // When
+            repository.save(Transaction.builder().id(2L).type("cars").amount(new BigDecimal("80")).parentId(1L).build());
+
+            // Then
+            assertThat(repository.findSubtreeSum(2L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(new BigDecimal("105")));
+            assertThat(repository.findSubtreeSum(1L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(new BigDecimal("205")));
+        }
+
+        @Test
+        @DisplayName("Should move subtree total when a transaction changes parent")
+        void shouldMoveSubtreeTotalWhenTransactionChangesParent() {
+            // Given
+            repository.save(Transaction.builder().id(1L).type("cars").amount(new BigDecimal("100")).build());
+            repository.save(Transaction.builder().id(2L).type("cars").amount(new BigDecimal("10")).build());
+            repository.save(Transaction.builder().id(3L).type("cars").amount(new BigDecimal("5")).parentId(1L).build());
+            repository.save(Transaction.builder().id(4L).type("cars").amount(new BigDecimal("1")).parentId(3L).build());
+
+            // When
+            repository.save(Transaction.builder().id(3L).type("cars").amount(new BigDecimal("5")).parentId(2L).build());
+
+            // Then
+            assertThat(repository.findSubtreeSum(1L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(new BigDecimal("100")));
+            assertThat(repository.findSubtreeSum(2L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(new BigDecimal("16")));
+            assertThat(repository.findChildrenOf(1L)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Conditional Insert Tests")
+    class ConditionalInsertTests {
+
+        @Test
+        @DisplayName("Should insert when id is free and parent exists")
+        void shouldInsertWhenIdIsFreeAndParentExists() {
+            repository.save(Transaction.builder().id(1L).type("cars").amount(BigDecimal.TEN).build());
+
+            InsertOutcome outcome = repository.insertIfAbsent(
+                    Transaction.builder().id(2L).type("cars").amount(BigDecimal.ONE).parentId(1L).build());
+
+            assertThat(outcome).isEqualTo(InsertOutcome.INSERTED);
+            assertThat(repository.findChildrenOf(1L)).hasSize(1);
+            assertThat(repository.findSubtreeSum(1L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(new BigDecimal("11")));
+        }
+
+        @Test
+        @DisplayName("Should keep the original transaction when id already exists")
+        void shouldKeepOriginalWhenIdAlreadyExists() {
+            repository.save(Transaction.builder().id(1L).type("cars").amount(BigDecimal.TEN).build());
+
+            InsertOutcome outcome = repository.insertIfAbsent(
+                    Transaction.builder().id(1L).type("boats").amount(BigDecimal.ONE).build());
+
+            assertThat(outcome).isEqualTo(InsertOutcome.ALREADY_EXISTS);
+            assertThat(repository.findById(1L)).get().extracting(Transaction::getType).isEqualTo("cars");
+            assertThat(repository.findByType("boats")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should reject transaction whose parent does not exist")
+        void shouldRejectWhenParentDoesNotExist() {
+            InsertOutcome outcome = repository.insertIfAbsent(
+                    Transaction.builder().id(2L).type("cars").amount(BigDecimal.ONE).parentId(1L).build());
+
+            assertThat(outcome).isEqualTo(InsertOutcome.PARENT_NOT_FOUND);
+            assertThat(repository.existsById(2L)).isFalse();
+            assertThat(repository.findChildrenOf(1L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should let exactly one of many concurrent inserts with the same id win")
+        void shouldLetExactlyOneConcurrentInsertWin() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<InsertOutcome>> futures = new ArrayList<>();
+
+            for (int i = 0; i < 32; i++) {
+                BigDecimal amount = BigDecimal.valueOf(i + 1);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return repository.insertIfAbsent(
+                            Transaction.builder().id(1L).type("cars").amount(amount).build());
+                }));
+            }
+            start.countDown();
+
+            int inserted = 0;
+            for (Future<InsertOutcome> future : futures) {
+                if (future.get(30, TimeUnit.SECONDS) == InsertOutcome.INSERTED) {
+                    inserted++;
+                }
+            }
+            executor.shutdown();
+
+            assertThat(inserted).isEqualTo(1);
+            BigDecimal stored = repository.findById(1L).orElseThrow().getAmount();
+            assertThat(repository.findSubtreeSum(1L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(stored));
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Save Tests")
+    class BatchSaveTests {
+
+        @Test
+        @DisplayName("Should insert parents and children of the same batch and aggregate subtree totals")
+        void shouldInsertBatchAndAggregateTotals() {
+            repository.save(Transaction.builder().id(1L).type("cars").amount(BigDecimal.TEN).build());
+
+            List<InsertOutcome> outcomes = repository.saveAll(List.of(
+                    Transaction.builder().id(2L).type("cars").amount(BigDecimal.ONE).parentId(1L).build(),
+                    Transaction.builder().id(3L).type("cars").amount(BigDecimal.ONE).parentId(2L).build(),
+                    Transaction.builder().id(4L).type("boats").amount(BigDecimal.ONE).parentId(2L).build(),
+                    Transaction.builder().id(5L).type("cars").amount(BigDecimal.ONE).parentId(1L).build()));
+
+            assertThat(outcomes).containsOnly(InsertOutcome.INSERTED);
+            assertThat(repository.findChildrenOf(2L)).extracting(Transaction::getId)
+                    .containsExactlyInAnyOrder(3L, 4L);
+            assertThat(repository.findSubtreeSum(1L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(new BigDecimal("14")));
+            assertThat(repository.findSubtreeSum(2L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(new BigDecimal("3")));
+        }
+
+        @Test
+        @DisplayName("Should report per-item outcomes aligned with the input")
+        void shouldReportOutcomesInInputOrder() {
+            repository.save(Transaction.builder().id(1L).type("cars").amount(BigDecimal.TEN).build());
+
+            List<InsertOutcome> outcomes = repository.saveAll(List.of(
+                    Transaction.builder().id(1L).type("boats").amount(BigDecimal.ONE).build(),
+                    Transaction.builder().id(2L).type("cars").amount(BigDecimal.ONE).parentId(99L).build(),
+                    Transaction.builder().id(3L).type("cars").amount(BigDecimal.ONE).parentId(1L).build()));
+
+            assertThat(outcomes).containsExactly(
+                    InsertOutcome.ALREADY_EXISTS, InsertOutcome.PARENT_NOT_FOUND, InsertOutcome.INSERTED);
+            assertThat(repository.findById(1L)).get().extracting(Transaction::getType).isEqualTo("cars");
+            assertThat(repository.existsById(2L)).isFalse();
+            assertThat(repository.findSubtreeSum(1L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(new BigDecimal("11")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency Tests")
+    class ConcurrencyTests {
+
+        @Test
+        @DisplayName("Should keep indexes and subtree totals consistent under concurrent saves")
+        void shouldStayConsistentUnderConcurrentSaves() throws Exception {
+            // Given: árbol de 2000 nodos (padre de i = i / 2) guardado en orden aleatorio
+            int size = 2000;
+            List<Long> ids = new ArrayList<>();
+            for (long id = 1; id <= size; id++) {
+                ids.add(id);
+            }
+            Collections.shuffle(ids, new Random(42));
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+
+            // When
+            for (Long id : ids) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return repository.save(Transaction.builder()
+                            .id(id)
+                            .type(id % 2 == 0 ? "even" : "odd")
+                            .amount(BigDecimal.ONE)
+                            .parentId(id > 1 ? id / 2 : null)
+                            .build());
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            // Then
+            assertThat(repository.getTransactionCount()).isEqualTo(size);
+            assertThat(repository.findByType("even")).hasSize(size / 2);
+            assertThat(repository.findByType("odd")).hasSize(size / 2);
+            assertThat(repository.findChildrenOf(1L)).extracting(Transaction::getId)
+                    .containsExactlyInAnyOrder(2L, 3L);
+            assertThat(repository.findSubtreeSum(1L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(BigDecimal.valueOf(size)));
+            // Subárbol de 2: nodos cuyo prefijo binario es "10"
+            long expectedUnderTwo = ids.stream().filter(id -> Long.toBinaryString(id).startsWith("10")).count();
+            assertThat(repository.findSubtreeSum(2L)).hasValueSatisfying(sum ->
+                    assertThat(sum).isEqualByComparingTo(BigDecimal.valueOf(expectedUnderTwo)));
+        }
+    }
+
     @Nested
     @DisplayName("Get Implementation Type Tests")
     class GetImplementationTypeTests {
@@ -0,0 +1,68 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LongHashSet Unit Tests")
+class LongHashSetTest {
+
+    @Test
+    @DisplayName("Should add, find and remove values including zero")
+    void shouldHandleZeroLikeAnyValue() {
+        LongHashSet set = new LongHashSet();
+
+        assertThat(set.add(0L)).isTrue();
+        assertThat(set.add(0L)).isFalse();
+        assertThat(set.add(-7L)).isTrue();
+
+        assertThat(set.contains(0L)).isTrue();
+        assertThat(set.size()).isEqualTo(2);
+        assertThat(set.toArray()).containsExactlyInAnyOrder(0L, -7L);
+
+        assertThat(set.remove(0L)).isTrue();
+        assertThat(set.remove(0L)).isFalse();
+        assertThat(set.contains(0L)).isFalse();
+        assertThat(set.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep every value reachable after growing")
+    void shouldGrowWithoutLosingValues() {
+        LongHashSet set = new LongHashSet();
+        LongStream.rangeClosed(1, 10_000).forEach(set::add);
+
+        assertThat(set.size()).isEqualTo(10_000);
+        assertThat(LongStream.rangeClosed(1, 10_000).allMatch(set::contains)).isTrue();
+        assertThat(set.contains(10_001L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep probe chains intact after removals")
+    void shouldKeepProbeChainsAfterRemovals() {
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 50_000; i++) {
+            long value = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertThat(set.add(value)).isEqualTo(expected.add(value));
+            } else {
+                assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+            }
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        assertThat(set.toArray()).containsExactlyInAnyOrder(expected.stream().mapToLong(Long::longValue).toArray());
+        for (long value = 0; value < 2_000; value++) {
+            assertThat(set.contains(value)).isEqualTo(expected.contains(value));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LongObjectHashMap Unit Tests")
+class LongObjectHashMapTest {
+
+    @Test
+    @DisplayName("Should store, replace and return previous values including key zero")
+    void shouldPutAndReplace() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        assertThat(map.put(0L, "zero")).isNull();
+        assertThat(map.put(42L, "a")).isNull();
+        assertThat(map.put(42L, "b")).isEqualTo("a");
+        assertThat(map.put(0L, "cero")).isEqualTo("zero");
+
+        assertThat(map.get(0L)).isEqualTo("cero");
+        assertThat(map.get(42L)).isEqualTo("b");
+        assertThat(map.get(43L)).isNull();
+        assertThat(map.containsKey(0L)).isTrue();
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep every entry reachable after growing")
+    void shouldGrowWithoutLosingEntries() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>(4);
+        LongStream.rangeClosed(1, 10_000).forEach(key -> map.put(key, key * 10));
+
+        assertThat(map.size()).isEqualTo(10_000);
+        assertThat(LongStream.rangeClosed(1, 10_000).allMatch(key -> map.get(key) == key * 10)).isTrue();
+        assertThat(map.containsKey(10_001L)).isFalse();
+    }
+}
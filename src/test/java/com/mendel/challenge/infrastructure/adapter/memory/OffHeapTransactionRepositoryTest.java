@@ -0,0 +1,121 @@
+package com.mendel.challenge.infrastructure.adapter.memory;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OffHeapTransactionRepository Unit Tests")
+class OffHeapTransactionRepositoryTest {
+
+    private OffHeapTransactionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new OffHeapTransactionRepository(new TypeDictionary(), 4);
+    }
+
+    private Transaction transaction(long id, String type, String amount, Long parentId) {
+        return Transaction.builder()
+                .id(id)
+                .type(type)
+                .amount(new BigDecimal(amount))
+                .parentId(parentId)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Record Round Trip Tests")
+    class RoundTripTests {
+
+        @Test
+        @DisplayName("Should rebuild every field from the off-heap record")
+        void shouldRebuildTransactionFromRecord() {
+            Instant createdAt = Instant.parse("2024-01-15T10:30:00.123Z");
+            repository.save(transaction(1L, "cars", "10", null));
+            repository.save(Transaction.builder()
+                    .id(2L).type("shopping").amount(new BigDecimal("20.50")).parentId(1L).createdAt(createdAt)
+                    .build());
+
+            Transaction found = repository.findById(2L).orElseThrow();
+
+            assertThat(found.getType()).isEqualTo("shopping");
+            assertThat(found.getAmount()).isEqualTo(new BigDecimal("20.50"));
+            assertThat(found.getParentId()).isEqualTo(1L);
+            assertThat(found.getCreatedAt()).isEqualTo(createdAt);
+            assertThat(repository.findSubtreeSum(1L)).contains(new BigDecimal("30.50"));
+        }
+
+        @Test
+        @DisplayName("Should index ids zero and negative like any other id")
+        void shouldIndexSpecialIds() {
+            repository.save(transaction(0L, "cars", "1", null));
+            repository.save(transaction(-5L, "cars", "2", 0L));
+
+            assertThat(repository.existsById(0L)).isTrue();
+            assertThat(repository.findSubtreeSum(0L)).contains(new BigDecimal("3"));
+            assertThat(repository.findChildrenOf(0L)).extracting(Transaction::getId).containsExactly(-5L);
+        }
+
+        @Test
+        @DisplayName("Should keep types in insertion order after a type change")
+        void shouldKeepTypeListsInOrder() {
+            repository.save(transaction(1L, "cars", "1", null));
+            repository.save(transaction(2L, "cars", "1", null));
+            repository.save(transaction(3L, "cars", "1", null));
+
+            repository.save(transaction(2L, "shopping", "1", null));
+            repository.save(transaction(2L, "cars", "1", null));
+
+            assertThat(repository.findByType("cars")).extracting(Transaction::getId).containsExactly(1L, 3L, 2L);
+            assertThat(repository.findByType("shopping")).isEmpty();
+            assertThat(repository.getTypeCount()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Growth Tests")
+    class GrowthTests {
+
+        @Test
+        @DisplayName("Should grow records and id index past the expected size")
+        void shouldGrowPastExpectedSize() {
+            int size = OffHeapTransactionRecords.CHUNK_SIZE + 1_000;
+            for (long id = 1; id <= size; id++) {
+                repository.save(transaction(id, "cars", "1", id > 1 ? id / 2 : null));
+            }
+
+            assertThat(repository.getTransactionCount()).isEqualTo(size);
+            assertThat(repository.findSubtreeSum(1L)).contains(BigDecimal.valueOf(size));
+            assertThat(repository.findById((long) size).orElseThrow().getParentId()).isEqualTo(size / 2L);
+            assertThat(repository.getOffHeapBytes())
+                    .isGreaterThanOrEqualTo(2L * OffHeapTransactionRecords.CHUNK_SIZE * OffHeapTransactionRecords.RECORD_BYTES);
+        }
+
+        @Test
+        @DisplayName("Should report batch outcomes like the other strategies")
+        void shouldReportBatchOutcomes() {
+            List<InsertOutcome> outcomes = repository.saveAll(List.of(
+                    transaction(1L, "cars", "1", null),
+                    transaction(2L, "cars", "1", 1L),
+                    transaction(1L, "cars", "1", null),
+                    transaction(3L, "cars", "1", 99L)));
+
+            assertThat(outcomes).containsExactly(
+                    InsertOutcome.INSERTED,
+                    InsertOutcome.INSERTED,
+                    InsertOutcome.ALREADY_EXISTS,
+                    InsertOutcome.PARENT_NOT_FOUND);
+            assertThat(repository.findSubtreeSum(1L)).contains(new BigDecimal("2"));
+        }
+    }
+}
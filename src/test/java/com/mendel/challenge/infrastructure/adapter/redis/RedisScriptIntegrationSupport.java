@@ -0,0 +1,80 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+/**
+ * Redis real en un contenedor para ejecutar los scripts Lua tal como los corre el
+ * repositorio. Sin Docker los tests se saltean.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+abstract class RedisScriptIntegrationSupport {
+
+    @Container
+    static final RedisContainer REDIS =
+            new RedisContainer(RedisContainer.DEFAULT_IMAGE_NAME.withTag(RedisContainer.DEFAULT_TAG));
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    protected static RedisTemplate<String, String> redisTemplate;
+
+    protected TypeDictionary typeDictionary;
+    protected RedisTransactionCodec codec;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getRedisHost(), REDIS.getRedisPort()));
+        connectionFactory.afterPropertiesSet();
+
+        // Mismos serializers que RedisConfig
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new TransactionPayloadSerializer());
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashValueSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void cleanRedis() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        typeDictionary = new TypeDictionary();
+        codec = new RedisTransactionCodec(typeDictionary);
+    }
+
+    protected RedisTransactionRepository newRepository() {
+        return new RedisTransactionRepository(redisTemplate, typeDictionary);
+    }
+
+    protected RedisTransactionRepository newRepository(TransactionValueCodec payloadCodec) {
+        return new RedisTransactionRepository(redisTemplate, typeDictionary, payloadCodec);
+    }
+
+    // Campos units, scale e invalid del hash subtree_sum:{id}
+    protected List<Object> subtreeCounter(Long id) {
+        return redisTemplate.opsForHash().multiGet(
+                RedisTransactionCodec.subtreeSumKey(id), RedisTransactionCodec.SUBTREE_COUNTER_FIELDS);
+    }
+}
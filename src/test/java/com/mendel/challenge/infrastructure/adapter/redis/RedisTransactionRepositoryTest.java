@@ -3,18 +3,25 @@ package com.mendel.challenge.infrastructure.adapter.redis;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mendel.challenge.domain.model.InsertOutcome;
 import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
 import com.mendel.challenge.infrastructure.adapter.redis.dto.TransactionRedisDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -37,7 +44,11 @@ class RedisTransactionRepositoryTest {
     @Mock
     private SetOperations<String, String> setOperations;
 
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
     private RedisTransactionRepository repository;
+    private TypeDictionary typeDictionary;
     private ObjectMapper objectMapper;
 
     @BeforeEach
@@ -45,14 +56,21 @@ class RedisTransactionRepositoryTest {
         // Usar lenient() para permitir que algunos tests no usen estos mocks
         lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         lenient().when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
 
-        repository = new RedisTransactionRepository(redisTemplate);
+        typeDictionary = new TypeDictionary();
+        repository = new RedisTransactionRepository(redisTemplate, typeDictionary);
 
         // ObjectMapper para assertions
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
     }
 
+    // Key del índice por código con la que se guarda el tipo
+    private String typeKey(String type) {
+        return RedisTransactionCodec.typeCodeKey(typeDictionary.encode(type));
+    }
+
     @Nested
     @DisplayName("Constructor Tests")
     class ConstructorTests {
@@ -95,9 +113,8 @@ class RedisTransactionRepositoryTest {
             assertThat(result).isNotNull();
             assertThat(result.getId()).isEqualTo(1L);
 
-            verify(valueOperations).set(eq("transaction:1"), anyString());
-            verify(setOperations).add("type:cars", "1");
-            verify(setOperations, never()).add(startsWith("children:"), anyString());
+            Object[] args = verifySaveScript(List.of("transaction:1", typeKey("cars")));
+            assertThat(args[2]).isEqualTo("");
         }
 
         @Test
@@ -118,9 +135,9 @@ class RedisTransactionRepositoryTest {
             assertThat(result).isNotNull();
             assertThat(result.getParentId()).isEqualTo(1L);
 
-            verify(valueOperations).set(eq("transaction:2"), anyString());
-            verify(setOperations).add("type:maintenance", "2");
-            verify(setOperations).add("children:1", "2");
+            Object[] args = verifySaveScript(List.of("transaction:2", typeKey("maintenance"), "children:1"));
+            assertThat(args[0]).isEqualTo("2");
+            assertThat(args[2]).isEqualTo("1");
         }
 
         @Test
@@ -144,8 +161,8 @@ class RedisTransactionRepositoryTest {
             repository.save(t2);
 
             // Then
-            verify(setOperations).add("type:cars", "1");
-            verify(setOperations).add("type:cars", "2");
+            verifySaveScript(List.of("transaction:1", typeKey("cars")));
+            verifySaveScript(List.of("transaction:2", typeKey("cars")));
         }
 
         @Test
@@ -164,16 +181,12 @@ class RedisTransactionRepositoryTest {
             repository.save(transaction);
 
             // Then
-            verify(valueOperations).set(eq("transaction:1"), argThat(json -> {
-                try {
-                    TransactionRedisDTO dto = objectMapper.readValue(json, TransactionRedisDTO.class);
-                    return dto.getId().equals(1L) &&
-                            dto.getType().equals("cars") &&
-                            dto.getAmount().compareTo(new BigDecimal("1000.00")) == 0;
-                } catch (JsonProcessingException e) {
-                    return false;
-                }
-            }));
+            String json = (String) verifySaveScript(List.of("transaction:1", typeKey("cars")))[1];
+            TransactionRedisDTO dto = objectMapper.readValue(json, TransactionRedisDTO.class);
+            assertThat(dto.getId()).isEqualTo(1L);
+            assertThat(dto.getType()).isNull();
+            assertThat(dto.getTypeCode()).isEqualTo(typeDictionary.encode("cars"));
+            assertThat(dto.getAmount()).isEqualByComparingTo(new BigDecimal("1000.00"));
         }
 
         @Test
@@ -188,7 +201,7 @@ class RedisTransactionRepositoryTest {
 
             // Simular que Redis lanza una excepción
             doThrow(new RuntimeException("Redis connection error"))
-                    .when(valueOperations).set(anyString(), anyString());
+                    .when(redisTemplate).execute(any(RedisScript.class), anyList(), any(Object[].class));
 
             // When & Then
             assertThatThrownBy(() -> repository.save(transaction))
@@ -557,7 +570,7 @@ class RedisTransactionRepositoryTest {
             repository.save(transaction);
 
             // Then
-            verify(valueOperations).set(eq("transaction:123"), anyString());
+            verifySaveScript(List.of("transaction:123", typeKey("test")));
         }
 
         @Test
@@ -574,7 +587,7 @@ class RedisTransactionRepositoryTest {
             repository.save(transaction);
 
             // Then
-            verify(setOperations).add("type:test-type", "1");
+            verifySaveScript(List.of("transaction:1", typeKey("test-type")));
         }
 
         @Test
@@ -592,7 +605,254 @@ class RedisTransactionRepositoryTest {
             repository.save(transaction);
 
             // Then
-            verify(setOperations).add("children:456", "2");
+            verifySaveScript(List.of("transaction:2", typeKey("test"), "children:456"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk Children Tests")
+    class BulkChildrenTests {
+
+        @Test
+        @DisplayName("Should pipeline SMEMBERS and resolve every child with one MGET")
+        void shouldPipelineMembersAndResolveWithOneMultiGet() throws JsonProcessingException {
+            // Given
+            Transaction child2 = Transaction.builder().id(2L).type("cars").amount(new BigDecimal("50")).parentId(1L).build();
+            Transaction child3 = Transaction.builder().id(3L).type("cars").amount(new BigDecimal("30")).parentId(5L).build();
+
+            when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                    .thenReturn(List.of(Set.of("2"), Set.of("3"), Collections.emptySet()));
+            when(valueOperations.multiGet(List.of("transaction:2", "transaction:3")))
+                    .thenReturn(List.of(
+                            objectMapper.writeValueAsString(TransactionRedisDTO.fromDomain(child2)),
+                            objectMapper.writeValueAsString(TransactionRedisDTO.fromDomain(child3))));
+
+            // When
+            Map<Long, List<Transaction>> result = repository.findChildrenOfAll(List.of(1L, 5L, 9L));
+
+            // Then
+            assertThat(result).containsOnlyKeys(1L, 5L, 9L);
+            assertThat(result.get(1L)).extracting(Transaction::getId).containsExactly(2L);
+            assertThat(result.get(5L)).extracting(Transaction::getId).containsExactly(3L);
+            assertThat(result.get(9L)).isEmpty();
+            verify(valueOperations, never()).get(anyString());
+        }
+
+        @Test
+        @DisplayName("Should skip MGET when the frontier has no children")
+        void shouldSkipMultiGetWhenFrontierHasNoChildren() {
+            when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                    .thenReturn(List.of(Collections.emptySet()));
+
+            Map<Long, List<Transaction>> result = repository.findChildrenOfAll(List.of(1L));
+
+            assertThat(result.get(1L)).isEmpty();
+            verify(valueOperations, never()).multiGet(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Save Tests")
+    class BatchSaveTests {
+
+        @Test
+        @DisplayName("Should write the batch in one pipeline and map each script result")
+        void shouldWriteBatchInOnePipeline() {
+            when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                    .thenReturn(List.of(1L, -1L, -2L));
+
+            List<InsertOutcome> outcomes = repository.saveAll(List.of(
+                    Transaction.builder().id(1L).type("cars").amount(BigDecimal.TEN).build(),
+                    Transaction.builder().id(2L).type("cars").amount(BigDecimal.TEN).build(),
+                    Transaction.builder().id(3L).type("cars").amount(BigDecimal.TEN).parentId(9L).build()));
+
+            assertThat(outcomes).containsExactly(
+                    InsertOutcome.INSERTED, InsertOutcome.ALREADY_EXISTS, InsertOutcome.PARENT_NOT_FOUND);
+            verify(redisTemplate).execute(any(RedisCallback.class));
+            verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+            verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        }
+
+        @Test
+        @DisplayName("Should assign codes for unseen types before opening the pipeline")
+        @SuppressWarnings("unchecked")
+        void shouldAssignNewTypeCodesOutsidePipeline() {
+            RedisTransactionRepository sharedRepository =
+                    new RedisTransactionRepository(redisTemplate, new RedisTypeDictionary(redisTemplate));
+            boolean[] pipelining = {false};
+            // Dentro de un pipeline Redis no devuelve resultados hasta cerrarlo
+            lenient().when(redisTemplate.execute(any(RedisScript.class),
+                    eq(List.of(RedisTypeDictionary.CODES_KEY, RedisTypeDictionary.NAMES_KEY)), eq("boats")))
+                    .thenAnswer(invocation -> pipelining[0] ? null : 5L);
+            when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+                pipelining[0] = true;
+                try {
+                    invocation.<SessionCallback<Object>>getArgument(0).execute(redisTemplate);
+                } finally {
+                    pipelining[0] = false;
+                }
+                return List.of(1L);
+            });
+
+            List<InsertOutcome> outcomes = sharedRepository.saveAll(List.of(
+                    Transaction.builder().id(1L).type("boats").amount(BigDecimal.TEN).build()));
+
+            assertThat(outcomes).containsExactly(InsertOutcome.INSERTED);
+            verify(redisTemplate).execute(any(RedisScript.class),
+                    eq(List.of("transaction:1", RedisTransactionCodec.typeCodeKey(5))), any(Object[].class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Conditional Insert Tests")
+    class ConditionalInsertTests {
+
+        @Test
+        @DisplayName("Should insert with one script call that also checks the parent key")
+        void shouldInsertWithSingleScriptCall() {
+            when(redisTemplate.execute(any(RedisScript.class),
+                    eq(List.of("transaction:2", typeKey("cars"), "children:1", "transaction:1")), any(Object[].class)))
+                    .thenReturn(1L);
+
+            InsertOutcome outcome = repository.insertIfAbsent(
+                    Transaction.builder().id(2L).type("cars").amount(BigDecimal.TEN).parentId(1L).build());
+
+            assertThat(outcome).isEqualTo(InsertOutcome.INSERTED);
+            Object[] args = verifySaveScript(List.of("transaction:2", typeKey("cars"), "children:1", "transaction:1"));
+            assertThat(args[9]).isEqualTo("1");
+            verify(redisTemplate, never()).hasKey(anyString());
+        }
+
+        @Test
+        @DisplayName("Should report existing id")
+        void shouldReportExistingId() {
+            when(redisTemplate.execute(any(RedisScript.class),
+                    eq(List.of("transaction:1", typeKey("cars"))), any(Object[].class)))
+                    .thenReturn(-1L);
+
+            InsertOutcome outcome = repository.insertIfAbsent(
+                    Transaction.builder().id(1L).type("cars").amount(BigDecimal.TEN).build());
+
+            assertThat(outcome).isEqualTo(InsertOutcome.ALREADY_EXISTS);
+        }
+
+        @Test
+        @DisplayName("Should report missing parent")
+        void shouldReportMissingParent() {
+            when(redisTemplate.execute(any(RedisScript.class),
+                    eq(List.of("transaction:2", typeKey("cars"), "children:9", "transaction:9")), any(Object[].class)))
+                    .thenReturn(-2L);
+
+            InsertOutcome outcome = repository.insertIfAbsent(
+                    Transaction.builder().id(2L).type("cars").amount(BigDecimal.TEN).parentId(9L).build());
+
+            assertThat(outcome).isEqualTo(InsertOutcome.PARENT_NOT_FOUND);
+        }
+
+        @Test
+        @DisplayName("Should not send the conditional flag on plain saves")
+        void shouldNotSendConditionalFlagOnPlainSave() {
+            repository.save(Transaction.builder().id(1L).type("cars").amount(BigDecimal.TEN).build());
+
+            assertThat(verifySaveScript(List.of("transaction:1", typeKey("cars")))).hasSize(9);
+        }
+    }
+
+    @Nested
+    @DisplayName("Subtree Counter Tests")
+    class SubtreeCounterTests {
+
+        @Test
+        @DisplayName("Should send amount as scaled integer units to the save script")
+        void shouldSendAmountAsScaledUnits() {
+            repository.save(Transaction.builder().id(1L).type("cars").amount(new BigDecimal("1000.50")).build());
+
+            Object[] args = verifySaveScript(List.of("transaction:1", typeKey("cars")));
+            assertThat(args[3]).isEqualTo("10005000");
+            assertThat(args[4]).isEqualTo("2");
+        }
+
+        @Test
+        @DisplayName("Should flag amounts that cannot be represented exactly")
+        void shouldFlagAmountsThatCannotBeRepresented() {
+            repository.save(Transaction.builder().id(1L).type("cars").amount(new BigDecimal("0.123456")).build());
+
+            Object[] args = verifySaveScript(List.of("transaction:1", typeKey("cars")));
+            assertThat(args[3]).isEqualTo("");
+        }
+
+        @Test
+        @DisplayName("Should read subtree sum from maintained counter with a single lookup")
+        void shouldReadSubtreeSumFromMaintainedCounter() {
+            when(hashOperations.multiGet("subtree_sum:1", List.of("units", "scale", "invalid")))
+                    .thenReturn(Arrays.asList("15000000", "1", null));
+
+            Optional<BigDecimal> sum = repository.findSubtreeSum(1L);
+
+            assertThat(sum).hasValue(new BigDecimal("1500.0"));
+            verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        }
+
+        @Test
+        @DisplayName("Should fall back to script traversal when counter was invalidated")
+        void shouldFallBackWhenCounterWasInvalidated() {
+            when(hashOperations.multiGet("subtree_sum:1", List.of("units", "scale", "invalid")))
+                    .thenReturn(Arrays.asList("15000000", "1", "1"));
+            when(redisTemplate.execute(any(RedisScript.class), eq(List.of("transaction:1")), any(Object[].class)))
+                    .thenReturn(List.of("OK", "0", "150000000000", "1"));
+
+            assertThat(repository.findSubtreeSum(1L)).hasValue(new BigDecimal("1500.0"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Subtree Sum Script Tests")
+    class SubtreeSumScriptTests {
+
+        @Test
+        @DisplayName("Should build exact sum from script limbs")
+        void shouldBuildExactSumFromScriptLimbs() {
+            // Given - 1500.0 acumulado con escala 8 => 150000000000 unidades
+            when(redisTemplate.execute(any(RedisScript.class), eq(List.of("transaction:1")), any(Object[].class)))
+                    .thenReturn(List.of("OK", "0", "150000000000", "1"));
+
+            // When
+            Optional<BigDecimal> sum = repository.findSubtreeSum(1L);
+
+            // Then
+            assertThat(sum).hasValue(new BigDecimal("1500.0"));
+        }
+
+        @Test
+        @DisplayName("Should combine high and low limbs")
+        void shouldCombineHighAndLowLimbs() {
+            // Given - 12345678.90 => 1234567890000000 unidades = 1234 * 10^12 + 567890000000
+            when(redisTemplate.execute(any(RedisScript.class), eq(List.of("transaction:7")), any(Object[].class)))
+                    .thenReturn(List.of("OK", "1234", "567890000000", "2"));
+
+            // When
+            Optional<BigDecimal> sum = repository.findSubtreeSum(7L);
+
+            // Then
+            assertThat(sum).hasValue(new BigDecimal("12345678.90"));
+        }
+
+        @Test
+        @DisplayName("Should return empty when script asks for client-side fallback")
+        void shouldReturnEmptyWhenScriptAsksForFallback() {
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                    .thenReturn(List.of("FALLBACK", "limit"));
+
+            assertThat(repository.findSubtreeSum(1L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return empty when transaction is missing")
+        void shouldReturnEmptyWhenTransactionIsMissing() {
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                    .thenReturn(List.of("MISSING"));
+
+            assertThat(repository.findSubtreeSum(1L)).isEmpty();
         }
     }
 
@@ -620,7 +880,7 @@ class RedisTransactionRepositoryTest {
 
             // Then - Verify save
             assertThat(saved).isNotNull();
-            verify(valueOperations).set(eq("transaction:1"), anyString());
+            verifySaveScript(List.of("transaction:1", typeKey("cars")));
 
             // When - Find
             Optional<Transaction> found = repository.findById(1L);
@@ -659,7 +919,7 @@ class RedisTransactionRepositoryTest {
             List<Transaction> children = repository.findChildrenOf(1L);
 
             // Then
-            verify(setOperations).add("children:1", "2");
+            verifySaveScript(List.of("transaction:2", typeKey("maintenance"), "children:1"));
             assertThat(children).hasSize(1);
             assertThat(children.get(0).getParentId()).isEqualTo(1L);
         }
@@ -682,11 +942,10 @@ class RedisTransactionRepositoryTest {
 
             Set<String> ids = new HashSet<>(Arrays.asList("1", "2"));
 
-            when(setOperations.members("type:cars")).thenReturn(ids);
-            when(valueOperations.get("transaction:1"))
-                    .thenReturn(objectMapper.writeValueAsString(TransactionRedisDTO.fromDomain(t1)));
-            when(valueOperations.get("transaction:2"))
-                    .thenReturn(objectMapper.writeValueAsString(TransactionRedisDTO.fromDomain(t2)));
+            // El tipo ya tiene código: se unen el índice por código y el índice por nombre
+            when(setOperations.union(List.of(typeKey("cars"), "type:cars"))).thenReturn(ids);
+            when(valueOperations.get("transaction:1")).thenReturn(repository.codec().serialize(t1));
+            when(valueOperations.get("transaction:2")).thenReturn(repository.codec().serialize(t2));
 
             // When
             repository.save(t1);
@@ -694,11 +953,15 @@ class RedisTransactionRepositoryTest {
             List<Transaction> found = repository.findByType("cars");
 
             // Then
-            verify(setOperations).add("type:cars", "1");
-            verify(setOperations).add("type:cars", "2");
+            verifySaveScript(List.of("transaction:1", typeKey("cars")));
+            verifySaveScript(List.of("transaction:2", typeKey("cars")));
             assertThat(found).hasSize(2);
         }
     }
 
-
+    private Object[] verifySaveScript(List<String> expectedKeys) {
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(expectedKeys), args.capture());
+        return args.getValue();
+    }
 }
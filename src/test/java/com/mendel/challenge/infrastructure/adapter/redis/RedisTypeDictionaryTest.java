@@ -0,0 +1,66 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedisTypeDictionary Unit Tests")
+class RedisTypeDictionaryTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private RedisTypeDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        dictionary = new RedisTypeDictionary(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should assign the code in Redis once and serve it from the local cache")
+    @SuppressWarnings("unchecked")
+    void shouldAssignInRedisOnce() {
+        when(redisTemplate.execute(any(RedisScript.class),
+                eq(List.of(RedisTypeDictionary.CODES_KEY, RedisTypeDictionary.NAMES_KEY)), eq("cars")))
+                .thenReturn(7L);
+
+        assertThat(dictionary.encode("cars")).isEqualTo(7);
+        assertThat(dictionary.encode("cars")).isEqualTo(7);
+        assertThat(dictionary.decode(7)).isEqualTo("cars");
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), any(List.class), eq("cars"));
+    }
+
+    @Test
+    @DisplayName("Should resolve codes assigned by other instances")
+    void shouldResolveForeignCodes() {
+        when(hashOperations.get(RedisTypeDictionary.NAMES_KEY, "3")).thenReturn("shopping");
+        when(hashOperations.get(RedisTypeDictionary.CODES_KEY, "unknown")).thenReturn(null);
+
+        assertThat(dictionary.decode(3)).isEqualTo("shopping");
+        assertThat(dictionary.lookup("shopping")).hasValue(3);
+        assertThat(dictionary.lookup("unknown")).isEmpty();
+    }
+}
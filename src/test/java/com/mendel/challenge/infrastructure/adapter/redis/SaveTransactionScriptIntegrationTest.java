@@ -0,0 +1,195 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("save-transaction.lua Integration Tests")
+class SaveTransactionScriptIntegrationTest extends RedisScriptIntegrationSupport {
+
+    private static Transaction transaction(long id, String amount, Long parentId) {
+        return Transaction.builder()
+                .id(id)
+                .type("script")
+                .amount(new BigDecimal(amount))
+                .parentId(parentId)
+                .build();
+    }
+
+    private Long runScript(Transaction transaction, boolean onlyIfAbsent) {
+        return redisTemplate.execute(
+                RedisTransactionCodec.SAVE_SCRIPT,
+                codec.saveScriptKeys(transaction, onlyIfAbsent),
+                RedisTransactionCodec.saveScriptArgs(transaction, codec.serialize(transaction), onlyIfAbsent));
+    }
+
+    private String storedPayload(Long id) {
+        return redisTemplate.opsForValue().get(RedisTransactionCodec.transactionKey(id));
+    }
+
+    @Nested
+    @DisplayName("Conditional Insert")
+    class ConditionalInsert {
+
+        @Test
+        @DisplayName("Should insert a transaction whose id is free")
+        void shouldInsertFreeId() {
+            assertThat(runScript(transaction(1L, "10", null), true)).isEqualTo(1L);
+            assertThat(runScript(transaction(2L, "5", 1L), true)).isEqualTo(1L);
+
+            assertThat(redisTemplate.opsForSet().members(RedisTransactionCodec.childrenKey(1L)))
+                    .containsExactly("2");
+        }
+
+        @Test
+        @DisplayName("Should return -1 and keep the stored transaction when the id exists")
+        void shouldRejectExistingId() {
+            runScript(transaction(1L, "10", null), true);
+            String original = storedPayload(1L);
+
+            Long result = runScript(transaction(1L, "99", null), true);
+
+            assertThat(result).isEqualTo(RedisTransactionCodec.SCRIPT_ALREADY_EXISTS);
+            assertThat(storedPayload(1L)).isEqualTo(original);
+            assertThat(RedisTransactionCodec.fromSubtreeCounter(subtreeCounter(1L)))
+                    .contains(new BigDecimal("10"));
+        }
+
+        @Test
+        @DisplayName("Should return -2 and write nothing when the parent is missing")
+        void shouldRejectMissingParent() {
+            Long result = runScript(transaction(2L, "5", 1L), true);
+
+            assertThat(result).isEqualTo(RedisTransactionCodec.SCRIPT_PARENT_NOT_FOUND);
+            assertThat(storedPayload(2L)).isNull();
+            assertThat(redisTemplate.hasKey(RedisTransactionCodec.childrenKey(1L))).isFalse();
+            assertThat(redisTemplate.hasKey(RedisTransactionCodec.subtreeSumKey(2L))).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should map the script codes to insert outcomes in the repository")
+        void shouldMapCodesToOutcomes() {
+            RedisTransactionRepository repository = newRepository();
+
+            assertThat(repository.insertIfAbsent(transaction(1L, "10", null))).isEqualTo(InsertOutcome.INSERTED);
+            assertThat(repository.insertIfAbsent(transaction(1L, "10", null))).isEqualTo(InsertOutcome.ALREADY_EXISTS);
+            assertThat(repository.insertIfAbsent(transaction(3L, "1", 2L))).isEqualTo(InsertOutcome.PARENT_NOT_FOUND);
+        }
+
+        @Test
+        @DisplayName("Should see a parent inserted earlier in the same batch")
+        void shouldSeeParentEarlierInBatch() {
+            RedisTransactionRepository repository = newRepository();
+
+            assertThat(repository.saveAll(List.of(
+                    transaction(1L, "10", null),
+                    transaction(2L, "5", 1L),
+                    transaction(2L, "5", 1L),
+                    transaction(4L, "1", 3L))))
+                    .containsExactly(InsertOutcome.INSERTED, InsertOutcome.INSERTED,
+                            InsertOutcome.ALREADY_EXISTS, InsertOutcome.PARENT_NOT_FOUND);
+        }
+    }
+
+    @Nested
+    @DisplayName("Subtree Counters")
+    class SubtreeCounters {
+
+        @Test
+        @DisplayName("Should add each new amount to every ancestor and raise their scale")
+        void shouldIncrementAncestors() {
+            assertThat(runScript(transaction(1L, "10", null), false)).isEqualTo(1L);
+            assertThat(runScript(transaction(2L, "2.5", 1L), false)).isEqualTo(1L);
+            assertThat(runScript(transaction(3L, "0.125", 2L), false)).isEqualTo(1L);
+
+            assertThat(subtreeCounter(1L)).containsExactly("126250", "3", null);
+            assertThat(subtreeCounter(2L)).containsExactly("26250", "3", null);
+            assertThat(subtreeCounter(3L)).containsExactly("1250", "3", null);
+            assertThat(RedisTransactionCodec.fromSubtreeCounter(subtreeCounter(1L)))
+                    .contains(new BigDecimal("12.625"));
+        }
+
+        @Test
+        @DisplayName("Should read the maintained counter from the repository")
+        void shouldReadMaintainedCounterFromRepository() {
+            RedisTransactionRepository repository = newRepository();
+            repository.save(transaction(1L, "100", null));
+            repository.save(transaction(2L, "20.5", 1L));
+            repository.save(transaction(3L, "3.25", 2L));
+
+            assertThat(repository.findSubtreeSum(1L)).contains(new BigDecimal("123.75"));
+            assertThat(repository.findSubtreeSum(2L)).contains(new BigDecimal("23.75"));
+        }
+
+        @Test
+        @DisplayName("Should return 0 and invalidate the chain when a transaction is replaced")
+        void shouldInvalidateChainOnReplace() {
+            runScript(transaction(1L, "10", null), false);
+            runScript(transaction(2L, "5", 1L), false);
+            runScript(transaction(3L, "1", 2L), false);
+
+            assertThat(runScript(transaction(3L, "2", 2L), false)).isZero();
+
+            assertThat(subtreeCounter(3L).get(2)).isEqualTo("1");
+            assertThat(subtreeCounter(2L).get(2)).isEqualTo("1");
+            assertThat(subtreeCounter(1L).get(2)).isEqualTo("1");
+            assertThat(RedisTransactionCodec.fromSubtreeCounter(subtreeCounter(1L))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should invalidate the previous parent chain when a transaction moves")
+        void shouldInvalidatePreviousParentOnMove() {
+            runScript(transaction(1L, "10", null), false);
+            runScript(transaction(2L, "20", null), false);
+            runScript(transaction(3L, "1", 1L), false);
+
+            assertThat(runScript(transaction(3L, "1", 2L), false)).isZero();
+
+            assertThat(subtreeCounter(1L).get(2)).isEqualTo("1");
+            assertThat(subtreeCounter(2L).get(2)).isEqualTo("1");
+        }
+
+        @Test
+        @DisplayName("Should return 0 and invalidate when children arrived before the parent")
+        void shouldInvalidateParentSavedAfterChildren() {
+            assertThat(runScript(transaction(2L, "5", 1L), false)).isEqualTo(1L);
+            // El padre no tenía contador: no se crea uno parcial
+            assertThat(subtreeCounter(1L)).containsOnlyNulls();
+
+            assertThat(runScript(transaction(1L, "10", null), false)).isZero();
+
+            assertThat(subtreeCounter(1L).get(2)).isEqualTo("1");
+        }
+
+        @Test
+        @DisplayName("Should return 0 and invalidate when the amount does not fit the counter scale")
+        void shouldInvalidateOnUnrepresentableAmount() {
+            runScript(transaction(1L, "10", null), false);
+
+            assertThat(runScript(transaction(2L, "0.00001", 1L), false)).isZero();
+
+            assertThat(subtreeCounter(2L).get(2)).isEqualTo("1");
+            assertThat(subtreeCounter(1L).get(2)).isEqualTo("1");
+        }
+
+        @Test
+        @DisplayName("Should leave ancestors without a counter untouched")
+        void shouldNotCreatePartialCounters() {
+            runScript(transaction(1L, "10", null), false);
+            // Datos previos a los contadores
+            redisTemplate.delete(RedisTransactionCodec.subtreeSumKey(1L));
+
+            assertThat(runScript(transaction(2L, "5", 1L), false)).isEqualTo(1L);
+
+            assertThat(subtreeCounter(1L)).containsOnlyNulls();
+            assertThat(subtreeCounter(2L)).containsExactly("50000", "0", null);
+        }
+    }
+}
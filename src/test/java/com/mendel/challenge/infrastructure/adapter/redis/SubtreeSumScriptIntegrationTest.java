@@ -0,0 +1,185 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.domain.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("subtree-sum.lua Integration Tests")
+class SubtreeSumScriptIntegrationTest extends RedisScriptIntegrationSupport {
+
+    private static Transaction transaction(long id, String amount, Long parentId) {
+        return Transaction.builder()
+                .id(id)
+                .type("script")
+                .amount(new BigDecimal(amount))
+                .parentId(parentId)
+                .build();
+    }
+
+    private List<Object> runScript(Long id) {
+        return runScript(id, RedisTransactionCodec.subtreeSumScriptArgs(id));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> runScript(Long id, Object[] args) {
+        return redisTemplate.execute(
+                RedisTransactionCodec.SUBTREE_SUM_SCRIPT,
+                List.of(RedisTransactionCodec.transactionKey(id)),
+                args);
+    }
+
+    @Nested
+    @DisplayName("Resolved Sums")
+    class ResolvedSums {
+
+        @Test
+        @DisplayName("Should carry the low limb into the high limb")
+        void shouldCarryLowLimbIntoHighLimb() {
+            RedisTransactionRepository repository = newRepository();
+            repository.save(transaction(1L, "9999.99999999", null));
+            repository.save(transaction(2L, "0.00000001", 1L));
+            repository.save(transaction(3L, "12345678.5", 2L));
+
+            List<Object> result = runScript(1L);
+
+            // 9999.99999999 + 0.00000001 llena el limb bajo: hi = 1 + 1234, lo = 567850000000
+            assertThat(result).containsExactly("OK", "1235", "567850000000", "8");
+            assertThat(RedisTransactionCodec.fromSubtreeSumScript(1L, result))
+                    .contains(new BigDecimal("12355678.50000000"));
+        }
+
+        @Test
+        @DisplayName("Should keep sums above 2^53 scaled units exact")
+        void shouldKeepSumsAbove2To53Exact() {
+            RedisTransactionRepository repository = newRepository();
+            repository.save(transaction(1L, "100000000.00000001", null));
+            repository.save(transaction(2L, "100000000.00000001", 1L));
+
+            List<Object> result = runScript(1L);
+
+            assertThat(result).containsExactly("OK", "20000", "2", "8");
+            assertThat(RedisTransactionCodec.fromSubtreeSumScript(1L, result))
+                    .contains(new BigDecimal("200000000.00000002"));
+        }
+
+        @Test
+        @DisplayName("Should drop trailing zeros beyond the script scale and keep the original scale")
+        void shouldDropTrailingZerosBeyondScriptScale() {
+            RedisTransactionRepository repository = newRepository();
+            repository.save(transaction(1L, "1.100000000", null));
+            repository.save(transaction(2L, "2", 1L));
+
+            List<Object> result = runScript(1L);
+
+            assertThat(RedisTransactionCodec.fromSubtreeSumScript(1L, result))
+                    .contains(new BigDecimal("3.100000000"));
+        }
+
+        @Test
+        @DisplayName("Should sum only the requested subtree")
+        void shouldSumOnlyRequestedSubtree() {
+            RedisTransactionRepository repository = newRepository();
+            repository.save(transaction(1L, "100", null));
+            repository.save(transaction(2L, "20.5", 1L));
+            repository.save(transaction(3L, "3.25", 2L));
+            repository.save(transaction(4L, "7", 1L));
+
+            assertThat(RedisTransactionCodec.fromSubtreeSumScript(2L, runScript(2L)))
+                    .contains(new BigDecimal("23.75"));
+        }
+
+        @Test
+        @DisplayName("Should be used by the repository once the maintained counter is invalidated")
+        void shouldResolveInvalidatedCounterThroughScript() {
+            RedisTransactionRepository repository = newRepository();
+            // El hijo llega antes que el padre: el contador del padre queda invalidado
+            repository.save(transaction(2L, "5.5", 1L));
+            repository.save(transaction(1L, "10", null));
+
+            assertThat(repository.findSubtreeSum(1L)).contains(new BigDecimal("15.5"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Missing And Fallback Statuses")
+    class FallbackStatuses {
+
+        @Test
+        @DisplayName("Should report MISSING for an unknown root")
+        void shouldReportMissingForUnknownRoot() {
+            assertThat(runScript(404L)).containsExactly("MISSING");
+        }
+
+        @Test
+        @DisplayName("Should fall back on binary payloads")
+        void shouldFallBackOnBinaryPayloads() {
+            newRepository(new BinaryTransactionValueCodec()).save(transaction(1L, "10", null));
+
+            assertThat(runScript(1L)).containsExactly("FALLBACK", "binary");
+        }
+
+        @Test
+        @DisplayName("Should fall back on significant decimals beyond the script scale")
+        void shouldFallBackOnSignificantDecimalsBeyondScale() {
+            RedisTransactionRepository repository = newRepository();
+            repository.save(transaction(1L, "1", null));
+            repository.save(transaction(2L, "1.123456789", 1L));
+
+            assertThat(runScript(1L)).containsExactly("FALLBACK", "scale");
+        }
+
+        @Test
+        @DisplayName("Should fall back when the high limb exceeds its digits")
+        void shouldFallBackOnOverflow() {
+            newRepository().save(transaction(1L, "1000000000000000000000", null));
+
+            assertThat(runScript(1L)).containsExactly("FALLBACK", "overflow");
+        }
+
+        @Test
+        @DisplayName("Should fall back when the node limit is reached")
+        void shouldFallBackOnNodeLimit() {
+            RedisTransactionRepository repository = newRepository();
+            repository.save(transaction(1L, "1", null));
+            repository.save(transaction(2L, "1", 1L));
+            repository.save(transaction(3L, "1", 1L));
+
+            Object[] args = RedisTransactionCodec.subtreeSumScriptArgs(1L);
+            args[3] = "2";
+
+            assertThat(runScript(1L, args)).containsExactly("FALLBACK", "limit");
+        }
+
+        @Test
+        @DisplayName("Should fall back on payloads without an amount")
+        void shouldFallBackOnPayloadWithoutAmount() {
+            redisTemplate.opsForValue().set(RedisTransactionCodec.transactionKey(1L), "{\"id\":1}");
+
+            assertThat(runScript(1L)).containsExactly("FALLBACK", "amount");
+        }
+
+        @Test
+        @DisplayName("Should fall back on amounts in an unexpected format")
+        void shouldFallBackOnUnexpectedAmountFormat() {
+            redisTemplate.opsForValue().set(RedisTransactionCodec.transactionKey(1L), "{\"id\":1,\"amount\":1.0E+5}");
+
+            assertThat(runScript(1L)).containsExactly("FALLBACK", "format");
+        }
+
+        @Test
+        @DisplayName("Should leave the sum to the caller when the script falls back")
+        void shouldReturnEmptyFromRepositoryOnFallback() {
+            RedisTransactionRepository repository = newRepository();
+            repository.save(transaction(2L, "1.123456789", 1L));
+            repository.save(transaction(1L, "1", null));
+
+            assertThat(repository.findSubtreeSum(1L)).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TieredTransactionRepository Unit Tests")
+class TieredTransactionRepositoryTest {
+
+    @Mock
+    private RedisTransactionRepository l2;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    private final RedisTransactionCodec codec = new RedisTransactionCodec(new TypeDictionary());
+    private TieredTransactionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        lenient().when(l2.codec()).thenReturn(codec);
+
+        repository = new TieredTransactionRepository(l2, redisTemplate, 4, 2, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    private Transaction transaction(long id, Long parentId) {
+        return Transaction.builder().id(id).type("cars").amount(BigDecimal.TEN).parentId(parentId).build();
+    }
+
+    @Nested
+    @DisplayName("Write-Through Tests")
+    class WriteThroughTests {
+
+        @Test
+        @DisplayName("Should write to Redis and serve later reads from L1")
+        void shouldWriteThroughAndReadFromL1() {
+            Transaction tx = transaction(1L, null);
+
+            repository.save(tx);
+
+            verify(l2).save(tx);
+            assertThat(repository.findById(1L)).contains(tx);
+            verify(l2, never()).findById(1L);
+        }
+
+        @Test
+        @DisplayName("Should only cache inserted transactions")
+        void shouldOnlyCacheInsertedTransactions() {
+            Transaction tx = transaction(1L, 99L);
+            when(l2.insertIfAbsent(tx)).thenReturn(InsertOutcome.PARENT_NOT_FOUND);
+            when(l2.findById(1L)).thenReturn(Optional.empty());
+
+            assertThat(repository.insertIfAbsent(tx)).isEqualTo(InsertOutcome.PARENT_NOT_FOUND);
+            assertThat(repository.findById(1L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should answer ALREADY_EXISTS from L1 without calling Redis")
+        void shouldDetectDuplicateFromL1() {
+            Transaction tx = transaction(1L, null);
+            repository.save(tx);
+
+            assertThat(repository.insertIfAbsent(tx)).isEqualTo(InsertOutcome.ALREADY_EXISTS);
+            verify(l2, never()).insertIfAbsent(any());
+        }
+
+        @Test
+        @DisplayName("Should not cache when Redis rejects the write")
+        void shouldNotCacheWhenRedisFails() {
+            Transaction tx = transaction(1L, null);
+            when(l2.save(tx)).thenThrow(new RuntimeException("Redis down"));
+            when(l2.existsById(1L)).thenReturn(false);
+
+            try {
+                repository.save(tx);
+            } catch (RuntimeException ignored) {
+                // esperado
+            }
+
+            assertThat(repository.existsById(1L)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Read Path Tests")
+    class ReadPathTests {
+
+        @Test
+        @DisplayName("Should populate L1 on a Redis hit")
+        void shouldPopulateL1OnMiss() {
+            Transaction tx = transaction(1L, null);
+            when(l2.findById(1L)).thenReturn(Optional.of(tx));
+
+            repository.findById(1L);
+            repository.findById(1L);
+
+            verify(l2).findById(1L);
+            assertThat(repository.getL1Stats().hits()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should read the type index from Redis and MGET only L1 misses")
+        void shouldMultiGetOnlyMisses() {
+            Transaction cached = transaction(1L, null);
+            Transaction stored = transaction(2L, null);
+            repository.save(cached);
+            when(l2.typeMemberIds("cars")).thenReturn(new LinkedHashSet<>(List.of("1", "2")));
+            when(valueOperations.multiGet(List.of("transaction:2")))
+                    .thenReturn(List.of(codec.serialize(stored)));
+
+            List<Transaction> result = repository.findByType("cars");
+
+            assertThat(result).containsExactly(cached, stored);
+        }
+
+        @Test
+        @DisplayName("Should group pipelined children by parent")
+        void shouldGroupChildrenByParent() {
+            Transaction child = transaction(3L, 1L);
+            repository.save(child);
+            when(l2.pipelinedChildIds(List.of(1L, 2L)))
+                    .thenReturn(List.of(Set.of("3"), Set.of()));
+
+            Map<Long, List<Transaction>> result = repository.findChildrenOfAll(List.of(1L, 2L));
+
+            assertThat(result.get(1L)).containsExactly(child);
+            assertThat(result.get(2L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should evict least recently used entries once L1 is full")
+        void shouldEvictWhenFull() {
+            for (long id = 1; id <= 10; id++) {
+                repository.save(transaction(id, null));
+            }
+
+            assertThat(repository.getL1Stats().size()).isLessThanOrEqualTo(4);
+            assertThat(repository.getL1Stats().evictions()).isGreaterThan(0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Warm-Up Tests")
+    class WarmUpTests {
+
+        @Test
+        @DisplayName("Should load scanned transactions into L1")
+        @SuppressWarnings("unchecked")
+        void shouldWarmUpFromScan() throws Exception {
+            Cursor<String> cursor = org.mockito.Mockito.mock(Cursor.class);
+            List<String> keys = new ArrayList<>(List.of("transaction:1", "transaction:2", "transaction:3"));
+            when(cursor.hasNext()).thenAnswer(invocation -> !keys.isEmpty());
+            when(cursor.next()).thenAnswer(invocation -> keys.remove(0));
+            when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+            when(valueOperations.multiGet(List.of("transaction:1", "transaction:2")))
+                    .thenReturn(List.of(codec.serialize(transaction(1L, null)), codec.serialize(transaction(2L, null))));
+            when(valueOperations.multiGet(List.of("transaction:3")))
+                    .thenReturn(List.of(codec.serialize(transaction(3L, null))));
+
+            int loaded = repository.warmUp().get();
+
+            assertThat(loaded).isEqualTo(3);
+            assertThat(repository.existsById(3L)).isTrue();
+            verify(l2, never()).existsById(3L);
+        }
+
+        @Test
+        @DisplayName("Should stop an in-flight warm-up and its loaders on close")
+        @SuppressWarnings("unchecked")
+        void shouldStopWarmUpOnClose() throws Exception {
+            Cursor<String> cursor = org.mockito.Mockito.mock(Cursor.class);
+            when(cursor.hasNext()).thenReturn(true);
+            when(cursor.next()).thenReturn("transaction:1");
+            when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+            CountDownLatch loading = new CountDownLatch(1);
+            when(valueOperations.multiGet(anyList())).thenAnswer(invocation -> {
+                loading.countDown();
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return List.of();
+            });
+
+            CompletableFuture<Integer> warmUp = repository.warmUp();
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            repository.close();
+
+            assertThat(warmUp.get(5, TimeUnit.SECONDS)).isZero();
+        }
+    }
+}
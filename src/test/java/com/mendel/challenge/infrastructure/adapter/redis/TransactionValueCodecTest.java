@@ -0,0 +1,164 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TransactionValueCodec Unit Tests")
+class TransactionValueCodecTest {
+
+    private final BinaryTransactionValueCodec binary = new BinaryTransactionValueCodec();
+    private final JsonTransactionValueCodec json = new JsonTransactionValueCodec();
+    private TypeDictionary typeDictionary;
+
+    @BeforeEach
+    void setUp() {
+        typeDictionary = new TypeDictionary();
+        typeDictionary.encode("cars");
+        typeDictionary.encode("shopping");
+    }
+
+    private Transaction transaction(long id, String amount, Long parentId, Instant createdAt) {
+        return Transaction.builder()
+                .id(id)
+                .type("shopping")
+                .amount(new BigDecimal(amount))
+                .parentId(parentId)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private Transaction roundTrip(Transaction transaction) {
+        String payload = binary.encode(transaction, typeDictionary.encode(transaction.getType()));
+        return binary.decode(payload, typeDictionary::decode);
+    }
+
+    @Nested
+    @DisplayName("Binary Format Tests")
+    class BinaryFormatTests {
+
+        @Test
+        @DisplayName("Should round trip every field exactly")
+        void shouldRoundTripEveryField() {
+            Transaction original = transaction(42L, "20.50", 7L, Instant.parse("2024-01-15T10:30:00.123456789Z"));
+
+            Transaction decoded = roundTrip(original);
+
+            assertThat(decoded.getId()).isEqualTo(42L);
+            assertThat(decoded.getType()).isEqualTo("shopping");
+            assertThat(decoded.getAmount()).isEqualTo(new BigDecimal("20.50"));
+            assertThat(decoded.getParentId()).isEqualTo(7L);
+            assertThat(decoded.getCreatedAt()).isEqualTo(original.getCreatedAt());
+        }
+
+        @Test
+        @DisplayName("Should keep negative ids, missing parents and pre-epoch dates")
+        void shouldKeepEdgeValues() {
+            Instant beforeEpoch = Instant.parse("1969-12-31T23:59:59.999500Z");
+
+            Transaction decoded = roundTrip(transaction(Long.MIN_VALUE, "0", null, beforeEpoch));
+
+            assertThat(decoded.getId()).isEqualTo(Long.MIN_VALUE);
+            assertThat(decoded.getParentId()).isNull();
+            assertThat(decoded.getCreatedAt()).isEqualTo(beforeEpoch);
+        }
+
+        @Test
+        @DisplayName("Should keep amounts that do not fit a scaled long")
+        void shouldKeepBigAmounts() {
+            Transaction decoded = roundTrip(transaction(1L, "123456789012345678901234567890.123456789", null,
+                    Instant.parse("2024-01-15T10:30:00Z")));
+
+            assertThat(decoded.getAmount()).isEqualTo(new BigDecimal("123456789012345678901234567890.123456789"));
+        }
+
+        @Test
+        @DisplayName("Should store a typical transaction in 18 bytes against 91 for JSON")
+        void shouldBeSmallerThanJson() {
+            Transaction original = transaction(123456L, "1500.75", 123L, Instant.parse("2024-01-15T10:30:00.123Z"));
+            int code = typeDictionary.encode(original.getType());
+            TransactionPayloadSerializer serializer = new TransactionPayloadSerializer();
+
+            assertThat(serializer.serialize(binary.encode(original, code))).hasSize(18);
+            assertThat(serializer.serialize(json.encode(original, code))).hasSize(91);
+        }
+
+        @Test
+        @DisplayName("Should write binary payloads one byte per char and round trip them")
+        void shouldSerializeBinaryPayloadsAsLatin1() {
+            String payload = binary.encode(transaction(-300L, "1500.75", 1L << 40, Instant.now()), 200);
+            TransactionPayloadSerializer serializer = new TransactionPayloadSerializer();
+
+            byte[] bytes = serializer.serialize(payload);
+
+            assertThat(bytes).hasSize(payload.length());
+            assertThat(serializer.deserialize(bytes)).isEqualTo(payload);
+        }
+
+        @Test
+        @DisplayName("Should keep other values in UTF-8")
+        void shouldSerializeOtherValuesAsUtf8() {
+            TransactionPayloadSerializer serializer = new TransactionPayloadSerializer();
+
+            assertThat(serializer.serialize("viáticos")).isEqualTo("viáticos".getBytes(StandardCharsets.UTF_8));
+            assertThat(serializer.deserialize("viáticos".getBytes(StandardCharsets.UTF_8))).isEqualTo("viáticos");
+        }
+
+        @Test
+        @DisplayName("Should reject a truncated payload")
+        void shouldRejectTruncatedPayload() {
+            String payload = binary.encode(transaction(1L, "10", 2L, Instant.now()), 0);
+
+            assertThatThrownBy(() -> binary.decode(payload.substring(0, 4), typeDictionary::decode))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Migration Tests")
+    class MigrationTests {
+
+        @Test
+        @DisplayName("Should read JSON and binary payloads whatever the write format")
+        void shouldReadBothFormats() {
+            Transaction original = transaction(5L, "10", 1L, Instant.parse("2024-01-15T10:30:00Z"));
+            RedisTransactionCodec binaryWriter = new RedisTransactionCodec(typeDictionary, binary);
+            RedisTransactionCodec jsonWriter = new RedisTransactionCodec(typeDictionary, json);
+
+            String binaryPayload = binaryWriter.serialize(original);
+            String jsonPayload = jsonWriter.serialize(original);
+
+            assertThat(jsonPayload).startsWith("{");
+            assertThat(binaryPayload.charAt(0)).isEqualTo(BinaryTransactionValueCodec.MARKER);
+            assertThat(jsonWriter.deserialize(binaryPayload)).usingRecursiveComparison().isEqualTo(original);
+            assertThat(binaryWriter.deserialize(jsonPayload)).usingRecursiveComparison().isEqualTo(original);
+        }
+
+        @Test
+        @DisplayName("Should keep text journals in JSON with the binary format")
+        void shouldJournalAsJson() {
+            RedisTransactionCodec codec = new RedisTransactionCodec(typeDictionary, binary);
+
+            assertThat(codec.serializeJson(transaction(5L, "10", null, Instant.now()))).startsWith("{");
+        }
+
+        @Test
+        @DisplayName("Should resolve payload formats by name")
+        void shouldResolveFormatsByName() {
+            assertThat(TransactionValueCodec.forFormat("binary")).isInstanceOf(BinaryTransactionValueCodec.class);
+            assertThat(TransactionValueCodec.forFormat("json")).isInstanceOf(JsonTransactionValueCodec.class);
+            assertThatThrownBy(() -> TransactionValueCodec.forFormat("xml"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
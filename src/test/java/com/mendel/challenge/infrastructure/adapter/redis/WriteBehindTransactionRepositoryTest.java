@@ -0,0 +1,202 @@
+package com.mendel.challenge.infrastructure.adapter.redis;
+
+import com.mendel.challenge.domain.model.InsertOutcome;
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.domain.port.out.RepositoryOverloadedException;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WriteBehindTransactionRepository Unit Tests")
+class WriteBehindTransactionRepositoryTest {
+
+    @Mock
+    private RedisTransactionRepository redis;
+
+    @TempDir
+    Path journalDir;
+
+    private WriteBehindTransactionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redis.codec()).thenReturn(new RedisTransactionCodec(new TypeDictionary()));
+        // Sin flusher en background: los tests vuelcan a mano
+        repository = newRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    private WriteBehindTransactionRepository newRepository() {
+        return newRepository(1000);
+    }
+
+    private WriteBehindTransactionRepository newRepository(int maxPending) {
+        return new WriteBehindTransactionRepository(redis, journalDir, false, 2, 0, maxPending);
+    }
+
+    private Transaction transaction(long id, Long parentId) {
+        return Transaction.builder().id(id).type("cars").amount(BigDecimal.TEN).parentId(parentId).build();
+    }
+
+    @Nested
+    @DisplayName("Unflushed Reads Tests")
+    class UnflushedReadsTests {
+
+        @Test
+        @DisplayName("Should serve unflushed writes without writing to Redis")
+        void shouldServeUnflushedWrites() {
+            repository.save(transaction(1L, null));
+            repository.save(transaction(2L, 1L));
+
+            assertThat(repository.findById(2L)).isPresent();
+            assertThat(repository.existsById(1L)).isTrue();
+            assertThat(repository.findChildrenOf(1L)).extracting(Transaction::getId).containsExactly(2L);
+            assertThat(repository.findByType("cars")).hasSize(2);
+            verify(redis, never()).pipelinedSave(anyList(), anyBoolean());
+        }
+
+        @Test
+        @DisplayName("Should merge unflushed children with children stored in Redis")
+        void shouldMergeWithStoredChildren() {
+            when(redis.findChildrenOf(1L)).thenReturn(List.of(transaction(3L, 1L)));
+            repository.save(transaction(2L, 1L));
+
+            assertThat(repository.findChildrenOf(1L)).extracting(Transaction::getId)
+                    .containsExactlyInAnyOrder(2L, 3L);
+        }
+
+        @Test
+        @DisplayName("Should not use the Redis subtree total when a pending write lands under it")
+        void shouldSkipSubtreeTotalWithPendingDescendant() {
+            // 3 pendiente cuelga de 2, que ya está en Redis bajo 1
+            when(redis.findParentIds(any())).thenReturn(Map.of(2L, 1L));
+            repository.save(transaction(3L, 2L));
+
+            assertThat(repository.findSubtreeSum(1L)).isEmpty();
+            verify(redis, never()).findSubtreeSum(any());
+        }
+
+        @Test
+        @DisplayName("Should use the Redis subtree total when pending writes are elsewhere")
+        void shouldUseSubtreeTotalWithPendingElsewhere() {
+            when(redis.findParentIds(any())).thenReturn(Map.of(2L, 9L));
+            when(redis.findSubtreeSum(1L)).thenReturn(Optional.of(BigDecimal.ONE));
+            repository.save(transaction(3L, 2L));
+
+            assertThat(repository.findSubtreeSum(1L)).contains(BigDecimal.ONE);
+        }
+    }
+
+    @Nested
+    @DisplayName("Conditional Insert Tests")
+    class ConditionalInsertTests {
+
+        @Test
+        @DisplayName("Should detect duplicates in the overlay without a Redis round trip")
+        void shouldDetectDuplicatesInOverlay() {
+            repository.save(transaction(1L, null));
+
+            assertThat(repository.insertIfAbsent(transaction(1L, null))).isEqualTo(InsertOutcome.ALREADY_EXISTS);
+            verify(redis, never()).existsById(1L);
+        }
+
+        @Test
+        @DisplayName("Should accept a child whose parent is still unflushed")
+        void shouldAcceptChildOfUnflushedParent() {
+            repository.save(transaction(1L, null));
+
+            assertThat(repository.insertIfAbsent(transaction(2L, 1L))).isEqualTo(InsertOutcome.INSERTED);
+        }
+
+        @Test
+        @DisplayName("Should reject a child whose parent is nowhere")
+        void shouldRejectOrphan() {
+            assertThat(repository.insertIfAbsent(transaction(2L, 1L))).isEqualTo(InsertOutcome.PARENT_NOT_FOUND);
+            assertThat(repository.getPendingCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Flush Tests")
+    class FlushTests {
+
+        @Test
+        @DisplayName("Should write pending transactions in pipelined batches and release them")
+        void shouldFlushInPipelinedBatches() {
+            repository.save(transaction(1L, null));
+            repository.save(transaction(2L, 1L));
+            repository.save(transaction(3L, 1L));
+
+            repository.flush();
+
+            // batch-size 2 => dos pipelines para tres transacciones, sin recalcular totales
+            verify(redis).loadSaveScript();
+            verify(redis, times(2)).pipelinedSave(anyList(), eq(false));
+            assertThat(repository.getPendingCount()).isZero();
+            assertThat(journalDir.toFile().list()).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Should keep transactions and recover them from the journal when Redis fails")
+        void shouldRecoverFromJournalAfterFailedFlush() {
+            doThrow(new RuntimeException("Redis down")).when(redis).pipelinedSave(anyList(), anyBoolean());
+            repository.save(transaction(1L, null));
+
+            assertThatThrownBy(() -> repository.flush()).hasMessage("Redis down");
+            assertThat(repository.findById(1L)).isPresent();
+
+            repository.close();
+            repository = newRepository();
+
+            assertThat(repository.getPendingCount()).isEqualTo(1);
+            assertThat(repository.findById(1L)).isPresent();
+        }
+
+        @Test
+        @DisplayName("Should reject new writes without accepting them when the overlay is full and Redis fails")
+        void shouldRejectWritesAtLimitWhenRedisFails() {
+            repository.close();
+            repository = newRepository(2);
+            doThrow(new RuntimeException("Redis down")).when(redis).pipelinedSave(anyList(), anyBoolean());
+            repository.save(transaction(1L, null));
+            repository.save(transaction(2L, 1L));
+
+            assertThatThrownBy(() -> repository.save(transaction(3L, 1L)))
+                    .isInstanceOf(RepositoryOverloadedException.class);
+            assertThatThrownBy(() -> repository.insertIfAbsent(transaction(4L, null)))
+                    .isInstanceOf(RepositoryOverloadedException.class);
+            assertThat(repository.getPendingCount()).isEqualTo(2);
+            assertThat(repository.existsById(3L)).isFalse();
+
+            // Con Redis de vuelta el volcado en línea libera lugar y la escritura entra
+            doReturn(List.of()).when(redis).pipelinedSave(anyList(), anyBoolean());
+            assertThat(repository.insertIfAbsent(transaction(4L, null))).isEqualTo(InsertOutcome.INSERTED);
+            assertThat(repository.getPendingCount()).isEqualTo(1);
+        }
+    }
+}
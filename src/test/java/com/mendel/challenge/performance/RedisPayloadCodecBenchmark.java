@@ -0,0 +1,88 @@
+package com.mendel.challenge.performance;
+
+import com.mendel.challenge.domain.model.Transaction;
+import com.mendel.challenge.infrastructure.adapter.TypeDictionary;
+import com.mendel.challenge.infrastructure.adapter.redis.BinaryTransactionValueCodec;
+import com.mendel.challenge.infrastructure.adapter.redis.JsonTransactionValueCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificar y decodificar un payload de Redis con Jackson (el formato JSON actual) contra
+ * el formato binario. La decodificación es la que pesa en los recorridos: cada hijo leído
+ * se decodifica una vez. No termina en *Test, así que surefire no lo corre; se ejecuta
+ * con el {@code main} desde el classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisPayloadCodecBenchmark {
+
+    private final JsonTransactionValueCodec json = new JsonTransactionValueCodec();
+    private final BinaryTransactionValueCodec binary = new BinaryTransactionValueCodec();
+    private final TypeDictionary typeDictionary = new TypeDictionary();
+
+    private Transaction transaction;
+    private int typeCode;
+    private String jsonPayload;
+    private String binaryPayload;
+
+    @Setup
+    public void setUp() {
+        transaction = Transaction.builder()
+                .id(123_456L)
+                .type("shopping")
+                .amount(new BigDecimal("1500.75"))
+                .parentId(123L)
+                .createdAt(Instant.parse("2024-01-15T10:30:00.123456Z"))
+                .build();
+        typeCode = typeDictionary.encode(transaction.getType());
+        jsonPayload = json.encode(transaction, typeCode);
+        binaryPayload = binary.encode(transaction, typeCode);
+    }
+
+    @Benchmark
+    public String encodeJson() {
+        return json.encode(transaction, typeCode);
+    }
+
+    @Benchmark
+    public String encodeBinary() {
+        return binary.encode(transaction, typeCode);
+    }
+
+    @Benchmark
+    public Transaction decodeJson() {
+        return json.decode(jsonPayload, typeDictionary::decode);
+    }
+
+    @Benchmark
+    public Transaction decodeBinary() {
+        return binary.decode(binaryPayload, typeDictionary::decode);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RedisPayloadCodecBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
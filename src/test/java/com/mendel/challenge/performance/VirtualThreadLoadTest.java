@@ -0,0 +1,178 @@
+package com.mendel.challenge.performance;
+
+import com.mendel.challenge.ApplicationMendelChallenge;
+import com.mendel.challenge.domain.port.out.TransactionRepository;
+import com.mendel.challenge.infrastructure.adapter.memory.InMemoryTransactionRepository;
+import com.mendel.challenge.infrastructure.config.ThreadingConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Igual que {@code TransactionApiLoadTest.concurrentStressTest} pero con miles de clientes
+ * concurrentes y latencia de Redis simulada en cada llamada al repositorio. Levanta la app
+ * una vez con el pool de hilos de plataforma y otra con hilos virtuales, y reporta
+ * throughput y p99 de ambas. La mitad virtual necesita Java 21+: {@code mvn test
+ * -Pvirtual-threads} la corre en el JDK de {@code JAVA21_HOME} y falla si no es 21+.
+ */
+@Slf4j
+public class VirtualThreadLoadTest {
+
+    private static final int CLIENTS = 2000;
+    private static final int REQUESTS_PER_CLIENT = 10;
+    private static final long REDIS_LATENCY_MS = 20;
+
+    @Test
+    void virtualThreadsVersusPlatformPoolUnderRedisLatency() throws Exception {
+        if (Boolean.getBoolean("loadtest.require-virtual-threads")) {
+            assertThat(ThreadingConfig.virtualThreadsSupported())
+                    .as("virtual-threads profile needs JAVA21_HOME pointing to a Java 21+ JDK, got Java %d",
+                            Runtime.version().feature())
+                    .isTrue();
+        }
+
+        LoadResult platform = runAgainst(false);
+        log.info(platform.describe("platform threads (tomcat max 200)"));
+
+        if (!ThreadingConfig.virtualThreadsSupported()) {
+            log.info("virtual threads: skipped, running on Java {}", Runtime.version().feature());
+            return;
+        }
+
+        LoadResult virtual = runAgainst(true);
+        log.info(virtual.describe("virtual threads"));
+        log.info("speedup: {}x throughput, p99 {} ms -> {} ms",
+                String.format("%.2f", virtual.throughput() / platform.throughput()),
+                platform.p99Millis(), virtual.p99Millis());
+    }
+
+    private LoadResult runAgainst(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                ApplicationMendelChallenge.class, SimulatedRedisLatency.class)
+                .properties(
+                        "server.port=0",
+                        "storage.strategy=memory",
+                        "sum.cache.max-size=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "loadtest.redis-latency-ms=" + REDIS_LATENCY_MS,
+                        "logging.level.com.mendel=WARN",
+                        // El contexto reconfigura logback: los resultados del test se siguen viendo
+                        "logging.level.com.mendel.challenge.performance=INFO")
+                .run()) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return generateLoad("http://localhost:" + port + "/api/v1/transactionservice");
+        }
+    }
+
+    // Cada cliente encadena sus requests de forma asíncrona: miles de clientes sin miles de hilos
+    private LoadResult generateLoad(String baseUrl) {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        int total = CLIENTS * REQUESTS_PER_CLIENT;
+        long[] latencies = new long[total];
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicLong failures = new AtomicLong();
+
+        long start = System.nanoTime();
+        CompletableFuture<?>[] clients = new CompletableFuture<?>[CLIENTS];
+        for (int c = 0; c < CLIENTS; c++) {
+            long rootId = 1_000_000L + (long) c * REQUESTS_PER_CLIENT;
+            CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+            for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                long id = rootId + r;
+                String body = r == 0
+                        ? "{\"type\": \"stress-type\", \"amount\": 50.0}"
+                        : "{\"type\": \"stress-type\", \"amount\": 50.0, \"parentId\": " + (id - 1) + "}";
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/transaction/" + id))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+
+                chain = chain.thenCompose(ignored -> {
+                    long sent = System.nanoTime();
+                    return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                            .thenAccept(response -> {
+                                latencies[recorded.getAndIncrement()] = System.nanoTime() - sent;
+                                if (response.statusCode() != 201) {
+                                    failures.incrementAndGet();
+                                }
+                            });
+                });
+            }
+            clients[c] = chain;
+        }
+
+        CompletableFuture.allOf(clients).orTimeout(5, TimeUnit.MINUTES).join();
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(failures.get()).isZero();
+        assertThat(recorded.get()).isEqualTo(total);
+
+        Arrays.sort(latencies);
+        long p99 = latencies[(int) Math.ceil(total * 0.99) - 1];
+        return new LoadResult(total, elapsed, p99);
+    }
+
+    record LoadResult(int requests, long elapsedNanos, long p99Nanos) {
+
+        double throughput() {
+            return requests / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        long p99Millis() {
+            return TimeUnit.NANOSECONDS.toMillis(p99Nanos);
+        }
+
+        String describe(String mode) {
+            return String.format("%s: %d requests in %d ms -> %.0f req/s, p99 %d ms",
+                    mode, requests, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), throughput(), p99Millis());
+        }
+    }
+
+    // Envuelve el repositorio en memoria con la latencia de un round trip a Redis
+    static class SimulatedRedisLatency {
+
+        @Bean
+        @Primary
+        TransactionRepository latencyInjectingRepository(InMemoryTransactionRepository delegate,
+                                                         @Value("${loadtest.redis-latency-ms}") long latencyMs) {
+            return (TransactionRepository) Proxy.newProxyInstance(
+                    TransactionRepository.class.getClassLoader(),
+                    new Class<?>[]{TransactionRepository.class},
+                    (proxy, method, args) -> {
+                        if (method.getDeclaringClass() == Object.class) {
+                            return method.invoke(delegate, args);
+                        }
+                        Thread.sleep(latencyMs);
+                        try {
+                            return method.invoke(delegate, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}